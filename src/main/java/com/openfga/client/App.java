@@ -1,8 +1,36 @@
 package com.openfga.client;
 
+import com.openfga.client.dsl.Diagnostic;
+import com.openfga.client.dsl.DslCompiler;
+import com.openfga.client.dsl.DslFormatter;
+import com.openfga.client.dsl.DslRenderer;
+import com.openfga.client.dsl.ModelAst;
+import com.openfga.client.dsl.ModelDiff;
+import com.openfga.client.dsl.ParsedModel;
+import com.openfga.client.model.AuthorizationModelInfo;
+import com.openfga.client.model.ConnectionProfile;
+import com.openfga.client.model.ConsistencyPreference;
 import com.openfga.client.model.StoreInfo;
+import com.openfga.client.model.TupleKey;
+import com.openfga.client.service.AuthorizationModelCache;
+import com.openfga.client.service.ConnectionManager;
 import com.openfga.client.service.DslTransformService;
+import com.openfga.client.service.JobManager;
+import com.openfga.client.service.LogBuffer;
+import com.openfga.client.service.ModelTestRunner;
+import com.openfga.client.service.ModularModelService;
 import com.openfga.client.service.OpenFGAService;
+import com.openfga.client.service.ParallelListUsers;
+import com.openfga.client.service.PermissionMatrix;
+import com.openfga.client.service.RecursiveExpander;
+import com.openfga.client.service.WriteJournal;
+import com.openfga.client.ui.CodeEditor;
+import com.openfga.client.ui.DslAssist;
+import com.openfga.client.ui.DslHighlighter;
+import com.openfga.client.ui.JobsView;
+import com.openfga.client.ui.LogView;
+import com.openfga.client.ui.ResultListView;
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
@@ -11,25 +39,31 @@ import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.*;
+import javafx.scene.image.Image;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.TextAlignment;
 import javafx.stage.Stage;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 public class App extends Application {
 
@@ -37,9 +71,11 @@ public class App extends Application {
     private TextField bearerTokenField;
     private ComboBox<StoreInfo> storeComboBox;
     private ObservableList<StoreInfo> storeList = FXCollections.observableArrayList();
+    private ComboBox<AuthorizationModelInfo> modelComboBox;
+    private ObservableList<AuthorizationModelInfo> modelList = FXCollections.observableArrayList();
 
-    private TextArea dslTextArea;
-    private TextArea lineNumberArea;
+    private CodeEditor dslEditor;
+    private ComboBox<Integer> formatIndentBox;
     private TextArea jsonPreviewArea;
     private Label modelIdLabel;
 
@@ -62,24 +98,124 @@ public class App extends Application {
     private TextArea checkContextArea;
     private TitledPane checkFieldsPane;
     private Label checkResultLabel;
-
-    private TextArea outputArea;
-
-    // Visualization
+    private ComboBox<ConsistencyPreference> checkConsistencyBox;
+    private Spinner<Integer> compareRunsSpinner;
+    private Label compareResultLabel;
+
+    // Query - consistency preference shared by all query sections
+    private ComboBox<ConsistencyPreference> queryConsistencyBox;
+
+    // Matrix
+    private ComboBox<String> matrixModeBox;
+    private TextField matrixFixedField;
+    private TextField matrixContextField;
+    private TextArea matrixUsersArea;
+    private TextArea matrixColumnsArea;
+    private TextField matrixUserFilterField;
+    private TextField matrixObjectTypeField;
+    private TableView<Integer> matrixTable;
+    private ProgressBar matrixProgressBar;
+    private Label matrixProgressLabel;
+    private PermissionMatrix currentMatrix;
+    private javafx.animation.Timeline matrixRefreshTimeline;
+
+    // Tests
+    private java.nio.file.Path testFile;
+    private Label testFileLabel;
+    private Spinner<Integer> testParallelismSpinner;
+    private Label testSummaryLabel;
+    private ResultListView testResultView;
+    private JobManager.Job testJob;
+
+    private final LogBuffer logBuffer = new LogBuffer(LOG_CAPACITY);
+    private LogView logView;
+
+    // Visualization: a static layer with every node and edge except the one being dragged,
+    // and a drag layer above it with only the dragged node and its edges
     private Canvas graphCanvas;
+    private Canvas graphDragLayer;
     private ScrollPane graphScrollPane;
     private double nodeScale = 1.0;
     private int nodeWidth = 160;
     private List<TypeNode> currentTypes = new ArrayList<>();
     private List<ConditionNode> currentConditions = new ArrayList<>();
-    private TypeNode draggedType = null;
-    private ConditionNode draggedCondition = null;
+    private Map<GraphNode, List<GraphEdge>> graphEdges = new IdentityHashMap<>();
+    private GraphNode draggedNode = null;
     private double dragOffsetX, dragOffsetY;
-
-    private OpenFGAService fgaService;
+    // Area the drag layer painted last frame, as {x, y, width, height}; null if nothing
+    private double[] dragLayerBounds;
+    private boolean dragFramePending;
+    private AnimationTimer graphDragTimer;
+
+    private ConnectionManager connectionManager;
+    private ComboBox<ConnectionProfile> profileComboBox;
+    private ObservableList<ConnectionProfile> profileList = FXCollections.observableArrayList();
+    private ObservableList<ConnectionManager.ProbeResult> probeResults = FXCollections.observableArrayList();
     private DslTransformService dslService;
+    private CheckBox useCliCheckBox;
+    private CheckBox liveValidationCheckBox;
+    private Label liveValidationStatus;
+    private Label modelDiffLabel;
+    private ListView<Diagnostic> dslDiagnosticsList;
+    private final javafx.animation.PauseTransition liveValidationDebounce =
+            new javafx.animation.PauseTransition(javafx.util.Duration.millis(LIVE_VALIDATION_DELAY_MS));
+    private final java.util.concurrent.ExecutorService liveValidationExecutor =
+            java.util.concurrent.Executors.newSingleThreadExecutor(
+                    Thread.ofPlatform().daemon().name("live-validation").factory());
+    private java.util.concurrent.Future<?> liveValidationTask;
+    private long liveValidationGeneration;
+    private Button conformanceBtn;
+    private final ModularModelService modularModelService = new ModularModelService();
+    private java.nio.file.Path modularModelDirectory;
+    private Button applyModularBtn;
+    // Null until the CLI probe finishes
+    private Boolean cliAvailable;
+    private Tab modelTab;
+    private final Map<Tab, java.util.function.Supplier<Tab>> pendingTabs = new HashMap<>();
     private ObjectMapper jsonMapper;
+    private WriteJournal writeJournal;
+    private final JobManager jobManager = new JobManager(this::onJobFinished);
+    private AuthorizationModelCache modelCache;
     private String currentAuthModelId;
+    // Continuation token for the next page of the store's model history; empty when all are listed
+    private String modelContinuationToken = "";
+    // Bumped when the model list is reloaded, so older-model pages still in flight are dropped
+    private long modelListGeneration;
+    private Button olderModelsBtn;
+
+    // OpenFGA rejects write requests with more than 100 tuples by default
+    private static final int TUPLE_BATCH_SIZE = 100;
+
+    // Tuples reported individually when they do not fit the editor's model
+    private static final int MAX_TUPLE_WARNINGS = 10;
+
+    private static final int READ_TUPLES_PAGE_SIZE = 100;
+    private static final int MODELS_PAGE_SIZE = 50;
+
+    // Longest relation label drawn on a graph edge, in characters
+    private static final int EDGE_LABEL_MAX = 40;
+
+    // Pause in typing before the model is validated in the background
+    private static final int LIVE_VALIDATION_DELAY_MS = 300;
+
+    // Set by the AppCDS build step: build every tab once and exit
+    private static final String TRAINING_RUN_PROPERTY = "openfga.client.trainingRun";
+    // Log lines kept in memory; older lines are only available in the spill file
+    private static final int LOG_CAPACITY = 10_000;
+
+    // Upper bound on concurrent sub-expand requests during a recursive expand
+    private static final int EXPAND_PARALLELISM = 16;
+
+    // Default number of test assertions (and tuple batches) in flight at once
+    private static final int TEST_PARALLELISM = 32;
+    // Upper bound on concurrent batch-check requests while filling a permission matrix
+    private static final int MATRIX_PARALLELISM = 16;
+    private static final double MATRIX_ROW_HEIGHT = 24;
+    private static final double MATRIX_COLUMN_WIDTH = 110;
+    // Upper bound on concurrent list-users calls when several objects, relations or filters are queried
+    private static final int LIST_USERS_PARALLELISM = 16;
+    private static final String MATRIX_MODE_OBJECTS = "Users × Objects (one relation)";
+    private static final String MATRIX_MODE_RELATIONS = "Users × Relations (one object)";
 
     private static final String DEFAULT_DSL = """
 model
@@ -137,8 +273,15 @@ object: document:readme
 
     @Override
     public void start(Stage primaryStage) {
-        fgaService = new OpenFGAService();
+        connectionManager = new ConnectionManager(ConnectionManager.defaultDirectory());
+        try {
+            connectionManager.load();
+        } catch (Exception e) {
+            appendOutput("ERROR: Could not load connection profiles: " + e.getMessage());
+        }
+        profileList.setAll(connectionManager.getProfiles());
         dslService = new DslTransformService();
+        modelCache = new AuthorizationModelCache(AuthorizationModelCache.defaultDirectory());
         jsonMapper = new ObjectMapper();
         jsonMapper.enable(SerializationFeature.INDENT_OUTPUT);
 
@@ -151,14 +294,19 @@ object: document:readme
         // Center: Tabs
         TabPane tabPane = new TabPane();
         tabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+        modelTab = lazyTab("Model", this::createModelTab);
         tabPane.getTabs().addAll(
-                createStoresTab(),
-                createModelTab(),
-                createVisualizeTab(),
-                createTuplesTab(),
-                createCheckTab(),
-                createQueryTab()
+                lazyTab("Stores", this::createStoresTab),
+                modelTab,
+                lazyTab("Visualize", this::createVisualizeTab),
+                lazyTab("Tuples", this::createTuplesTab),
+                lazyTab("Check", this::createCheckTab),
+                lazyTab("Query", this::createQueryTab),
+                lazyTab("Matrix", this::createMatrixTab),
+                lazyTab("Tests", this::createTestsTab),
+                lazyTab("Jobs", this::createJobsTab)
         );
+        buildTab(tabPane.getSelectionModel().getSelectedItem());
 
         // Bottom: Output Area in adjustable SplitPane
         VBox outputPanel = createOutputPanel();
@@ -175,8 +323,54 @@ object: document:readme
         primaryStage.setScene(scene);
         primaryStage.show();
 
-        // Check CLI availability on startup
+        if (Boolean.getBoolean(TRAINING_RUN_PROPERTY)) {
+            // AppCDS training run: load every tab's classes, then exit so the archive is written
+            tabPane.getTabs().forEach(this::buildTab);
+            Platform.runLater(Platform::exit);
+            return;
+        }
+
+        // Startup work that needs neither the other nor the window runs side by side
         checkCliAvailability();
+        warmUp();
+        listStores();
+
+        // Let the window paint before a resume prompt can block it
+        Platform.runLater(this::openWriteJournal);
+    }
+
+    /**
+     * A tab whose content is built by {@code factory} the first time it is selected.
+     */
+    private Tab lazyTab(String title, java.util.function.Supplier<Tab> factory) {
+        Tab tab = new Tab(title);
+        pendingTabs.put(tab, factory);
+        tab.selectedProperty().addListener((obs, wasSelected, selected) -> {
+            if (selected) buildTab(tab);
+        });
+        return tab;
+    }
+
+    /**
+     * Build a lazy tab's content now if it has not been built yet.
+     */
+    private void buildTab(Tab tab) {
+        java.util.function.Supplier<Tab> factory = pendingTabs.remove(tab);
+        if (factory != null) {
+            tab.setContent(factory.get().getContent());
+        }
+    }
+
+    @Override
+    public void stop() throws Exception {
+        if (writeJournal != null) {
+            writeJournal.close();
+        }
+        jobManager.cancelAll();
+        liveValidationExecutor.shutdownNow();
+        if (logView != null) {
+            logView.dispose();
+        }
     }
 
     private VBox createConfigPanel() {
@@ -187,9 +381,20 @@ object: document:readme
         Label titleLabel = new Label("Configuration");
         titleLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
 
+        HBox profileBox = new HBox(10);
+        profileBox.setAlignment(Pos.CENTER_LEFT);
+        profileComboBox = new ComboBox<>(profileList);
+        profileComboBox.setPrefWidth(300);
+        profileComboBox.valueProperty().addListener((obs, oldVal, newVal) -> selectProfile(newVal));
+        Button saveProfileBtn = new Button("Save Profile");
+        saveProfileBtn.setOnAction(e -> saveProfile());
+        Button removeProfileBtn = new Button("Remove");
+        removeProfileBtn.setOnAction(e -> removeSelectedProfile());
+        profileBox.getChildren().addAll(new Label("Profile:"), profileComboBox, saveProfileBtn, removeProfileBtn);
+
         HBox urlBox = new HBox(10);
         urlBox.setAlignment(Pos.CENTER_LEFT);
-        apiUrlField = new TextField("http://localhost:18080");
+        apiUrlField = new TextField(ConnectionManager.DEFAULT_API_URL);
         apiUrlField.setPrefWidth(300);
         urlBox.getChildren().addAll(new Label("API URL:"), apiUrlField);
 
@@ -208,8 +413,28 @@ object: document:readme
         Button listStoresBtn = new Button("List Stores");
         listStoresBtn.setOnAction(e -> listStores());
         storeBox.getChildren().addAll(new Label("Store:"), storeComboBox, listStoresBtn);
-
-        configBox.getChildren().addAll(titleLabel, urlBox, tokenBox, storeBox);
+        storeComboBox.valueProperty().addListener((obs, oldVal, newVal) -> listAuthorizationModels());
+
+        HBox modelBox = new HBox(10);
+        modelBox.setAlignment(Pos.CENTER_LEFT);
+        modelComboBox = new ComboBox<>(modelList);
+        modelComboBox.setPrefWidth(300);
+        // Listing a store's models pins the newest one, so the picker is only empty while nothing is listed
+        modelComboBox.setPromptText("Select a model...");
+        modelComboBox.valueProperty().addListener((obs, oldVal, newVal) -> selectAuthorizationModel(newVal));
+        Button refreshModelsBtn = new Button("Refresh Models");
+        refreshModelsBtn.setOnAction(e -> listAuthorizationModels());
+        olderModelsBtn = new Button("Older Models");
+        olderModelsBtn.setTooltip(new Tooltip("List the next page of this store's model history"));
+        olderModelsBtn.setDisable(true);
+        olderModelsBtn.setOnAction(e -> listOlderAuthorizationModels());
+        modelBox.getChildren().addAll(new Label("Model:"), modelComboBox, refreshModelsBtn, olderModelsBtn);
+
+        configBox.getChildren().addAll(titleLabel, profileBox, urlBox, tokenBox, storeBox, modelBox);
+
+        if (!profileList.isEmpty()) {
+            profileComboBox.setValue(profileList.get(0));
+        }
         return configBox;
     }
 
@@ -249,11 +474,40 @@ object: document:readme
         deleteBox.getChildren().addAll(deleteBtn, warningLabel);
         deletePane.setContent(deleteBox);
 
-        content.getChildren().addAll(createPane, deletePane);
+        // Connection Profiles Section
+        TitledPane profilesPane = new TitledPane();
+        profilesPane.setText("Connection Profiles");
+        profilesPane.setCollapsible(false);
+
+        TableView<ConnectionManager.ProbeResult> probeTable = new TableView<>(probeResults);
+        probeTable.setPrefHeight(160);
+        probeTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        probeTable.getColumns().add(createProbeColumn("Profile", r -> r.getProfile().getName()));
+        probeTable.getColumns().add(createProbeColumn("URL", r -> r.getProfile().getApiUrl()));
+        probeTable.getColumns().add(createProbeColumn("Status", r -> r.isHealthy() ? "OK" : "DOWN: " + r.getError()));
+        probeTable.getColumns().add(createProbeColumn("Round Trip", r -> r.isHealthy() ? r.getRoundTripMillis() + " ms" : "-"));
+        probeTable.getColumns().add(createProbeColumn("Metrics", r -> r.getMetrics().toString()));
+        probeTable.setPlaceholder(new Label("Click 'Probe All' to check every profile"));
+
+        Button probeBtn = new Button("Probe All");
+        probeBtn.setOnAction(e -> probeAllProfiles());
+
+        VBox profilesBox = new VBox(10);
+        profilesBox.getChildren().addAll(probeBtn, probeTable);
+        profilesPane.setContent(profilesBox);
+
+        content.getChildren().addAll(createPane, deletePane, profilesPane);
         tab.setContent(content);
         return tab;
     }
 
+    private TableColumn<ConnectionManager.ProbeResult, String> createProbeColumn(
+            String title, java.util.function.Function<ConnectionManager.ProbeResult, String> value) {
+        TableColumn<ConnectionManager.ProbeResult, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(cell -> new javafx.beans.property.SimpleStringProperty(value.apply(cell.getValue())));
+        return column;
+    }
+
     private Tab createModelTab() {
         Tab tab = new Tab("Model");
 
@@ -264,41 +518,81 @@ object: document:readme
         Label dslLabel = new Label("Authorization Model (DSL format):");
         dslLabel.setStyle("-fx-font-weight: bold;");
 
-        // Line numbers area
-        lineNumberArea = new TextArea("1");
-        lineNumberArea.setEditable(false);
-        lineNumberArea.setPrefWidth(45);
-        lineNumberArea.setStyle("-fx-font-family: monospace; -fx-background-color: #f0f0f0; -fx-text-fill: #888;");
-
-        // DSL text area
-        dslTextArea = new TextArea(DEFAULT_DSL);
-        dslTextArea.setPrefRowCount(20);
-        dslTextArea.setStyle("-fx-font-family: monospace;");
-        HBox.setHgrow(dslTextArea, Priority.ALWAYS);
-
-        // Update line numbers when text changes
-        dslTextArea.textProperty().addListener((obs, oldVal, newVal) -> updateLineNumbers());
-        dslTextArea.scrollTopProperty().addListener((obs, oldVal, newVal) ->
-            lineNumberArea.setScrollTop(newVal.doubleValue()));
-
-        // Initialize line numbers
-        updateLineNumbers();
-
-        // Editor container with line numbers
-        HBox editorBox = new HBox(0);
-        editorBox.getChildren().addAll(lineNumberArea, dslTextArea);
-        VBox.setVgrow(editorBox, Priority.ALWAYS);
+        // DSL editor; only the lines in view are drawn, so large models stay responsive
+        dslEditor = new CodeEditor(DEFAULT_DSL);
+        dslEditor.setPrefRowCount(20);
+        // Highlighting runs on its own thread and only re-lexes the lines an edit touched
+        new DslHighlighter(dslEditor);
+        // Ctrl+Space completes names, F12 / Ctrl+click jumps to a definition, Shift+F12 lists usages
+        new DslAssist(dslEditor, this::appendOutput);
+        VBox.setVgrow(dslEditor, Priority.ALWAYS);
+
+        // Validate once typing pauses
+        dslEditor.getDocument().addListener(change -> {
+            if (liveValidationCheckBox.isSelected()) liveValidationDebounce.playFromStart();
+        });
+        liveValidationDebounce.setOnFinished(e -> startLiveValidation());
+
+        // Live validation status and errors; clicking an error moves the caret there
+        liveValidationCheckBox = new CheckBox("Validate as you type");
+        liveValidationCheckBox.setSelected(true);
+        liveValidationCheckBox.setOnAction(e -> {
+            if (liveValidationCheckBox.isSelected()) startLiveValidation();
+            else showDiagnostics(List.of(), "");
+        });
+        liveValidationStatus = new Label();
+        modelDiffLabel = new Label();
+        modelDiffLabel.setStyle("-fx-text-fill: #555;");
+        Button showDiffBtn = new Button("Show Diff");
+        showDiffBtn.setTooltip(new Tooltip("Log the differences between the editor and the store's latest model"));
+        showDiffBtn.setOnAction(e -> logModelDiff());
+        HBox liveValidationBox = new HBox(10, liveValidationCheckBox, liveValidationStatus, modelDiffLabel, showDiffBtn);
+        liveValidationBox.setAlignment(Pos.CENTER_LEFT);
+
+        dslDiagnosticsList = new ListView<>();
+        dslDiagnosticsList.setPrefHeight(70);
+        dslDiagnosticsList.setStyle("-fx-font-family: monospace; -fx-font-size: 11px;");
+        dslDiagnosticsList.setVisible(false);
+        dslDiagnosticsList.setManaged(false);
+        dslDiagnosticsList.setOnMouseClicked(e -> {
+            Diagnostic diagnostic = dslDiagnosticsList.getSelectionModel().getSelectedItem();
+            if (diagnostic != null) dslEditor.moveCaretTo(diagnostic.getLine(), diagnostic.getColumn());
+        });
 
         // Buttons
         HBox buttonBox = new HBox(10);
         Button formatBtn = new Button("Auto Format");
         formatBtn.setOnAction(e -> autoFormatDsl());
+        formatIndentBox = new ComboBox<>(FXCollections.observableArrayList(2, 4));
+        formatIndentBox.setValue(2);
+        formatIndentBox.setTooltip(new Tooltip("Spaces per indentation level used by Auto Format and the Tab key"));
+        formatIndentBox.valueProperty().addListener((obs, oldVal, newVal) -> dslEditor.setTabWidth(newVal));
+        dslEditor.setOnTabsExpanded(count -> appendOutput("WARNING: Converted " + count + " tab(s) to "
+                + dslEditor.getTabWidth() + " spaces each"));
         Button validateBtn = new Button("Validate DSL");
         validateBtn.setOnAction(e -> validateDsl());
         Button applyBtn = new Button("Apply Model");
         applyBtn.setStyle("-fx-background-color: #4CAF50; -fx-text-fill: white;");
         applyBtn.setOnAction(e -> applyModel());
-        buttonBox.getChildren().addAll(formatBtn, validateBtn, applyBtn);
+        useCliCheckBox = new CheckBox("Use fga CLI");
+        useCliCheckBox.setTooltip(new Tooltip("Validate and transform with the fga CLI instead of the built-in compiler"));
+        useCliCheckBox.setOnAction(e -> dslService.setPreferCli(useCliCheckBox.isSelected()));
+        conformanceBtn = new Button("CLI Conformance");
+        conformanceBtn.setTooltip(new Tooltip("Compare built-in and CLI output for this model"));
+        conformanceBtn.setOnAction(e -> checkDslConformance());
+        Button loadModelBtn = new Button("Load Selected Model");
+        loadModelBtn.setTooltip(new Tooltip("Replace the editor content with the model pinned in the Model dropdown"));
+        loadModelBtn.setOnAction(e -> loadSelectedModelIntoEditor());
+        Button openModularBtn = new Button("Open fga.mod...");
+        openModularBtn.setTooltip(new Tooltip("Compile a modular model: a directory with an fga.mod manifest and its module files"));
+        openModularBtn.setOnAction(e -> openModularModel(openModularBtn));
+        applyModularBtn = new Button("Apply fga.mod");
+        applyModularBtn.setTooltip(new Tooltip("Recompile the opened modular model from disk and apply it"));
+        applyModularBtn.setDisable(modularModelDirectory == null);
+        applyModularBtn.setOnAction(e -> compileModularModel(true));
+        buttonBox.setAlignment(Pos.CENTER_LEFT);
+        buttonBox.getChildren().addAll(formatBtn, formatIndentBox, validateBtn, applyBtn, loadModelBtn, useCliCheckBox, conformanceBtn,
+                openModularBtn, applyModularBtn);
 
         // Model ID display
         HBox modelIdBox = new HBox(10);
@@ -317,92 +611,165 @@ object: document:readme
         jsonPreviewArea.setStyle("-fx-font-family: monospace;");
         jsonPane.setContent(jsonPreviewArea);
 
-        content.getChildren().addAll(dslLabel, editorBox, buttonBox, modelIdBox, jsonPane);
+        content.getChildren().addAll(dslLabel, dslEditor, liveValidationBox, dslDiagnosticsList,
+                buttonBox, modelIdBox, jsonPane);
         tab.setContent(content);
+        startLiveValidation();
+        applyCliAvailability();
+        if (modelComboBox.getValue() != null) {
+            selectAuthorizationModel(modelComboBox.getValue());
+        }
         return tab;
     }
 
-    private void updateLineNumbers() {
-        String text = dslTextArea.getText();
-        int lineCount = text.isEmpty() ? 1 : text.split("\n", -1).length;
-        StringBuilder sb = new StringBuilder();
-        for (int i = 1; i <= lineCount; i++) {
-            sb.append(i);
-            if (i < lineCount) sb.append("\n");
+    // ==================== Live Validation ====================
+
+    /**
+     * Validate the current editor text in the background. A run still in flight is
+     * cancelled first (its parse is interrupted or its CLI process killed), so at most
+     * one validation is ever running and none queue up behind it.
+     */
+    private void startLiveValidation() {
+        if (liveValidationTask != null) liveValidationTask.cancel(true);
+
+        String dsl = dslEditor.getText();
+        long generation = ++liveValidationGeneration;
+        liveValidationStatus.setText("Validating...");
+        liveValidationStatus.setStyle("-fx-text-fill: #888;");
+        StoreInfo store = storeComboBox.getValue();
+        AuthorizationModelInfo latest = latestModel();
+
+        liveValidationTask = liveValidationExecutor.submit(() -> {
+            long startTime = System.nanoTime();
+            // With a deployed model to compare against, compile fully so the result can be diffed
+            boolean diffing = store != null && latest != null;
+            DslTransformService.TransformResult result = diffing
+                    ? dslService.transformDslToJson(dsl) : dslService.validateDsl(dsl);
+            double millis = (System.nanoTime() - startTime) / 1_000_000.0;
+            ModelDiff diff = diffing && result.isSuccess() ? diffAgainst(store, latest, result.getJson()) : null;
+            if (Thread.currentThread().isInterrupted()) return;
+
+            Platform.runLater(() -> {
+                // A newer edit has started its own run; drop this one
+                if (generation != liveValidationGeneration) return;
+                showModelDiff(diff);
+                if (result.isSuccess()) {
+                    showDiagnostics(List.of(), String.format("✓ Valid (%.1f ms)", millis));
+                } else if (!result.getDiagnostics().isEmpty()) {
+                    showDiagnostics(result.getDiagnostics(), result.getDiagnostics().size() + " error(s)");
+                } else {
+                    showDiagnostics(List.of(), result.getError().strip().lines().findFirst().orElse("Invalid"));
+                    liveValidationStatus.setStyle("-fx-text-fill: #c62828;");
+                }
+            });
+        });
+    }
+
+    /**
+     * Diff a compiled model against a deployed one that is already cached. Returns null when
+     * the deployed model has not been loaded, rather than fetching it on every keystroke.
+     */
+    private ModelDiff diffAgainst(StoreInfo store, AuthorizationModelInfo deployed, String json) {
+        JsonNode deployedModel = modelCache.get(store.getId(), deployed.getId());
+        if (deployedModel == null) return null;
+        try {
+            return ModelDiff.compare(deployedModel, jsonMapper.readTree(json));
+        } catch (Exception e) {
+            return null;
         }
-        lineNumberArea.setText(sb.toString());
     }
 
-    private void autoFormatDsl() {
-        String text = dslTextArea.getText();
-        String[] lines = text.split("\n", -1);
+    private void showModelDiff(ModelDiff diff) {
+        if (diff == null) {
+            modelDiffLabel.setText("");
+            modelDiffLabel.setTooltip(null);
+            return;
+        }
+        modelDiffLabel.setText(diff.isEmpty() ? "Same as latest model" : "vs latest model: " + diff.summary());
+        modelDiffLabel.setTooltip(diff.isEmpty() ? null : new Tooltip(diff.getChanges().stream()
+                .limit(40).map(ModelDiff.Change::toString).collect(java.util.stream.Collectors.joining("\n"))));
+    }
 
-        // Separate into sections: model/schema, types, conditions
-        StringBuilder modelSection = new StringBuilder();
-        StringBuilder typeSection = new StringBuilder();
-        StringBuilder conditionSection = new StringBuilder();
+    /**
+     * Re-run live validation after the store's latest model changed, so the diff label
+     * compares against it.
+     */
+    private void refreshModelDiff() {
+        if (liveValidationCheckBox != null && liveValidationCheckBox.isSelected()) {
+            startLiveValidation();
+        }
+    }
 
-        StringBuilder currentSection = modelSection;
-        boolean inCondition = false;
-        boolean inRelations = false;
+    /**
+     * The store's newest model, which requests use unless another one is pinned.
+     */
+    private AuthorizationModelInfo latestModel() {
+        return modelList.isEmpty() ? null : modelList.get(0);
+    }
 
-        for (String line : lines) {
-            String trimmed = line.trim();
+    private void logModelDiff() {
+        StoreInfo store = storeComboBox.getValue();
+        AuthorizationModelInfo latest = latestModel();
+        if (store == null || latest == null) {
+            appendOutput("ERROR: The selected store has no deployed model to compare with");
+            return;
+        }
 
-            if (trimmed.isEmpty()) {
-                currentSection.append("\n");
-                if (!inCondition) inRelations = false;
-                continue;
+        String dsl = dslEditor.getText();
+        OpenFGAService service = activeService();
+        runAsync("Diff against model " + latest.getId(), JobManager.Category.MODEL, () -> {
+            var result = dslService.transformDslToJson(dsl);
+            if (!result.isSuccess()) {
+                appendOutput("ERROR: The editor's model does not compile: " + result.getError());
+                return null;
             }
-
-            // Determine which section and indentation
-            String indent = "";
-
-            if (trimmed.startsWith("model")) {
-                currentSection = modelSection;
-                indent = "";
-                inRelations = false;
-            } else if (trimmed.startsWith("schema ")) {
-                indent = "  ";
-            } else if (trimmed.startsWith("type ")) {
-                currentSection = typeSection;
-                indent = "";
-                inRelations = false;
-            } else if (trimmed.startsWith("condition ")) {
-                currentSection = conditionSection;
-                indent = "";
-                inCondition = true;
-                inRelations = false;
-            } else if (trimmed.startsWith("relations")) {
-                indent = "  ";
-                inRelations = true;
-            } else if (trimmed.startsWith("define ")) {
-                indent = "    ";
-            } else if (trimmed.equals("}")) {
-                indent = "";
-                inCondition = false;
-            } else if (inCondition) {
-                indent = "  ";
-            } else if (inRelations) {
-                indent = "    ";
+            JsonNode deployed = modelCache.getOrFetch(service, store.getId(), latest.getId());
+            ModelDiff diff = ModelDiff.compare(deployed, jsonMapper.readTree(result.getJson()));
+            appendOutput("Editor vs model " + latest.getId() + ": " + diff.summary());
+            for (ModelDiff.Change change : diff.getChanges()) {
+                appendOutput("  " + change);
             }
+            Platform.runLater(() -> showModelDiff(diff));
+            return null;
+        });
+    }
 
-            currentSection.append(indent).append(trimmed).append("\n");
-        }
+    private void showDiagnostics(List<Diagnostic> diagnostics, String status) {
+        liveValidationStatus.setText(status);
+        liveValidationStatus.setStyle(diagnostics.isEmpty() ? "-fx-text-fill: #2e7d32;" : "-fx-text-fill: #c62828;");
+        dslDiagnosticsList.getItems().setAll(diagnostics);
+        dslDiagnosticsList.setVisible(!diagnostics.isEmpty());
+        dslDiagnosticsList.setManaged(!diagnostics.isEmpty());
 
-        // Combine: model, types, then conditions (at the end)
-        StringBuilder result = new StringBuilder();
-        result.append(modelSection.toString().trim());
-        if (!typeSection.isEmpty()) {
-            result.append("\n\n").append(typeSection.toString().trim());
-        }
-        if (!conditionSection.isEmpty()) {
-            result.append("\n\n").append(conditionSection.toString().trim());
-        }
-        result.append("\n");
+        dslEditor.setDiagnostics(diagnostics);
+    }
 
-        dslTextArea.setText(result.toString());
-        appendOutput("DSL auto-formatted (conditions moved to end)");
+    /**
+     * Reformat the model from its parsed form in the background, then apply only the lines
+     * that changed, so the caret, scroll position and undo history of the rest survive.
+     */
+    private void autoFormatDsl() {
+        String dsl = dslEditor.getText();
+        long version = dslEditor.getDocument().getVersion();
+        DslFormatter formatter = new DslFormatter(formatIndentBox.getValue());
+        runAsync("Format DSL", JobManager.Category.MODEL, () -> {
+            // Text the parser skipped would be lost, so only complete parses are formatted
+            ParsedModel parsed = dslService.parse(dsl);
+            if (parsed.hasSyntaxErrors()) {
+                appendOutput("ERROR: Fix the model's errors before formatting: " + parsed.getDiagnostics().get(0));
+                return null;
+            }
+            String formatted = formatter.format(parsed.getAst());
+            Platform.runLater(() -> {
+                if (dslEditor.getDocument().getVersion() != version) {
+                    appendOutput("Formatting skipped: the model was edited while it was being formatted");
+                    return;
+                }
+                int edits = dslEditor.updateText(formatted);
+                appendOutput(edits == 0 ? "DSL is already formatted" : "DSL formatted (" + edits + " change(s))");
+            });
+            return null;
+        });
     }
 
     // ==================== Visualization Tab ====================
@@ -431,6 +798,7 @@ object: document:readme
         widthSlider.setMajorTickUnit(60);
         widthSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
             nodeWidth = newVal.intValue();
+            invalidateNodeImages();
             redrawGraph();
         });
 
@@ -442,6 +810,7 @@ object: document:readme
         sizeSlider.setMajorTickUnit(0.5);
         sizeSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
             nodeScale = newVal.doubleValue();
+            invalidateNodeImages();
             redrawGraph();
         });
 
@@ -457,42 +826,50 @@ object: document:readme
 
         controlBox.getChildren().addAll(refreshBtn, widthLabel, widthSlider, sizeLabel, sizeSlider, resetBtn, hint);
 
-        // Canvas inside ScrollPane
+        // Both layers inside one ScrollPane; the drag layer lets mouse events through
         graphCanvas = new Canvas(1200, 800);
-        graphScrollPane = new ScrollPane(graphCanvas);
+        graphDragLayer = new Canvas(1200, 800);
+        graphDragLayer.setMouseTransparent(true);
+        graphScrollPane = new ScrollPane(new Pane(graphCanvas, graphDragLayer));
         graphScrollPane.setPannable(false); // Disable panning to allow drag
         graphScrollPane.setStyle("-fx-background-color: white;");
 
-        // Mouse events for dragging
-        graphCanvas.setOnMousePressed(e -> {
-            draggedType = findTypeAt(e.getX(), e.getY());
-            if (draggedType != null) {
-                dragOffsetX = e.getX() - draggedType.x;
-                dragOffsetY = e.getY() - draggedType.y;
-            } else {
-                draggedCondition = findConditionAt(e.getX(), e.getY());
-                if (draggedCondition != null) {
-                    dragOffsetX = e.getX() - draggedCondition.x;
-                    dragOffsetY = e.getY() - draggedCondition.y;
+        // Dragging repaints only the drag layer, at most once per frame
+        graphDragTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (dragFramePending) {
+                    dragFramePending = false;
+                    drawDragLayer();
                 }
             }
+        };
+
+        graphCanvas.setOnMousePressed(e -> {
+            draggedNode = findNodeAt(e.getX(), e.getY());
+            if (draggedNode == null) return;
+            dragOffsetX = e.getX() - draggedNode.x;
+            dragOffsetY = e.getY() - draggedNode.y;
+            // Lift the node and its edges off the static layer once, for the whole drag
+            redrawGraph();
+            drawDragLayer();
+            graphDragTimer.start();
         });
 
         graphCanvas.setOnMouseDragged(e -> {
-            if (draggedType != null) {
-                draggedType.x = Math.max(0, e.getX() - dragOffsetX);
-                draggedType.y = Math.max(0, e.getY() - dragOffsetY);
-                redrawGraph();
-            } else if (draggedCondition != null) {
-                draggedCondition.x = Math.max(0, e.getX() - dragOffsetX);
-                draggedCondition.y = Math.max(0, e.getY() - dragOffsetY);
-                redrawGraph();
-            }
+            if (draggedNode == null) return;
+            draggedNode.x = Math.max(0, e.getX() - dragOffsetX);
+            draggedNode.y = Math.max(0, e.getY() - dragOffsetY);
+            dragFramePending = true;
         });
 
         graphCanvas.setOnMouseReleased(e -> {
-            draggedType = null;
-            draggedCondition = null;
+            if (draggedNode == null) return;
+            graphDragTimer.stop();
+            dragFramePending = false;
+            draggedNode = null;
+            clearDragLayer();
+            redrawGraph();
         });
 
         // Legend
@@ -505,31 +882,31 @@ object: document:readme
         return tab;
     }
 
-    private TypeNode findTypeAt(double x, double y) {
+    /**
+     * The node under a point; types are checked before conditions.
+     */
+    private GraphNode findNodeAt(double x, double y) {
         int scaledWidth = (int) (nodeWidth * nodeScale);
-        int baseHeight = (int) (100 * nodeScale);
         for (TypeNode type : currentTypes) {
-            int dynamicHeight = Math.max(baseHeight, (int) ((40 + type.relations.size() * 20) * nodeScale));
-            if (x >= type.x && x <= type.x + scaledWidth &&
-                y >= type.y && y <= type.y + dynamicHeight) {
+            if (x >= type.x && x <= type.x + scaledWidth && y >= type.y && y <= type.y + nodeHeight(type)) {
                 return type;
             }
         }
-        return null;
-    }
-
-    private ConditionNode findConditionAt(double x, double y) {
-        int scaledWidth = (int) (nodeWidth * nodeScale);
-        int scaledHeight = (int) (90 * nodeScale);
         for (ConditionNode cond : currentConditions) {
-            if (x >= cond.x && x <= cond.x + scaledWidth &&
-                y >= cond.y && y <= cond.y + scaledHeight) {
+            if (x >= cond.x && x <= cond.x + scaledWidth && y >= cond.y && y <= cond.y + nodeHeight(cond)) {
                 return cond;
             }
         }
         return null;
     }
 
+    private int nodeHeight(GraphNode node) {
+        if (node instanceof TypeNode type) {
+            return (int) Math.max((int) (100 * nodeScale), (40 + type.relations.size() * 20) * nodeScale);
+        }
+        return (int) (90 * nodeScale);
+    }
+
     private HBox createLegend() {
         HBox legend = new HBox(20);
         legend.setPadding(new Insets(10, 0, 0, 0));
@@ -556,11 +933,18 @@ object: document:readme
     }
 
     private void renderGraph() {
-        String dsl = dslTextArea.getText();
+        // The graph is drawn from the Model tab's editor
+        buildTab(modelTab);
+        String dsl = dslEditor.getText();
 
-        // Parse DSL and store
-        currentTypes = parseDslForVisualization(dsl);
-        currentConditions = parseConditionsForVisualization(dsl);
+        // Build the nodes from the shared parse, which validation has usually done already
+        ModelAst ast = dslService.parse(dsl).getAst();
+        currentTypes = buildTypeNodes(ast);
+        currentConditions = buildConditionNodes(ast);
+
+        graphEdges = buildGraphEdges();
+        draggedNode = null;
+        clearDragLayer();
 
         if (currentTypes.isEmpty()) {
             GraphicsContext gc = graphCanvas.getGraphicsContext2D();
@@ -603,66 +987,184 @@ object: document:readme
         appendOutput("Graph rendered: " + currentTypes.size() + " types, " + currentConditions.size() + " conditions");
     }
 
+    /**
+     * Repaint the static layer: every edge and node except the dragged node and its edges.
+     * Nodes are stamped from cached images, so this costs one image copy per node.
+     */
     private void redrawGraph() {
         if (currentTypes.isEmpty() && currentConditions.isEmpty()) return;
 
         GraphicsContext gc = graphCanvas.getGraphicsContext2D();
         int scaledWidth = (int) (nodeWidth * nodeScale);
-        int nodeHeight = (int) (100 * nodeScale);
 
         // Calculate required canvas size
         double maxX = 0, maxY = 0;
-        for (TypeNode type : currentTypes) {
-            maxX = Math.max(maxX, type.x + scaledWidth + 50);
-            maxY = Math.max(maxY, type.y + nodeHeight + 50);
-        }
-        for (ConditionNode cond : currentConditions) {
-            maxX = Math.max(maxX, cond.x + scaledWidth + 50);
-            maxY = Math.max(maxY, cond.y + (int)(90 * nodeScale) + 50);
+        for (GraphNode node : graphNodes()) {
+            maxX = Math.max(maxX, node.x + scaledWidth + 50);
+            maxY = Math.max(maxY, node.y + nodeHeight(node) + 50);
         }
-
-        // Resize canvas if needed
-        if (maxX > graphCanvas.getWidth()) graphCanvas.setWidth(maxX);
-        if (maxY > graphCanvas.getHeight()) graphCanvas.setHeight(maxY);
+        ensureGraphSize(maxX, maxY);
 
         // Clear canvas
         gc.setFill(Color.WHITE);
         gc.fillRect(0, 0, graphCanvas.getWidth(), graphCanvas.getHeight());
 
-        // Build positions map for edges
-        Map<String, double[]> positions = new HashMap<>();
+        // Draw edges first
+        List<GraphEdge> dragged = draggedNode != null ? graphEdges.getOrDefault(draggedNode, List.of()) : List.of();
         for (TypeNode type : currentTypes) {
-            int dynamicHeight = Math.max(nodeHeight, (int) ((40 + type.relations.size() * 20) * nodeScale));
-            positions.put(type.name, new double[]{type.x + scaledWidth / 2.0, type.y + dynamicHeight / 2.0});
+            for (GraphEdge edge : graphEdges.getOrDefault(type, List.of())) {
+                if (edge.from == type && !dragged.contains(edge)) drawEdge(gc, edge);
+            }
         }
-        for (ConditionNode cond : currentConditions) {
-            positions.put("condition:" + cond.name, new double[]{cond.x + scaledWidth / 2.0, cond.y + 45 * nodeScale});
+
+        for (GraphNode node : graphNodes()) {
+            if (node != draggedNode) drawNodeImage(gc, node);
+        }
+    }
+
+    /**
+     * Repaint the drag layer: clear what it painted last frame, then draw the dragged node's
+     * edges and the node itself. The work depends on the node's edges, not the model's size.
+     */
+    private void drawDragLayer() {
+        if (draggedNode == null) return;
+        int scaledWidth = (int) (nodeWidth * nodeScale);
+        ensureGraphSize(draggedNode.x + scaledWidth + 50, draggedNode.y + nodeHeight(draggedNode) + 50);
+
+        GraphicsContext gc = graphDragLayer.getGraphicsContext2D();
+        clearDragLayer();
+
+        double margin = 4 + 14 * nodeScale;
+        double minX = draggedNode.x - margin;
+        double minY = draggedNode.y - margin;
+        double maxX = draggedNode.x + scaledWidth + margin;
+        double maxY = draggedNode.y + nodeHeight(draggedNode) + margin;
+        for (GraphEdge edge : graphEdges.getOrDefault(draggedNode, List.of())) {
+            // A quadratic curve stays inside the triangle of its end and control points
+            double[] curve = edgeCurve(edge);
+            for (int i = 0; i < curve.length; i += 2) {
+                minX = Math.min(minX, curve[i] - margin);
+                minY = Math.min(minY, curve[i + 1] - margin);
+                maxX = Math.max(maxX, curve[i] + margin);
+                maxY = Math.max(maxY, curve[i + 1] + margin);
+            }
+            // The label is centered on the curve's midpoint, with its baseline there
+            double labelX = curve[0] / 4 + curve[2] / 2 + curve[4] / 4;
+            double labelY = curve[1] / 4 + curve[3] / 2 + curve[5] / 4;
+            double halfWidth = truncate(edge.label, EDGE_LABEL_MAX).length() * 7 * nodeScale / 2 + margin;
+            minX = Math.min(minX, labelX - halfWidth);
+            maxX = Math.max(maxX, labelX + halfWidth);
+            minY = Math.min(minY, labelY - 12 * nodeScale - margin);
+            drawEdge(gc, edge);
         }
+        drawNodeImage(gc, draggedNode);
+        dragLayerBounds = new double[]{minX, minY, maxX - minX, maxY - minY};
+    }
 
-        // Draw edges first
-        gc.setLineWidth(1.5 * nodeScale);
+    private void clearDragLayer() {
+        if (dragLayerBounds == null || graphDragLayer == null) return;
+        graphDragLayer.getGraphicsContext2D().clearRect(
+                dragLayerBounds[0], dragLayerBounds[1], dragLayerBounds[2], dragLayerBounds[3]);
+        dragLayerBounds = null;
+    }
+
+    private void ensureGraphSize(double width, double height) {
+        if (width > graphCanvas.getWidth()) {
+            graphCanvas.setWidth(width);
+            graphDragLayer.setWidth(width);
+        }
+        if (height > graphCanvas.getHeight()) {
+            graphCanvas.setHeight(height);
+            graphDragLayer.setHeight(height);
+        }
+    }
+
+    private List<GraphNode> graphNodes() {
+        List<GraphNode> nodes = new ArrayList<>(currentTypes.size() + currentConditions.size());
+        nodes.addAll(currentTypes);
+        nodes.addAll(currentConditions);
+        return nodes;
+    }
+
+    /**
+     * Edges from each type to the types its relations directly reference, listed under both
+     * ends so a dragged node finds its edges without scanning the graph. Relations pointing
+     * at the same type with the same kind share one edge, since they draw the same curve;
+     * the edge is labelled with all their names.
+     */
+    private Map<GraphNode, List<GraphEdge>> buildGraphEdges() {
+        Map<String, TypeNode> typesByName = new HashMap<>();
+        for (TypeNode type : currentTypes) typesByName.put(type.name, type);
+
+        Map<GraphNode, List<GraphEdge>> edges = new IdentityHashMap<>();
         for (TypeNode type : currentTypes) {
-            double[] fromPos = positions.get(type.name);
+            Map<String, GraphEdge> shared = new HashMap<>();
             for (RelationInfo rel : type.relations) {
-                for (String ref : rel.references) {
-                    String targetType = extractTypeName(ref);
-                    if (positions.containsKey(targetType)) {
-                        double[] toPos = positions.get(targetType);
-                        drawArrow(gc, fromPos[0], fromPos[1], toPos[0], toPos[1], rel.name, rel.isComputed);
+                for (String targetType : rel.references) {
+                    TypeNode target = typesByName.get(targetType);
+                    if (target == null) continue;
+                    GraphEdge existing = shared.get(targetType + (rel.isComputed ? "#computed" : "#direct"));
+                    if (existing != null) {
+                        existing.label += ", " + rel.name;
+                        continue;
                     }
+                    GraphEdge edge = new GraphEdge(type, target, rel.name, rel.isComputed);
+                    shared.put(targetType + (rel.isComputed ? "#computed" : "#direct"), edge);
+                    edges.computeIfAbsent(type, k -> new ArrayList<>()).add(edge);
+                    if (target != type) edges.computeIfAbsent(target, k -> new ArrayList<>()).add(edge);
                 }
             }
         }
+        return edges;
+    }
 
-        // Draw type nodes
-        for (TypeNode type : currentTypes) {
-            drawTypeNode(gc, type, scaledWidth, nodeHeight);
-        }
+    private void drawEdge(GraphicsContext gc, GraphEdge edge) {
+        double[] curve = edgeCurve(edge);
+        drawArrow(gc, curve[0], curve[1], curve[4], curve[5], edge.label, edge.computed);
+    }
 
-        // Draw condition nodes
-        for (ConditionNode cond : currentConditions) {
-            drawConditionNode(gc, cond, scaledWidth);
+    /**
+     * Start, control and end point of an edge's curve, from node center to node center.
+     */
+    private double[] edgeCurve(GraphEdge edge) {
+        int scaledWidth = (int) (nodeWidth * nodeScale);
+        double x1 = edge.from.x + scaledWidth / 2.0;
+        double y1 = edge.from.y + nodeHeight(edge.from) / 2.0;
+        double x2 = edge.to.x + scaledWidth / 2.0;
+        double y2 = edge.to.y + nodeHeight(edge.to) / 2.0;
+        double offset = 30 * nodeScale;
+        return new double[]{x1, y1, (x1 + x2) / 2 + offset, (y1 + y2) / 2 - offset, x2, y2};
+    }
+
+    /**
+     * Stamp a node from its cached image, rendering the image first if the node has none.
+     * Images include the shadow and border, so they extend a little past the node.
+     */
+    private void drawNodeImage(GraphicsContext gc, GraphNode node) {
+        if (node.image == null) {
+            int width = (int) (nodeWidth * nodeScale);
+            double margin = Math.ceil(2 * nodeScale);
+            Canvas scratch = new Canvas(width + 4 + 2 * margin, nodeHeight(node) + 4 + 2 * margin);
+            GraphicsContext scratchGc = scratch.getGraphicsContext2D();
+            scratchGc.translate(margin - node.x, margin - node.y);
+            if (node instanceof TypeNode type) {
+                drawTypeNode(scratchGc, type, width, (int) (100 * nodeScale));
+            } else {
+                drawConditionNode(scratchGc, (ConditionNode) node, width);
+            }
+            SnapshotParameters parameters = new SnapshotParameters();
+            parameters.setFill(Color.TRANSPARENT);
+            node.image = scratch.snapshot(parameters, null);
+            node.imageMargin = margin;
         }
+        gc.drawImage(node.image, node.x - node.imageMargin, node.y - node.imageMargin);
+    }
+
+    /**
+     * Drop the cached node images after the node size or scale changed.
+     */
+    private void invalidateNodeImages() {
+        for (GraphNode node : graphNodes()) node.image = null;
     }
 
     private void drawTypeNode(GraphicsContext gc, TypeNode type, int width, int height) {
@@ -792,6 +1294,15 @@ object: document:readme
             new double[]{y2, y2 - arrowLength * Math.sin(angle - Math.PI / 6), y2 - arrowLength * Math.sin(angle + Math.PI / 6)},
             3
         );
+
+        // Relation name(s) at the middle of the curve
+        if (label != null && !label.isEmpty()) {
+            gc.setFont(Font.font("System", 10 * nodeScale));
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.fillText(truncate(label, EDGE_LABEL_MAX), (x1 + x2) / 4 + (midX + offset) / 2,
+                    (y1 + y2) / 4 + (midY - offset) / 2);
+            gc.setTextAlign(TextAlignment.LEFT);
+        }
     }
 
     private String truncate(String s, int maxLen) {
@@ -799,22 +1310,36 @@ object: document:readme
         return s.length() > maxLen ? s.substring(0, maxLen - 2) + ".." : s;
     }
 
-    private String extractTypeName(String ref) {
-        // Extract type from references like "user", "team#member", "[user]", etc.
-        ref = ref.trim();
-        if (ref.startsWith("[")) ref = ref.substring(1);
-        if (ref.endsWith("]")) ref = ref.substring(0, ref.length() - 1);
-        if (ref.contains("#")) ref = ref.split("#")[0];
-        if (ref.contains(" with ")) ref = ref.split(" with ")[0];
-        return ref.trim();
-    }
-
     // ==================== DSL Parsing for Visualization ====================
 
-    private static class TypeNode {
+    /**
+     * A node's position and its rendered image, which is reused until the node size or
+     * scale changes; moving a node does not invalidate it.
+     */
+    private abstract static class GraphNode {
+        double x, y;
+        Image image;
+        double imageMargin;
+    }
+
+    private static class TypeNode extends GraphNode {
         String name;
         List<RelationInfo> relations = new ArrayList<>();
-        double x, y;
+    }
+
+    private static class GraphEdge {
+        final TypeNode from;
+        final TypeNode to;
+        // Names of the relations drawn as this edge, comma separated
+        String label;
+        final boolean computed;
+
+        GraphEdge(TypeNode from, TypeNode to, String label, boolean computed) {
+            this.from = from;
+            this.to = to;
+            this.label = label;
+            this.computed = computed;
+        }
     }
 
     private static class RelationInfo {
@@ -825,79 +1350,54 @@ object: document:readme
         List<String> references = new ArrayList<>();
     }
 
-    private static class ConditionNode {
+    private static class ConditionNode extends GraphNode {
         String name;
         String params;
         String expression;
-        double x, y;
     }
 
-    private List<TypeNode> parseDslForVisualization(String dsl) {
-        List<TypeNode> types = new ArrayList<>();
-        String[] lines = dsl.split("\n");
-
-        TypeNode currentType = null;
-
-        for (String line : lines) {
-            String trimmed = line.trim();
-
-            if (trimmed.startsWith("type ")) {
-                currentType = new TypeNode();
-                currentType.name = trimmed.substring(5).trim();
-                types.add(currentType);
-            } else if (trimmed.startsWith("define ") && currentType != null) {
+    /**
+     * Graph nodes for the model's types, in source order. Relations of an
+     * {@code extend type} are shown on the type they extend.
+     */
+    private List<TypeNode> buildTypeNodes(ModelAst ast) {
+        Map<String, TypeNode> types = new LinkedHashMap<>();
+        DslFormatter formatter = new DslFormatter(2);
+        for (ModelAst.TypeDef typeDef : ast.getTypes()) {
+            TypeNode type = types.computeIfAbsent(typeDef.getName(), name -> {
+                TypeNode node = new TypeNode();
+                node.name = name;
+                return node;
+            });
+            for (ModelAst.RelationDef relationDef : typeDef.getRelations()) {
                 RelationInfo rel = new RelationInfo();
-                String defPart = trimmed.substring(7);
-                int colonIdx = defPart.indexOf(':');
-                if (colonIdx > 0) {
-                    rel.name = defPart.substring(0, colonIdx).trim();
-                    rel.definition = defPart.substring(colonIdx + 1).trim();
-                    rel.shortDef = rel.definition;
-
-                    // Determine if computed (contains "or", "and", "from")
-                    rel.isComputed = rel.definition.contains(" or ") ||
-                                     rel.definition.contains(" and ") ||
-                                     rel.definition.contains(" from ");
-
-                    // Extract references
-                    rel.references = extractReferences(rel.definition);
-
-                    currentType.relations.add(rel);
+                rel.name = relationDef.getName();
+                rel.definition = formatter.formatExpression(relationDef.getExpression());
+                rel.shortDef = rel.definition;
+                // Anything but a plain list of directly related types is computed
+                rel.isComputed = !(relationDef.getExpression() instanceof ModelAst.Direct);
+                // Edges go to the directly related types
+                for (ModelAst.DirectType directType : DslCompiler.directTypes(relationDef.getExpression())) {
+                    if (!rel.references.contains(directType.getType())) rel.references.add(directType.getType());
                 }
+                type.relations.add(rel);
             }
         }
-
-        return types;
-    }
-
-    private List<String> extractReferences(String definition) {
-        List<String> refs = new ArrayList<>();
-        // Match type references: word characters, optionally with #member or "with condition"
-        Pattern pattern = Pattern.compile("\\[?([a-zA-Z_][a-zA-Z0-9_]*(?:#[a-zA-Z_]+)?(?:\\s+with\\s+[a-zA-Z_]+)?)\\]?");
-        Matcher matcher = pattern.matcher(definition);
-        while (matcher.find()) {
-            String ref = matcher.group(1);
-            // Filter out keywords
-            if (!ref.equals("or") && !ref.equals("and") && !ref.equals("from") && !ref.equals("with")) {
-                refs.add(ref);
-            }
-        }
-        return refs;
+        return new ArrayList<>(types.values());
     }
 
-    private List<ConditionNode> parseConditionsForVisualization(String dsl) {
+    private List<ConditionNode> buildConditionNodes(ModelAst ast) {
         List<ConditionNode> conditions = new ArrayList<>();
-        Pattern pattern = Pattern.compile("condition\\s+(\\w+)\\(([^)]+)\\)\\s*\\{([^}]+)\\}", Pattern.DOTALL);
-        Matcher matcher = pattern.matcher(dsl);
-
-        while (matcher.find()) {
+        for (ModelAst.ConditionDef conditionDef : ast.getConditions()) {
             ConditionNode cond = new ConditionNode();
-            cond.name = matcher.group(1);
-            cond.params = matcher.group(2).trim();
-            cond.expression = matcher.group(3).trim();
+            cond.name = conditionDef.getName();
+            StringBuilder params = new StringBuilder();
+            conditionDef.getParameters().forEach((name, type) ->
+                    params.append(params.isEmpty() ? "" : ", ").append(name).append(": ").append(type));
+            cond.params = params.toString();
+            cond.expression = conditionDef.getExpression();
             conditions.add(cond);
         }
-
         return conditions;
     }
 
@@ -1027,6 +1527,21 @@ object: document:readme
 
         textButtonBox.getChildren().addAll(checkFromTextBtn, new Label("  Result: "), checkResultLabel);
 
+        // Consistency preference and side-by-side latency comparison
+        HBox consistencyBox = new HBox(10);
+        consistencyBox.setAlignment(Pos.CENTER_LEFT);
+        checkConsistencyBox = createConsistencyComboBox();
+        compareRunsSpinner = new Spinner<>(1, 1000, 20);
+        compareRunsSpinner.setEditable(true);
+        compareRunsSpinner.setPrefWidth(80);
+        Button compareBtn = new Button("Compare Consistency");
+        compareBtn.setOnAction(e -> performConsistencyComparisonFromText());
+        consistencyBox.getChildren().addAll(new Label("Consistency:"), checkConsistencyBox,
+                compareBtn, new Label("Runs:"), compareRunsSpinner);
+
+        compareResultLabel = new Label("");
+        compareResultLabel.setStyle("-fx-font-family: monospace;");
+
         // Fields Format Section (Collapsible - for rare cases)
         checkFieldsPane = new TitledPane();
         checkFieldsPane.setText("Separate Fields (Advanced)");
@@ -1072,7 +1587,8 @@ object: document:readme
         fieldsContent.getChildren().addAll(grid, fieldButtonBox);
         checkFieldsPane.setContent(fieldsContent);
 
-        content.getChildren().addAll(textLabel, formatHint, checkTextArea, textButtonBox, checkFieldsPane);
+        content.getChildren().addAll(textLabel, formatHint, checkTextArea, textButtonBox,
+                consistencyBox, compareResultLabel, checkFieldsPane);
         tab.setContent(content);
         return tab;
     }
@@ -1111,12 +1627,17 @@ object:
         Label titleLabel = new Label("Advanced Queries (Text Format - paste from AI)");
         titleLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
 
-        // Results area (shared by all queries)
-        TextArea queryResultArea = new TextArea();
-        queryResultArea.setEditable(false);
-        queryResultArea.setPrefRowCount(12);
-        queryResultArea.setStyle("-fx-font-family: monospace; -fx-font-size: 11px;");
-        queryResultArea.setPromptText("Query results will appear here...");
+        HBox consistencyBox = new HBox(10);
+        consistencyBox.setAlignment(Pos.CENTER_LEFT);
+        queryConsistencyBox = createConsistencyComboBox();
+        Spinner<Integer> queryCompareRunsSpinner = new Spinner<>(1, 1000, 20);
+        queryCompareRunsSpinner.setEditable(true);
+        queryCompareRunsSpinner.setPrefWidth(80);
+        consistencyBox.getChildren().addAll(new Label("Consistency:"), queryConsistencyBox,
+                new Label("Compare runs:"), queryCompareRunsSpinner);
+
+        // Results view (shared by all queries)
+        ResultListView queryResultView = new ResultListView();
 
         // 1. List Objects Section
         TitledPane listObjectsPane = new TitledPane();
@@ -1142,10 +1663,18 @@ object:
                     parsed.getOrDefault("relation", ""),
                     parsed.getOrDefault("type", ""),
                     parsed.getOrDefault("context", ""),
-                    queryResultArea);
+                    queryResultView);
         });
 
-        loContent.getChildren().addAll(loHint, loTextArea, loBtn);
+        Button loCompareBtn = new Button("Compare Consistency");
+        loCompareBtn.setOnAction(e -> compareQueryConsistency("List Objects", parseTextFormat(loTextArea.getText()),
+                queryCompareRunsSpinner.getValue(), queryResultView));
+
+        HBox loButtonBox = new HBox(10);
+        loButtonBox.setAlignment(Pos.CENTER_LEFT);
+        loButtonBox.getChildren().addAll(loBtn, loCompareBtn);
+
+        loContent.getChildren().addAll(loHint, loTextArea, loButtonBox);
         listObjectsPane.setContent(loContent);
 
         // 2. List Users Section
@@ -1156,7 +1685,7 @@ object:
         VBox luContent = new VBox(10);
         luContent.setPadding(new Insets(10));
 
-        Label luHint = new Label("Format: object: ... | relation: ... | usertype: ... | context: {...} (optional)");
+        Label luHint = new Label("Format: object: ... | relation: a, b | usertype: user, group#member | context: {...} (optional)");
         luHint.setStyle("-fx-font-size: 11px; -fx-text-fill: #666;");
 
         TextArea luTextArea = new TextArea(DEFAULT_LIST_USERS_TEXT);
@@ -1172,10 +1701,18 @@ object:
                     parsed.getOrDefault("relation", ""),
                     parsed.getOrDefault("usertype", ""),
                     parsed.getOrDefault("context", ""),
-                    queryResultArea);
+                    queryResultView);
         });
 
-        luContent.getChildren().addAll(luHint, luTextArea, luBtn);
+        Button luCompareBtn = new Button("Compare Consistency");
+        luCompareBtn.setOnAction(e -> compareQueryConsistency("List Users", parseTextFormat(luTextArea.getText()),
+                queryCompareRunsSpinner.getValue(), queryResultView));
+
+        HBox luButtonBox = new HBox(10);
+        luButtonBox.setAlignment(Pos.CENTER_LEFT);
+        luButtonBox.getChildren().addAll(luBtn, luCompareBtn);
+
+        luContent.getChildren().addAll(luHint, luTextArea, luButtonBox);
         listUsersPane.setContent(luContent);
 
         // 3. Expand Section
@@ -1200,10 +1737,38 @@ object:
             performExpand(
                     parsed.getOrDefault("object", ""),
                     parsed.getOrDefault("relation", ""),
-                    queryResultArea);
+                    queryResultView);
+        });
+
+        Button exRecursiveBtn = new Button("Expand Recursively");
+        exRecursiveBtn.setStyle("-fx-background-color: #6A1B9A; -fx-text-fill: white;");
+        Spinner<Integer> exDepthSpinner = new Spinner<>(1, 50, 10);
+        exDepthSpinner.setEditable(true);
+        exDepthSpinner.setPrefWidth(70);
+
+        TreeView<String> exTreeView = new TreeView<>();
+        exTreeView.setPrefHeight(300);
+        exTreeView.setStyle("-fx-font-family: monospace; -fx-font-size: 11px;");
+        exTreeView.setVisible(false);
+        exTreeView.setManaged(false);
+
+        exRecursiveBtn.setOnAction(e -> {
+            Map<String, String> parsed = parseTextFormat(exTextArea.getText());
+            performRecursiveExpand(
+                    parsed.getOrDefault("object", ""),
+                    parsed.getOrDefault("relation", ""),
+                    exDepthSpinner.getValue(),
+                    exTreeView);
         });
 
-        exContent.getChildren().addAll(exHint, exTextArea, exBtn);
+        HBox exButtonBox = new HBox(10);
+        exButtonBox.setAlignment(Pos.CENTER_LEFT);
+        Button exCompareBtn = new Button("Compare Consistency");
+        exCompareBtn.setOnAction(e -> compareQueryConsistency("Expand", parseTextFormat(exTextArea.getText()),
+                queryCompareRunsSpinner.getValue(), queryResultView));
+        exButtonBox.getChildren().addAll(exBtn, exRecursiveBtn, new Label("Max depth:"), exDepthSpinner, exCompareBtn);
+
+        exContent.getChildren().addAll(exHint, exTextArea, exButtonBox, exTreeView);
         expandPane.setContent(exContent);
 
         // 4. Read Tuples Section
@@ -1229,7 +1794,7 @@ object:
                     parsed.getOrDefault("user", ""),
                     parsed.getOrDefault("relation", ""),
                     parsed.getOrDefault("object", ""),
-                    queryResultArea);
+                    queryResultView);
         });
 
         rtContent.getChildren().addAll(rtHint, rtTextArea, rtBtn);
@@ -1241,99 +1806,586 @@ object:
 
         content.getChildren().addAll(
                 titleLabel,
+                consistencyBox,
                 listObjectsPane,
                 listUsersPane,
                 expandPane,
                 readTuplesPane,
                 resultsLabel,
-                queryResultArea
+                queryResultView
         );
 
         tab.setContent(new ScrollPane(content));
         return tab;
     }
 
-    private void performListObjects(String user, String relation, String type, String context, TextArea resultArea) {
-        StoreInfo selected = storeComboBox.getValue();
-        if (selected == null) {
-            appendOutput("ERROR: No store selected");
-            return;
+    // ==================== Tests Tab ====================
+
+    private Tab createTestsTab() {
+        Tab tab = new Tab("Tests");
+
+        VBox content = new VBox(10);
+        content.setPadding(new Insets(15));
+
+        Label titleLabel = new Label("Model Tests (.fga.yaml)");
+        titleLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
+        Label hintLabel = new Label("Each run uses temporary stores on the current server, which are deleted afterwards.");
+        hintLabel.setStyle("-fx-text-fill: #666;");
+
+        HBox fileBox = new HBox(10);
+        fileBox.setAlignment(Pos.CENTER_LEFT);
+        Button openBtn = new Button("Open Test File...");
+        openBtn.setOnAction(e -> chooseTestFile(openBtn));
+        testFileLabel = new Label("No file selected");
+        testFileLabel.setStyle("-fx-font-style: italic;");
+        fileBox.getChildren().addAll(openBtn, testFileLabel);
+
+        HBox runBox = new HBox(10);
+        runBox.setAlignment(Pos.CENTER_LEFT);
+        testParallelismSpinner = new Spinner<>(1, 256, TEST_PARALLELISM);
+        testParallelismSpinner.setEditable(true);
+        testParallelismSpinner.setPrefWidth(90);
+        Button runBtn = new Button("Run Tests");
+        runBtn.setStyle("-fx-background-color: #2196F3; -fx-text-fill: white;");
+        runBtn.setOnAction(e -> runModelTests());
+        Button cancelBtn = new Button("Cancel");
+        cancelBtn.setOnAction(e -> {
+            if (testJob != null) testJob.cancel();
+        });
+        testSummaryLabel = new Label("");
+        runBox.getChildren().addAll(new Label("Parallel requests:"), testParallelismSpinner, runBtn, cancelBtn,
+                testSummaryLabel);
+
+        testResultView = new ResultListView();
+        VBox.setVgrow(testResultView, Priority.ALWAYS);
+
+        content.getChildren().addAll(titleLabel, hintLabel, fileBox, runBox, testResultView);
+        tab.setContent(content);
+        return tab;
+    }
+
+    private void chooseTestFile(javafx.scene.Node owner) {
+        javafx.stage.FileChooser chooser = new javafx.stage.FileChooser();
+        chooser.setTitle("Open Model Test File");
+        chooser.getExtensionFilters().addAll(
+                new javafx.stage.FileChooser.ExtensionFilter("Model tests", "*.fga.yaml", "*.yaml", "*.yml"),
+                new javafx.stage.FileChooser.ExtensionFilter("All files", "*.*"));
+        if (testFile != null) {
+            chooser.setInitialDirectory(testFile.getParent().toFile());
         }
+        java.io.File file = chooser.showOpenDialog(owner.getScene().getWindow());
+        if (file == null) return;
 
-        if (user.isBlank() || relation.isBlank() || type.isBlank()) {
-            appendOutput("ERROR: User, relation, and type are required");
+        testFile = file.toPath();
+        testFileLabel.setText(testFile.toString());
+        testFileLabel.setStyle("");
+    }
+
+    private void runModelTests() {
+        if (testFile == null) {
+            appendOutput("ERROR: No test file selected");
             return;
         }
+        if (testJob != null) testJob.cancel();
+
+        java.nio.file.Path file = testFile;
+        OpenFGAService service = activeService();
+        ModelTestRunner runner = new ModelTestRunner(service, dslService, testParallelismSpinner.getValue());
+        testSummaryLabel.setText("Running...");
+        testResultView.setResults("", List.of(), null);
+
+        testJob = runJob("Model tests: " + file.getFileName(), JobManager.Category.QUERY, job -> {
+            ModelTestRunner.Suite suite = ModelTestRunner.load(file);
+            appendOutput("Running " + suite.getAssertionCount() + " assertion(s) in " + suite.getTests().size()
+                    + " test(s) from " + file.getFileName() + "...");
+            ModelTestRunner.Report report;
+            try {
+                report = runner.run(suite, job);
+            } catch (Exception e) {
+                Platform.runLater(() -> testSummaryLabel.setText(job.isCancelRequested() ? "Cancelled" : "Failed"));
+                for (Throwable suppressed : e.getSuppressed()) {
+                    appendOutput("ERROR: " + suppressed.getMessage());
+                }
+                throw e;
+            }
 
-        updateServiceConfig();
-        appendOutput("Listing objects: " + user + " -> " + relation + " -> " + type + ":*");
-
-        runAsync(() -> {
-            long startTime = System.currentTimeMillis();
-            var objects = fgaService.listObjects(selected.getId(), user, relation, type, context);
-            long duration = System.currentTimeMillis() - startTime;
+            List<ResultListView.Row> rows = new ArrayList<>();
+            for (ModelTestRunner.Result result : report.getResults()) {
+                String text = String.format("%s  %7.1f ms  [%s] %s%s", result.isPassed() ? "PASS" : "FAIL",
+                        result.getLatencyMillis(), result.getTest(), result.getAssertion(),
+                        result.isPassed() ? "" : "  -> " + result.getMessage());
+                ObjectNode json = jsonMapper.createObjectNode()
+                        .put("test", result.getTest())
+                        .put("assertion", result.getAssertion().toString())
+                        .put("passed", result.isPassed())
+                        .put("latency_ms", result.getLatencyMillis());
+                if (!result.isPassed()) json.put("message", result.getMessage());
+                rows.add(new ResultListView.Row(text, json));
+            }
+            String summary = String.format("%d passed, %d failed in %.0f ms (assertions %.0f ms)",
+                    report.getPassedCount(), report.getFailedCount(), report.getTotalMillis(), report.getAssertionMillis());
+            appendOutput((report.getFailedCount() == 0 ? "" : "WARNING: ") + report.getSuite() + ": " + summary);
+            for (String store : report.getUndeletedStores()) {
+                appendOutput("ERROR: Could not delete test store " + store);
+            }
             Platform.runLater(() -> {
-                StringBuilder sb = new StringBuilder();
-                sb.append("=== List Objects ===\n");
-                sb.append("User: ").append(user).append("\n");
-                sb.append("Relation: ").append(relation).append("\n");
-                sb.append("Type: ").append(type).append("\n");
-                if (!context.isBlank()) sb.append("Context: ").append(context).append("\n");
-                sb.append("---\n");
-                sb.append("Found ").append(objects.size()).append(" object(s) in ").append(duration).append(" ms\n\n");
-                for (String obj : objects) {
-                    sb.append("  - ").append(obj).append("\n");
-                }
-                resultArea.setText(sb.toString());
-                appendOutput("Found " + objects.size() + " object(s) in " + duration + " ms");
+                testSummaryLabel.setText(summary);
+                testSummaryLabel.setStyle(report.getFailedCount() == 0 ? "-fx-text-fill: #2e7d32;" : "-fx-text-fill: #c62828;");
+                testResultView.setResults(summary, rows, null);
             });
-            return null;
         });
     }
 
-    private void performListUsers(String object, String relation, String userType, String context, TextArea resultArea) {
+    // ==================== Jobs Tab ====================
+
+    private Tab createJobsTab() {
+        Tab tab = new Tab("Jobs");
+        tab.setContent(new JobsView(jobManager));
+        return tab;
+    }
+
+    // ==================== Matrix Tab ====================
+
+    private Tab createMatrixTab() {
+        Tab tab = new Tab("Matrix");
+
+        VBox content = new VBox(10);
+        content.setPadding(new Insets(15));
+
+        Label titleLabel = new Label("Permission Matrix");
+        titleLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
+
+        Label columnsLabel = new Label("Objects (one per line):");
+        HBox modeBox = new HBox(10);
+        modeBox.setAlignment(Pos.CENTER_LEFT);
+        matrixModeBox = new ComboBox<>(FXCollections.observableArrayList(MATRIX_MODE_OBJECTS, MATRIX_MODE_RELATIONS));
+        matrixModeBox.setValue(MATRIX_MODE_OBJECTS);
+        Label fixedLabel = new Label("Relation:");
+        matrixFixedField = new TextField("viewer");
+        matrixFixedField.setPrefWidth(200);
+        matrixModeBox.valueProperty().addListener((obs, oldVal, newVal) -> {
+            boolean relations = MATRIX_MODE_RELATIONS.equals(newVal);
+            fixedLabel.setText(relations ? "Object:" : "Relation:");
+            matrixFixedField.setPromptText(relations ? "e.g., document:readme" : "e.g., viewer");
+            columnsLabel.setText(relations ? "Relations (one per line):" : "Objects (one per line):");
+        });
+        matrixContextField = new TextField();
+        matrixContextField.setPromptText("{\"key\":\"value\"} (optional)");
+        matrixContextField.setPrefWidth(250);
+        modeBox.getChildren().addAll(matrixModeBox, fixedLabel, matrixFixedField, new Label("Context:"), matrixContextField);
+
+        // User and column lists side by side
+        matrixUsersArea = new TextArea("user:alice\nuser:bob\n");
+        matrixUsersArea.setPrefRowCount(6);
+        matrixUsersArea.setStyle("-fx-font-family: monospace;");
+        matrixColumnsArea = new TextArea("document:readme\n");
+        matrixColumnsArea.setPrefRowCount(6);
+        matrixColumnsArea.setStyle("-fx-font-family: monospace;");
+
+        VBox usersBox = new VBox(5, new Label("Users (one per line):"), matrixUsersArea);
+        VBox columnsBox = new VBox(5, columnsLabel, matrixColumnsArea);
+        HBox.setHgrow(usersBox, Priority.ALWAYS);
+        HBox.setHgrow(columnsBox, Priority.ALWAYS);
+        HBox listsBox = new HBox(10, usersBox, columnsBox);
+
+        // Derive lists from ListUsers / ListObjects
+        HBox deriveBox = new HBox(10);
+        deriveBox.setAlignment(Pos.CENTER_LEFT);
+        matrixUserFilterField = new TextField("user");
+        matrixUserFilterField.setPrefWidth(150);
+        Button deriveUsersBtn = new Button("Derive Users");
+        deriveUsersBtn.setOnAction(e -> deriveMatrixUsers());
+        matrixObjectTypeField = new TextField("document");
+        matrixObjectTypeField.setPrefWidth(150);
+        Button deriveObjectsBtn = new Button("Derive Objects");
+        deriveObjectsBtn.setOnAction(e -> deriveMatrixObjects());
+        deriveBox.getChildren().addAll(new Label("User filter:"), matrixUserFilterField, deriveUsersBtn,
+                new Label("Object type:"), matrixObjectTypeField, deriveObjectsBtn);
+
+        // Run controls
+        HBox runBox = new HBox(10);
+        runBox.setAlignment(Pos.CENTER_LEFT);
+        Button runBtn = new Button("Run Matrix");
+        runBtn.setStyle("-fx-background-color: #2196F3; -fx-text-fill: white;");
+        runBtn.setOnAction(e -> runMatrix());
+        Button cancelBtn = new Button("Cancel");
+        cancelBtn.setOnAction(e -> {
+            if (currentMatrix != null) currentMatrix.cancel();
+        });
+        Button exportBtn = new Button("Export CSV");
+        exportBtn.setOnAction(e -> exportMatrixCsv(exportBtn));
+        matrixProgressBar = new ProgressBar(0);
+        matrixProgressBar.setPrefWidth(200);
+        matrixProgressLabel = new Label("");
+        runBox.getChildren().addAll(runBtn, cancelBtn, exportBtn, matrixProgressBar, matrixProgressLabel);
+
+        matrixTable = new TableView<>();
+        matrixTable.setPlaceholder(new Label("Enter users and objects, then click 'Run Matrix'"));
+        // A fixed row height lets the table lay out only the visible rows without measuring cells
+        matrixTable.setFixedCellSize(MATRIX_ROW_HEIGHT);
+        VBox.setVgrow(matrixTable, Priority.ALWAYS);
+
+        content.getChildren().addAll(titleLabel, modeBox, listsBox, deriveBox, runBox, matrixTable);
+        tab.setContent(content);
+        return tab;
+    }
+
+    private void runMatrix() {
         StoreInfo selected = storeComboBox.getValue();
         if (selected == null) {
             appendOutput("ERROR: No store selected");
             return;
         }
 
-        if (object.isBlank() || relation.isBlank() || userType.isBlank()) {
-            appendOutput("ERROR: Object, relation, and user type are required");
+        List<String> users = splitLines(matrixUsersArea.getText());
+        List<String> columns = splitLines(matrixColumnsArea.getText());
+        String fixed = matrixFixedField.getText().trim();
+        if (users.isEmpty() || columns.isEmpty() || fixed.isEmpty()) {
+            appendOutput("ERROR: Users, columns, and the " + fixedFieldName() + " are required");
             return;
         }
 
-        // Parse object into type and id
-        String[] parts = object.split(":", 2);
-        if (parts.length != 2) {
-            appendOutput("ERROR: Object must be in format type:id");
+        if (currentMatrix != null) currentMatrix.cancel();
+        boolean columnsAreRelations = MATRIX_MODE_RELATIONS.equals(matrixModeBox.getValue());
+        PermissionMatrix matrix = new PermissionMatrix(users, columns, columnsAreRelations, fixed);
+        currentMatrix = matrix;
+        buildMatrixTable(matrix);
+
+        OpenFGAService service = activeService();
+        String context = matrixContextField.getText();
+        String modelId = currentAuthModelId;
+        ConsistencyPreference consistency = queryConsistency();
+        appendOutput("Running matrix: " + users.size() + " user(s) x " + columns.size() + " column(s) = "
+                + matrix.getCellCount() + " check(s)");
+
+        if (matrixRefreshTimeline != null) matrixRefreshTimeline.stop();
+        JobManager.Job matrixJob = runJob("Matrix: " + users.size() + " x " + columns.size() + " on " + fixed,
+                JobManager.Category.QUERY, job -> {
+            job.setTotal(matrix.getCellCount());
+            long startTime = System.currentTimeMillis();
+            try {
+                matrix.run(service, selected.getId(), context, modelId, consistency, MATRIX_PARALLELISM);
+            } finally {
+                job.setDone(matrix.getCompletedCount());
+                long duration = System.currentTimeMillis() - startTime;
+                Platform.runLater(() -> {
+                    if (matrix == currentMatrix) {
+                        matrixRefreshTimeline.stop();
+                        refreshMatrixProgress(matrix);
+                    }
+                    appendOutput("Matrix " + (matrix.isCancelled() ? "cancelled" : "finished") + ": "
+                            + matrix.getCompletedCount() + "/" + matrix.getCellCount() + " check(s) in " + duration + " ms");
+                });
+            }
+        });
+
+        // Cells are repainted from the shared state on a timer rather than per result
+        matrixRefreshTimeline = new javafx.animation.Timeline(new javafx.animation.KeyFrame(
+                javafx.util.Duration.millis(100), e -> {
+                    matrixJob.setDone(matrix.getCompletedCount());
+                    refreshMatrixProgress(matrix);
+                }));
+        matrixRefreshTimeline.setCycleCount(javafx.animation.Animation.INDEFINITE);
+        matrixRefreshTimeline.play();
+    }
+
+    private void buildMatrixTable(PermissionMatrix matrix) {
+        matrixTable.getColumns().clear();
+
+        TableColumn<Integer, String> userColumn = new TableColumn<>("User");
+        userColumn.setCellValueFactory(cell ->
+                new javafx.beans.property.ReadOnlyStringWrapper(matrix.getUsers().get(cell.getValue())));
+        userColumn.setPrefWidth(180);
+        matrixTable.getColumns().add(userColumn);
+
+        for (int i = 0; i < matrix.getColumns().size(); i++) {
+            int columnIndex = i;
+            TableColumn<Integer, Byte> column = new TableColumn<>(matrix.getColumns().get(i));
+            column.setCellValueFactory(cell ->
+                    new javafx.beans.property.ReadOnlyObjectWrapper<>(matrix.getState(cell.getValue(), columnIndex)));
+            column.setCellFactory(col -> new MatrixCell());
+            // Fixed widths, so adding or resizing columns never re-measures the others
+            column.setMinWidth(MATRIX_COLUMN_WIDTH);
+            column.setPrefWidth(MATRIX_COLUMN_WIDTH);
+            column.setMaxWidth(MATRIX_COLUMN_WIDTH);
+            column.setResizable(false);
+            column.setSortable(false);
+            matrixTable.getColumns().add(column);
+        }
+
+        // Row items are just indexes; the table only materializes cells for visible rows
+        List<Integer> rows = new ArrayList<>(matrix.getUsers().size());
+        for (int i = 0; i < matrix.getUsers().size(); i++) rows.add(i);
+        matrixTable.setItems(FXCollections.observableArrayList(rows));
+    }
+
+    private void refreshMatrixProgress(PermissionMatrix matrix) {
+        int done = matrix.getCompletedCount();
+        matrixProgressBar.setProgress(matrix.getCellCount() == 0 ? 1 : done / (double) matrix.getCellCount());
+        matrixProgressLabel.setText(done + " / " + matrix.getCellCount() + (matrix.isCancelled() ? " (cancelled)" : ""));
+        matrixTable.refresh();
+    }
+
+    private static class MatrixCell extends TableCell<Integer, Byte> {
+        @Override
+        protected void updateItem(Byte state, boolean empty) {
+            super.updateItem(state, empty);
+            if (empty || state == null) {
+                setText(null);
+                setStyle("");
+                return;
+            }
+            setText(PermissionMatrix.stateLabel(state));
+            switch (state) {
+                case PermissionMatrix.ALLOWED -> setStyle("-fx-background-color: #C8E6C9; -fx-text-fill: #1B5E20;");
+                case PermissionMatrix.DENIED -> setStyle("-fx-background-color: #FFCDD2; -fx-text-fill: #B71C1C;");
+                case PermissionMatrix.ERROR -> setStyle("-fx-background-color: #FFE0B2; -fx-text-fill: #E65100;");
+                default -> setStyle("-fx-text-fill: #999;");
+            }
+        }
+    }
+
+    private void exportMatrixCsv(javafx.scene.Node owner) {
+        PermissionMatrix matrix = currentMatrix;
+        if (matrix == null) {
+            appendOutput("ERROR: No matrix to export");
+            return;
+        }
+
+        javafx.stage.FileChooser chooser = new javafx.stage.FileChooser();
+        chooser.setTitle("Export Matrix");
+        chooser.setInitialFileName("permission-matrix.csv");
+        chooser.getExtensionFilters().add(new javafx.stage.FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        java.io.File file = chooser.showSaveDialog(owner.getScene().getWindow());
+        if (file == null) return;
+
+        runAsync("Export matrix to " + file.getName(), JobManager.Category.ADMIN, () -> {
+            matrix.writeCsv(file.toPath());
+            appendOutput("Matrix exported to " + file);
+            return null;
+        });
+    }
+
+    private void deriveMatrixUsers() {
+        StoreInfo selected = storeComboBox.getValue();
+        if (selected == null) {
+            appendOutput("ERROR: No store selected");
+            return;
+        }
+
+        boolean columnsAreRelations = MATRIX_MODE_RELATIONS.equals(matrixModeBox.getValue());
+        List<String> columns = splitLines(matrixColumnsArea.getText());
+        String fixed = matrixFixedField.getText().trim();
+        List<String> filters = splitList(matrixUserFilterField.getText());
+        if (columns.isEmpty() || fixed.isEmpty() || filters.isEmpty()) {
+            appendOutput("ERROR: Columns, the " + fixedFieldName() + " and a user filter are required");
+            return;
+        }
+
+        List<String> objects = columnsAreRelations ? List.of(fixed) : columns;
+        List<String> relations = columnsAreRelations ? columns : List.of(fixed);
+        List<String> invalid = ParallelListUsers.invalidObjects(objects);
+        if (!invalid.isEmpty()) {
+            appendOutput("ERROR: Objects must be in format type:id: " + String.join(", ", invalid));
+            return;
+        }
+
+        ParallelListUsers listUsers = new ParallelListUsers(activeService(), selected.getId(), currentAuthModelId,
+                queryConsistency(), LIST_USERS_PARALLELISM);
+        String context = matrixContextField.getText();
+        appendOutput("Deriving users from " + objects.size() * relations.size() * filters.size() + " list-users call(s)...");
+
+        runAsync("Derive matrix users", JobManager.Category.QUERY, () -> {
+            ParallelListUsers.Result result = listUsers.run(objects, relations, filters, context);
+            String users = String.join("\n", result.getMergedUsers());
+            Platform.runLater(() -> {
+                matrixUsersArea.setText(users);
+                appendOutput("Derived " + result.getMergedUsers().size() + " user(s) in " + result.getDurationMillis() + " ms");
+            });
+            return null;
+        });
+    }
+
+    private void deriveMatrixObjects() {
+        StoreInfo selected = storeComboBox.getValue();
+        if (selected == null) {
+            appendOutput("ERROR: No store selected");
+            return;
+        }
+
+        if (MATRIX_MODE_RELATIONS.equals(matrixModeBox.getValue())) {
+            appendOutput("ERROR: Derive Objects applies to the Users × Objects mode");
+            return;
+        }
+
+        List<String> users = splitLines(matrixUsersArea.getText());
+        String relation = matrixFixedField.getText().trim();
+        String type = matrixObjectTypeField.getText().trim();
+        if (users.isEmpty() || relation.isEmpty() || type.isEmpty()) {
+            appendOutput("ERROR: Users, relation and object type are required");
+            return;
+        }
+
+        OpenFGAService service = activeService();
+        String context = matrixContextField.getText();
+        String modelId = currentAuthModelId;
+        ConsistencyPreference consistency = queryConsistency();
+        appendOutput("Deriving " + type + " objects from " + users.size() + " list-objects call(s)...");
+
+        runAsync("Derive matrix objects", JobManager.Category.QUERY, () -> {
+            long startTime = System.currentTimeMillis();
+            Set<String> objects = new java.util.concurrent.ConcurrentSkipListSet<>();
+            java.util.concurrent.atomic.AtomicInteger failures = new java.util.concurrent.atomic.AtomicInteger();
+            try (var executor = java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor()) {
+                for (String user : users) {
+                    executor.submit(() -> {
+                        try {
+                            objects.addAll(service.listObjects(selected.getId(), user, relation, type, context,
+                                    modelId, consistency));
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                        }
+                    });
+                }
+            }
+            long duration = System.currentTimeMillis() - startTime;
+            Platform.runLater(() -> {
+                matrixColumnsArea.setText(String.join("\n", objects));
+                appendOutput("Derived " + objects.size() + " object(s) in " + duration + " ms"
+                        + (failures.get() > 0 ? " (" + failures.get() + " call(s) failed)" : ""));
+            });
+            return null;
+        });
+    }
+
+    private String fixedFieldName() {
+        return MATRIX_MODE_RELATIONS.equals(matrixModeBox.getValue()) ? "object" : "relation";
+    }
+
+    private List<String> splitLines(String text) {
+        List<String> lines = new ArrayList<>();
+        for (String line : text.split("\n")) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) lines.add(trimmed);
+        }
+        return lines;
+    }
+
+    private void performListObjects(String user, String relation, String type, String context, ResultListView resultView) {
+        StoreInfo selected = storeComboBox.getValue();
+        if (selected == null) {
+            appendOutput("ERROR: No store selected");
             return;
         }
 
-        updateServiceConfig();
-        appendOutput("Listing users: " + userType + ":* -> " + relation + " -> " + object);
+        if (user.isBlank() || relation.isBlank() || type.isBlank()) {
+            appendOutput("ERROR: User, relation, and type are required");
+            return;
+        }
+
+        OpenFGAService service = activeService();
+        appendOutput("Listing objects: " + user + " -> " + relation + " -> " + type + ":*");
 
-        runAsync(() -> {
+        String modelId = currentAuthModelId;
+        ConsistencyPreference consistency = queryConsistencyBox.getValue();
+        runAsync("List objects: " + user + " " + relation + " " + type, JobManager.Category.QUERY, () -> {
             long startTime = System.currentTimeMillis();
-            var response = fgaService.listUsers(selected.getId(), relation, parts[0], parts[1], userType, context);
+            var objects = service.listObjects(selected.getId(), user, relation, type, context, modelId, consistency);
             long duration = System.currentTimeMillis() - startTime;
+
+            List<ResultListView.Row> rows = new ArrayList<>(objects.size());
+            var json = jsonMapper.createObjectNode();
+            var objectsJson = json.putArray("objects");
+            for (String obj : objects) {
+                rows.add(new ResultListView.Row(obj, objectsJson.textNode(obj)));
+                objectsJson.add(obj);
+            }
+            String summary = "List Objects: " + user + " -> " + relation + " -> " + type + ":*"
+                    + (context.isBlank() ? "" : "  context: " + context)
+                    + "\nFound " + objects.size() + " object(s) in " + duration + " ms";
+
             Platform.runLater(() -> {
-                StringBuilder sb = new StringBuilder();
-                sb.append("=== List Users === (").append(duration).append(" ms)\n");
-                sb.append("Object: ").append(object).append("\n");
-                sb.append("Relation: ").append(relation).append("\n");
-                sb.append("User Type: ").append(userType).append("\n");
-                if (!context.isBlank()) sb.append("Context: ").append(context).append("\n");
-                sb.append("---\n");
-                sb.append(prettyPrintJson(response.toString()));
-                resultArea.setText(sb.toString());
-                appendOutput("List users completed in " + duration + " ms");
+                resultView.setResults(summary, rows, json);
+                appendOutput("Found " + objects.size() + " object(s) in " + duration + " ms");
             });
             return null;
         });
     }
 
-    private void performExpand(String object, String relation, TextArea resultArea) {
+    private void performListUsers(String object, String relation, String userType, String context, ResultListView resultView) {
+        StoreInfo selected = storeComboBox.getValue();
+        if (selected == null) {
+            appendOutput("ERROR: No store selected");
+            return;
+        }
+
+        if (object.isBlank() || relation.isBlank() || userType.isBlank()) {
+            appendOutput("ERROR: Object, relation, and user type are required");
+            return;
+        }
+
+        // Parse object into type and id
+        String[] parts = object.split(":", 2);
+        if (parts.length != 2) {
+            appendOutput("ERROR: Object must be in format type:id");
+            return;
+        }
+
+        // Several relations and user filters may be given, comma-separated
+        List<String> relations = splitList(relation);
+        List<String> userFilters = splitList(userType);
+
+        OpenFGAService service = activeService();
+        appendOutput("Listing users: " + userFilters + " -> " + relations + " -> " + object
+                + " (" + relations.size() * userFilters.size() + " parallel call(s))");
+
+        ParallelListUsers listUsers = new ParallelListUsers(service, selected.getId(), currentAuthModelId,
+                queryConsistencyBox.getValue(), LIST_USERS_PARALLELISM);
+        runAsync("List users: " + relation + " on " + object, JobManager.Category.QUERY, () -> {
+            ParallelListUsers.Result result = listUsers.run(parts[0], parts[1], relations, userFilters, context);
+            Map<String, Set<String>> byUser = result.getRelationsByUser();
+
+            StringBuilder summary = new StringBuilder();
+            summary.append("List Users: ").append(String.join(", ", userFilters)).append(" -> ")
+                    .append(String.join(", ", relations)).append(" -> ").append(object);
+            if (!context.isBlank()) summary.append("  context: ").append(context);
+            for (ParallelListUsers.Query query : result.getQueries()) {
+                summary.append(String.format("%n  %-20s %-25s %6d ms  ", query.getRelation(), query.getUserFilter(),
+                        query.getDurationMillis()));
+                summary.append(query.getError() != null ? "ERROR: " + query.getError() : query.getUsers().size() + " user(s)");
+            }
+            summary.append("\nFound ").append(byUser.size()).append(" distinct user(s) in ")
+                    .append(result.getDurationMillis()).append(" ms");
+
+            List<ResultListView.Row> rows = new ArrayList<>(byUser.size());
+            var json = jsonMapper.createObjectNode();
+            var usersJson = json.putObject("users");
+            for (Map.Entry<String, Set<String>> entry : byUser.entrySet()) {
+                var relationsJson = usersJson.putArray(entry.getKey());
+                entry.getValue().forEach(relationsJson::add);
+                String text = relations.size() > 1
+                        ? entry.getKey() + "  [" + String.join(", ", entry.getValue()) + "]"
+                        : entry.getKey();
+                rows.add(new ResultListView.Row(text, relationsJson.textNode(entry.getKey())));
+            }
+
+            Platform.runLater(() -> {
+                resultView.setResults(summary.toString(), rows, json);
+                appendOutput("List users: " + byUser.size() + " distinct user(s) in " + result.getDurationMillis() + " ms");
+            });
+            return null;
+        });
+    }
+
+    private List<String> splitList(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.isBlank()) items.add(item.trim());
+        }
+        return items;
+    }
+
+    private void performExpand(String object, String relation, ResultListView resultView) {
         StoreInfo selected = storeComboBox.getValue();
         if (selected == null) {
             appendOutput("ERROR: No store selected");
@@ -1345,73 +2397,242 @@ object:
             return;
         }
 
-        updateServiceConfig();
+        OpenFGAService service = activeService();
         appendOutput("Expanding: " + relation + " on " + object);
 
-        runAsync(() -> {
+        String modelId = currentAuthModelId;
+        ConsistencyPreference consistency = queryConsistencyBox.getValue();
+        runAsync("Expand: " + relation + " on " + object, JobManager.Category.QUERY, () -> {
             long startTime = System.currentTimeMillis();
-            var response = fgaService.expand(selected.getId(), relation, object);
+            var response = service.expand(selected.getId(), relation, object, modelId, consistency);
             long duration = System.currentTimeMillis() - startTime;
+
+            List<ResultListView.Row> rows = new ArrayList<>();
+            for (String line : prettyPrintJson(response.toString()).split("\n")) {
+                rows.add(new ResultListView.Row(line, null));
+            }
+            String summary = "Expand: " + relation + " on " + object + " (" + duration + " ms)";
+
             Platform.runLater(() -> {
-                StringBuilder sb = new StringBuilder();
-                sb.append("=== Expand === (").append(duration).append(" ms)\n");
-                sb.append("Object: ").append(object).append("\n");
-                sb.append("Relation: ").append(relation).append("\n");
-                sb.append("---\n");
-                sb.append(prettyPrintJson(response.toString()));
-                resultArea.setText(sb.toString());
+                resultView.setResults(summary, rows, response);
                 appendOutput("Expand completed in " + duration + " ms");
             });
             return null;
         });
     }
 
-    private void performReadTuples(String user, String relation, String object, TextArea resultArea) {
+    private void performRecursiveExpand(String object, String relation, int maxDepth, TreeView<String> treeView) {
         StoreInfo selected = storeComboBox.getValue();
         if (selected == null) {
             appendOutput("ERROR: No store selected");
             return;
         }
 
-        updateServiceConfig();
-        appendOutput("Reading tuples...");
+        if (object.isBlank() || relation.isBlank()) {
+            appendOutput("ERROR: Object and relation are required");
+            return;
+        }
 
-        runAsync(() -> {
-            long startTime = System.currentTimeMillis();
-            var response = fgaService.readTuples(selected.getId(), user, relation, object);
-            long duration = System.currentTimeMillis() - startTime;
+        OpenFGAService service = activeService();
+        appendOutput("Expanding recursively: " + relation + " on " + object + " (max depth " + maxDepth + ")");
+
+        RecursiveExpander expander = new RecursiveExpander(service, selected.getId(), currentAuthModelId,
+                queryConsistencyBox.getValue(), maxDepth, EXPAND_PARALLELISM);
+        runAsync("Recursive expand: " + relation + " on " + object, JobManager.Category.QUERY, () -> {
+            RecursiveExpander.Result result = expander.expand(object, relation);
             Platform.runLater(() -> {
-                StringBuilder sb = new StringBuilder();
-                sb.append("=== Read Tuples === (").append(duration).append(" ms)\n");
-                if (!user.isBlank()) sb.append("Filter User: ").append(user).append("\n");
-                if (!relation.isBlank()) sb.append("Filter Relation: ").append(relation).append("\n");
-                if (!object.isBlank()) sb.append("Filter Object: ").append(object).append("\n");
-                sb.append("---\n");
-                sb.append(prettyPrintJson(response.toString()));
-                resultArea.setText(sb.toString());
-                appendOutput("Read tuples completed in " + duration + " ms");
+                ExpandTreeItem root = ExpandTreeItem.forUserset(result, result.getRootKey(), new HashSet<>());
+                root.setExpanded(true);
+                treeView.setRoot(root);
+                treeView.setVisible(true);
+                treeView.setManaged(true);
+                appendOutput("Recursive expand: " + result.getExpandedCount() + " userset(s) via "
+                        + result.getRequestCount() + " request(s) in " + result.getDurationMillis() + " ms"
+                        + (result.getErrorCount() > 0 ? ", " + result.getErrorCount() + " error(s)" : ""));
             });
             return null;
         });
     }
 
-    private VBox createOutputPanel() {
-        VBox outputBox = new VBox(5);
-        outputBox.setPadding(new Insets(10, 0, 0, 0));
+    /**
+     * Tree item over a {@link RecursiveExpander.Result}. Children are built on first access,
+     * so only branches the user actually opens are turned into UI nodes.
+     */
+    private static class ExpandTreeItem extends TreeItem<String> {
+        private final RecursiveExpander.Result result;
+        private final JsonNode node;
+        private final String userset;
+        private final Set<String> ancestors;
+        private final boolean leaf;
+        private boolean childrenLoaded;
+
+        private ExpandTreeItem(String label, RecursiveExpander.Result result, JsonNode node,
+                               String userset, Set<String> ancestors, boolean leaf) {
+            super(label);
+            this.result = result;
+            this.node = node;
+            this.userset = userset;
+            this.ancestors = ancestors;
+            this.leaf = leaf;
+        }
+
+        static ExpandTreeItem forUserset(RecursiveExpander.Result result, String userset, Set<String> ancestors) {
+            if (ancestors.contains(userset)) {
+                return new ExpandTreeItem(userset + "  (cycle)", result, null, null, ancestors, true);
+            }
+            JsonNode tree = result.getTree(userset);
+            if (tree == null) {
+                String error = result.getError(userset);
+                String reason = error != null ? "error: " + error
+                        : result.isTruncated(userset) ? "depth limit" : "not expanded";
+                return new ExpandTreeItem(userset + "  (" + reason + ")", result, null, null, ancestors, true);
+            }
+            Set<String> path = new HashSet<>(ancestors);
+            path.add(userset);
+            return new ExpandTreeItem(userset + "  [" + describe(tree) + "]", result, tree, userset, path, false);
+        }
 
-        Label outputLabel = new Label("Output / Logs:");
-        outputLabel.setStyle("-fx-font-weight: bold;");
+        static ExpandTreeItem forNode(RecursiveExpander.Result result, String prefix, JsonNode node, Set<String> ancestors) {
+            return new ExpandTreeItem(prefix + describe(node), result, node, null, ancestors, false);
+        }
 
-        outputArea = new TextArea();
-        outputArea.setEditable(false);
-        outputArea.setPrefRowCount(8);
-        outputArea.setStyle("-fx-font-family: monospace; -fx-font-size: 12px;");
+        static ExpandTreeItem forUser(String user) {
+            return new ExpandTreeItem(user, null, null, null, Set.of(), true);
+        }
+
+        private static String describe(JsonNode node) {
+            if (node.has("union")) return "union";
+            if (node.has("intersection")) return "intersection";
+            if (node.has("difference")) return "but not";
+            JsonNode leaf = node.path("leaf");
+            if (leaf.has("users")) return "direct (" + leaf.path("users").path("users").size() + ")";
+            if (leaf.has("computed")) return "computed";
+            if (leaf.has("tupleToUserset")) return "from " + leaf.path("tupleToUserset").path("tupleset").asText();
+            return "?";
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return leaf;
+        }
+
+        @Override
+        public ObservableList<TreeItem<String>> getChildren() {
+            if (!childrenLoaded) {
+                childrenLoaded = true;
+                super.getChildren().setAll(buildChildren());
+            }
+            return super.getChildren();
+        }
 
-        Button clearBtn = new Button("Clear");
-        clearBtn.setOnAction(e -> outputArea.clear());
+        private List<TreeItem<String>> buildChildren() {
+            List<TreeItem<String>> children = new ArrayList<>();
+            if (node == null) return children;
 
-        outputBox.getChildren().addAll(outputLabel, outputArea, clearBtn);
-        return outputBox;
+            // A userset item shows the single root node of its expansion inline
+            if (userset != null) {
+                children.addAll(forNode(result, "", node, ancestors).getChildren());
+                return children;
+            }
+
+            for (String operator : new String[]{"union", "intersection"}) {
+                for (JsonNode child : node.path(operator).path("nodes")) {
+                    children.add(forNode(result, "", child, ancestors));
+                }
+            }
+            JsonNode difference = node.path("difference");
+            if (difference.has("base")) children.add(forNode(result, "base: ", difference.get("base"), ancestors));
+            if (difference.has("subtract")) children.add(forNode(result, "subtract: ", difference.get("subtract"), ancestors));
+
+            JsonNode leafNode = node.path("leaf");
+            for (JsonNode user : leafNode.path("users").path("users")) {
+                String value = user.asText();
+                children.add(RecursiveExpander.isUserset(value)
+                        ? forUserset(result, value, ancestors)
+                        : forUser(value));
+            }
+            String computed = leafNode.path("computed").path("userset").asText();
+            if (!computed.isEmpty()) {
+                children.add(forUserset(result, computed, ancestors));
+            }
+            for (JsonNode target : leafNode.path("tupleToUserset").path("computed")) {
+                children.add(forUserset(result, target.path("userset").asText(), ancestors));
+            }
+            return children;
+        }
+    }
+
+    private void performReadTuples(String user, String relation, String object, ResultListView resultView) {
+        StoreInfo selected = storeComboBox.getValue();
+        if (selected == null) {
+            appendOutput("ERROR: No store selected");
+            return;
+        }
+
+        OpenFGAService service = activeService();
+        appendOutput("Reading tuples...");
+
+        StringBuilder filters = new StringBuilder();
+        if (!user.isBlank()) filters.append("  user: ").append(user);
+        if (!relation.isBlank()) filters.append("  relation: ").append(relation);
+        if (!object.isBlank()) filters.append("  object: ").append(object);
+
+        readTuplePage(service, selected.getId(), user, relation, object, queryConsistencyBox.getValue(),
+                null, 0, "Read Tuples" + filters, resultView, 0);
+    }
+
+    /**
+     * Read one page of tuples and show it, replacing the results for the first page and
+     * appending for later ones. "Load More" fetches the next page while a token is returned;
+     * a later page is dropped if the view was given other results ({@code generation}) meanwhile.
+     */
+    private void readTuplePage(OpenFGAService service, String storeId, String user, String relation, String object,
+                               ConsistencyPreference consistency, String continuationToken, int loadedSoFar,
+                               String title, ResultListView resultView, long generation) {
+        runAsync("Read tuples" + (continuationToken == null ? "" : " (next page)"), JobManager.Category.QUERY, () -> {
+            long startTime = System.currentTimeMillis();
+            var response = service.readTuples(storeId, user, relation, object, consistency,
+                    READ_TUPLES_PAGE_SIZE, continuationToken);
+            long duration = System.currentTimeMillis() - startTime;
+
+            List<ResultListView.Row> rows = new ArrayList<>();
+            for (JsonNode tuple : response.path("tuples")) {
+                JsonNode key = tuple.path("key");
+                String text = key.path("user").asText() + "  " + key.path("relation").asText() + "  "
+                        + key.path("object").asText();
+                if (key.has("condition")) {
+                    text += "  with " + key.path("condition").path("name").asText();
+                }
+                rows.add(new ResultListView.Row(text, tuple));
+            }
+            int loaded = loadedSoFar + rows.size();
+            String nextToken = response.path("continuation_token").asText();
+            String summary = title + "\nLoaded " + loaded + " tuple(s), last page in " + duration + " ms"
+                    + (nextToken.isBlank() ? "" : " (more available)");
+
+            Platform.runLater(() -> {
+                if (continuationToken == null) {
+                    resultView.setResults(summary, rows, response);
+                } else if (resultView.getGeneration() == generation) {
+                    resultView.appendResults(summary, rows);
+                } else {
+                    return;
+                }
+                long current = resultView.getGeneration();
+                resultView.setLoadMore(nextToken.isBlank() ? null : () -> readTuplePage(service, storeId,
+                        user, relation, object, consistency, nextToken, loaded, title, resultView, current));
+                appendOutput("Read " + rows.size() + " tuple(s) in " + duration + " ms");
+            });
+            return null;
+        });
+    }
+
+    private VBox createOutputPanel() {
+        java.nio.file.Path spillFile = java.nio.file.Path.of(System.getProperty("user.home"), ".openfga-client", "logs",
+                "client-" + java.time.LocalDate.now() + ".log");
+        logView = new LogView(logBuffer, spillFile);
+        logView.setPadding(new Insets(10, 0, 0, 0));
+        return logView;
     }
 
     // ==================== Text Format Parsing ====================
@@ -1478,7 +2699,7 @@ object:
         String text = tupleTextArea.getText();
         String[] tupleBlocks = text.split("---");
 
-        int count = 0;
+        List<TupleKey> tuples = new ArrayList<>();
         for (String block : tupleBlocks) {
             block = block.trim();
             if (block.isEmpty()) continue;
@@ -1496,15 +2717,15 @@ object:
             }
 
             if (user != null && !user.isBlank() && relation != null && !relation.isBlank() && object != null && !object.isBlank()) {
-                writeTuple(user, relation, object, condition, context);
-                count++;
+                tuples.add(new TupleKey(user, relation, object, condition, context));
             }
         }
 
-        if (count == 0) {
+        if (tuples.isEmpty()) {
             appendOutput("ERROR: No valid tuples found");
         } else {
-            appendOutput("Processing " + count + " tuple(s)...");
+            checkTuplesAgainstModel(tuples);
+            startTupleJob(WriteJournal.OP_WRITE, tuples);
         }
     }
 
@@ -1512,7 +2733,7 @@ object:
         String text = tupleTextArea.getText();
         String[] tupleBlocks = text.split("---");
 
-        int count = 0;
+        List<TupleKey> tuples = new ArrayList<>();
         for (String block : tupleBlocks) {
             block = block.trim();
             if (block.isEmpty()) continue;
@@ -1523,15 +2744,14 @@ object:
             String object = parsed.get("object");
 
             if (user != null && !user.isBlank() && relation != null && !relation.isBlank() && object != null && !object.isBlank()) {
-                deleteTuple(user, relation, object);
-                count++;
+                tuples.add(new TupleKey(user, relation, object));
             }
         }
 
-        if (count == 0) {
+        if (tuples.isEmpty()) {
             appendOutput("ERROR: No valid tuples found");
         } else {
-            appendOutput("Deleting " + count + " tuple(s)...");
+            startTupleJob(WriteJournal.OP_DELETE, tuples);
         }
     }
 
@@ -1553,6 +2773,65 @@ object:
         );
     }
 
+    /**
+     * Warn about tuples the editor's model has no place for. Only a hint, since the store
+     * may be using another model, so the tuples are written either way. Uses the shared
+     * parse of the editor text, which live validation has usually made already.
+     */
+    private void checkTuplesAgainstModel(List<TupleKey> tuples) {
+        if (dslEditor == null) return;
+        String dsl = dslEditor.getText();
+        runAsync("Check tuples against model", JobManager.Category.MODEL, () -> {
+            ParsedModel parsed = dslService.parse(dsl);
+            if (parsed.hasSyntaxErrors()) return null;
+            Map<String, Set<String>> relations = new HashMap<>();
+            for (ModelAst.TypeDef type : parsed.getAst().getTypes()) {
+                Set<String> names = relations.computeIfAbsent(type.getName(), name -> new HashSet<>());
+                for (ModelAst.RelationDef relation : type.getRelations()) names.add(relation.getName());
+            }
+            Set<String> conditions = new HashSet<>();
+            for (ModelAst.ConditionDef condition : parsed.getAst().getConditions()) conditions.add(condition.getName());
+
+            int problems = 0;
+            for (TupleKey tuple : tuples) {
+                String problem = tupleProblem(tuple, relations, conditions);
+                if (problem != null && ++problems <= MAX_TUPLE_WARNINGS) {
+                    appendOutput("WARNING: " + tuple + ": " + problem);
+                }
+            }
+            if (problems > MAX_TUPLE_WARNINGS) {
+                appendOutput("WARNING: " + (problems - MAX_TUPLE_WARNINGS) + " more tuple(s) do not match the editor's model");
+            }
+            return null;
+        });
+    }
+
+    private static String tupleProblem(TupleKey tuple, Map<String, Set<String>> relations, Set<String> conditions) {
+        String objectType = tuple.getObject().contains(":")
+                ? tuple.getObject().substring(0, tuple.getObject().indexOf(':')) : tuple.getObject();
+        if (!relations.containsKey(objectType)) {
+            return "type '" + objectType + "' is not in the editor's model";
+        }
+        if (!relations.get(objectType).contains(tuple.getRelation())) {
+            return "type '" + objectType + "' has no relation '" + tuple.getRelation() + "'";
+        }
+        String user = tuple.getUser();
+        int colon = user.indexOf(':');
+        String userType = colon >= 0 ? user.substring(0, colon) : user;
+        if (!relations.containsKey(userType)) {
+            return "user type '" + userType + "' is not in the editor's model";
+        }
+        int hash = user.indexOf('#');
+        if (hash >= 0 && !relations.get(userType).contains(user.substring(hash + 1))) {
+            return "type '" + userType + "' has no relation '" + user.substring(hash + 1) + "'";
+        }
+        String condition = tuple.getConditionName();
+        if (condition != null && !condition.isBlank() && !conditions.contains(condition)) {
+            return "condition '" + condition + "' is not in the editor's model";
+        }
+        return null;
+    }
+
     private void writeTuple(String user, String relation, String object, String conditionName, String conditionContext) {
         StoreInfo selected = storeComboBox.getValue();
         if (selected == null) {
@@ -1565,11 +2844,13 @@ object:
             return;
         }
 
-        updateServiceConfig();
+        OpenFGAService service = activeService();
         appendOutput("Writing tuple: " + user + " -> " + relation + " -> " + object);
+        checkTuplesAgainstModel(List.of(new TupleKey(user, relation, object, conditionName, conditionContext)));
 
-        runAsync(() -> {
-            fgaService.writeTuple(selected.getId(), user, relation, object, conditionName, conditionContext);
+        String modelId = currentAuthModelId;
+        runAsync("Write tuple: " + user + " " + relation + " " + object, JobManager.Category.WRITE, () -> {
+            service.writeTuple(selected.getId(), user, relation, object, conditionName, conditionContext, modelId);
             Platform.runLater(() -> {
                 appendOutput("Tuple written successfully!");
             });
@@ -1589,11 +2870,12 @@ object:
             return;
         }
 
-        updateServiceConfig();
+        OpenFGAService service = activeService();
         appendOutput("Deleting tuple: " + user + " -> " + relation + " -> " + object);
 
-        runAsync(() -> {
-            fgaService.deleteTuple(selected.getId(), user, relation, object);
+        String modelId = currentAuthModelId;
+        runAsync("Delete tuple: " + user + " " + relation + " " + object, JobManager.Category.WRITE, () -> {
+            service.deleteTuple(selected.getId(), user, relation, object, modelId);
             Platform.runLater(() -> {
                 appendOutput("Tuple deleted successfully!");
             });
@@ -1601,6 +2883,171 @@ object:
         });
     }
 
+    // ==================== Bulk Tuple Jobs ====================
+
+    private void openWriteJournal() {
+        try {
+            writeJournal = WriteJournal.open(WriteJournal.defaultDirectory());
+        } catch (Exception e) {
+            writeJournal = WriteJournal.inMemory();
+            appendOutput("WARNING: Write journal unavailable, bulk jobs will not survive a restart: " + e.getMessage());
+            return;
+        }
+
+        List<WriteJournal.Job> unfinished = writeJournal.getUnfinishedJobs();
+        if (unfinished.isEmpty()) {
+            return;
+        }
+
+        StringBuilder details = new StringBuilder();
+        for (WriteJournal.Job job : unfinished) {
+            details.append("- ").append(job).append("\n  ").append(job.getApiUrl()).append("\n");
+        }
+
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle("Unfinished Tuple Jobs");
+        confirm.setHeaderText(unfinished.size() + " bulk tuple job(s) did not finish last time. Resume them?");
+        confirm.setContentText(details + "\nCancel discards them.");
+
+        Optional<ButtonType> result = confirm.showAndWait();
+        boolean resume = result.isPresent() && result.get() == ButtonType.OK;
+        for (WriteJournal.Job job : unfinished) {
+            if (resume) {
+                // The job must go back to the server it was started against, through a known profile
+                OpenFGAService service = activeService();
+                if (!service.getApiUrl().equals(job.getApiUrl().replaceAll("/$", ""))) {
+                    service = connectionManager.serviceForUrl(job.getApiUrl());
+                }
+                if (service == null) {
+                    appendOutput("ERROR: Cannot resume " + job + ": no connection profile is available for "
+                            + job.getApiUrl() + ". Select or save a profile with that URL and restart to resume it");
+                    continue;
+                }
+                appendOutput("Resuming " + job);
+                runTupleJob(job, service);
+            } else {
+                try {
+                    writeJournal.abandon(job);
+                    appendOutput("Discarded unfinished job: " + job);
+                } catch (Exception e) {
+                    appendOutput("ERROR: Could not discard job " + job.getId() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void startTupleJob(String operation, List<TupleKey> tuples) {
+        StoreInfo selected = storeComboBox.getValue();
+        if (selected == null) {
+            appendOutput("ERROR: No store selected");
+            return;
+        }
+
+        try {
+            OpenFGAService service = activeService();
+            WriteJournal.Job job = writeJournal.begin(selected.getId(), service.getApiUrl(),
+                    currentAuthModelId, operation, tuples, TUPLE_BATCH_SIZE);
+            appendOutput((WriteJournal.OP_WRITE.equals(operation) ? "Writing " : "Deleting ")
+                    + tuples.size() + " tuple(s) in " + job.getBatchCount() + " batch(es)...");
+            runTupleJob(job, service);
+        } catch (Exception e) {
+            appendOutput("ERROR: Could not journal tuple job: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Send the job's batches in order through {@code jobService}, starting after the last
+     * acknowledged one. Each batch is acknowledged in the journal once the server accepts it.
+     */
+    private void runTupleJob(WriteJournal.Job job, OpenFGAService jobService) {
+        boolean isWrite = WriteJournal.OP_WRITE.equals(job.getOperation());
+
+        String name = (isWrite ? "Write " : "Delete ") + job.getTupleCount() + " tuple(s)"
+                + (job.isRecovered() ? " (resumed)" : "");
+        runJob(name, JobManager.Category.WRITE, progress -> {
+            progress.setTotal(job.getTupleCount());
+            for (int seq = 0; seq < job.getAckedBatches(); seq++) {
+                progress.addProgress(job.getBatch(seq).size());
+            }
+            long startTime = System.currentTimeMillis();
+            for (int seq = job.getAckedBatches(); seq < job.getBatchCount(); seq++) {
+                List<TupleKey> batch = job.getBatch(seq);
+                try {
+                    sendTupleBatch(jobService, job, batch, isWrite);
+                } catch (Exception e) {
+                    // Batches are atomic, so a rejected batch wrote nothing. In a resumed job some of its
+                    // tuples may have been applied before the crash: send them one by one instead
+                    if (!job.isRecovered() || !isAlreadyApplied(e, isWrite)) {
+                        throw e;
+                    }
+                    appendOutput("Batch " + (seq + 1) + "/" + job.getBatchCount()
+                            + " was rejected as partly applied; retrying its tuples one by one");
+                    resendTuplesSingly(jobService, job, batch, isWrite);
+                }
+                writeJournal.acknowledge(job, seq);
+                progress.addProgress(batch.size());
+
+                int done = seq + 1;
+                appendOutput("Batch " + done + "/" + job.getBatchCount() + " acknowledged");
+            }
+            writeJournal.complete(job);
+
+            long duration = System.currentTimeMillis() - startTime;
+            appendOutput("Tuple job finished: " + job.getTupleCount() + " tuple(s) "
+                    + (isWrite ? "written" : "deleted") + " in " + duration + " ms");
+        });
+    }
+
+    private void sendTupleBatch(OpenFGAService jobService, WriteJournal.Job job, List<TupleKey> batch,
+                                boolean isWrite) throws Exception {
+        if (isWrite) {
+            jobService.writeTuples(job.getStoreId(), batch, job.getAuthorizationModelId());
+        } else {
+            jobService.deleteTuples(job.getStoreId(), batch, job.getAuthorizationModelId());
+        }
+    }
+
+    /**
+     * Send each tuple of a rejected batch on its own. Tuples that already exist (or are already
+     * deleted) are skipped; any other failure is reported and fails the batch, so it is not
+     * acknowledged and the job can be resumed again.
+     */
+    private void resendTuplesSingly(OpenFGAService jobService, WriteJournal.Job job, List<TupleKey> batch,
+                                    boolean isWrite) throws Exception {
+        int skipped = 0;
+        List<String> failed = new ArrayList<>();
+        for (TupleKey tuple : batch) {
+            try {
+                sendTupleBatch(jobService, job, List.of(tuple), isWrite);
+            } catch (Exception e) {
+                if (isAlreadyApplied(e, isWrite)) {
+                    skipped++;
+                } else {
+                    failed.add(tuple + ": " + e.getMessage());
+                }
+            }
+        }
+        if (skipped > 0) {
+            appendOutput("Skipped " + skipped + " tuple(s) that were already "
+                    + (isWrite ? "written" : "deleted"));
+        }
+        if (!failed.isEmpty()) {
+            for (String failure : failed) {
+                appendOutput("ERROR: " + failure);
+            }
+            throw new IllegalStateException(failed.size() + " tuple(s) of the batch could not be "
+                    + (isWrite ? "written" : "deleted"));
+        }
+    }
+
+    private boolean isAlreadyApplied(Exception e, boolean isWrite) {
+        String message = e.getMessage();
+        if (message == null || !message.startsWith("HTTP 400")) {
+            return false;
+        }
+        return isWrite ? message.contains("already exists") : message.contains("does not exist");
+    }
+
     // ==================== Check Operations ====================
 
     private void performCheckFromText() {
@@ -1634,12 +3081,14 @@ object:
             return;
         }
 
-        updateServiceConfig();
+        OpenFGAService service = activeService();
         appendOutput("Checking: " + user + " -> " + relation + " -> " + object);
 
-        runAsync(() -> {
+        String modelId = currentAuthModelId;
+        ConsistencyPreference consistency = checkConsistencyBox.getValue();
+        runAsync("Check: " + user + " " + relation + " " + object, JobManager.Category.QUERY, () -> {
             long startTime = System.currentTimeMillis();
-            boolean allowed = fgaService.check(selected.getId(), user, relation, object, context);
+            boolean allowed = service.check(selected.getId(), user, relation, object, context, modelId, consistency);
             long duration = System.currentTimeMillis() - startTime;
             Platform.runLater(() -> {
                 if (allowed) {
@@ -1655,30 +3104,227 @@ object:
         });
     }
 
+    /**
+     * Consistency chosen on the Query tab, which the Matrix tab shares. UNSPECIFIED until the
+     * Query tab has been opened.
+     */
+    private ConsistencyPreference queryConsistency() {
+        return queryConsistencyBox != null ? queryConsistencyBox.getValue() : ConsistencyPreference.UNSPECIFIED;
+    }
+
+    private ComboBox<ConsistencyPreference> createConsistencyComboBox() {
+        ComboBox<ConsistencyPreference> comboBox = new ComboBox<>(
+                FXCollections.observableArrayList(ConsistencyPreference.values()));
+        comboBox.setValue(ConsistencyPreference.UNSPECIFIED);
+        return comboBox;
+    }
+
+    private void performConsistencyComparisonFromText() {
+        StoreInfo selected = storeComboBox.getValue();
+        if (selected == null) {
+            appendOutput("ERROR: No store selected");
+            return;
+        }
+
+        Map<String, String> parsed = parseTextFormat(checkTextArea.getText());
+        String user = parsed.getOrDefault("user", "");
+        String relation = parsed.getOrDefault("relation", "");
+        String object = parsed.getOrDefault("object", "");
+        String context = parsed.getOrDefault("context", "");
+        if (user.isBlank() || relation.isBlank() || object.isBlank()) {
+            appendOutput("ERROR: User, relation, and object are required");
+            return;
+        }
+
+        OpenFGAService service = activeService();
+        String modelId = currentAuthModelId;
+        performConsistencyComparison("check " + user + " " + relation + " " + object, compareRunsSpinner.getValue(),
+                consistency -> service.check(selected.getId(), user, relation, object, context, modelId, consistency)
+                        ? "ALLOWED" : "DENIED",
+                compareResultLabel::setText);
+    }
+
+    /**
+     * Consistency comparison for a Query tab operation ("List Objects", "List Users" or
+     * "Expand"), with the fields of its text area. The report replaces the query results.
+     */
+    private void compareQueryConsistency(String query, Map<String, String> parsed, int runs, ResultListView resultView) {
+        StoreInfo selected = storeComboBox.getValue();
+        if (selected == null) {
+            appendOutput("ERROR: No store selected");
+            return;
+        }
+
+        OpenFGAService service = activeService();
+        String storeId = selected.getId();
+        String modelId = currentAuthModelId;
+        String context = parsed.getOrDefault("context", "");
+        String relation = parsed.getOrDefault("relation", "");
+        String description;
+        ConsistencyProbe probe;
+        switch (query) {
+            case "List Objects" -> {
+                String user = parsed.getOrDefault("user", "");
+                String type = parsed.getOrDefault("type", "");
+                if (user.isBlank() || relation.isBlank() || type.isBlank()) {
+                    appendOutput("ERROR: User, relation, and type are required");
+                    return;
+                }
+                description = "list objects " + user + " " + relation + " " + type + ":*";
+                probe = consistency -> service.listObjects(storeId, user, relation, type, context, modelId,
+                        consistency).size() + " object(s)";
+            }
+            case "List Users" -> {
+                String object = parsed.getOrDefault("object", "");
+                List<String> relations = splitList(relation);
+                List<String> userFilters = splitList(parsed.getOrDefault("usertype", ""));
+                String[] parts = object.split(":", 2);
+                if (relations.isEmpty() || userFilters.isEmpty() || parts.length != 2) {
+                    appendOutput("ERROR: Object (type:id), relation, and user type are required");
+                    return;
+                }
+                description = "list users " + userFilters + " " + relations + " " + object;
+                probe = consistency -> new ParallelListUsers(service, storeId, modelId, consistency,
+                        LIST_USERS_PARALLELISM)
+                        .run(parts[0], parts[1], relations, userFilters, context)
+                        .getRelationsByUser().size() + " user(s)";
+            }
+            default -> {
+                String object = parsed.getOrDefault("object", "");
+                if (object.isBlank() || relation.isBlank()) {
+                    appendOutput("ERROR: Object and relation are required");
+                    return;
+                }
+                description = "expand " + relation + " on " + object;
+                probe = consistency -> {
+                    int leaves = 0;
+                    for (JsonNode users : service.expand(storeId, relation, object, modelId, consistency)
+                            .findValues("users")) {
+                        leaves += users.size();
+                    }
+                    return leaves + " leaf user(s)";
+                };
+            }
+        }
+
+        performConsistencyComparison(description, runs, probe,
+                report -> resultView.setResults("Consistency comparison: " + description + "\n" + report,
+                        List.of(), null));
+    }
+
+    /**
+     * One call made by a consistency comparison. Returns a short description of its result,
+     * such as "ALLOWED" or "12 object(s)", so the two sides can be told apart.
+     */
+    @FunctionalInterface
+    private interface ConsistencyProbe {
+        String run(ConsistencyPreference consistency) throws Exception;
+    }
+
+    /**
+     * Run the same call under MINIMIZE_LATENCY and HIGHER_CONSISTENCY, alternating between
+     * the two so that server warm-up and caching affect both sides equally.
+     */
+    private void performConsistencyComparison(String description, int runs, ConsistencyProbe probe,
+                                              java.util.function.Consumer<String> onReport) {
+        appendOutput("Comparing consistency over " + runs + " run(s): " + description);
+
+        runAsync("Compare consistency: " + description, JobManager.Category.QUERY, () -> {
+            long[] minimizeLatency = new long[runs];
+            long[] higherConsistency = new long[runs];
+            String fastResult = null;
+            String strongResult = null;
+
+            for (int i = 0; i < runs; i++) {
+                long start = System.nanoTime();
+                fastResult = probe.run(ConsistencyPreference.MINIMIZE_LATENCY);
+                minimizeLatency[i] = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                strongResult = probe.run(ConsistencyPreference.HIGHER_CONSISTENCY);
+                higherConsistency[i] = System.nanoTime() - start;
+            }
+
+            double fastAvg = averageMillis(minimizeLatency);
+            double strongAvg = averageMillis(higherConsistency);
+            String report = formatLatencyStats("MINIMIZE_LATENCY  ", minimizeLatency, fastResult) + "\n"
+                    + formatLatencyStats("HIGHER_CONSISTENCY", higherConsistency, strongResult) + "\n"
+                    + String.format("Difference: %+.2f ms avg (%+.1f%%)", strongAvg - fastAvg,
+                            fastAvg > 0 ? (strongAvg - fastAvg) / fastAvg * 100 : 0.0)
+                    + (java.util.Objects.equals(fastResult, strongResult) ? "" : "\nResults differ between the two");
+
+            Platform.runLater(() -> {
+                onReport.accept(report);
+                appendOutput("Consistency comparison:\n" + report);
+            });
+            return null;
+        });
+    }
+
+    private String formatLatencyStats(String label, long[] nanos, String result) {
+        long[] sorted = nanos.clone();
+        java.util.Arrays.sort(sorted);
+        double p50 = sorted[sorted.length / 2] / 1_000_000.0;
+        double p95 = sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * 0.95) - 1)] / 1_000_000.0;
+        double max = sorted[sorted.length - 1] / 1_000_000.0;
+        return String.format("%s avg %.2f ms | p50 %.2f | p95 %.2f | max %.2f | %s",
+                label, averageMillis(nanos), p50, p95, max, result);
+    }
+
+    private double averageMillis(long[] nanos) {
+        long total = 0;
+        for (long n : nanos) {
+            total += n;
+        }
+        return nanos.length == 0 ? 0 : total / (double) nanos.length / 1_000_000.0;
+    }
+
     // ==================== Other Operations ====================
 
     private void checkCliAvailability() {
-        runAsync(() -> {
+        runAsync("Check FGA CLI", JobManager.Category.MODEL, () -> {
             boolean available = dslService.isCliAvailable();
+            if (!available) {
+                appendOutput("FGA CLI not found; using the built-in DSL compiler.");
+                appendOutput("The CLI is optional. Install it with: winget install openfga.cli");
+            } else {
+                appendOutput("FGA CLI detected (available as an alternative to the built-in DSL compiler).");
+            }
             Platform.runLater(() -> {
-                if (!available) {
-                    appendOutput("WARNING: FGA CLI not found! DSL transformation will not work.");
-                    appendOutput("Install it with: winget install openfga.cli");
-                    appendOutput("Or download from: https://github.com/openfga/cli/releases");
-                } else {
-                    appendOutput("FGA CLI detected. Ready to use.");
-                }
+                cliAvailable = available;
+                applyCliAvailability();
             });
             return null;
         });
     }
 
+    /**
+     * Enable the CLI controls once the probe has found the CLI. Called again when the Model
+     * tab is built, since the probe may finish first.
+     */
+    private void applyCliAvailability() {
+        if (useCliCheckBox == null || cliAvailable == null) return;
+        useCliCheckBox.setDisable(!cliAvailable);
+        conformanceBtn.setDisable(!cliAvailable);
+    }
+
+    /**
+     * Load the DSL compiler while the window comes up, so the first validation does not pay for
+     * it. The server connection needs no warm-up: the store listing at startup opens it.
+     */
+    private void warmUp() {
+        runAsync("Warm up DSL compiler", JobManager.Category.MODEL, () -> {
+            dslService.validateDsl(DEFAULT_DSL);
+            return null;
+        });
+    }
+
     private void listStores() {
-        updateServiceConfig();
+        OpenFGAService service = activeService();
         appendOutput("Listing stores...");
 
-        runAsync(() -> {
-            var stores = fgaService.listStores();
+        runAsync("List stores", JobManager.Category.ADMIN, () -> {
+            var stores = service.listStores();
             Platform.runLater(() -> {
                 storeList.clear();
                 storeList.addAll(stores);
@@ -1694,11 +3340,11 @@ object:
             return;
         }
 
-        updateServiceConfig();
+        OpenFGAService service = activeService();
         appendOutput("Creating store: " + name);
 
-        runAsync(() -> {
-            var store = fgaService.createStore(name);
+        runAsync("Create store: " + name, JobManager.Category.ADMIN, () -> {
+            var store = service.createStore(name);
             Platform.runLater(() -> {
                 appendOutput("Store created: " + store.getId());
                 listStores();
@@ -1728,11 +3374,11 @@ object:
 
         Optional<ButtonType> result = confirm.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            updateServiceConfig();
+            OpenFGAService service = activeService();
             appendOutput("Deleting store: " + selected.getName());
 
-            runAsync(() -> {
-                fgaService.deleteStore(selected.getId());
+            runAsync("Delete store: " + selected.getName(), JobManager.Category.ADMIN, () -> {
+                service.deleteStore(selected.getId());
                 Platform.runLater(() -> {
                     appendOutput("Store deleted successfully");
                     storeComboBox.setValue(null);
@@ -1744,22 +3390,42 @@ object:
     }
 
     private void validateDsl() {
-        String dsl = dslTextArea.getText();
+        String dsl = dslEditor.getText();
         appendOutput("Validating DSL...");
 
-        runAsync(() -> {
+        runAsync("Validate DSL", JobManager.Category.MODEL, () -> {
+            long startTime = System.nanoTime();
             var result = dslService.validateDsl(dsl);
+            double millis = (System.nanoTime() - startTime) / 1_000_000.0;
             Platform.runLater(() -> {
                 if (result.isSuccess()) {
-                    appendOutput("DSL is valid!");
+                    appendOutput(String.format("DSL is valid! (%.1f ms%s)", millis, result.isCached() ? ", cached" : ""));
                 } else {
-                    appendOutput("DSL validation failed: " + result.getError());
+                    appendOutput("DSL validation failed" + (result.isCached() ? " (cached result):" : ":"));
+                    for (String line : result.getError().split("\n")) {
+                        appendOutput("ERROR: " + line);
+                    }
                 }
             });
             return null;
         });
     }
 
+    private void checkDslConformance() {
+        String dsl = dslEditor.getText();
+        appendOutput("Comparing built-in DSL compiler with the fga CLI...");
+
+        runAsync("DSL conformance check", JobManager.Category.MODEL, () -> {
+            List<String> report = dslService.checkConformance(Map.of("(editor)", dsl));
+            long failures = report.stream().filter(line -> !line.contains(": OK")).count();
+            for (String line : report) {
+                appendOutput(line.contains(": OK") ? line : "WARNING: " + line);
+            }
+            appendOutput("Conformance: " + (report.size() - failures) + "/" + report.size() + " model(s) match");
+            return null;
+        });
+    }
+
     private void applyModel() {
         StoreInfo selected = storeComboBox.getValue();
         if (selected == null) {
@@ -1767,10 +3433,12 @@ object:
             return;
         }
 
-        String dsl = dslTextArea.getText();
+        String dsl = dslEditor.getText();
+        OpenFGAService service = activeService();
+        AuthorizationModelInfo latest = latestModel();
         appendOutput("Transforming DSL to JSON...");
 
-        runAsync(() -> {
+        runAsync("Apply model", JobManager.Category.MODEL, () -> {
             // First transform DSL to JSON
             var transformResult = dslService.transformDslToJson(dsl);
             if (!transformResult.isSuccess()) {
@@ -1782,34 +3450,298 @@ object:
 
             String json = transformResult.getJson();
             String prettyJson = prettyPrintJson(json);
+            Platform.runLater(() -> jsonPreviewArea.setText(prettyJson));
+
+            appendOutput("DSL transformed successfully" + (transformResult.isCached() ? " (cached)" : "")
+                    + ". Applying model...");
+
+            writeModel(service, selected, json, latest);
+            return null;
+        });
+    }
+
+    /**
+     * Write a compiled model to the store and pin it, unless it is equivalent to the store's
+     * latest model. Runs on the calling job's thread.
+     */
+    private void writeModel(OpenFGAService service, StoreInfo store, String json,
+                            AuthorizationModelInfo latest) throws Exception {
+        // Writing an equivalent model would only add a version to the history
+        if (latest != null) {
+            JsonNode deployed = modelCache.getOrFetch(service, store.getId(), latest.getId());
+            if (deployed != null && ModelDiff.compare(deployed, jsonMapper.readTree(json)).isEmpty()) {
+                appendOutput("Model is unchanged from the latest model " + latest.getId() + "; nothing to apply");
+                Platform.runLater(() -> modelComboBox.setValue(latest));
+                return;
+            }
+        }
+
+        String modelId = service.writeAuthorizationModel(store.getId(), json);
+
+        // The model we just wrote is the definition the server will return for this id
+        ObjectNode model = (ObjectNode) jsonMapper.readTree(json);
+        model.put("id", modelId);
+        modelCache.put(store.getId(), model);
+
+        Platform.runLater(() -> {
+            AuthorizationModelInfo info = new AuthorizationModelInfo(modelId, model.path("type_definitions").size());
+            modelList.add(0, info);
+            modelComboBox.setValue(info);
+            appendOutput("Model applied successfully! Model ID: " + modelId);
+            refreshModelDiff();
+        });
+    }
+
+    // ==================== Modular Models ====================
+
+    private void openModularModel(javafx.scene.Node owner) {
+        javafx.stage.DirectoryChooser chooser = new javafx.stage.DirectoryChooser();
+        chooser.setTitle("Open Modular Model (directory with fga.mod)");
+        if (modularModelDirectory != null) {
+            chooser.setInitialDirectory(modularModelDirectory.toFile());
+        }
+        java.io.File directory = chooser.showDialog(owner.getScene().getWindow());
+        if (directory == null) return;
+
+        modularModelDirectory = directory.toPath();
+        applyModularBtn.setDisable(false);
+        compileModularModel(false);
+    }
+
+    /**
+     * Compile the opened modular model and, if {@code apply} is set, write it to the selected
+     * store. Unchanged module files are not parsed again.
+     */
+    private void compileModularModel(boolean apply) {
+        java.nio.file.Path directory = modularModelDirectory;
+        StoreInfo selected = storeComboBox.getValue();
+        if (apply && selected == null) {
+            appendOutput("ERROR: No store selected");
+            return;
+        }
+        OpenFGAService service = activeService();
+        AuthorizationModelInfo latest = latestModel();
+        appendOutput("Compiling modular model in " + directory + "...");
+
+        runAsync((apply ? "Apply" : "Compile") + " modular model", JobManager.Category.MODEL, () -> {
+            long startTime = System.nanoTime();
+            ModularModelService.Result result = modularModelService.compile(directory);
+            double millis = (System.nanoTime() - startTime) / 1_000_000.0;
+            if (!result.isSuccess()) {
+                appendOutput("Modular model has errors:");
+                for (Diagnostic diagnostic : result.getDiagnostics()) {
+                    appendOutput("ERROR: " + diagnostic);
+                }
+                return null;
+            }
+
+            appendOutput(String.format("Modular model compiled: %d module(s), %d parsed, %d unchanged (%.1f ms)",
+                    result.getModuleCount(), result.getParsedCount(),
+                    result.getModuleCount() - result.getParsedCount(), millis));
+            String prettyJson = prettyPrintJson(result.getJson());
+            Platform.runLater(() -> jsonPreviewArea.setText(prettyJson));
+            if (apply) {
+                writeModel(service, selected, result.getJson(), latest);
+            }
+            return null;
+        });
+    }
+
+    // ==================== Connection Profiles ====================
+
+    private void selectProfile(ConnectionProfile profile) {
+        if (profile == null) return;
+        apiUrlField.setText(profile.getApiUrl());
+        bearerTokenField.setText(profile.getBearerToken());
+        storeComboBox.setValue(null);
+        storeList.clear();
+    }
+
+    private void saveProfile() {
+        ConnectionProfile selected = profileComboBox.getValue();
+        TextInputDialog dialog = new TextInputDialog(selected != null ? selected.getName() : "");
+        dialog.setTitle("Save Connection Profile");
+        dialog.setHeaderText("Save the current URL and token as a named profile.\n"
+                + "Tokens are kept for this session only and are not written to disk.");
+        dialog.setContentText("Profile name:");
+
+        Optional<String> result = dialog.showAndWait();
+        if (result.isEmpty() || result.get().isBlank()) return;
+
+        ConnectionProfile profile = new ConnectionProfile(result.get().trim(),
+                apiUrlField.getText(), bearerTokenField.getText());
+        try {
+            connectionManager.saveProfile(profile);
+            profileList.setAll(connectionManager.getProfiles());
+            profileComboBox.setValue(profile);
+            appendOutput("Profile saved: " + profile);
+        } catch (Exception e) {
+            appendOutput("ERROR: Could not save profile: " + e.getMessage());
+        }
+    }
+
+    private void removeSelectedProfile() {
+        ConnectionProfile selected = profileComboBox.getValue();
+        if (selected == null) return;
+        try {
+            connectionManager.removeProfile(selected.getName());
+            profileList.setAll(connectionManager.getProfiles());
+            appendOutput("Profile removed: " + selected.getName());
+        } catch (Exception e) {
+            appendOutput("ERROR: Could not remove profile: " + e.getMessage());
+        }
+    }
+
+    private void probeAllProfiles() {
+        // Profiles are probed as saved; unsaved edits in the URL and token fields are not used,
+        // and the active connection is left in place
+        appendOutput("Probing " + profileList.size() + " profile(s)...");
+
+        connectionManager.probeAll().thenAccept(results -> Platform.runLater(() -> {
+            probeResults.setAll(results);
+            for (ConnectionManager.ProbeResult result : results) {
+                appendOutput("  " + result.getProfile().getName() + ": "
+                        + (result.isHealthy() ? result.getRoundTripMillis() + " ms" : "DOWN - " + result.getError()));
+            }
+        }));
+    }
+
+    // ==================== Authorization Models ====================
+
+    private void listAuthorizationModels() {
+        StoreInfo selected = storeComboBox.getValue();
+        modelListGeneration++;
+        modelList.clear();
+        modelContinuationToken = "";
+        olderModelsBtn.setDisable(true);
+        if (selected == null) {
+            return;
+        }
+        readAuthorizationModelPage(selected, null);
+    }
+
+    private void listOlderAuthorizationModels() {
+        StoreInfo selected = storeComboBox.getValue();
+        if (selected == null || modelContinuationToken.isEmpty()) {
+            return;
+        }
+        olderModelsBtn.setDisable(true);
+        readAuthorizationModelPage(selected, modelContinuationToken);
+    }
+
+    /**
+     * Append one page of the store's models to the model list. The first page pins the newest
+     * model; every model seen is cached, so selecting it later needs no request.
+     */
+    private void readAuthorizationModelPage(StoreInfo selected, String continuationToken) {
+        OpenFGAService service = activeService();
+        long generation = modelListGeneration;
+        runAsync("List authorization models", JobManager.Category.MODEL, () -> {
+            JsonNode page = service.listAuthorizationModels(selected.getId(), MODELS_PAGE_SIZE, continuationToken);
+            List<AuthorizationModelInfo> infos = new ArrayList<>();
+            for (JsonNode model : page.path("authorization_models")) {
+                modelCache.put(selected.getId(), model);
+                infos.add(new AuthorizationModelInfo(model.path("id").asText(), model.path("type_definitions").size()));
+            }
+            String nextToken = page.path("continuation_token").asText();
             Platform.runLater(() -> {
-                jsonPreviewArea.setText(prettyJson);
-                appendOutput("DSL transformed successfully. Applying model...");
+                if (selected != storeComboBox.getValue() || generation != modelListGeneration) return;
+                boolean firstPage = continuationToken == null;
+                modelList.addAll(infos);
+                modelContinuationToken = nextToken;
+                olderModelsBtn.setDisable(nextToken.isEmpty());
+                if (firstPage && !infos.isEmpty()) {
+                    modelComboBox.setValue(infos.get(0));
+                }
+                if (firstPage) refreshModelDiff();
+                String more = nextToken.isEmpty() ? "" : ", more available";
+                appendOutput(firstPage
+                        ? "Found " + infos.size() + " authorization model(s)" + more
+                        : "Listed " + infos.size() + " older model(s), " + modelList.size() + " in total" + more);
             });
+            return null;
+        });
+    }
 
-            // Apply the model
-            updateServiceConfig();
-            String modelId = fgaService.writeAuthorizationModel(selected.getId(), json);
+    /**
+     * Render the pinned model as DSL and put it in the editor.
+     */
+    private void loadSelectedModelIntoEditor() {
+        StoreInfo selected = storeComboBox.getValue();
+        AuthorizationModelInfo info = modelComboBox.getValue();
+        if (selected == null || info == null) {
+            appendOutput("ERROR: Select a store and a model first");
+            return;
+        }
 
+        OpenFGAService service = activeService();
+        runAsync("Load model " + info.getId() + " into editor", JobManager.Category.MODEL, () -> {
+            JsonNode model = modelCache.getOrFetch(service, selected.getId(), info.getId());
+            if (model == null) {
+                appendOutput("ERROR: Model " + info.getId() + " not found");
+                return null;
+            }
+            String dsl = DslRenderer.render(model);
             Platform.runLater(() -> {
-                currentAuthModelId = modelId;
-                modelIdLabel.setText(modelId);
-                modelIdLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: green;");
-                appendOutput("Model applied successfully! Model ID: " + modelId);
+                dslEditor.setText(dsl);
+                appendOutput("Loaded model " + info.getId() + " into the editor");
             });
+            return null;
+        });
+    }
+
+    private void selectAuthorizationModel(AuthorizationModelInfo info) {
+        currentAuthModelId = info != null ? info.getId() : null;
+        if (modelIdLabel == null) {
+            // The Model tab shows the selection when it is first opened
+            return;
+        }
+        if (info == null) {
+            modelIdLabel.setText("No model selected");
+            modelIdLabel.setStyle("-fx-font-style: italic;");
+            return;
+        }
+
+        modelIdLabel.setText(info.getId());
+        modelIdLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: green;");
+
+        StoreInfo selected = storeComboBox.getValue();
+        if (selected == null) return;
+
+        JsonNode cached = modelCache.get(selected.getId(), info.getId());
+        if (cached != null) {
+            jsonPreviewArea.setText(prettyPrintJson(cached.toString()));
+            return;
+        }
 
+        OpenFGAService service = activeService();
+        runAsync("Load model " + info.getId(), JobManager.Category.MODEL, () -> {
+            JsonNode model = modelCache.getOrFetch(service, selected.getId(), info.getId());
+            Platform.runLater(() -> {
+                if (model != null && info.getId().equals(currentAuthModelId)) {
+                    jsonPreviewArea.setText(prettyPrintJson(model.toString()));
+                }
+            });
             return null;
         });
     }
 
-    private void updateServiceConfig() {
-        fgaService.setApiUrl(apiUrlField.getText());
-        fgaService.setBearerToken(bearerTokenField.getText());
+    /**
+     * The service for the selected profile and the current URL/token fields. Callers capture the
+     * returned instance before going async, so later config edits never affect running work.
+     */
+    private OpenFGAService activeService() {
+        ConnectionProfile selected = profileComboBox.getValue();
+        String name = selected != null ? selected.getName() : ConnectionManager.DEFAULT_PROFILE;
+        return connectionManager.serviceFor(
+                new ConnectionProfile(name, apiUrlField.getText(), bearerTokenField.getText()));
     }
 
+    /**
+     * Log a message. Safe from any thread; the output panel picks it up on the next frame.
+     */
     private void appendOutput(String message) {
-        String timestamp = java.time.LocalTime.now().toString().substring(0, 8);
-        outputArea.appendText("[" + timestamp + "] " + message + "\n");
+        logBuffer.append(message);
     }
 
     private String prettyPrintJson(String json) {
@@ -1822,21 +3754,24 @@ object:
         }
     }
 
-    private void runAsync(java.util.concurrent.Callable<Void> task) {
-        Task<Void> fxTask = new Task<>() {
-            @Override
-            protected Void call() throws Exception {
-                try {
-                    return task.call();
-                } catch (Exception e) {
-                    Platform.runLater(() -> {
-                        appendOutput("ERROR: " + e.getMessage());
-                        e.printStackTrace();
-                    });
-                    throw e;
-                }
-            }
-        };
-        new Thread(fxTask).start();
+    /**
+     * Run {@code task} as a tracked job; failures and cancellations are logged when it ends.
+     */
+    private JobManager.Job runAsync(String name, JobManager.Category category,
+                                    java.util.concurrent.Callable<Void> task) {
+        return runJob(name, category, job -> task.call());
+    }
+
+    private JobManager.Job runJob(String name, JobManager.Category category, JobManager.Work work) {
+        return jobManager.submit(name, category, work);
+    }
+
+    private void onJobFinished(JobManager.Job job) {
+        if (job.getState() == JobManager.State.CANCELLED) {
+            appendOutput("Cancelled: " + job.getName());
+        } else if (job.getState() == JobManager.State.FAILED) {
+            appendOutput("ERROR: " + job.getError().getMessage());
+            job.getError().printStackTrace();
+        }
     }
 }
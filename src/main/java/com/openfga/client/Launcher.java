@@ -0,0 +1,13 @@
+package com.openfga.client;
+
+/**
+ * Plain entry point for starting the app with JavaFX on the class path, as the AppCDS
+ * profile does. The JVM's launcher refuses a main class that extends
+ * {@link javafx.application.Application} unless JavaFX is on the module path.
+ */
+public class Launcher {
+
+    public static void main(String[] args) {
+        App.main(args);
+    }
+}
@@ -0,0 +1,42 @@
+package com.openfga.client.dsl;
+
+/**
+ * An error found in a DSL file, with its 1-based line and column.
+ */
+public class Diagnostic {
+    private final String file;
+    private final int line;
+    private final int column;
+    private final String message;
+
+    public Diagnostic(String file, int line, int column, String message) {
+        this.file = file;
+        this.line = line;
+        this.column = column;
+        this.message = message;
+    }
+
+    /**
+     * Source file name for multi-file models, otherwise null.
+     */
+    public String getFile() {
+        return file;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return (file != null ? file + ":" : "") + "line " + line + ", column " + column + ": " + message;
+    }
+}
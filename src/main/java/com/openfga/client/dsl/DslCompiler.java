@@ -0,0 +1,505 @@
+package com.openfga.client.dsl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Compiles parsed DSL into the authorization model JSON accepted by the
+ * {@code /authorization-models} endpoint, checking the model on the way.
+ *
+ * Output follows the fga CLI ({@code fga model transform}): proto field names, empty
+ * fields omitted, relation metadata listing the directly related user types. Several
+ * module files can be compiled together into one modular model, in which case types and
+ * relations also record their module and source file.
+ */
+public class DslCompiler {
+
+    /**
+     * Bumped whenever the generated JSON or the checks change, so cached results are not reused.
+     */
+    public static final String VERSION = "2";
+
+    public static final String SCHEMA_1_1 = "1.1";
+    public static final String SCHEMA_1_2 = "1.2";
+
+    private static final Map<String, String> PARAM_TYPES = Map.ofEntries(
+            Map.entry("any", "TYPE_NAME_ANY"),
+            Map.entry("bool", "TYPE_NAME_BOOL"),
+            Map.entry("string", "TYPE_NAME_STRING"),
+            Map.entry("int", "TYPE_NAME_INT"),
+            Map.entry("uint", "TYPE_NAME_UINT"),
+            Map.entry("double", "TYPE_NAME_DOUBLE"),
+            Map.entry("duration", "TYPE_NAME_DURATION"),
+            Map.entry("timestamp", "TYPE_NAME_TIMESTAMP"),
+            Map.entry("ipaddress", "TYPE_NAME_IPADDRESS"),
+            Map.entry("list", "TYPE_NAME_LIST"),
+            Map.entry("map", "TYPE_NAME_MAP"));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Parse and compile a single-file model.
+     */
+    public ObjectNode compile(String dsl) throws DslException {
+        return compile(parse(dsl, null));
+    }
+
+    /**
+     * Parse {@code dsl}, throwing if it has syntax errors.
+     */
+    public static ModelAst parse(String dsl, String fileName) throws DslException {
+        DslParser parser = new DslParser(fileName);
+        ModelAst ast = parser.parse(dsl);
+        if (!parser.getDiagnostics().isEmpty()) {
+            throw new DslException(parser.getDiagnostics());
+        }
+        return ast;
+    }
+
+    public ObjectNode compile(ModelAst ast) throws DslException {
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        if (ast.getModule() != null) {
+            diagnostics.add(new Diagnostic(ast.getFileName(), 1, 1,
+                    "module files must be compiled together through a modular model (fga.mod)"));
+        } else if (!SCHEMA_1_1.equals(ast.getSchemaVersion())) {
+            diagnostics.add(new Diagnostic(ast.getFileName(), 1, 1,
+                    "unsupported schema version '" + ast.getSchemaVersion() + "', expected " + SCHEMA_1_1));
+        }
+        if (!diagnostics.isEmpty()) throw new DslException(diagnostics);
+        return compile(List.of(ast), SCHEMA_1_1, false);
+    }
+
+    /**
+     * Compile module files into one modular model with the given schema version.
+     */
+    public ObjectNode compileModules(List<ModelAst> modules, String schemaVersion) throws DslException {
+        return compile(modules, schemaVersion, true);
+    }
+
+    private ObjectNode compile(List<ModelAst> files, String schemaVersion, boolean modular) throws DslException {
+        Model model = new Model(modular);
+        for (ModelAst file : files) model.collect(file);
+        model.validate();
+        if (!model.diagnostics.isEmpty()) {
+            model.diagnostics.sort(Comparator.comparing((Diagnostic d) -> d.getFile() != null ? d.getFile() : "")
+                    .thenComparingInt(Diagnostic::getLine)
+                    .thenComparingInt(Diagnostic::getColumn));
+            throw new DslException(model.diagnostics);
+        }
+
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("schema_version", schemaVersion);
+        ArrayNode typeDefinitions = root.putArray("type_definitions");
+        for (MergedType type : model.types.values()) {
+            typeDefinitions.add(typeJson(type, modular));
+        }
+        if (!model.conditions.isEmpty()) {
+            ObjectNode conditions = root.putObject("conditions");
+            for (Sourced<ModelAst.ConditionDef> condition : model.conditions.values()) {
+                conditions.set(condition.node.getName(), conditionJson(condition, modular));
+            }
+        }
+        return root;
+    }
+
+    // ==================== JSON ====================
+
+    private ObjectNode typeJson(MergedType type, boolean modular) {
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("type", type.name);
+        if (type.relations.isEmpty() && !modular) {
+            return json;
+        }
+
+        ObjectNode relations = json.putObject("relations");
+        ObjectNode metadata = objectMapper.createObjectNode();
+        ObjectNode relationMetadata = metadata.putObject("relations");
+        for (Sourced<ModelAst.RelationDef> relation : type.relations.values()) {
+            relations.set(relation.node.getName(), rewriteJson(relation.node.getExpression()));
+
+            ObjectNode entry = relationMetadata.putObject(relation.node.getName());
+            ArrayNode userTypes = entry.putArray("directly_related_user_types");
+            for (ModelAst.DirectType directType : directTypes(relation.node.getExpression())) {
+                userTypes.add(directTypeJson(directType));
+            }
+            if (modular && !relation.module.equals(type.module)) {
+                putSource(entry, relation);
+            }
+        }
+        if (modular) {
+            putSource(metadata, type.declaration);
+        }
+        json.set("metadata", metadata);
+        return json;
+    }
+
+    private ObjectNode rewriteJson(ModelAst.Expr expr) {
+        ObjectNode json = objectMapper.createObjectNode();
+        if (expr instanceof ModelAst.Direct) {
+            json.putObject("this");
+        } else if (expr instanceof ModelAst.Computed computed) {
+            json.putObject("computedUserset").put("relation", computed.getRelation());
+        } else if (expr instanceof ModelAst.TupleToUserset ttu) {
+            ObjectNode body = json.putObject("tupleToUserset");
+            body.putObject("tupleset").put("relation", ttu.getTupleset());
+            body.putObject("computedUserset").put("relation", ttu.getRelation());
+        } else if (expr instanceof ModelAst.Operation operation) {
+            String key = operation.getOperator() == ModelAst.Operation.Operator.UNION ? "union" : "intersection";
+            ArrayNode children = json.putObject(key).putArray("child");
+            for (ModelAst.Expr child : operation.getChildren()) {
+                children.add(rewriteJson(child));
+            }
+        } else if (expr instanceof ModelAst.Difference difference) {
+            ObjectNode body = json.putObject("difference");
+            body.set("base", rewriteJson(difference.getBase()));
+            body.set("subtract", rewriteJson(difference.getSubtract()));
+        }
+        return json;
+    }
+
+    private ObjectNode directTypeJson(ModelAst.DirectType directType) {
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("type", directType.getType());
+        if (directType.getRelation() != null) json.put("relation", directType.getRelation());
+        if (directType.isWildcard()) json.putObject("wildcard");
+        if (directType.getCondition() != null) json.put("condition", directType.getCondition());
+        return json;
+    }
+
+    private ObjectNode conditionJson(Sourced<ModelAst.ConditionDef> sourced, boolean modular) {
+        ModelAst.ConditionDef condition = sourced.node;
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("name", condition.getName());
+        json.put("expression", condition.getExpression());
+        ObjectNode parameters = json.putObject("parameters");
+        for (Map.Entry<String, ModelAst.ParamType> param : condition.getParameters().entrySet()) {
+            parameters.set(param.getKey(), paramTypeJson(param.getValue()));
+        }
+        if (modular) {
+            putSource(json.putObject("metadata"), sourced);
+        }
+        return json;
+    }
+
+    private ObjectNode paramTypeJson(ModelAst.ParamType type) {
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("type_name", PARAM_TYPES.get(type.getName()));
+        if (type.getGeneric() != null) {
+            json.putArray("generic_types").add(paramTypeJson(type.getGeneric()));
+        }
+        return json;
+    }
+
+    private static void putSource(ObjectNode metadata, Sourced<?> sourced) {
+        metadata.put("module", sourced.module);
+        metadata.putObject("source_info").put("file", sourced.file);
+    }
+
+    /**
+     * Direct type restrictions anywhere in a relation's expression, in source order.
+     */
+    public static List<ModelAst.DirectType> directTypes(ModelAst.Expr expr) {
+        List<ModelAst.DirectType> result = new ArrayList<>();
+        collectDirectTypes(expr, result);
+        return result;
+    }
+
+    private static void collectDirectTypes(ModelAst.Expr expr, List<ModelAst.DirectType> out) {
+        if (expr instanceof ModelAst.Direct direct) {
+            out.addAll(direct.getTypes());
+        } else if (expr instanceof ModelAst.Operation operation) {
+            for (ModelAst.Expr child : operation.getChildren()) collectDirectTypes(child, out);
+        } else if (expr instanceof ModelAst.Difference difference) {
+            collectDirectTypes(difference.getBase(), out);
+            collectDirectTypes(difference.getSubtract(), out);
+        }
+    }
+
+    // ==================== Validation ====================
+
+    /**
+     * A declaration plus the module and file it came from.
+     */
+    private static class Sourced<T extends ModelAst.Position> {
+        final T node;
+        final String module;
+        final String file;
+
+        Sourced(T node, ModelAst ast) {
+            this.node = node;
+            this.module = ast.getModule() != null ? ast.getModule() : "";
+            this.file = ast.getFileName() != null ? ast.getFileName() : "";
+        }
+    }
+
+    /**
+     * A type with the relations of its declaration and of every {@code extend type}.
+     */
+    private static class MergedType {
+        final String name;
+        Sourced<ModelAst.TypeDef> declaration;
+        String module = "";
+        final Map<String, Sourced<ModelAst.RelationDef>> relations = new LinkedHashMap<>();
+        final List<Sourced<ModelAst.TypeDef>> extensions = new ArrayList<>();
+
+        MergedType(String name) {
+            this.name = name;
+        }
+    }
+
+    private static class Model {
+        final boolean modular;
+        final Map<String, MergedType> types = new LinkedHashMap<>();
+        final Map<String, Sourced<ModelAst.ConditionDef>> conditions = new LinkedHashMap<>();
+        final List<Diagnostic> diagnostics = new ArrayList<>();
+
+        Model(boolean modular) {
+            this.modular = modular;
+        }
+
+        void collect(ModelAst ast) {
+            for (ModelAst.TypeDef typeDef : ast.getTypes()) {
+                MergedType type = types.computeIfAbsent(typeDef.getName(), MergedType::new);
+                Sourced<ModelAst.TypeDef> sourced = new Sourced<>(typeDef, ast);
+                if (typeDef.isExtension()) {
+                    if (!modular) error(sourced, typeDef, "'extend type' is only allowed in module files");
+                    type.extensions.add(sourced);
+                } else if (type.declaration != null) {
+                    error(sourced, typeDef, "duplicate type '" + typeDef.getName() + "'");
+                } else {
+                    type.declaration = sourced;
+                    type.module = sourced.module;
+                }
+
+                for (ModelAst.RelationDef relation : typeDef.getRelations()) {
+                    Sourced<ModelAst.RelationDef> sourcedRelation = new Sourced<>(relation, ast);
+                    if (type.relations.putIfAbsent(relation.getName(), sourcedRelation) != null) {
+                        error(sourcedRelation, relation, "duplicate relation '" + relation.getName()
+                                + "' on type '" + typeDef.getName() + "'");
+                    }
+                }
+            }
+
+            for (ModelAst.ConditionDef condition : ast.getConditions()) {
+                Sourced<ModelAst.ConditionDef> sourced = new Sourced<>(condition, ast);
+                if (conditions.putIfAbsent(condition.getName(), sourced) != null) {
+                    error(sourced, condition, "duplicate condition '" + condition.getName() + "'");
+                }
+            }
+        }
+
+        void validate() {
+            // Extensions of undefined types would otherwise show up as types of their own
+            types.values().removeIf(type -> {
+                if (type.declaration != null) return false;
+                for (Sourced<ModelAst.TypeDef> extension : type.extensions) {
+                    error(extension, extension.node, "cannot extend undefined type '" + type.name + "'");
+                }
+                return true;
+            });
+
+            for (MergedType type : types.values()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("DSL validation cancelled");
+                }
+                for (Sourced<ModelAst.RelationDef> relation : type.relations.values()) {
+                    validateExpr(type, relation, relation.node.getExpression(), true);
+                }
+            }
+
+            for (Sourced<ModelAst.ConditionDef> condition : conditions.values()) {
+                for (Map.Entry<String, ModelAst.ParamType> param : condition.node.getParameters().entrySet()) {
+                    String problem = checkParamType(param.getValue());
+                    if (problem != null) {
+                        error(condition, condition.node, "parameter '" + param.getKey() + "': " + problem);
+                    }
+                }
+            }
+
+            // Entrypoints follow references, so they are only meaningful once every reference resolves
+            if (diagnostics.isEmpty()) validateEntrypoints();
+        }
+
+        /**
+         * Report relations no tuple can ever satisfy, as the fga CLI does: every path through
+         * the rewrite must end in a direct type restriction, with intersections needing all
+         * of their children and exclusions only their base. Paths that lead back to a relation
+         * already being resolved do not count, so {@code define a: b} / {@code define b: a}
+         * is rejected.
+         */
+        private void validateEntrypoints() {
+            Map<String, Boolean> resolved = new HashMap<>();
+            for (MergedType type : types.values()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("DSL validation cancelled");
+                }
+                for (Sourced<ModelAst.RelationDef> relation : type.relations.values()) {
+                    EntrypointSearch search = new EntrypointSearch(resolved);
+                    if (!search.relation(type, relation.node.getName())) {
+                        error(relation, relation.node, "'" + relation.node.getName() + "' is an impossible relation"
+                                + " for '" + type.name + "' (" + (search.loops > 0 ? "potential loop" : "no entrypoint") + ")");
+                    }
+                }
+            }
+        }
+
+        /**
+         * One depth-first search for an entrypoint. Results are shared through {@code resolved}
+         * unless they depended on a loop, since those only hold for the path they were found on.
+         */
+        private final class EntrypointSearch {
+            final Map<String, Boolean> resolved;
+            final Set<String> visiting = new HashSet<>();
+            int loops;
+
+            EntrypointSearch(Map<String, Boolean> resolved) {
+                this.resolved = resolved;
+            }
+
+            boolean relation(MergedType type, String name) {
+                String key = type.name + "#" + name;
+                Boolean known = resolved.get(key);
+                if (known != null) return known;
+                if (!visiting.add(key)) {
+                    loops++;
+                    return false;
+                }
+                int loopsBefore = loops;
+                boolean result = expr(type, type.relations.get(name).node.getExpression());
+                visiting.remove(key);
+                if (result || loops == loopsBefore) resolved.put(key, result);
+                return result;
+            }
+
+            private boolean expr(MergedType type, ModelAst.Expr expr) {
+                if (expr instanceof ModelAst.Direct direct) {
+                    for (ModelAst.DirectType directType : direct.getTypes()) {
+                        if (directType.getRelation() == null) return true;
+                        if (relation(types.get(directType.getType()), directType.getRelation())) return true;
+                    }
+                    return false;
+                } else if (expr instanceof ModelAst.Computed computed) {
+                    return relation(type, computed.getRelation());
+                } else if (expr instanceof ModelAst.TupleToUserset ttu) {
+                    ModelAst.Direct tupleset = (ModelAst.Direct) type.relations.get(ttu.getTupleset()).node.getExpression();
+                    for (ModelAst.DirectType directType : tupleset.getTypes()) {
+                        MergedType target = types.get(directType.getType());
+                        if (target.relations.containsKey(ttu.getRelation()) && relation(target, ttu.getRelation())) {
+                            return true;
+                        }
+                    }
+                    return false;
+                } else if (expr instanceof ModelAst.Operation operation) {
+                    boolean union = operation.getOperator() == ModelAst.Operation.Operator.UNION;
+                    for (ModelAst.Expr child : operation.getChildren()) {
+                        if (expr(type, child) == union) return union;
+                    }
+                    return !union;
+                } else if (expr instanceof ModelAst.Difference difference) {
+                    return expr(type, difference.getBase());
+                }
+                return false;
+            }
+        }
+
+        private void validateExpr(MergedType type, Sourced<ModelAst.RelationDef> relation, ModelAst.Expr expr,
+                                  boolean topLevel) {
+            if (expr instanceof ModelAst.Direct direct) {
+                Set<String> seen = new HashSet<>();
+                for (ModelAst.DirectType directType : direct.getTypes()) {
+                    if (!seen.add(directType.toString())) {
+                        error(relation, directType, "duplicate type restriction '" + directType + "'");
+                    }
+                    validateDirectType(relation, directType);
+                }
+            } else if (expr instanceof ModelAst.Computed computed) {
+                if (topLevel && computed.getRelation().equals(relation.node.getName())) {
+                    error(relation, computed, "relation '" + computed.getRelation() + "' cannot be defined as itself");
+                } else if (!type.relations.containsKey(computed.getRelation())) {
+                    error(relation, computed, "undefined relation '" + computed.getRelation()
+                            + "' on type '" + type.name + "'");
+                }
+            } else if (expr instanceof ModelAst.TupleToUserset ttu) {
+                validateTupleToUserset(type, relation, ttu);
+            } else if (expr instanceof ModelAst.Operation operation) {
+                for (ModelAst.Expr child : operation.getChildren()) validateExpr(type, relation, child, false);
+            } else if (expr instanceof ModelAst.Difference difference) {
+                validateExpr(type, relation, difference.getBase(), false);
+                validateExpr(type, relation, difference.getSubtract(), false);
+            }
+        }
+
+        private void validateDirectType(Sourced<ModelAst.RelationDef> relation, ModelAst.DirectType directType) {
+            MergedType target = types.get(directType.getType());
+            if (target == null) {
+                error(relation, directType, "undefined type '" + directType.getType() + "'");
+            } else if (directType.getRelation() != null && !target.relations.containsKey(directType.getRelation())) {
+                error(relation, directType, "undefined relation '" + directType.getRelation()
+                        + "' on type '" + directType.getType() + "'");
+            }
+            if (directType.getCondition() != null && !conditions.containsKey(directType.getCondition())) {
+                error(relation, directType, "undefined condition '" + directType.getCondition() + "'");
+            }
+        }
+
+        private void validateTupleToUserset(MergedType type, Sourced<ModelAst.RelationDef> relation,
+                                            ModelAst.TupleToUserset ttu) {
+            ModelAst.Position at = ttu.getTuplesetPosition();
+            Sourced<ModelAst.RelationDef> tupleset = type.relations.get(ttu.getTupleset());
+            if (tupleset == null) {
+                error(relation, at, "undefined relation '" + ttu.getTupleset() + "' on type '" + type.name + "'");
+                return;
+            }
+            if (!(tupleset.node.getExpression() instanceof ModelAst.Direct direct)) {
+                error(relation, at, "'" + ttu.getTupleset() + "' can only be used after 'from' if it is"
+                        + " defined with direct type restrictions only");
+                return;
+            }
+
+            boolean found = false;
+            for (ModelAst.DirectType directType : direct.getTypes()) {
+                if (directType.getRelation() != null || directType.isWildcard()) {
+                    error(relation, at, "'" + ttu.getTupleset() + "' can only be used after 'from' if it does"
+                            + " not allow usersets or wildcards ('" + directType + "')");
+                    return;
+                }
+                MergedType target = types.get(directType.getType());
+                if (target != null && target.relations.containsKey(ttu.getRelation())) found = true;
+            }
+            if (!found) {
+                error(relation, ttu, "relation '" + ttu.getRelation() + "' is not defined on any type of '"
+                        + ttu.getTupleset() + "'");
+            }
+        }
+
+        private static String checkParamType(ModelAst.ParamType type) {
+            if (!PARAM_TYPES.containsKey(type.getName())) {
+                return "unknown type '" + type.getName() + "'";
+            }
+            boolean generic = type.getName().equals("list") || type.getName().equals("map");
+            if (generic && type.getGeneric() == null) {
+                return "'" + type.getName() + "' needs an element type, e.g. " + type.getName() + "<string>";
+            }
+            if (!generic && type.getGeneric() != null) {
+                return "'" + type.getName() + "' does not take an element type";
+            }
+            return type.getGeneric() != null ? checkParamType(type.getGeneric()) : null;
+        }
+
+        private void error(Sourced<?> source, ModelAst.Position at, String message) {
+            diagnostics.add(new Diagnostic(source.file.isEmpty() ? null : source.file,
+                    at.getLine(), at.getColumn(), message));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.openfga.client.dsl;
+
+import java.util.List;
+
+/**
+ * Thrown when a DSL model has syntax or semantic errors.
+ */
+public class DslException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    // Not serialized; the message already carries the formatted diagnostics
+    private final transient List<Diagnostic> diagnostics;
+
+    public DslException(List<Diagnostic> diagnostics) {
+        super(format(diagnostics));
+        this.diagnostics = List.copyOf(diagnostics);
+    }
+
+    public List<Diagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    private static String format(List<Diagnostic> diagnostics) {
+        StringBuilder sb = new StringBuilder();
+        for (Diagnostic diagnostic : diagnostics) {
+            if (!sb.isEmpty()) sb.append("\n");
+            sb.append(diagnostic);
+        }
+        return sb.toString();
+    }
+}
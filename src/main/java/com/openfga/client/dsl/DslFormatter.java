@@ -0,0 +1,205 @@
+package com.openfga.client.dsl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formats DSL from its parsed form.
+ *
+ * The output is canonical: one declaration per line, nesting shown by indentation, one
+ * blank line between types and conditions, single spaces around operators and after
+ * commas. Declarations stay in source order and comments are kept, each before the
+ * declaration that follows it or after the code it trailed. Parentheses are written
+ * wherever an operand is itself an operation, so every rewrite compiles to the same JSON.
+ * Condition bodies are CEL and are only re-indented.
+ *
+ * The source is parsed once and every declaration and comment is visited once, so
+ * formatting takes time linear in the size of the model.
+ */
+public class DslFormatter {
+
+    private final String indent;
+    private StringBuilder out;
+    private List<ModelAst.Comment> comments;
+    private int nextComment;
+
+    /**
+     * @param indentWidth spaces per nesting level
+     */
+    public DslFormatter(int indentWidth) {
+        if (indentWidth < 1) throw new IllegalArgumentException("indent width must be positive");
+        this.indent = " ".repeat(indentWidth);
+    }
+
+    /**
+     * The formatted text. Models that do not parse are rejected rather than formatted,
+     * since text the parser skipped would be lost.
+     */
+    public String format(String dsl) throws DslException {
+        DslParser parser = new DslParser();
+        ModelAst ast = parser.parse(dsl);
+        if (!parser.getDiagnostics().isEmpty()) {
+            throw new DslException(parser.getDiagnostics());
+        }
+        return format(ast);
+    }
+
+    public String format(ModelAst ast) {
+        out = new StringBuilder();
+        comments = ast.getComments();
+        nextComment = 0;
+
+        boolean header = ast.getModule() != null || ast.getSchemaVersion() != null;
+        if (header) {
+            commentsBefore(ast.getHeaderLine(), "");
+            if (ast.getModule() != null) {
+                out.append("module ").append(ast.getModule());
+            }
+            if (ast.getSchemaVersion() != null) {
+                if (ast.getModule() != null) out.append('\n');
+                out.append("model\n").append(indent).append("schema ").append(ast.getSchemaVersion());
+            }
+            trailingComment(ast.getHeaderLine());
+            out.append('\n');
+        }
+
+        // Types and conditions are each in source order; merge them to keep the file's order
+        List<ModelAst.TypeDef> types = ast.getTypes();
+        List<ModelAst.ConditionDef> conditions = ast.getConditions();
+        int t = 0;
+        int c = 0;
+        while (t < types.size() || c < conditions.size()) {
+            if (header || t + c > 0) out.append('\n');
+            if (c >= conditions.size() || t < types.size() && types.get(t).getLine() < conditions.get(c).getLine()) {
+                type(types.get(t++));
+            } else {
+                condition(conditions.get(c++));
+            }
+        }
+
+        // Comments after the last declaration
+        if (nextComment < comments.size() && !out.isEmpty()) out.append('\n');
+        commentsBefore(Integer.MAX_VALUE, "");
+        return out.toString();
+    }
+
+    /**
+     * One relation's expression as it is written after {@code define <name>:}.
+     */
+    public String formatExpression(ModelAst.Expr expr) {
+        out = new StringBuilder();
+        expression(expr, true);
+        return out.toString();
+    }
+
+    // ==================== Declarations ====================
+
+    private void type(ModelAst.TypeDef type) {
+        commentsBefore(type.getLine(), "");
+        out.append(type.isExtension() ? "extend type " : "type ").append(type.getName());
+        trailingComment(type.getLine());
+        out.append('\n');
+        if (type.getRelations().isEmpty()) return;
+
+        out.append(indent).append("relations\n");
+        String relationIndent = indent + indent;
+        for (ModelAst.RelationDef relation : type.getRelations()) {
+            commentsBefore(relation.getLine(), relationIndent);
+            out.append(relationIndent).append("define ").append(relation.getName()).append(": ");
+            expression(relation.getExpression(), true);
+            trailingComment(relation.getLine());
+            out.append('\n');
+        }
+    }
+
+    private void expression(ModelAst.Expr expr, boolean topLevel) {
+        if (expr instanceof ModelAst.Direct direct) {
+            out.append('[');
+            for (int i = 0; i < direct.getTypes().size(); i++) {
+                if (i > 0) out.append(", ");
+                out.append(direct.getTypes().get(i));
+            }
+            out.append(']');
+        } else if (expr instanceof ModelAst.Computed computed) {
+            out.append(computed.getRelation());
+        } else if (expr instanceof ModelAst.TupleToUserset ttu) {
+            out.append(ttu.getRelation()).append(" from ").append(ttu.getTupleset());
+        } else if (expr instanceof ModelAst.Operation operation) {
+            if (!topLevel) out.append('(');
+            String operator = operation.getOperator() == ModelAst.Operation.Operator.UNION ? " or " : " and ";
+            for (int i = 0; i < operation.getChildren().size(); i++) {
+                if (i > 0) out.append(operator);
+                expression(operation.getChildren().get(i), false);
+            }
+            if (!topLevel) out.append(')');
+        } else if (expr instanceof ModelAst.Difference difference) {
+            if (!topLevel) out.append('(');
+            expression(difference.getBase(), false);
+            out.append(" but not ");
+            expression(difference.getSubtract(), false);
+            if (!topLevel) out.append(')');
+        }
+    }
+
+    private void condition(ModelAst.ConditionDef condition) {
+        commentsBefore(condition.getLine(), "");
+        out.append("condition ").append(condition.getName()).append('(');
+        boolean first = true;
+        for (Map.Entry<String, ModelAst.ParamType> parameter : condition.getParameters().entrySet()) {
+            if (!first) out.append(", ");
+            out.append(parameter.getKey()).append(": ").append(parameter.getValue());
+            first = false;
+        }
+        out.append(") {\n");
+        for (String line : dedent(condition.getExpression())) {
+            if (!line.isEmpty()) out.append(indent).append(line);
+            out.append('\n');
+        }
+        out.append('}');
+        trailingComment(condition.getEndLine());
+        out.append('\n');
+    }
+
+    /**
+     * Lines of a condition body with their common indentation removed. The first line was
+     * already stripped by the parser, so only the following lines set the common indent.
+     */
+    private static List<String> dedent(String expression) {
+        String[] lines = expression.split("\n", -1);
+        int common = Integer.MAX_VALUE;
+        for (int i = 1; i < lines.length; i++) {
+            if (lines[i].isBlank()) continue;
+            common = Math.min(common, lines[i].length() - lines[i].stripLeading().length());
+        }
+        List<String> result = new ArrayList<>(lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].stripTrailing();
+            result.add(i == 0 || line.isEmpty() ? line : line.substring(Math.min(common, line.length())));
+        }
+        return result;
+    }
+
+    // ==================== Comments ====================
+
+    /**
+     * Write every comment that comes before {@code line} on a line of its own. A trailing
+     * comment whose code was not a declaration, such as {@code relations # ...}, is moved
+     * onto its own line here as well.
+     */
+    private void commentsBefore(int line, String prefix) {
+        while (nextComment < comments.size() && comments.get(nextComment).getLine() < line) {
+            out.append(prefix).append(comments.get(nextComment++).getText()).append('\n');
+        }
+    }
+
+    private void trailingComment(int line) {
+        if (nextComment < comments.size()) {
+            ModelAst.Comment comment = comments.get(nextComment);
+            if (comment.getLine() == line && comment.isTrailing()) {
+                out.append(' ').append(comment.getText());
+                nextComment++;
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.openfga.client.dsl;
+
+import java.util.Arrays;
+
+/**
+ * Line-at-a-time lexer for syntax highlighting.
+ *
+ * Each call lexes one line given the state at the end of the previous line and reports the
+ * state at its end. The state is {@link #NORMAL}, {@link #CONDITION_HEADER} while a
+ * condition's parameter list runs over several lines, or the brace depth inside a condition
+ * body. Because the state is the only thing carried between lines, an editor can re-lex
+ * just the lines an edit touched and stop as soon as a line ends in the same state as
+ * before.
+ *
+ * Unlike {@link DslParser} this never fails: text it does not understand is simply left
+ * unstyled.
+ */
+public class DslLexer {
+
+    public static final int NORMAL = 0;
+    public static final int CONDITION_HEADER = -1;
+
+    public enum Style {
+        KEYWORD, TYPE, RELATION, CONDITION, COMMENT, STRING, NUMBER, EXPRESSION
+    }
+
+    private static final String SYMBOLS = "[],():#*{}<>";
+    private static final Style[] STYLES = Style.values();
+
+    private int[] spans = new int[48];
+    private int size;
+    private int state;
+
+    /**
+     * Lex {@code line}, starting in {@code stateBefore}. Returns the styled ranges as
+     * {@code (start, end, style ordinal)} triples in column order; the state at the end of
+     * the line is available from {@link #getState()}.
+     */
+    public int[] lex(String line, int stateBefore) {
+        size = 0;
+        state = stateBefore;
+        int i = 0;
+        if (state == CONDITION_HEADER) {
+            i = lexConditionHeader(line, 0);
+        }
+        if (state > 0) {
+            i = lexExpression(line, i);
+        }
+        if (state == NORMAL && i < line.length()) {
+            lexStatement(line, i);
+        }
+        return Arrays.copyOf(spans, size);
+    }
+
+    public int getState() {
+        return state;
+    }
+
+    public static Style style(int ordinal) {
+        return STYLES[ordinal];
+    }
+
+    // ==================== Statements ====================
+
+    private void lexStatement(String line, int from) {
+        int end = commentStart(line, from);
+        int i = skipSpace(line, from, end);
+        int wordEnd = wordEnd(line, i, end);
+        String first = line.substring(i, wordEnd);
+
+        switch (first) {
+            case "model", "relations" -> add(i, wordEnd, Style.KEYWORD);
+            case "schema" -> {
+                add(i, wordEnd, Style.KEYWORD);
+                int version = skipSpace(line, wordEnd, end);
+                add(version, wordEnd(line, version, end), Style.NUMBER);
+            }
+            case "module" -> add(i, wordEnd, Style.KEYWORD);
+            case "type" -> {
+                add(i, wordEnd, Style.KEYWORD);
+                int name = skipSpace(line, wordEnd, end);
+                add(name, wordEnd(line, name, end), Style.TYPE);
+            }
+            case "extend" -> {
+                add(i, wordEnd, Style.KEYWORD);
+                int keyword = skipSpace(line, wordEnd, end);
+                int keywordEnd = wordEnd(line, keyword, end);
+                if (line.startsWith("type", keyword) && keywordEnd - keyword == 4) {
+                    add(keyword, keywordEnd, Style.KEYWORD);
+                    int name = skipSpace(line, keywordEnd, end);
+                    add(name, wordEnd(line, name, end), Style.TYPE);
+                }
+            }
+            case "define" -> {
+                add(i, wordEnd, Style.KEYWORD);
+                int name = skipSpace(line, wordEnd, end);
+                int nameEnd = wordEnd(line, name, end);
+                add(name, nameEnd, Style.RELATION);
+                lexDefinition(line, nameEnd, end);
+            }
+            case "condition" -> {
+                add(i, wordEnd, Style.KEYWORD);
+                int name = skipSpace(line, wordEnd, end);
+                int nameEnd = wordEnd(line, name, end);
+                add(name, nameEnd, Style.CONDITION);
+                state = CONDITION_HEADER;
+                int next = lexConditionHeader(line, nameEnd);
+                if (state > 0) lexExpression(line, next);
+                return;
+            }
+            default -> {
+                // Not a statement this lexer knows; leave it unstyled
+            }
+        }
+        addComment(line, end);
+    }
+
+    /**
+     * The expression after {@code define name:}. Inside brackets, names are types, names after
+     * {@code #} relations and names after {@code with} conditions.
+     */
+    private void lexDefinition(String line, int from, int end) {
+        boolean inBrackets = false;
+        int i = from;
+        char previous = ' ';
+        String previousWord = "";
+        while (i < end) {
+            char c = line.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (SYMBOLS.indexOf(c) >= 0) {
+                if (c == '[') inBrackets = true;
+                else if (c == ']') inBrackets = false;
+                previous = c;
+                previousWord = "";
+                i++;
+                continue;
+            }
+            int wordEnd = wordEnd(line, i, end);
+            String word = line.substring(i, wordEnd);
+            if (isOperator(word)) {
+                add(i, wordEnd, Style.KEYWORD);
+            } else if (inBrackets) {
+                if (previousWord.equals("with")) add(i, wordEnd, Style.CONDITION);
+                else if (previous == '#') add(i, wordEnd, Style.RELATION);
+                else if (previous == '[' || previous == ',') add(i, wordEnd, Style.TYPE);
+            }
+            previous = 'a';
+            previousWord = word;
+            i = wordEnd;
+        }
+    }
+
+    private static boolean isOperator(String word) {
+        return switch (word) {
+            case "or", "and", "but", "not", "from", "with" -> true;
+            default -> false;
+        };
+    }
+
+    // ==================== Conditions ====================
+
+    /**
+     * Parameters of a condition, {@code name: type}, up to the opening brace. Returns the
+     * column after the brace, or the line length if the header continues on the next line.
+     */
+    private int lexConditionHeader(String line, int from) {
+        int end = commentStart(line, from);
+        boolean typePosition = false;
+        int i = from;
+        while (i < end) {
+            char c = line.charAt(i);
+            if (c == '{') {
+                state = 1;
+                return i + 1;
+            }
+            if (Character.isWhitespace(c) || SYMBOLS.indexOf(c) >= 0) {
+                if (c == ':') typePosition = true;
+                else if (c == ',' || c == '(' || c == ')') typePosition = false;
+                i++;
+                continue;
+            }
+            int wordEnd = wordEnd(line, i, end);
+            if (typePosition) add(i, wordEnd, Style.TYPE);
+            i = wordEnd;
+        }
+        addComment(line, end);
+        return line.length();
+    }
+
+    /**
+     * A CEL expression inside a condition body, tracking brace depth. Returns the column
+     * after the closing brace, or the line length if the body continues.
+     */
+    private int lexExpression(String line, int from) {
+        int i = from;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (c == '{') {
+                state++;
+                i++;
+            } else if (c == '}') {
+                i++;
+                if (--state == 0) {
+                    addComment(line, commentStart(line, i));
+                    return line.length();
+                }
+            } else if (c == '"' || c == '\'') {
+                int close = i + 1;
+                while (close < line.length() && line.charAt(close) != c) {
+                    if (line.charAt(close) == '\\') close++;
+                    close++;
+                }
+                int stringEnd = Math.min(line.length(), close + 1);
+                add(i, stringEnd, Style.STRING);
+                i = stringEnd;
+            } else if (Character.isDigit(c)) {
+                int numberEnd = i;
+                while (numberEnd < line.length() && (Character.isLetterOrDigit(line.charAt(numberEnd))
+                        || line.charAt(numberEnd) == '.')) {
+                    numberEnd++;
+                }
+                add(i, numberEnd, Style.NUMBER);
+                i = numberEnd;
+            } else if (Character.isLetter(c) || c == '_') {
+                int wordEnd = i;
+                while (wordEnd < line.length() && (Character.isLetterOrDigit(line.charAt(wordEnd))
+                        || line.charAt(wordEnd) == '_')) {
+                    wordEnd++;
+                }
+                String word = line.substring(i, wordEnd);
+                boolean keyword = word.equals("true") || word.equals("false") || word.equals("null") || word.equals("in");
+                add(i, wordEnd, keyword ? Style.KEYWORD : Style.EXPRESSION);
+                i = wordEnd;
+            } else {
+                i++;
+            }
+        }
+        return line.length();
+    }
+
+    // ==================== Helpers ====================
+
+    /**
+     * Where a trailing comment starts: a '#' at the start of the line or after whitespace,
+     * as in {@link DslParser#stripComment}.
+     */
+    private static int commentStart(String line, int from) {
+        for (int i = from; i < line.length(); i++) {
+            if (line.charAt(i) == '#' && (i == 0 || Character.isWhitespace(line.charAt(i - 1)))) {
+                return i;
+            }
+        }
+        return line.length();
+    }
+
+    private void addComment(String line, int start) {
+        if (start < line.length()) add(start, line.length(), Style.COMMENT);
+    }
+
+    private static int skipSpace(String line, int from, int end) {
+        int i = from;
+        while (i < end && Character.isWhitespace(line.charAt(i))) i++;
+        return i;
+    }
+
+    private static int wordEnd(String line, int from, int end) {
+        int i = from;
+        while (i < end && !Character.isWhitespace(line.charAt(i)) && SYMBOLS.indexOf(line.charAt(i)) < 0) i++;
+        return i;
+    }
+
+    private void add(int start, int end, Style style) {
+        if (start >= end) return;
+        if (size + 3 > spans.length) spans = Arrays.copyOf(spans, spans.length * 2);
+        spans[size++] = start;
+        spans[size++] = end;
+        spans[size++] = style.ordinal();
+    }
+}
@@ -0,0 +1,552 @@
+package com.openfga.client.dsl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parser for the OpenFGA modeling language (schema 1.1, plus {@code module} and
+ * {@code extend type} headers of modular models).
+ *
+ * The language is line oriented: every line starts with a keyword ({@code model},
+ * {@code schema}, {@code module}, {@code type}, {@code extend}, {@code relations},
+ * {@code define}, {@code condition}), except for the body of a condition, which runs
+ * to its closing brace. Parsing does not stop at the first error; the returned AST holds
+ * everything that parsed and {@link #getDiagnostics()} lists the rest. Interrupting the
+ * parsing thread aborts it with a {@link CancellationException}.
+ */
+public class DslParser {
+
+    private static final Pattern NAME = Pattern.compile("[^\\s:#@*,\\[\\]()<>{}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern CONDITION_HEADER = Pattern.compile(
+            "condition\\s+([^\\s(]+)\\s*\\((.*)\\)\\s*", Pattern.DOTALL);
+    private static final String SYMBOLS = "[],():#*";
+
+    private final String fileName;
+    private final List<Diagnostic> diagnostics = new ArrayList<>();
+    private String source;
+    private int[] lineStarts;
+
+    public DslParser() {
+        this(null);
+    }
+
+    /**
+     * @param fileName reported in diagnostics; null for a single unnamed model
+     */
+    public DslParser(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public List<Diagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    public ModelAst parse(String text) {
+        source = text.replace("\r\n", "\n").replace('\r', '\n');
+        lineStarts = computeLineStarts(source);
+        ModelAst ast = new ModelAst();
+        ast.setFileName(fileName);
+
+        String[] lines = source.split("\n", -1);
+        ModelAst.TypeDef currentType = null;
+        boolean inRelations = false;
+        boolean sawModel = false;
+
+        for (int i = 0; i < lines.length; i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                // A newer edit superseded this parse
+                throw new CancellationException("DSL parse cancelled");
+            }
+            String line = stripComment(lines[i]);
+            addComment(ast, lines[i], line.length(), i + 1);
+            String trimmed = line.strip();
+            if (trimmed.isEmpty()) continue;
+
+            int lineNo = i + 1;
+            int column = line.indexOf(trimmed) + 1;
+            String[] words = WHITESPACE.split(trimmed);
+
+            switch (words[0]) {
+                case "model" -> {
+                    if (words.length > 1) error(lineNo, column + 6, "unexpected '" + words[1] + "' after 'model'");
+                    sawModel = true;
+                }
+                case "schema" -> {
+                    if (!sawModel) error(lineNo, column, "'schema' must follow 'model'");
+                    if (words.length != 2) {
+                        error(lineNo, column, "expected 'schema <version>'");
+                    } else {
+                        ast.setSchemaVersion(words[1]);
+                        ast.setHeaderLine(lineNo);
+                    }
+                }
+                case "module" -> {
+                    if (words.length != 2 || !isName(words[1])) {
+                        error(lineNo, column, "expected 'module <name>'");
+                    } else {
+                        ast.setModule(words[1]);
+                        ast.setHeaderLine(lineNo);
+                    }
+                }
+                case "type", "extend" -> {
+                    boolean extension = words[0].equals("extend");
+                    int nameIndex = extension ? 2 : 1;
+                    if (extension && (words.length < 2 || !words[1].equals("type"))) {
+                        error(lineNo, column, "expected 'extend type <name>'");
+                        currentType = null;
+                    } else if (words.length != nameIndex + 1 || !isName(words[nameIndex])) {
+                        error(lineNo, column, "expected '" + (extension ? "extend type" : "type") + " <name>'");
+                        currentType = null;
+                    } else {
+                        int nameColumn = line.indexOf(words[nameIndex], column - 1 + words[0].length()) + 1;
+                        currentType = new ModelAst.TypeDef(words[nameIndex], extension, lineNo, nameColumn);
+                        ast.getTypes().add(currentType);
+                    }
+                    inRelations = false;
+                }
+                case "relations" -> {
+                    if (words.length > 1) error(lineNo, column, "unexpected text after 'relations'");
+                    if (currentType == null) error(lineNo, column, "'relations' outside of a type");
+                    inRelations = currentType != null;
+                }
+                case "define" -> {
+                    if (!inRelations) {
+                        error(lineNo, column, "'define' must be inside a type's 'relations' block");
+                    } else {
+                        ModelAst.RelationDef relation = parseDefine(line, lineNo, column);
+                        if (relation != null) currentType.getRelations().add(relation);
+                    }
+                }
+                case "condition" -> {
+                    currentType = null;
+                    inRelations = false;
+                    i = parseCondition(ast, i) - 1;
+                }
+                default -> error(lineNo, column, "unexpected '" + words[0] + "'");
+            }
+        }
+
+        if (ast.getSchemaVersion() == null && ast.getModule() == null) {
+            error(1, 1, "missing 'model' header with 'schema 1.1'");
+        }
+        return ast;
+    }
+
+    // ==================== Relations ====================
+
+    private ModelAst.RelationDef parseDefine(String line, int lineNo, int column) {
+        int start = column - 1 + "define".length();
+        int colon = line.indexOf(':', start);
+        if (colon < 0) {
+            error(lineNo, column, "expected 'define <name>: <expression>'");
+            return null;
+        }
+        String name = line.substring(start, colon).strip();
+        int nameColumn = line.indexOf(name, start) + 1;
+        if (!isName(name)) {
+            error(lineNo, name.isEmpty() ? colon + 1 : nameColumn, "invalid relation name '" + name + "'");
+            return null;
+        }
+
+        try {
+            ExprParser parser = new ExprParser(tokenize(line, colon + 1), lineNo, line.length() + 1);
+            ModelAst.Expr expression = parser.parseDefinition();
+            return new ModelAst.RelationDef(name, expression, lineNo, nameColumn);
+        } catch (SyntaxError e) {
+            error(lineNo, e.column, e.getMessage());
+            return null;
+        }
+    }
+
+    private List<Token> tokenize(String line, int from) throws SyntaxError {
+        List<Token> tokens = new ArrayList<>();
+        int i = from;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (SYMBOLS.indexOf(c) >= 0) {
+                tokens.add(new Token(String.valueOf(c), false, i + 1));
+                i++;
+            } else {
+                int end = i;
+                while (end < line.length() && !Character.isWhitespace(line.charAt(end))
+                        && SYMBOLS.indexOf(line.charAt(end)) < 0) {
+                    end++;
+                }
+                String word = line.substring(i, end);
+                if (!isName(word)) throw new SyntaxError(i + 1, "unexpected '" + word + "'");
+                tokens.add(new Token(word, true, i + 1));
+                i = end;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Recursive-descent parser for one relation definition. Operators cannot be mixed at the
+     * same level without parentheses, as in the reference grammar.
+     */
+    private static class ExprParser {
+        private final List<Token> tokens;
+        private final int line;
+        private final int endColumn;
+        private int pos;
+
+        ExprParser(List<Token> tokens, int line, int endColumn) {
+            this.tokens = tokens;
+            this.line = line;
+            this.endColumn = endColumn;
+        }
+
+        ModelAst.Expr parseDefinition() throws SyntaxError {
+            ModelAst.Expr expr = parseExpr();
+            if (pos < tokens.size()) {
+                throw new SyntaxError(peek().column, "unexpected '" + peek().text + "'");
+            }
+            return expr;
+        }
+
+        ModelAst.Expr parseExpr() throws SyntaxError {
+            ModelAst.Expr first = parseTerm();
+            Token next = peek();
+            if (next == null || !next.word) return first;
+
+            switch (next.text) {
+                case "or", "and" -> {
+                    String operator = next.text;
+                    List<ModelAst.Expr> children = new ArrayList<>(List.of(first));
+                    while (peek() != null && peek().word && peek().text.equals(operator)) {
+                        pos++;
+                        children.add(parseTerm());
+                    }
+                    rejectMixedOperator(operator);
+                    return new ModelAst.Operation(operator.equals("or")
+                            ? ModelAst.Operation.Operator.UNION
+                            : ModelAst.Operation.Operator.INTERSECTION, children, first.getLine(), first.getColumn());
+                }
+                case "but" -> {
+                    pos++;
+                    expectWord("not");
+                    ModelAst.Expr subtract = parseTerm();
+                    rejectMixedOperator("but not");
+                    return new ModelAst.Difference(first, subtract, first.getLine(), first.getColumn());
+                }
+                default -> {
+                    return first;
+                }
+            }
+        }
+
+        private void rejectMixedOperator(String operator) throws SyntaxError {
+            Token next = peek();
+            if (next != null && next.word && (next.text.equals("or") || next.text.equals("and") || next.text.equals("but"))) {
+                String other = next.text.equals("but") ? "but not" : next.text;
+                throw new SyntaxError(next.column, "cannot mix '" + operator + "' and '" + other
+                        + "' without parentheses");
+            }
+        }
+
+        private ModelAst.Expr parseTerm() throws SyntaxError {
+            Token token = next("an expression");
+            if (token.is("[")) {
+                return parseDirect(token);
+            }
+            if (token.is("(")) {
+                ModelAst.Expr inner = parseExpr();
+                expectSymbol(")");
+                return inner;
+            }
+            if (!token.word || isKeyword(token.text)) {
+                throw new SyntaxError(token.column, "unexpected '" + token.text + "'");
+            }
+            Token from = peek();
+            if (from != null && from.word && from.text.equals("from")) {
+                pos++;
+                Token tupleset = nextName("a relation after 'from'");
+                return new ModelAst.TupleToUserset(token.text, tupleset.text, line, token.column,
+                        new ModelAst.Position(line, tupleset.column));
+            }
+            return new ModelAst.Computed(token.text, line, token.column);
+        }
+
+        private ModelAst.Direct parseDirect(Token open) throws SyntaxError {
+            List<ModelAst.DirectType> types = new ArrayList<>();
+            do {
+                Token type = nextName("a type");
+                boolean wildcard = false;
+                Token relation = null;
+                Token condition = null;
+
+                if (peekIs(":")) {
+                    pos++;
+                    expectSymbol("*");
+                    wildcard = true;
+                }
+                if (peekIs("#")) {
+                    Token hash = tokens.get(pos++);
+                    if (wildcard) throw new SyntaxError(hash.column, "a wildcard cannot have a relation");
+                    relation = nextName("a relation after '#'");
+                }
+                if (peek() != null && peek().word && peek().text.equals("with")) {
+                    pos++;
+                    condition = nextName("a condition name after 'with'");
+                }
+                types.add(new ModelAst.DirectType(type.text, relation != null ? relation.text : null, wildcard,
+                        condition != null ? condition.text : null, line, type.column,
+                        relation != null ? new ModelAst.Position(line, relation.column) : null,
+                        condition != null ? new ModelAst.Position(line, condition.column) : null));
+            } while (acceptSymbol(","));
+            expectSymbol("]");
+            return new ModelAst.Direct(types, line, open.column);
+        }
+
+        private Token peek() {
+            return pos < tokens.size() ? tokens.get(pos) : null;
+        }
+
+        private boolean peekIs(String symbol) {
+            Token token = peek();
+            return token != null && token.is(symbol);
+        }
+
+        private boolean acceptSymbol(String symbol) {
+            if (peekIs(symbol)) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private Token next(String expected) throws SyntaxError {
+            if (pos >= tokens.size()) throw new SyntaxError(endColumn, "expected " + expected);
+            return tokens.get(pos++);
+        }
+
+        private Token nextName(String expected) throws SyntaxError {
+            Token token = next(expected);
+            if (!token.word || isKeyword(token.text)) {
+                throw new SyntaxError(token.column, "expected " + expected + ", found '" + token.text + "'");
+            }
+            return token;
+        }
+
+        private void expectSymbol(String symbol) throws SyntaxError {
+            Token token = next("'" + symbol + "'");
+            if (!token.is(symbol)) {
+                throw new SyntaxError(token.column, "expected '" + symbol + "', found '" + token.text + "'");
+            }
+        }
+
+        private void expectWord(String word) throws SyntaxError {
+            Token token = next("'" + word + "'");
+            if (!token.word || !token.text.equals(word)) {
+                throw new SyntaxError(token.column, "expected '" + word + "', found '" + token.text + "'");
+            }
+        }
+
+        private static boolean isKeyword(String word) {
+            return word.equals("or") || word.equals("and") || word.equals("but") || word.equals("not")
+                    || word.equals("from") || word.equals("with");
+        }
+    }
+
+    // ==================== Conditions ====================
+
+    /**
+     * Parse the condition starting on line index {@code startLine} and return the index of
+     * the first line after it.
+     */
+    private int parseCondition(ModelAst ast, int startLine) {
+        int start = lineStarts[startLine];
+        int lineNo = startLine + 1;
+        int column = firstNonBlank(start) - start + 1;
+
+        int open = source.indexOf('{', start);
+        if (open < 0) {
+            error(lineNo, column, "expected '{' to start the condition expression");
+            return lineStarts.length;
+        }
+
+        int depth = 0;
+        int close = -1;
+        for (int i = open; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '{') depth++;
+            else if (c == '}' && --depth == 0) {
+                close = i;
+                break;
+            }
+        }
+        if (close < 0) {
+            error(lineOf(open), columnOf(open), "unclosed '{' in condition");
+            return lineStarts.length;
+        }
+
+        int closeLine = lineOf(close);
+        int lineEnd = closeLine < lineStarts.length ? lineStarts[closeLine] - 1 : source.length();
+        String afterClose = source.substring(close + 1, lineEnd);
+        String trailing = stripComment(afterClose).strip();
+        if (!trailing.isEmpty()) {
+            error(closeLine, columnOf(close) + 1, "unexpected text after condition");
+        }
+
+        String header = source.substring(firstNonBlank(start), open);
+        Matcher matcher = CONDITION_HEADER.matcher(header);
+        if (!matcher.matches()) {
+            error(lineNo, column, "expected 'condition <name>(<param>: <type>, ...) {'");
+            return closeLine;
+        }
+
+        String name = matcher.group(1);
+        if (!isName(name)) {
+            error(lineNo, column, "invalid condition name '" + name + "'");
+            return closeLine;
+        }
+        int nameOffset = firstNonBlank(start) + matcher.start(1);
+        ModelAst.ConditionDef condition = new ModelAst.ConditionDef(name, lineOf(nameOffset), columnOf(nameOffset));
+        parseParameters(condition, matcher.group(2), firstNonBlank(start) + matcher.start(2));
+
+        String expression = source.substring(open + 1, close).strip();
+        if (expression.isEmpty()) {
+            error(lineOf(open), columnOf(open), "condition '" + name + "' has an empty expression");
+        }
+        condition.setExpression(expression);
+        condition.setEndLine(closeLine);
+        ast.getConditions().add(condition);
+        addComment(ast, source.substring(lineStarts[closeLine - 1], lineEnd),
+                columnOf(close) + stripComment(afterClose).length(), closeLine);
+        return closeLine;
+    }
+
+    private void parseParameters(ModelAst.ConditionDef condition, String text, int offset) {
+        if (text.isBlank()) {
+            error(condition.getLine(), condition.getColumn(), "condition '" + condition.getName()
+                    + "' needs at least one parameter");
+            return;
+        }
+
+        int paramStart = 0;
+        for (String param : text.split(",", -1)) {
+            int at = offset + paramStart + (param.length() - param.stripLeading().length());
+            paramStart += param.length() + 1;
+
+            int colon = param.indexOf(':');
+            String paramName = colon < 0 ? param.strip() : param.substring(0, colon).strip();
+            if (colon < 0 || !isName(paramName)) {
+                error(lineOf(at), columnOf(at), "expected '<name>: <type>' in condition parameters");
+                continue;
+            }
+            ModelAst.ParamType type = parseParamType(param.substring(colon + 1).strip());
+            if (type == null) {
+                error(lineOf(at), columnOf(at), "invalid type for parameter '" + paramName + "'");
+            } else if (condition.getParameters().putIfAbsent(paramName, type) != null) {
+                error(lineOf(at), columnOf(at), "duplicate parameter '" + paramName + "'");
+            }
+        }
+    }
+
+    private static ModelAst.ParamType parseParamType(String text) {
+        int open = text.indexOf('<');
+        if (open < 0) {
+            return isName(text) ? new ModelAst.ParamType(text, null) : null;
+        }
+        if (!text.endsWith(">")) return null;
+        ModelAst.ParamType generic = parseParamType(text.substring(open + 1, text.length() - 1).strip());
+        String name = text.substring(0, open).strip();
+        return generic != null && isName(name) ? new ModelAst.ParamType(name, generic) : null;
+    }
+
+    // ==================== Helpers ====================
+
+    /**
+     * Drop a trailing comment. A '#' only starts a comment at the start of a line or after
+     * whitespace, so usersets like {@code group#member} are left alone.
+     */
+    static String stripComment(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '#' && (i == 0 || Character.isWhitespace(line.charAt(i - 1)))) {
+                return line.substring(0, i);
+            }
+        }
+        return line;
+    }
+
+    /**
+     * Record the comment that starts at {@code codeLength} in {@code line}, if there is one.
+     */
+    private static void addComment(ModelAst ast, String line, int codeLength, int lineNo) {
+        if (codeLength >= line.length()) return;
+        boolean trailing = !line.substring(0, codeLength).isBlank();
+        ast.getComments().add(new ModelAst.Comment(line.substring(codeLength).stripTrailing(), trailing, lineNo, codeLength + 1));
+    }
+
+    static boolean isName(String text) {
+        return NAME.matcher(text).matches();
+    }
+
+    private static int[] computeLineStarts(String text) {
+        int[] starts = new int[16];
+        int count = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) != '\n') continue;
+            if (count == starts.length) starts = Arrays.copyOf(starts, count * 2);
+            starts[count++] = i + 1;
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    private int firstNonBlank(int from) {
+        int i = from;
+        while (i < source.length() && (source.charAt(i) == ' ' || source.charAt(i) == '\t')) i++;
+        return i;
+    }
+
+    /**
+     * 1-based line of a source offset.
+     */
+    private int lineOf(int offset) {
+        int index = Arrays.binarySearch(lineStarts, offset);
+        return (index >= 0 ? index : -index - 2) + 1;
+    }
+
+    private int columnOf(int offset) {
+        return offset - lineStarts[lineOf(offset) - 1] + 1;
+    }
+
+    private void error(int line, int column, String message) {
+        diagnostics.add(new Diagnostic(fileName, line, column, message));
+    }
+
+    private static class Token {
+        final String text;
+        final boolean word;
+        final int column;
+
+        Token(String text, boolean word, int column) {
+            this.text = text;
+            this.word = word;
+            this.column = column;
+        }
+
+        boolean is(String symbol) {
+            return !word && text.equals(symbol);
+        }
+    }
+
+    private static class SyntaxError extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final int column;
+
+        SyntaxError(int column, String message) {
+            super(message);
+            this.column = column;
+        }
+    }
+}
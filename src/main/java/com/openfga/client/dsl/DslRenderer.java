@@ -0,0 +1,143 @@
+package com.openfga.client.dsl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders authorization model JSON, as returned by the {@code /authorization-models}
+ * endpoints, back into DSL. The inverse of {@link DslCompiler}: compiling the rendered text
+ * gives the same type definitions and conditions.
+ *
+ * Both the proto field names used by the server ({@code computedUserset}) and their
+ * snake_case forms are accepted. Modular (schema 1.2) models are flattened into one file;
+ * each type's module is kept as a comment.
+ */
+public class DslRenderer {
+
+    private static final String INDENT = "  ";
+
+    private DslRenderer() {
+    }
+
+    public static String render(JsonNode model) {
+        StringBuilder out = new StringBuilder();
+        boolean modular = DslCompiler.SCHEMA_1_2.equals(model.path("schema_version").asText());
+        if (modular) {
+            out.append("# Modular model (schema 1.2) flattened into one file\n");
+        }
+        out.append("model\n").append(INDENT).append("schema ").append(DslCompiler.SCHEMA_1_1).append('\n');
+
+        for (JsonNode type : model.path("type_definitions")) {
+            out.append('\n');
+            String module = type.path("metadata").path("module").asText();
+            if (modular && !module.isEmpty()) {
+                out.append("# module: ").append(module).append('\n');
+            }
+            out.append("type ").append(type.path("type").asText()).append('\n');
+
+            JsonNode relations = type.path("relations");
+            if (relations.isEmpty()) continue;
+            out.append(INDENT).append("relations\n");
+            JsonNode relationMetadata = type.path("metadata").path("relations");
+            for (Map.Entry<String, JsonNode> relation : relations.properties()) {
+                out.append(INDENT).append(INDENT).append("define ").append(relation.getKey()).append(": ")
+                        .append(renderRelation(relation.getValue(), relationMetadata.path(relation.getKey())))
+                        .append('\n');
+            }
+        }
+
+        for (JsonNode condition : model.path("conditions")) {
+            out.append('\n').append(condition(condition)).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * The DSL for one relation's definition, e.g. {@code [user] or editor}.
+     *
+     * @param metadata the relation's entry under the type's {@code metadata.relations}
+     */
+    public static String renderRelation(JsonNode rewrite, JsonNode metadata) {
+        return rewrite(rewrite, directTypes(metadata), true);
+    }
+
+    private static String directTypes(JsonNode metadata) {
+        List<String> types = new ArrayList<>();
+        for (JsonNode userType : metadata.path("directly_related_user_types")) {
+            StringBuilder text = new StringBuilder(userType.path("type").asText());
+            if (userType.has("wildcard")) {
+                text.append(":*");
+            } else if (!userType.path("relation").asText().isEmpty()) {
+                text.append('#').append(userType.path("relation").asText());
+            }
+            if (!userType.path("condition").asText().isEmpty()) {
+                text.append(" with ").append(userType.path("condition").asText());
+            }
+            types.add(text.toString());
+        }
+        return "[" + String.join(", ", types) + "]";
+    }
+
+    /**
+     * One userset rewrite. Operators below the top level are parenthesized, since the DSL
+     * does not allow mixing them without parentheses.
+     */
+    private static String rewrite(JsonNode node, String directTypes, boolean topLevel) {
+        if (node.has("this")) {
+            return directTypes;
+        }
+        JsonNode computed = field(node, "computedUserset", "computed_userset");
+        if (computed != null) {
+            return computed.path("relation").asText();
+        }
+        JsonNode ttu = field(node, "tupleToUserset", "tuple_to_userset");
+        if (ttu != null) {
+            JsonNode target = field(ttu, "computedUserset", "computed_userset");
+            return (target != null ? target.path("relation").asText() : "")
+                    + " from " + ttu.path("tupleset").path("relation").asText();
+        }
+
+        String text;
+        if (node.has("union") || node.has("intersection")) {
+            boolean union = node.has("union");
+            List<String> children = new ArrayList<>();
+            for (JsonNode child : node.path(union ? "union" : "intersection").path("child")) {
+                children.add(rewrite(child, directTypes, false));
+            }
+            if (children.size() == 1) {
+                return children.get(0);
+            }
+            text = String.join(union ? " or " : " and ", children);
+        } else if (node.has("difference")) {
+            JsonNode difference = node.get("difference");
+            text = rewrite(difference.path("base"), directTypes, false)
+                    + " but not " + rewrite(difference.path("subtract"), directTypes, false);
+        } else {
+            throw new IllegalArgumentException("unsupported relation rewrite: " + node);
+        }
+        return topLevel ? text : "(" + text + ")";
+    }
+
+    private static JsonNode field(JsonNode node, String name, String alternative) {
+        JsonNode value = node.get(name);
+        return value != null ? value : node.get(alternative);
+    }
+
+    private static String condition(JsonNode condition) {
+        List<String> parameters = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> parameter : condition.path("parameters").properties()) {
+            parameters.add(parameter.getKey() + ": " + paramType(parameter.getValue()));
+        }
+        return "condition " + condition.path("name").asText() + "(" + String.join(", ", parameters) + ") {\n"
+                + INDENT + condition.path("expression").asText().strip() + "\n}";
+    }
+
+    private static String paramType(JsonNode type) {
+        String name = type.path("type_name").asText().replaceFirst("^TYPE_NAME_", "").toLowerCase();
+        JsonNode generics = type.path("generic_types");
+        return generics.isEmpty() ? name : name + "<" + paramType(generics.get(0)) + ">";
+    }
+}
@@ -0,0 +1,422 @@
+package com.openfga.client.dsl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parsed form of one DSL file. Every declaration and reference keeps the line and column
+ * it came from, so errors and editor features can point back into the source.
+ */
+public class ModelAst {
+
+    private String schemaVersion;
+    private String module;
+    private int headerLine;
+    private String fileName;
+    private final List<TypeDef> types = new ArrayList<>();
+    private final List<ConditionDef> conditions = new ArrayList<>();
+    private final List<Comment> comments = new ArrayList<>();
+
+    public String getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    void setSchemaVersion(String schemaVersion) {
+        this.schemaVersion = schemaVersion;
+    }
+
+    /**
+     * Module name for files that start with {@code module <name>}, otherwise null.
+     */
+    public String getModule() {
+        return module;
+    }
+
+    void setModule(String module) {
+        this.module = module;
+    }
+
+    /**
+     * Line of the {@code schema} or {@code module} statement that ends the file's header,
+     * or 0 if there is none.
+     */
+    public int getHeaderLine() {
+        return headerLine;
+    }
+
+    void setHeaderLine(int headerLine) {
+        this.headerLine = headerLine;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public List<TypeDef> getTypes() {
+        return types;
+    }
+
+    public List<ConditionDef> getConditions() {
+        return conditions;
+    }
+
+    /**
+     * Comments outside condition bodies, in source order. The compiler ignores them; the
+     * formatter keeps them.
+     */
+    public List<Comment> getComments() {
+        return comments;
+    }
+
+    /**
+     * A source position, 1-based.
+     */
+    public static class Position {
+        private final int line;
+        private final int column;
+
+        public Position(int line, int column) {
+            this.line = line;
+            this.column = column;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public int getColumn() {
+            return column;
+        }
+    }
+
+    /**
+     * A {@code #} comment, either on a line of its own or after code.
+     */
+    public static class Comment extends Position {
+        private final String text;
+        private final boolean trailing;
+
+        public Comment(String text, boolean trailing, int line, int column) {
+            super(line, column);
+            this.text = text;
+            this.trailing = trailing;
+        }
+
+        /**
+         * The comment including its leading {@code #}, without trailing whitespace.
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Whether code precedes the comment on its line.
+         */
+        public boolean isTrailing() {
+            return trailing;
+        }
+    }
+
+    /**
+     * {@code type <name>} or {@code extend type <name>}.
+     */
+    public static class TypeDef extends Position {
+        private final String name;
+        private final boolean extension;
+        private final List<RelationDef> relations = new ArrayList<>();
+
+        public TypeDef(String name, boolean extension, int line, int column) {
+            super(line, column);
+            this.name = name;
+            this.extension = extension;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isExtension() {
+            return extension;
+        }
+
+        public List<RelationDef> getRelations() {
+            return relations;
+        }
+    }
+
+    /**
+     * {@code define <name>: <expression>}.
+     */
+    public static class RelationDef extends Position {
+        private final String name;
+        private final Expr expression;
+
+        public RelationDef(String name, Expr expression, int line, int column) {
+            super(line, column);
+            this.name = name;
+            this.expression = expression;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Expr getExpression() {
+            return expression;
+        }
+    }
+
+    /**
+     * A relation rewrite: direct types, a reference, or an operator over sub-expressions.
+     */
+    public abstract static class Expr extends Position {
+        protected Expr(int line, int column) {
+            super(line, column);
+        }
+    }
+
+    /**
+     * {@code [user, group#member, user:*, user with cond]}.
+     */
+    public static class Direct extends Expr {
+        private final List<DirectType> types;
+
+        public Direct(List<DirectType> types, int line, int column) {
+            super(line, column);
+            this.types = types;
+        }
+
+        public List<DirectType> getTypes() {
+            return types;
+        }
+    }
+
+    /**
+     * A relation on the same object, e.g. {@code editor}.
+     */
+    public static class Computed extends Expr {
+        private final String relation;
+
+        public Computed(String relation, int line, int column) {
+            super(line, column);
+            this.relation = relation;
+        }
+
+        public String getRelation() {
+            return relation;
+        }
+    }
+
+    /**
+     * {@code <relation> from <tupleset>}. The expression's position is the relation's;
+     * {@link #getTuplesetPosition()} points at the tupleset.
+     */
+    public static class TupleToUserset extends Expr {
+        private final String relation;
+        private final String tupleset;
+        private final Position tuplesetPosition;
+
+        public TupleToUserset(String relation, String tupleset, int line, int column, Position tuplesetPosition) {
+            super(line, column);
+            this.relation = relation;
+            this.tupleset = tupleset;
+            this.tuplesetPosition = tuplesetPosition;
+        }
+
+        public String getRelation() {
+            return relation;
+        }
+
+        public String getTupleset() {
+            return tupleset;
+        }
+
+        public Position getTuplesetPosition() {
+            return tuplesetPosition;
+        }
+    }
+
+    /**
+     * {@code a or b or c} and {@code a and b and c}.
+     */
+    public static class Operation extends Expr {
+        public enum Operator { UNION, INTERSECTION }
+
+        private final Operator operator;
+        private final List<Expr> children;
+
+        public Operation(Operator operator, List<Expr> children, int line, int column) {
+            super(line, column);
+            this.operator = operator;
+            this.children = children;
+        }
+
+        public Operator getOperator() {
+            return operator;
+        }
+
+        public List<Expr> getChildren() {
+            return children;
+        }
+    }
+
+    /**
+     * {@code base but not subtract}.
+     */
+    public static class Difference extends Expr {
+        private final Expr base;
+        private final Expr subtract;
+
+        public Difference(Expr base, Expr subtract, int line, int column) {
+            super(line, column);
+            this.base = base;
+            this.subtract = subtract;
+        }
+
+        public Expr getBase() {
+            return base;
+        }
+
+        public Expr getSubtract() {
+            return subtract;
+        }
+    }
+
+    /**
+     * One entry of a direct type list. The entry's position is the type's; the relation
+     * after {@code #} and the condition after {@code with} have positions of their own.
+     */
+    public static class DirectType extends Position {
+        private final String type;
+        private final String relation;
+        private final boolean wildcard;
+        private final String condition;
+        private final Position relationPosition;
+        private final Position conditionPosition;
+
+        public DirectType(String type, String relation, boolean wildcard, String condition, int line, int column) {
+            this(type, relation, wildcard, condition, line, column, null, null);
+        }
+
+        public DirectType(String type, String relation, boolean wildcard, String condition, int line, int column,
+                          Position relationPosition, Position conditionPosition) {
+            super(line, column);
+            this.type = type;
+            this.relation = relation;
+            this.wildcard = wildcard;
+            this.condition = condition;
+            this.relationPosition = relationPosition;
+            this.conditionPosition = conditionPosition;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getRelation() {
+            return relation;
+        }
+
+        public boolean isWildcard() {
+            return wildcard;
+        }
+
+        public String getCondition() {
+            return condition;
+        }
+
+        /**
+         * Where the relation after {@code #} is written, or null if there is none.
+         */
+        public Position getRelationPosition() {
+            return relationPosition;
+        }
+
+        /**
+         * Where the condition after {@code with} is written, or null if there is none.
+         */
+        public Position getConditionPosition() {
+            return conditionPosition;
+        }
+
+        @Override
+        public String toString() {
+            String text = type + (wildcard ? ":*" : "") + (relation != null ? "#" + relation : "");
+            return condition != null ? text + " with " + condition : text;
+        }
+    }
+
+    /**
+     * {@code condition <name>(<params>) { <expression> }}.
+     */
+    public static class ConditionDef extends Position {
+        private final String name;
+        private final Map<String, ParamType> parameters = new LinkedHashMap<>();
+        private String expression;
+        private int endLine;
+
+        public ConditionDef(String name, int line, int column) {
+            super(line, column);
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Map<String, ParamType> getParameters() {
+            return parameters;
+        }
+
+        public String getExpression() {
+            return expression;
+        }
+
+        void setExpression(String expression) {
+            this.expression = expression;
+        }
+
+        /**
+         * Line of the closing brace.
+         */
+        public int getEndLine() {
+            return endLine;
+        }
+
+        void setEndLine(int endLine) {
+            this.endLine = endLine;
+        }
+    }
+
+    /**
+     * A condition parameter type such as {@code timestamp} or {@code list<string>}.
+     */
+    public static class ParamType {
+        private final String name;
+        private final ParamType generic;
+
+        public ParamType(String name, ParamType generic) {
+            this.name = name;
+            this.generic = generic;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public ParamType getGeneric() {
+            return generic;
+        }
+
+        @Override
+        public String toString() {
+            return generic != null ? name + "<" + generic + ">" : name;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.openfga.client.dsl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Structural difference between two authorization models in their JSON form.
+ *
+ * Both models are reduced to a canonical form first, so differences that do not change
+ * what the model means are ignored: the order of types, relations, conditions, condition
+ * parameters, direct types and the operands of {@code or}/{@code and}, nested operators of
+ * the same kind, whitespace in condition expressions, model ids and module/source metadata.
+ * The canonical form is a few maps of strings, so a diff takes well under a millisecond for
+ * typical models and can run on every edit.
+ */
+public class ModelDiff {
+
+    public enum Kind {
+        ADDED("+"), REMOVED("-"), CHANGED("~");
+
+        private final String symbol;
+
+        Kind(String symbol) {
+            this.symbol = symbol;
+        }
+    }
+
+    /**
+     * One added, removed or changed type, relation or condition.
+     */
+    public static class Change {
+        private final Kind kind;
+        private final String subject;
+        private final String detail;
+
+        Change(Kind kind, String subject, String detail) {
+            this.kind = kind;
+            this.subject = subject;
+            this.detail = detail;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * What changed, e.g. {@code type document} or {@code relation document#viewer}.
+         */
+        public String getSubject() {
+            return subject;
+        }
+
+        /**
+         * For changes, the old and new definition; otherwise null.
+         */
+        public String getDetail() {
+            return detail;
+        }
+
+        @Override
+        public String toString() {
+            return kind.symbol + " " + subject + (detail != null ? ": " + detail : "");
+        }
+    }
+
+    private final List<Change> changes;
+
+    private ModelDiff(List<Change> changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * Changes that turn {@code before} into {@code after}. Types and conditions are reported
+     * in name order, relations in name order within their type.
+     */
+    public static ModelDiff compare(JsonNode before, JsonNode after) {
+        List<Change> changes = new ArrayList<>();
+
+        String schemaBefore = before.path("schema_version").asText();
+        String schemaAfter = after.path("schema_version").asText();
+        if (!schemaBefore.equals(schemaAfter)) {
+            changes.add(new Change(Kind.CHANGED, "schema", schemaBefore + " → " + schemaAfter));
+        }
+
+        Map<String, JsonNode> typesBefore = byName(before.path("type_definitions"), "type");
+        Map<String, JsonNode> typesAfter = byName(after.path("type_definitions"), "type");
+        for (String type : union(typesBefore.keySet(), typesAfter.keySet())) {
+            JsonNode old = typesBefore.get(type);
+            JsonNode updated = typesAfter.get(type);
+            if (old == null) {
+                changes.add(new Change(Kind.ADDED, "type " + type, null));
+            } else if (updated == null) {
+                changes.add(new Change(Kind.REMOVED, "type " + type, null));
+            } else {
+                compareRelations(type, old, updated, changes);
+            }
+        }
+
+        Map<String, JsonNode> conditionsBefore = conditions(before);
+        Map<String, JsonNode> conditionsAfter = conditions(after);
+        for (String name : union(conditionsBefore.keySet(), conditionsAfter.keySet())) {
+            JsonNode old = conditionsBefore.get(name);
+            JsonNode updated = conditionsAfter.get(name);
+            if (old == null) {
+                changes.add(new Change(Kind.ADDED, "condition " + name, null));
+            } else if (updated == null) {
+                changes.add(new Change(Kind.REMOVED, "condition " + name, null));
+            } else {
+                String parametersBefore = canonicalParameters(old);
+                String parametersAfter = canonicalParameters(updated);
+                String expressionBefore = normalizeWhitespace(old.path("expression").asText());
+                String expressionAfter = normalizeWhitespace(updated.path("expression").asText());
+                if (!parametersBefore.equals(parametersAfter)) {
+                    changes.add(new Change(Kind.CHANGED, "condition " + name,
+                            "parameters " + parametersBefore + " → " + parametersAfter));
+                } else if (!expressionBefore.equals(expressionAfter)) {
+                    changes.add(new Change(Kind.CHANGED, "condition " + name,
+                            expressionBefore + " → " + expressionAfter));
+                }
+            }
+        }
+        return new ModelDiff(changes);
+    }
+
+    private static void compareRelations(String type, JsonNode before, JsonNode after, List<Change> changes) {
+        JsonNode metadataBefore = before.path("metadata").path("relations");
+        JsonNode metadataAfter = after.path("metadata").path("relations");
+        Map<String, JsonNode> relationsBefore = new TreeMap<>();
+        before.path("relations").properties().forEach(e -> relationsBefore.put(e.getKey(), e.getValue()));
+        Map<String, JsonNode> relationsAfter = new TreeMap<>();
+        after.path("relations").properties().forEach(e -> relationsAfter.put(e.getKey(), e.getValue()));
+
+        for (String relation : union(relationsBefore.keySet(), relationsAfter.keySet())) {
+            String subject = "relation " + type + "#" + relation;
+            JsonNode old = relationsBefore.get(relation);
+            JsonNode updated = relationsAfter.get(relation);
+            if (old == null) {
+                changes.add(new Change(Kind.ADDED, subject, DslRenderer.renderRelation(updated, metadataAfter.path(relation))));
+            } else if (updated == null) {
+                changes.add(new Change(Kind.REMOVED, subject, null));
+            } else {
+                String canonicalBefore = canonicalRewrite(old) + " " + canonicalDirectTypes(metadataBefore.path(relation));
+                String canonicalAfter = canonicalRewrite(updated) + " " + canonicalDirectTypes(metadataAfter.path(relation));
+                if (!canonicalBefore.equals(canonicalAfter)) {
+                    changes.add(new Change(Kind.CHANGED, subject,
+                            DslRenderer.renderRelation(old, metadataBefore.path(relation)) + " → "
+                                    + DslRenderer.renderRelation(updated, metadataAfter.path(relation))));
+                }
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    /**
+     * A short summary such as {@code 2 added, 1 changed}, or {@code no changes}.
+     */
+    public String summary() {
+        if (changes.isEmpty()) return "no changes";
+        List<String> parts = new ArrayList<>();
+        for (Kind kind : Kind.values()) {
+            long count = changes.stream().filter(change -> change.kind == kind).count();
+            if (count > 0) parts.add(count + " " + kind.name().toLowerCase());
+        }
+        return String.join(", ", parts);
+    }
+
+    // ==================== Canonical form ====================
+
+    /**
+     * A rewrite as a string in which operands of {@code or}/{@code and} are flattened,
+     * de-duplicated and sorted.
+     */
+    private static String canonicalRewrite(JsonNode node) {
+        if (node.has("this")) {
+            return "this";
+        }
+        JsonNode computed = field(node, "computedUserset", "computed_userset");
+        if (computed != null) {
+            return "computed(" + computed.path("relation").asText() + ")";
+        }
+        JsonNode ttu = field(node, "tupleToUserset", "tuple_to_userset");
+        if (ttu != null) {
+            JsonNode target = field(ttu, "computedUserset", "computed_userset");
+            return "ttu(" + ttu.path("tupleset").path("relation").asText() + ","
+                    + (target != null ? target.path("relation").asText() : "") + ")";
+        }
+        if (node.has("union") || node.has("intersection")) {
+            String operator = node.has("union") ? "union" : "intersection";
+            Set<String> operands = new TreeSet<>();
+            collectOperands(node, operator, operands);
+            return operands.size() == 1 ? operands.iterator().next() : operator + operands;
+        }
+        if (node.has("difference")) {
+            JsonNode difference = node.get("difference");
+            return "difference(" + canonicalRewrite(difference.path("base")) + ","
+                    + canonicalRewrite(difference.path("subtract")) + ")";
+        }
+        return node.toString();
+    }
+
+    private static void collectOperands(JsonNode node, String operator, Set<String> operands) {
+        for (JsonNode child : node.path(operator).path("child")) {
+            if (child.has(operator)) {
+                collectOperands(child, operator, operands);
+            } else {
+                operands.add(canonicalRewrite(child));
+            }
+        }
+    }
+
+    private static String canonicalDirectTypes(JsonNode metadata) {
+        Set<String> types = new TreeSet<>();
+        for (JsonNode userType : metadata.path("directly_related_user_types")) {
+            types.add(userType.path("type").asText()
+                    + (userType.has("wildcard") ? ":*" : "")
+                    + "#" + userType.path("relation").asText()
+                    + "?" + userType.path("condition").asText());
+        }
+        return types.toString();
+    }
+
+    private static String canonicalParameters(JsonNode condition) {
+        Map<String, String> parameters = new TreeMap<>();
+        condition.path("parameters").properties()
+                .forEach(e -> parameters.put(e.getKey(), paramType(e.getValue())));
+        return parameters.toString();
+    }
+
+    private static String paramType(JsonNode type) {
+        JsonNode generics = type.path("generic_types");
+        String name = type.path("type_name").asText();
+        return generics.isEmpty() ? name : name + "<" + paramType(generics.get(0)) + ">";
+    }
+
+    /**
+     * Collapse runs of whitespace to one space, except inside CEL string literals
+     * ('...', "...", and their triple-quoted forms), which are kept as written.
+     */
+    private static String normalizeWhitespace(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        String s = text.strip();
+        int i = 0;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\'') {
+                String quote = s.startsWith(String.valueOf(c).repeat(3), i) ? String.valueOf(c).repeat(3) : String.valueOf(c);
+                int end = i + quote.length();
+                while (end < s.length() && !s.startsWith(quote, end)) {
+                    end += s.charAt(end) == '\\' ? 2 : 1;
+                }
+                end = Math.min(s.length(), end + quote.length());
+                out.append(s, i, end);
+                i = end;
+            } else if (Character.isWhitespace(c)) {
+                while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+                out.append(' ');
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return out.toString();
+    }
+
+    private static Map<String, JsonNode> byName(JsonNode array, String field) {
+        Map<String, JsonNode> result = new TreeMap<>();
+        for (JsonNode node : array) result.put(node.path(field).asText(), node);
+        return result;
+    }
+
+    private static Map<String, JsonNode> conditions(JsonNode model) {
+        Map<String, JsonNode> result = new TreeMap<>();
+        model.path("conditions").properties().forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+
+    private static Set<String> union(Set<String> a, Set<String> b) {
+        Set<String> result = new TreeSet<>(a);
+        result.addAll(b);
+        return result;
+    }
+
+    private static JsonNode field(JsonNode node, String name, String alternative) {
+        JsonNode value = node.get(name);
+        return value != null ? value : node.get(alternative);
+    }
+}
@@ -0,0 +1,76 @@
+package com.openfga.client.dsl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+
+/**
+ * One DSL text parsed once, shared by every feature that needs its structure: the graph,
+ * the formatter, validation and tuple checks. Obtained from a {@link ParsedModelCache}.
+ *
+ * The AST is shared and must not be modified. The compiled JSON is produced on first use
+ * and kept, so validating and transforming the same text compiles it only once.
+ */
+public class ParsedModel {
+
+    private static final DslCompiler COMPILER = new DslCompiler();
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String text;
+    private final ModelAst ast;
+    private final List<Diagnostic> diagnostics;
+    private String json;
+    private DslException compileError;
+
+    ParsedModel(String text) {
+        DslParser parser = new DslParser();
+        this.text = text;
+        this.ast = parser.parse(text);
+        this.diagnostics = List.copyOf(parser.getDiagnostics());
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Everything that parsed, even if other parts of the text did not.
+     */
+    public ModelAst getAst() {
+        return ast;
+    }
+
+    /**
+     * Syntax errors; empty if the whole text parsed.
+     */
+    public List<Diagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    public boolean hasSyntaxErrors() {
+        return !diagnostics.isEmpty();
+    }
+
+    /**
+     * The authorization model JSON, compiled on first call. Throws with the syntax errors,
+     * or with the model's errors if it parsed but does not compile.
+     */
+    public synchronized String getJson() throws DslException {
+        if (json == null && compileError == null) {
+            if (hasSyntaxErrors()) {
+                compileError = new DslException(diagnostics);
+            } else {
+                try {
+                    json = JSON.writeValueAsString(COMPILER.compile(ast));
+                } catch (DslException e) {
+                    compileError = e;
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Compiled model is not serializable", e);
+                }
+            }
+        }
+        if (compileError != null) throw compileError;
+        return json;
+    }
+}
@@ -0,0 +1,72 @@
+package com.openfga.client.dsl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * The last few DSL texts and their {@link ParsedModel}s, keyed on the text's content hash.
+ *
+ * The key is the text itself, so lookups use {@link String#hashCode()}, which is computed
+ * once per string and cached on it; the editor hands out the same string until the next
+ * edit, so repeated lookups for one version of the text cost no hashing at all. Equal
+ * hashes are confirmed by comparing the text, so a collision can never return another
+ * model.
+ *
+ * A text is parsed once however many callers ask for it at the same time: the first
+ * caller parses it while the others wait for that result. {@link DslParser} stops when its
+ * thread is interrupted, which live validation does on every keystroke: the interrupted
+ * caller gets a {@link CancellationException}, and the callers that were waiting on its
+ * parse start a fresh one instead of failing with it.
+ */
+public class ParsedModelCache {
+
+    private final Map<String, FutureTask<ParsedModel>> entries;
+
+    public ParsedModelCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, FutureTask<ParsedModel>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * The parsed form of {@code dsl}, parsing it only if it is not cached.
+     */
+    public ParsedModel get(String dsl) {
+        while (true) {
+            FutureTask<ParsedModel> task;
+            boolean owner = false;
+            synchronized (entries) {
+                task = entries.get(dsl);
+                if (task == null) {
+                    task = new FutureTask<>(() -> new ParsedModel(dsl));
+                    entries.put(dsl, task);
+                    owner = true;
+                }
+            }
+            if (owner) task.run();
+
+            try {
+                return task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("DSL parse cancelled");
+            } catch (ExecutionException e) {
+                // A failed or cancelled parse is not cached, so the next caller tries again
+                synchronized (entries) {
+                    entries.remove(dsl, task);
+                }
+                if (owner || !(e.getCause() instanceof CancellationException)) {
+                    throw e.getCause() instanceof RuntimeException runtime ? runtime
+                            : new IllegalStateException("DSL parse failed", e.getCause());
+                }
+                // The caller that was parsing this text was interrupted; parse it here instead
+            }
+        }
+    }
+}
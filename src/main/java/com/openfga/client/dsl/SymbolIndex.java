@@ -0,0 +1,389 @@
+package com.openfga.client.dsl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The types, relations and conditions of a model, with where each one is defined and
+ * where it is used. Built by {@link SymbolIndexer}.
+ *
+ * An index never changes once built, so the editor can query it while the next one is
+ * being built in the background. Every lookup is a hash lookup or a scan of one line's
+ * occurrences, so it takes microseconds however large the model is.
+ */
+public class SymbolIndex {
+
+    public enum Kind { TYPE, RELATION, CONDITION }
+
+    private static final List<String> OPERATORS = List.of("or", "and", "but not", "from");
+
+    private final Map<String, Symbol> symbols = new HashMap<>();
+    // Occurrences on each line, indexed by 0-based line, in column order; null if none
+    private final List<List<Occurrence>> occurrencesByLine = new ArrayList<>();
+    private final TreeSet<String> typeNames = new TreeSet<>();
+    private final TreeSet<String> conditionNames = new TreeSet<>();
+    private final Map<String, TreeSet<String>> relationNames = new HashMap<>();
+
+    /**
+     * A type, a relation of a type, or a condition.
+     */
+    public static class Symbol {
+        private final Kind kind;
+        private final String type;
+        private final String name;
+        private final List<Occurrence> definitions = new ArrayList<>();
+        private final List<Occurrence> usages = new ArrayList<>();
+        // Definitions of a relation, to resolve 'rel from <this>' while building
+        private final List<ModelAst.Expr> expressions = new ArrayList<>(1);
+
+        Symbol(Kind kind, String type, String name) {
+            this.kind = kind;
+            this.type = type;
+            this.name = name;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * The owning type of a relation, or the type itself; null for conditions.
+         */
+        public String getType() {
+            return type;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Where the symbol is declared, in source order. A type has one entry per
+         * {@code extend type}; a symbol that is only referenced has none.
+         */
+        public List<Occurrence> getDefinitions() {
+            return definitions;
+        }
+
+        /**
+         * Every reference to the symbol, in source order.
+         */
+        public List<Occurrence> getUsages() {
+            return usages;
+        }
+
+        @Override
+        public String toString() {
+            return kind == Kind.RELATION ? type + "#" + name : name;
+        }
+    }
+
+    /**
+     * A name in the source that defines or refers to a symbol.
+     */
+    public static class Occurrence extends ModelAst.Position {
+        private final Symbol symbol;
+        private final int length;
+        private final boolean definition;
+
+        Occurrence(Symbol symbol, int line, int column, int length, boolean definition) {
+            super(line, column);
+            this.symbol = symbol;
+            this.length = length;
+            this.definition = definition;
+        }
+
+        public Symbol getSymbol() {
+            return symbol;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        public boolean isDefinition() {
+            return definition;
+        }
+
+        boolean contains(int line, int column) {
+            return line == getLine() && column >= getColumn() && column <= getColumn() + length;
+        }
+    }
+
+    /**
+     * Names that could complete the word ending at the caret, and the column that word
+     * starts at.
+     */
+    public static class Completion {
+        private final int start;
+        private final List<String> candidates;
+
+        Completion(int start, List<String> candidates) {
+            this.start = start;
+            this.candidates = candidates;
+        }
+
+        /**
+         * 0-based column of the first character the chosen candidate replaces.
+         */
+        public int getStart() {
+            return start;
+        }
+
+        public List<String> getCandidates() {
+            return candidates;
+        }
+    }
+
+    // ==================== Lookups ====================
+
+    public Symbol type(String name) {
+        return symbols.get(typeKey(name));
+    }
+
+    public Symbol relation(String type, String name) {
+        return symbols.get(relationKey(type, name));
+    }
+
+    public Symbol condition(String name) {
+        return symbols.get(conditionKey(name));
+    }
+
+    /**
+     * Occurrences under a 1-based line and column. Usually one; a {@code rel from parent}
+     * whose parent can be several types refers to the relation on each of them.
+     */
+    public List<Occurrence> occurrencesAt(int line, int column) {
+        List<Occurrence> onLine = line >= 1 && line <= occurrencesByLine.size() ? occurrencesByLine.get(line - 1) : null;
+        if (onLine == null) return List.of();
+        List<Occurrence> result = new ArrayList<>(1);
+        for (Occurrence occurrence : onLine) {
+            if (occurrence.contains(line, column)) result.add(occurrence);
+        }
+        return result;
+    }
+
+    /**
+     * Defined type names, sorted.
+     */
+    public List<String> getTypeNames() {
+        return List.copyOf(typeNames);
+    }
+
+    /**
+     * Relation names defined on {@code type}, sorted.
+     */
+    public List<String> getRelationNames(String type) {
+        TreeSet<String> names = relationNames.get(type);
+        return names != null ? List.copyOf(names) : List.of();
+    }
+
+    /**
+     * Defined condition names, sorted.
+     */
+    public List<String> getConditionNames() {
+        return List.copyOf(conditionNames);
+    }
+
+    // ==================== Completion ====================
+
+    /**
+     * Candidates for the word before {@code column} on {@code line}, a line of the type
+     * {@code currentType} (null outside a type). Inside a {@code [...]} list that is a
+     * type, a relation of the type before {@code #}, or a condition after {@code with};
+     * elsewhere in a definition it is a relation of the current type or an operator.
+     * {@code extend type} completes type names. Returns null where nothing is expected.
+     */
+    public Completion complete(String line, int column, String currentType) {
+        String before = line.substring(0, Math.min(column, line.length()));
+        int start = before.length();
+        while (start > 0 && isNameChar(before.charAt(start - 1))) start--;
+        String prefix = before.substring(start);
+
+        String statement = before.stripLeading();
+        if (statement.startsWith("extend ")) {
+            return filter(start, prefix, typeNames);
+        }
+        int colon = before.indexOf(':');
+        if (!statement.startsWith("define ") || colon < 0 || colon >= start) return null;
+
+        int previousEnd = start;
+        while (previousEnd > colon && Character.isWhitespace(before.charAt(previousEnd - 1))) previousEnd--;
+        char previous = before.charAt(previousEnd - 1);
+        int previousStart = previousEnd;
+        while (previousStart > colon + 1 && isNameChar(before.charAt(previousStart - 1))) previousStart--;
+        String previousWord = before.substring(previousStart, previousEnd);
+
+        boolean inBrackets = before.lastIndexOf('[') > before.lastIndexOf(']');
+        if (inBrackets) {
+            if (previous == '#') {
+                int typeEnd = previousEnd - 1;
+                while (typeEnd > colon && Character.isWhitespace(before.charAt(typeEnd - 1))) typeEnd--;
+                int typeStart = typeEnd;
+                while (typeStart > colon + 1 && isNameChar(before.charAt(typeStart - 1))) typeStart--;
+                return filter(start, prefix, relationNames.getOrDefault(before.substring(typeStart, typeEnd), new TreeSet<>()));
+            }
+            if (previousWord.equals("with")) return filter(start, prefix, conditionNames);
+            if (previous == '[' || previous == ',') return filter(start, prefix, typeNames);
+            return filter(start, prefix, List.of("with"));
+        }
+
+        TreeSet<String> relations = currentType != null
+                ? relationNames.getOrDefault(currentType, new TreeSet<>()) : new TreeSet<>();
+        if (previousWord.equals("from") || previous == ':' || previous == '('
+                || previousWord.equals("or") || previousWord.equals("and") || previousWord.equals("not")) {
+            return filter(start, prefix, relations);
+        }
+        if (!previousWord.isEmpty() || previous == ')' || previous == ']') {
+            return filter(start, prefix, OPERATORS);
+        }
+        return null;
+    }
+
+    private static Completion filter(int start, String prefix, Iterable<String> names) {
+        List<String> candidates = new ArrayList<>();
+        for (String name : names) {
+            if (name.startsWith(prefix)) candidates.add(name);
+        }
+        return new Completion(start, candidates);
+    }
+
+    private static boolean isNameChar(char c) {
+        return !Character.isWhitespace(c) && "[],():#*{}<>".indexOf(c) < 0;
+    }
+
+    // ==================== Building ====================
+
+    /**
+     * Build the index of declarations parsed separately, each {@code ast} starting
+     * {@code lineOffsets[i]} lines into the file. Definitions are collected first so that
+     * references can be resolved whatever their order in the file. Within a line a
+     * definition precedes its references and references are visited left to right, so
+     * each line's occurrences end up in column order without sorting.
+     */
+    static SymbolIndex build(List<ModelAst> asts, int[] lineOffsets) {
+        SymbolIndex index = new SymbolIndex();
+
+        for (int i = 0; i < asts.size(); i++) {
+            int offset = lineOffsets[i];
+            for (ModelAst.TypeDef type : asts.get(i).getTypes()) {
+                index.define(Kind.TYPE, type.getName(), type.getName(), type, offset);
+                index.relationNames.computeIfAbsent(type.getName(), k -> new TreeSet<>());
+                for (ModelAst.RelationDef relation : type.getRelations()) {
+                    Symbol symbol = index.define(Kind.RELATION, type.getName(), relation.getName(), relation, offset);
+                    symbol.expressions.add(relation.getExpression());
+                    index.relationNames.get(type.getName()).add(relation.getName());
+                }
+            }
+            for (ModelAst.ConditionDef condition : asts.get(i).getConditions()) {
+                index.define(Kind.CONDITION, null, condition.getName(), condition, offset);
+            }
+        }
+
+        for (int i = 0; i < asts.size(); i++) {
+            for (ModelAst.TypeDef type : asts.get(i).getTypes()) {
+                for (ModelAst.RelationDef relation : type.getRelations()) {
+                    index.references(type.getName(), relation.getExpression(), lineOffsets[i]);
+                }
+            }
+        }
+        return index;
+    }
+
+    private Symbol define(Kind kind, String type, String name, ModelAst.Position position, int lineOffset) {
+        Symbol symbol = symbol(kind, type, name);
+        Occurrence occurrence = new Occurrence(symbol, position.getLine() + lineOffset, position.getColumn(),
+                name.length(), true);
+        symbol.definitions.add(occurrence);
+        addOccurrence(occurrence);
+        if (kind == Kind.TYPE) typeNames.add(name);
+        else if (kind == Kind.CONDITION) conditionNames.add(name);
+        return symbol;
+    }
+
+    private void references(String type, ModelAst.Expr expr, int lineOffset) {
+        if (expr instanceof ModelAst.Direct direct) {
+            for (ModelAst.DirectType directType : direct.getTypes()) {
+                use(symbol(Kind.TYPE, directType.getType(), directType.getType()), directType, lineOffset);
+                if (directType.getRelation() != null && directType.getRelationPosition() != null) {
+                    use(symbol(Kind.RELATION, directType.getType(), directType.getRelation()),
+                            directType.getRelationPosition(), lineOffset);
+                }
+                if (directType.getCondition() != null && directType.getConditionPosition() != null) {
+                    use(symbol(Kind.CONDITION, null, directType.getCondition()),
+                            directType.getConditionPosition(), lineOffset);
+                }
+            }
+        } else if (expr instanceof ModelAst.Computed computed) {
+            use(symbol(Kind.RELATION, type, computed.getRelation()), computed, lineOffset);
+        } else if (expr instanceof ModelAst.TupleToUserset ttu) {
+            Symbol tupleset = symbol(Kind.RELATION, type, ttu.getTupleset());
+            // The relation is looked up on whatever the tupleset's objects can be
+            TreeSet<String> targets = new TreeSet<>();
+            for (ModelAst.Expr expression : tupleset.expressions) {
+                for (ModelAst.DirectType directType : DslCompiler.directTypes(expression)) {
+                    if (directType.getRelation() == null) targets.add(directType.getType());
+                }
+            }
+            for (String target : targets) {
+                Symbol symbol = symbols.get(relationKey(target, ttu.getRelation()));
+                if (symbol != null) use(symbol, ttu, lineOffset);
+            }
+            use(tupleset, ttu.getTuplesetPosition(), lineOffset);
+        } else if (expr instanceof ModelAst.Operation operation) {
+            for (ModelAst.Expr child : operation.getChildren()) references(type, child, lineOffset);
+        } else if (expr instanceof ModelAst.Difference difference) {
+            references(type, difference.getBase(), lineOffset);
+            references(type, difference.getSubtract(), lineOffset);
+        }
+    }
+
+    private void use(Symbol symbol, ModelAst.Position position, int lineOffset) {
+        Occurrence occurrence = new Occurrence(symbol, position.getLine() + lineOffset, position.getColumn(),
+                symbol.getName().length(), false);
+        symbol.usages.add(occurrence);
+        addOccurrence(occurrence);
+    }
+
+    private void addOccurrence(Occurrence occurrence) {
+        int line = occurrence.getLine() - 1;
+        while (occurrencesByLine.size() <= line) occurrencesByLine.add(null);
+        List<Occurrence> onLine = occurrencesByLine.get(line);
+        if (onLine == null) {
+            onLine = new ArrayList<>(2);
+            occurrencesByLine.set(line, onLine);
+        }
+        onLine.add(occurrence);
+    }
+
+    private Symbol symbol(Kind kind, String type, String name) {
+        String key = switch (kind) {
+            case TYPE -> typeKey(name);
+            case RELATION -> relationKey(type, name);
+            case CONDITION -> conditionKey(name);
+        };
+        return symbols.computeIfAbsent(key, k -> new Symbol(kind, type, name));
+    }
+
+    private static String typeKey(String name) {
+        return "t:" + name;
+    }
+
+    private static String relationKey(String type, String name) {
+        return "r:" + type + "#" + name;
+    }
+
+    private static String conditionKey(String name) {
+        return "c:" + name;
+    }
+
+    /**
+     * An index with no symbols, for before the first build.
+     */
+    public static SymbolIndex empty() {
+        return new SymbolIndex();
+    }
+}
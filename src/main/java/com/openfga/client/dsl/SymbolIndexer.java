@@ -0,0 +1,98 @@
+package com.openfga.client.dsl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a {@link SymbolIndex} up to date as the DSL is edited.
+ *
+ * The text is split into top-level declarations (a type with its relations, a condition,
+ * or the header), and each declaration is parsed on its own. Parses are cached by the
+ * declaration's text, so after an edit only the declarations whose text changed are
+ * parsed again; the rest are reused, even if lines above them moved. Linking the
+ * declarations into an index is a single pass over their symbols.
+ *
+ * Not thread-safe: call {@link #update} from one thread at a time.
+ */
+public class SymbolIndexer {
+
+    private Map<String, ModelAst> parsed = new HashMap<>();
+
+    /**
+     * The index of {@code text}.
+     */
+    public SymbolIndex update(String text) {
+        String[] lines = text.replace("\r\n", "\n").replace('\r', '\n').split("\n", -1);
+        Map<String, ModelAst> next = new HashMap<>();
+        List<ModelAst> asts = new ArrayList<>();
+        List<Integer> offsets = new ArrayList<>();
+
+        int start = 0;
+        while (start < lines.length) {
+            int end = declarationEnd(lines, start);
+            String declaration = String.join("\n", Arrays.asList(lines).subList(start, end));
+            ModelAst ast = next.get(declaration);
+            if (ast == null) {
+                ast = parsed.get(declaration);
+                if (ast == null) ast = new DslParser().parse(declaration);
+                next.put(declaration, ast);
+            }
+            asts.add(ast);
+            offsets.add(start);
+            start = end;
+        }
+        parsed = next;
+
+        int[] lineOffsets = new int[offsets.size()];
+        for (int i = 0; i < lineOffsets.length; i++) lineOffsets[i] = offsets.get(i);
+        return SymbolIndex.build(asts, lineOffsets);
+    }
+
+    /**
+     * Index of the line after the declaration starting at {@code start}: the next line
+     * that starts a declaration, skipping the body of a condition as {@link DslParser}
+     * does.
+     */
+    private static int declarationEnd(String[] lines, int start) {
+        int i = start;
+        if (firstWord(lines[i]).equals("condition")) {
+            // The body runs from the first '{' to its matching '}'
+            int depth = 0;
+            boolean opened = false;
+            for (; i < lines.length; i++) {
+                for (char c : lines[i].toCharArray()) {
+                    if (c == '{') {
+                        depth++;
+                        opened = true;
+                    } else if (c == '}' && opened) {
+                        depth--;
+                    }
+                }
+                if (opened && depth <= 0) return i + 1;
+            }
+            return lines.length;
+        }
+        for (i++; i < lines.length; i++) {
+            if (startsDeclaration(firstWord(lines[i]))) return i;
+        }
+        return lines.length;
+    }
+
+    private static boolean startsDeclaration(String word) {
+        return switch (word) {
+            case "type", "extend", "condition", "model", "module" -> true;
+            default -> false;
+        };
+    }
+
+    private static String firstWord(String line) {
+        int start = 0;
+        while (start < line.length() && Character.isWhitespace(line.charAt(start))) start++;
+        int end = start;
+        while (end < line.length() && !Character.isWhitespace(line.charAt(end))) end++;
+        return line.substring(start, end);
+    }
+}
@@ -0,0 +1,52 @@
+package com.openfga.client.model;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+public class AuthorizationModelInfo {
+    private static final String ULID_ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final DateTimeFormatter CREATED_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private final String id;
+    private final int typeCount;
+
+    public AuthorizationModelInfo(String id, int typeCount) {
+        this.id = id;
+        this.typeCount = typeCount;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getTypeCount() {
+        return typeCount;
+    }
+
+    /**
+     * Model ids are ULIDs, so the creation time is encoded in the first 10 characters.
+     */
+    public Instant getCreatedAt() {
+        if (id == null || id.length() < 10) {
+            return null;
+        }
+        long millis = 0;
+        for (int i = 0; i < 10; i++) {
+            int value = ULID_ALPHABET.indexOf(Character.toUpperCase(id.charAt(i)));
+            if (value < 0) {
+                return null;
+            }
+            millis = (millis << 5) | value;
+        }
+        return Instant.ofEpochMilli(millis);
+    }
+
+    @Override
+    public String toString() {
+        Instant createdAt = getCreatedAt();
+        String created = createdAt != null ? CREATED_FORMAT.format(createdAt) + ", " : "";
+        return id + " (" + created + typeCount + " types)";
+    }
+}
@@ -0,0 +1,44 @@
+package com.openfga.client.model;
+
+import java.util.Objects;
+
+public class ConnectionProfile {
+    private final String name;
+    private final String apiUrl;
+    private final String bearerToken;
+
+    public ConnectionProfile(String name, String apiUrl, String bearerToken) {
+        this.name = name;
+        this.apiUrl = apiUrl;
+        this.bearerToken = bearerToken == null ? "" : bearerToken;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getApiUrl() {
+        return apiUrl;
+    }
+
+    public String getBearerToken() {
+        return bearerToken;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ConnectionProfile)) return false;
+        return name.equals(((ConnectionProfile) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + apiUrl + ")";
+    }
+}
@@ -0,0 +1,21 @@
+package com.openfga.client.model;
+
+/**
+ * Consistency preference sent with check, list-objects, list-users, expand and read requests.
+ */
+public enum ConsistencyPreference {
+    UNSPECIFIED("Server default"),
+    MINIMIZE_LATENCY("Minimize latency"),
+    HIGHER_CONSISTENCY("Higher consistency");
+
+    private final String label;
+
+    ConsistencyPreference(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,47 @@
+package com.openfga.client.model;
+
+public class TupleKey {
+    private final String user;
+    private final String relation;
+    private final String object;
+    private final String conditionName;
+    private final String conditionContext;
+
+    public TupleKey(String user, String relation, String object) {
+        this(user, relation, object, null, null);
+    }
+
+    public TupleKey(String user, String relation, String object,
+                    String conditionName, String conditionContext) {
+        this.user = user;
+        this.relation = relation;
+        this.object = object;
+        this.conditionName = conditionName;
+        this.conditionContext = conditionContext;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public String getRelation() {
+        return relation;
+    }
+
+    public String getObject() {
+        return object;
+    }
+
+    public String getConditionName() {
+        return conditionName;
+    }
+
+    public String getConditionContext() {
+        return conditionContext;
+    }
+
+    @Override
+    public String toString() {
+        return user + " -> " + relation + " -> " + object;
+    }
+}
@@ -0,0 +1,109 @@
+package com.openfga.client.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of authorization model definitions keyed by store and model id.
+ * Models are immutable once written, so entries never need to be invalidated.
+ *
+ * Every model is also written once to {@code <directory>/<store id>/<model id>.json}, so
+ * browsing model history after a restart does not read unchanged versions again.
+ */
+public class AuthorizationModelCache {
+
+    // Store and model ids are ULIDs; anything else is kept in memory only
+    private static final Pattern SAFE_ID = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final Map<String, JsonNode> models = new ConcurrentHashMap<>();
+    private final Path directory;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public AuthorizationModelCache() {
+        this(null);
+    }
+
+    /**
+     * @param directory where models are persisted; null for a memory-only cache
+     */
+    public AuthorizationModelCache(Path directory) {
+        this.directory = directory;
+    }
+
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("user.home"), ".openfga-client", "cache", "models");
+    }
+
+    public JsonNode get(String storeId, String modelId) {
+        JsonNode model = models.get(key(storeId, modelId));
+        if (model != null || fileFor(storeId, modelId) == null) {
+            return model;
+        }
+
+        Path file = fileFor(storeId, modelId);
+        try {
+            if (!Files.exists(file)) return null;
+            model = objectMapper.readTree(file.toFile());
+            models.put(key(storeId, modelId), model);
+            return model;
+        } catch (IOException e) {
+            // An unreadable entry is a miss; it is rewritten when the model is fetched again
+            return null;
+        }
+    }
+
+    public void put(String storeId, JsonNode model) {
+        JsonNode id = model.get("id");
+        if (id == null || id.asText().isBlank()) {
+            return;
+        }
+        models.put(key(storeId, id.asText()), model);
+
+        Path file = fileFor(storeId, id.asText());
+        if (file == null || Files.exists(file)) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), id.asText(), ".tmp");
+            objectMapper.writeValue(temp.toFile(), model);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The memory copy still serves this session; persisting is best effort
+        }
+    }
+
+    /**
+     * Return the cached model, reading it from the server only on the first request.
+     */
+    public JsonNode getOrFetch(OpenFGAService service, String storeId, String modelId) throws Exception {
+        JsonNode cached = get(storeId, modelId);
+        if (cached != null) {
+            return cached;
+        }
+        JsonNode model = service.readAuthorizationModel(storeId, modelId);
+        if (model != null) {
+            put(storeId, model);
+        }
+        return model;
+    }
+
+    private Path fileFor(String storeId, String modelId) {
+        if (directory == null || !SAFE_ID.matcher(storeId).matches() || !SAFE_ID.matcher(modelId).matches()) {
+            return null;
+        }
+        return directory.resolve(storeId).resolve(modelId + ".json");
+    }
+
+    private String key(String storeId, String modelId) {
+        return storeId + "/" + modelId;
+    }
+}
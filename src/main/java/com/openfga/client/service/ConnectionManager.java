@@ -0,0 +1,205 @@
+package com.openfga.client.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.openfga.client.model.ConnectionProfile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Named connection profiles, each with its own {@link OpenFGAService}.
+ *
+ * Services are immutable: when a profile's URL or token changes, a new service (with a new
+ * connection pool and fresh metrics) replaces the old one, and the old one is closed.
+ * Requests it already sent finish against the server they started on.
+ *
+ * Profile names and URLs are persisted; bearer tokens are kept in memory only.
+ */
+public class ConnectionManager {
+
+    public static final String DEFAULT_PROFILE = "local";
+    public static final String DEFAULT_API_URL = "http://localhost:18080";
+
+    private static final String PROFILES_FILE = "profiles.json";
+
+    private final Path profilesFile;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, ConnectionProfile> profiles = new LinkedHashMap<>();
+    private final Map<String, OpenFGAService> services = new LinkedHashMap<>();
+    private final ExecutorService probeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ConnectionManager(Path directory) {
+        this.profilesFile = directory.resolve(PROFILES_FILE);
+    }
+
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("user.home"), ".openfga-client");
+    }
+
+    /**
+     * Load saved profiles. A default local profile is created when none exist.
+     */
+    public synchronized void load() throws IOException {
+        profiles.clear();
+        if (Files.exists(profilesFile)) {
+            JsonNode root = objectMapper.readTree(profilesFile.toFile());
+            for (JsonNode node : root) {
+                String name = node.path("name").asText();
+                if (!name.isBlank()) {
+                    profiles.put(name, new ConnectionProfile(name, node.hasNonNull("apiUrl") ? node.get("apiUrl").asText() : DEFAULT_API_URL, ""));
+                }
+            }
+        }
+        if (profiles.isEmpty()) {
+            profiles.put(DEFAULT_PROFILE, new ConnectionProfile(DEFAULT_PROFILE, DEFAULT_API_URL, ""));
+        }
+    }
+
+    public synchronized List<ConnectionProfile> getProfiles() {
+        return new ArrayList<>(profiles.values());
+    }
+
+    /**
+     * Add or replace a profile and persist the profile list.
+     */
+    public synchronized void saveProfile(ConnectionProfile profile) throws IOException {
+        profiles.put(profile.getName(), profile);
+        persist();
+    }
+
+    public synchronized void removeProfile(String name) throws IOException {
+        profiles.remove(name);
+        OpenFGAService service = services.remove(name);
+        if (service != null) service.close();
+        persist();
+    }
+
+    /**
+     * Return the service for the profile, creating a new one if the profile's URL or token
+     * differ from the service currently bound to that name. The saved profiles are not
+     * changed; only {@link #saveProfile} does that.
+     */
+    public synchronized OpenFGAService serviceFor(ConnectionProfile profile) {
+        OpenFGAService existing = services.get(profile.getName());
+        if (existing != null
+                && existing.getApiUrl().equals(normalizeUrl(profile.getApiUrl()))
+                && existing.getBearerToken().equals(profile.getBearerToken())) {
+            return existing;
+        }
+
+        OpenFGAService service = new OpenFGAService(profile.getApiUrl(), profile.getBearerToken());
+        services.put(profile.getName(), service);
+        if (existing != null) existing.close();
+        return service;
+    }
+
+    /**
+     * A service for {@code apiUrl}: one already bound to that URL, keeping its token, or else a
+     * new one for a saved profile with that URL whose name is not bound to another server.
+     * Returns null if there is none, so callers never silently talk to a different server.
+     */
+    public synchronized OpenFGAService serviceForUrl(String apiUrl) {
+        String url = normalizeUrl(apiUrl);
+        for (OpenFGAService service : services.values()) {
+            if (service.getApiUrl().equals(url)) return service;
+        }
+        for (ConnectionProfile profile : profiles.values()) {
+            if (normalizeUrl(profile.getApiUrl()).equals(url) && !services.containsKey(profile.getName())) {
+                return serviceFor(profile);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Probe every saved profile's health endpoint in parallel. A profile whose service is bound
+     * to its saved URL is probed through that service, with its token and metrics; any other
+     * is probed through a temporary service that is closed afterwards. Bound services are
+     * never replaced.
+     */
+    public CompletableFuture<List<ProbeResult>> probeAll() {
+        List<CompletableFuture<ProbeResult>> probes = new ArrayList<>();
+        for (ConnectionProfile profile : getProfiles()) {
+            OpenFGAService bound;
+            synchronized (this) {
+                bound = services.get(profile.getName());
+            }
+            boolean temporary = bound == null || !bound.getApiUrl().equals(normalizeUrl(profile.getApiUrl()));
+            OpenFGAService service = temporary ? new OpenFGAService(profile.getApiUrl(), profile.getBearerToken()) : bound;
+            probes.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return new ProbeResult(profile, service, service.probeHealth(), null);
+                } catch (Exception e) {
+                    return new ProbeResult(profile, service, -1, e.getMessage());
+                } finally {
+                    if (temporary) service.close();
+                }
+            }, probeExecutor));
+        }
+
+        return CompletableFuture.allOf(probes.toArray(CompletableFuture<?>[]::new))
+                .thenApply(v -> probes.stream().map(CompletableFuture::join).toList());
+    }
+
+    private static String normalizeUrl(String apiUrl) {
+        return apiUrl.endsWith("/") ? apiUrl.substring(0, apiUrl.length() - 1) : apiUrl;
+    }
+
+    private void persist() throws IOException {
+        ArrayNode root = objectMapper.createArrayNode();
+        for (ConnectionProfile profile : profiles.values()) {
+            root.addObject()
+                    .put("name", profile.getName())
+                    .put("apiUrl", profile.getApiUrl());
+        }
+        Files.createDirectories(profilesFile.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(profilesFile.toFile(), root);
+    }
+
+    /**
+     * Outcome of a health probe against one profile.
+     */
+    public static class ProbeResult {
+        private final ConnectionProfile profile;
+        private final OpenFGAService service;
+        private final long roundTripMillis;
+        private final String error;
+
+        private ProbeResult(ConnectionProfile profile, OpenFGAService service, long roundTripMillis, String error) {
+            this.profile = profile;
+            this.service = service;
+            this.roundTripMillis = roundTripMillis;
+            this.error = error;
+        }
+
+        public ConnectionProfile getProfile() {
+            return profile;
+        }
+
+        public ServiceMetrics getMetrics() {
+            return service.getMetrics();
+        }
+
+        public long getRoundTripMillis() {
+            return roundTripMillis;
+        }
+
+        public boolean isHealthy() {
+            return error == null;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.openfga.client.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.openfga.client.dsl.Diagnostic;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed cache of DSL validation and transform results.
+ *
+ * Keys are the SHA-256 of the operation, the engine (built-in compiler version or fga CLI
+ * version) and the DSL text, so a result is reused only for exactly the same input and
+ * tool. Recent results stay in an in-memory LRU; results that are slow to recompute (the fga
+ * CLI's) are also written as small JSON files so they survive restarts. Both successes and
+ * definite rejections are cached.
+ */
+public class DslResultCache {
+
+    private static final int MAX_DISK_ENTRIES = 500;
+    // Files written between two prunes, so the directory never grows far past the cap
+    private static final int PRUNE_INTERVAL = 50;
+
+    private final Path directory;
+    private final int memoryEntries;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, DslTransformService.TransformResult> memory;
+    private final AtomicInteger writesSincePrune = new AtomicInteger();
+
+    /**
+     * @param directory where entries are persisted; null for a memory-only cache
+     */
+    public DslResultCache(Path directory, int memoryEntries) {
+        this.directory = directory;
+        this.memoryEntries = memoryEntries;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, DslTransformService.TransformResult> eldest) {
+                return size() > DslResultCache.this.memoryEntries;
+            }
+        };
+        if (directory != null) {
+            Thread.ofVirtual().name("dsl-cache-prune").start(this::pruneDisk);
+        }
+    }
+
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("user.home"), ".openfga-client", "cache", "dsl");
+    }
+
+    public static String key(String operation, String engine, String dsl) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((operation + "\n" + engine + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(dsl.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * The cached result for {@code key}, or null. Disk hits are promoted to memory.
+     */
+    public DslTransformService.TransformResult get(String key) {
+        synchronized (memory) {
+            DslTransformService.TransformResult result = memory.get(key);
+            if (result != null) return result;
+        }
+        if (directory == null) return null;
+
+        Path file = directory.resolve(key + ".json");
+        try {
+            if (!Files.exists(file)) return null;
+            DslTransformService.TransformResult result = fromJson(objectMapper.readTree(file.toFile()));
+            // Touch the entry so pruning drops the least recently used files first
+            Files.setLastModifiedTime(file, java.nio.file.attribute.FileTime.fromMillis(System.currentTimeMillis()));
+            synchronized (memory) {
+                memory.put(key, result);
+            }
+            return result;
+        } catch (IOException e) {
+            // Unreadable entries are treated as misses and overwritten on the next put
+            return null;
+        }
+    }
+
+    /**
+     * Cache a result in memory, and on disk too if {@code persist} is set.
+     */
+    public void put(String key, DslTransformService.TransformResult result, boolean persist) {
+        synchronized (memory) {
+            memory.put(key, result);
+        }
+        if (directory == null || !persist) return;
+
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            objectMapper.writeValue(temp.toFile(), toJson(result));
+            Files.move(temp, directory.resolve(key + ".json"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The memory tier still holds the result; persisting is best effort
+        }
+        if (writesSincePrune.incrementAndGet() >= PRUNE_INTERVAL) {
+            writesSincePrune.set(0);
+            Thread.ofVirtual().name("dsl-cache-prune").start(this::pruneDisk);
+        }
+    }
+
+    private ObjectNode toJson(DslTransformService.TransformResult result) {
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("success", result.isSuccess());
+        json.put("json", result.getJson());
+        json.put("error", result.getError());
+        ArrayNode diagnostics = json.putArray("diagnostics");
+        for (Diagnostic diagnostic : result.getDiagnostics()) {
+            diagnostics.addObject()
+                    .put("file", diagnostic.getFile())
+                    .put("line", diagnostic.getLine())
+                    .put("column", diagnostic.getColumn())
+                    .put("message", diagnostic.getMessage());
+        }
+        return json;
+    }
+
+    private static DslTransformService.TransformResult fromJson(JsonNode json) {
+        if (json.path("success").asBoolean()) {
+            return DslTransformService.TransformResult.success(
+                    json.hasNonNull("json") ? json.get("json").asText() : null);
+        }
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        for (JsonNode node : json.path("diagnostics")) {
+            diagnostics.add(new Diagnostic(node.hasNonNull("file") ? node.get("file").asText() : null,
+                    node.path("line").asInt(), node.path("column").asInt(), node.path("message").asText()));
+        }
+        return diagnostics.isEmpty()
+                ? DslTransformService.TransformResult.rejected(json.path("error").asText())
+                : DslTransformService.TransformResult.failure(diagnostics);
+    }
+
+    /**
+     * Keep the newest {@link #MAX_DISK_ENTRIES} files.
+     */
+    private void pruneDisk() {
+        if (!Files.isDirectory(directory)) return;
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> entries = files.sorted(Comparator.comparingLong(DslResultCache::lastModified).reversed()).toList();
+            for (Path stale : entries.subList(Math.min(MAX_DISK_ENTRIES, entries.size()), entries.size())) {
+                Files.deleteIfExists(stale);
+            }
+        } catch (IOException e) {
+            // Pruning is housekeeping only
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
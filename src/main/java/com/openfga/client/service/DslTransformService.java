@@ -1,67 +1,269 @@
 package com.openfga.client.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.openfga.client.dsl.Diagnostic;
+import com.openfga.client.dsl.DslCompiler;
+import com.openfga.client.dsl.DslException;
+import com.openfga.client.dsl.ParsedModel;
+import com.openfga.client.dsl.ParsedModelCache;
+
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Service for transforming OpenFGA DSL to JSON using the FGA CLI.
+ * Service for validating OpenFGA DSL and transforming it to JSON.
+ *
+ * The built-in {@link DslCompiler} is used by default. The FGA CLI is optional: it is used
+ * when preferred explicitly, as a fallback if the built-in compiler fails unexpectedly,
+ * and as the reference for {@link #checkConformance}.
  */
 public class DslTransformService {
 
     private static final String FGA_CLI = "fga";
     private static final int TIMEOUT_SECONDS = 30;
+    private static final int MAX_OUTPUT_BYTES = 4 * 1024 * 1024;
+    private static final Path STDIN_PATH = Path.of("/dev/stdin");
+
+    private final DslCompiler compiler = new DslCompiler();
+    private final ParsedModelCache parsedModels = new ParsedModelCache(8);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DslResultCache cache;
+    private final Path cliProbeFile;
+    private volatile boolean preferCli;
+    private volatile boolean cliProbed;
+    private volatile String cliVersion;
+
+    public DslTransformService() {
+        this(new DslResultCache(DslResultCache.defaultDirectory(), 64),
+                DslResultCache.defaultDirectory().resolveSibling("cli-probe.json"));
+    }
+
+    /**
+     * @param cliProbeFile where the {@code fga version} result is remembered between runs;
+     *                     null to probe on every start
+     */
+    public DslTransformService(DslResultCache cache, Path cliProbeFile) {
+        this.cache = cache;
+        this.cliProbeFile = cliProbeFile;
+    }
+
+    /**
+     * Use the FGA CLI instead of the built-in compiler.
+     */
+    public void setPreferCli(boolean preferCli) {
+        this.preferCli = preferCli;
+    }
+
+    public boolean isPreferCli() {
+        return preferCli;
+    }
 
     /**
      * Check if the FGA CLI is available on the system.
      */
     public boolean isCliAvailable() {
+        return getCliVersion() != null;
+    }
+
+    /**
+     * Output of {@code fga version}, or null if the CLI is not installed. Probed once per run,
+     * and not at all while the binary on the PATH has the same path and modification time as
+     * when it was last probed.
+     */
+    public String getCliVersion() {
+        if (!cliProbed) {
+            synchronized (this) {
+                if (!cliProbed) {
+                    cliVersion = probeCliVersion();
+                    cliProbed = true;
+                }
+            }
+        }
+        return cliVersion;
+    }
+
+    private String probeCliVersion() {
+        Path binary = findCliBinary();
+        if (binary == null) {
+            return null;
+        }
+        long modified;
+        try {
+            modified = Files.getLastModifiedTime(binary).toMillis();
+        } catch (IOException e) {
+            return null;
+        }
+
+        String remembered = readProbeFile(binary, modified);
+        if (remembered != null) {
+            return remembered;
+        }
         try {
-            ProcessBuilder pb = new ProcessBuilder(FGA_CLI, "version");
+            ProcessBuilder pb = new ProcessBuilder(binary.toString(), "version");
             pb.redirectErrorStream(true);
             Process process = pb.start();
+            String output = readProcessOutput(process);
             boolean finished = process.waitFor(5, TimeUnit.SECONDS);
-            return finished && process.exitValue() == 0;
+            if (!finished || process.exitValue() != 0) {
+                return null;
+            }
+            String version = output.strip();
+            writeProbeFile(binary, modified, version);
+            return version;
         } catch (Exception e) {
-            return false;
+            return null;
         }
     }
 
     /**
-     * Validate DSL syntax using the FGA CLI.
+     * The {@code fga} executable on the PATH with symlinks resolved, so an upgrade that
+     * re-points a link is noticed. Null if there is none.
+     */
+    private static Path findCliBinary() {
+        String path = System.getenv("PATH");
+        if (path == null) return null;
+        boolean windows = System.getProperty("os.name").toLowerCase().startsWith("windows");
+        for (String dir : path.split(File.pathSeparator)) {
+            if (dir.isBlank()) continue;
+            for (String name : windows ? List.of(FGA_CLI + ".exe", FGA_CLI + ".cmd") : List.of(FGA_CLI)) {
+                try {
+                    Path candidate = Path.of(dir, name);
+                    if (Files.isRegularFile(candidate) && Files.isExecutable(candidate)) {
+                        return candidate.toRealPath();
+                    }
+                } catch (Exception e) {
+                    // Malformed or unreadable PATH entry
+                }
+            }
+        }
+        return null;
+    }
+
+    private String readProbeFile(Path binary, long modified) {
+        if (cliProbeFile == null || !Files.exists(cliProbeFile)) return null;
+        try {
+            JsonNode probe = objectMapper.readTree(cliProbeFile.toFile());
+            boolean current = binary.toString().equals(probe.path("path").asText())
+                    && probe.path("modified").asLong() == modified;
+            return current && probe.hasNonNull("version") ? probe.get("version").asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeProbeFile(Path binary, long modified, String version) {
+        if (cliProbeFile == null) return;
+        ObjectNode probe = objectMapper.createObjectNode()
+                .put("path", binary.toString())
+                .put("modified", modified)
+                .put("version", version);
+        try {
+            Files.createDirectories(cliProbeFile.getParent());
+            objectMapper.writeValue(cliProbeFile.toFile(), probe);
+        } catch (IOException e) {
+            // Probing again next time is the only cost
+        }
+    }
+
+    /**
+     * The parsed form of {@code dsl}, shared with every other caller asking for the same
+     * text. The built-in validation and transformation below use it too, so an edit is
+     * parsed and compiled once however many views look at it.
+     */
+    public ParsedModel parse(String dsl) {
+        return parsedModels.get(dsl);
+    }
+
+    /**
+     * Validate DSL syntax and references. Results are cached by DSL text and engine version.
      */
     public TransformResult validateDsl(String dsl) {
+        return cached("validate", dsl, () -> validateUncached(dsl));
+    }
+
+    /**
+     * Transform DSL to authorization model JSON. Results are cached by DSL text and engine version.
+     */
+    public TransformResult transformDslToJson(String dsl) {
+        return cached("transform", dsl, () -> transformUncached(dsl));
+    }
+
+    private TransformResult cached(String operation, String dsl, java.util.function.Supplier<TransformResult> compute) {
+        String engine = preferCli ? getCliVersion() : "builtin " + DslCompiler.VERSION;
+        if (engine == null) {
+            return compute.get();
+        }
+
+        String key = DslResultCache.key(operation, engine, dsl);
+        TransformResult hit = cache.get(key);
+        if (hit != null) {
+            return hit.asCached();
+        }
+        TransformResult result = compute.get();
+        if (result.isDefinitive()) {
+            // Built-in results take milliseconds to recompute, so only CLI results go to disk
+            cache.put(key, result, preferCli);
+        }
+        return result;
+    }
+
+    private TransformResult validateUncached(String dsl) {
+        if (preferCli) {
+            return validateDslWithCli(dsl);
+        }
         try {
-            // Write DSL to temp file
-            Path tempFile = Files.createTempFile("openfga-model", ".fga");
-            Files.writeString(tempFile, dsl, StandardCharsets.UTF_8);
+            parse(dsl).getJson();
+            return TransformResult.success(null);
+        } catch (DslException e) {
+            return TransformResult.failure(e.getDiagnostics());
+        } catch (CancellationException e) {
+            return TransformResult.failure("Validation cancelled");
+        } catch (RuntimeException e) {
+            return isCliAvailable() ? validateDslWithCli(dsl)
+                    : TransformResult.failure("Failed to validate: " + e);
+        }
+    }
 
-            try {
-                ProcessBuilder pb = new ProcessBuilder(
-                        FGA_CLI, "model", "validate",
-                        "--file", tempFile.toString()
-                );
-                pb.redirectErrorStream(true);
-
-                Process process = pb.start();
-                String output = readProcessOutput(process);
-
-                boolean finished = process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
-                if (!finished) {
-                    process.destroyForcibly();
-                    return TransformResult.failure("Validation timed out");
-                }
+    private TransformResult transformUncached(String dsl) {
+        if (preferCli) {
+            return transformDslToJsonWithCli(dsl);
+        }
+        try {
+            return TransformResult.success(parse(dsl).getJson());
+        } catch (DslException e) {
+            return TransformResult.failure(e.getDiagnostics());
+        } catch (CancellationException e) {
+            return TransformResult.failure("Transformation cancelled");
+        } catch (Exception e) {
+            return isCliAvailable() ? transformDslToJsonWithCli(dsl)
+                    : TransformResult.failure("Failed to transform: " + e);
+        }
+    }
 
-                if (process.exitValue() == 0) {
-                    return TransformResult.success(null);
-                } else {
-                    return TransformResult.failure(output);
-                }
-            } finally {
-                Files.deleteIfExists(tempFile);
+    /**
+     * Validate DSL syntax using the FGA CLI.
+     */
+    public TransformResult validateDslWithCli(String dsl) {
+        try {
+            CliOutput output = runCli(dsl, true, List.of("model", "validate", "--format", "fga"));
+            if (output.timedOut) {
+                return TransformResult.failure("Validation timed out");
             }
+            return output.exitCode == 0 ? TransformResult.success(null) : TransformResult.rejected(output.stdout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return TransformResult.failure("Validation cancelled");
         } catch (Exception e) {
             return TransformResult.failure("Failed to validate: " + e.getMessage());
         }
@@ -70,59 +272,204 @@ public class DslTransformService {
     /**
      * Transform DSL to JSON using the FGA CLI.
      */
-    public TransformResult transformDslToJson(String dsl) {
+    public TransformResult transformDslToJsonWithCli(String dsl) {
+        try {
+            CliOutput output = runCli(dsl, false, List.of("model", "transform", "--input-format", "fga"));
+            if (output.timedOut) {
+                return TransformResult.failure("Transformation timed out");
+            }
+            if (output.exitCode == 0) {
+                return TransformResult.success(output.stdout.trim());
+            }
+            return TransformResult.rejected(output.stderr.isBlank() ? output.stdout : output.stderr);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return TransformResult.failure("Transformation cancelled");
+        } catch (Exception e) {
+            return TransformResult.failure("Failed to transform: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Run {@code fga <args>} on {@code dsl} and collect its output.
+     *
+     * The DSL is streamed to the CLI's stdin ({@code --file /dev/stdin}) where the platform
+     * has one; elsewhere it goes through a temp file. Stdin, stdout and stderr are serviced
+     * on their own virtual threads, so neither pipe can fill up and stall the process, and
+     * {@link #TIMEOUT_SECONDS} bounds the whole run, reads included. Interrupting the caller
+     * kills the process.
+     */
+    private CliOutput runCli(String dsl, boolean mergeStderr, List<String> args) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        boolean viaStdin = Files.isReadable(STDIN_PATH);
+        Path tempFile = null;
+        Process process = null;
         try {
-            // Write DSL to temp file
-            Path tempFile = Files.createTempFile("openfga-model", ".fga");
-            Files.writeString(tempFile, dsl, StandardCharsets.UTF_8);
+            List<String> command = new ArrayList<>(List.of(FGA_CLI));
+            command.addAll(args);
+            if (viaStdin) {
+                command.addAll(List.of("--file", STDIN_PATH.toString()));
+            } else {
+                tempFile = Files.createTempFile("openfga-model", ".fga");
+                Files.writeString(tempFile, dsl, StandardCharsets.UTF_8);
+                command.addAll(List.of("--file", tempFile.toString()));
+            }
+
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.redirectErrorStream(mergeStderr);
+            if (!viaStdin) pb.redirectInput(ProcessBuilder.Redirect.from(new File(nullDevice())));
+            process = pb.start();
 
+            Process started = process;
+            if (viaStdin) {
+                Thread.ofVirtual().name("fga-stdin").start(() -> {
+                    try (OutputStream in = started.getOutputStream()) {
+                        in.write(dsl.getBytes(StandardCharsets.UTF_8));
+                    } catch (IOException e) {
+                        // The process exited early; its exit code and output tell why
+                    }
+                });
+            }
+            CompletableFuture<String> stdout = drain(started.getInputStream());
+            CompletableFuture<String> stderr = mergeStderr
+                    ? CompletableFuture.completedFuture("")
+                    : drain(started.getErrorStream());
+
+            if (!process.waitFor(remaining(deadline), TimeUnit.NANOSECONDS)) {
+                process.destroyForcibly();
+                return CliOutput.timedOut();
+            }
             try {
-                ProcessBuilder pb = new ProcessBuilder(
-                        FGA_CLI, "model", "transform",
-                        "--file", tempFile.toString()
-                );
+                return new CliOutput(process.exitValue(),
+                        stdout.get(remaining(deadline), TimeUnit.NANOSECONDS),
+                        stderr.get(remaining(deadline), TimeUnit.NANOSECONDS), false);
+            } catch (java.util.concurrent.TimeoutException | java.util.concurrent.ExecutionException e) {
+                // A child process still holds the pipes open past the deadline
+                return CliOutput.timedOut();
+            }
+        } catch (InterruptedException e) {
+            if (process != null) process.destroyForcibly();
+            throw e;
+        } finally {
+            if (tempFile != null) Files.deleteIfExists(tempFile);
+        }
+    }
 
-                Process process = pb.start();
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
 
-                // Read stdout (the JSON) and stderr separately
-                String json = readProcessOutput(process);
-                String errorOutput = readErrorOutput(process);
+    private static String nullDevice() {
+        return System.getProperty("os.name").toLowerCase().startsWith("windows") ? "NUL" : "/dev/null";
+    }
 
-                boolean finished = process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
-                if (!finished) {
-                    process.destroyForcibly();
-                    return TransformResult.failure("Transformation timed out");
+    /**
+     * Read a stream to EOF on a virtual thread, keeping at most {@link #MAX_OUTPUT_BYTES}.
+     * Anything beyond that is read and discarded so the process never blocks on a full pipe.
+     */
+    private static CompletableFuture<String> drain(InputStream stream) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        Thread.ofVirtual().name("fga-drain").start(() -> {
+            ByteArrayOutputStream kept = new ByteArrayOutputStream();
+            boolean truncated = false;
+            byte[] buffer = new byte[8192];
+            try (stream) {
+                int read;
+                while ((read = stream.read(buffer)) != -1) {
+                    int room = MAX_OUTPUT_BYTES - kept.size();
+                    if (room > 0) kept.write(buffer, 0, Math.min(room, read));
+                    if (read > room) truncated = true;
                 }
+            } catch (IOException e) {
+                // Stream closed because the process was killed; keep what was read
+            }
+            String text = kept.toString(StandardCharsets.UTF_8);
+            future.complete(truncated ? text + "\n... (output truncated)" : text);
+        });
+        return future;
+    }
 
-                if (process.exitValue() == 0) {
-                    return TransformResult.success(json.trim());
-                } else {
-                    String error = errorOutput.isBlank() ? json : errorOutput;
-                    return TransformResult.failure(error);
-                }
-            } finally {
-                Files.deleteIfExists(tempFile);
+    private static class CliOutput {
+        final int exitCode;
+        final String stdout;
+        final String stderr;
+        final boolean timedOut;
+
+        CliOutput(int exitCode, String stdout, String stderr, boolean timedOut) {
+            this.exitCode = exitCode;
+            this.stdout = stdout;
+            this.stderr = stderr;
+            this.timedOut = timedOut;
+        }
+
+        static CliOutput timedOut() {
+            return new CliOutput(-1, "", "", true);
+        }
+    }
+
+    // ==================== Conformance ====================
+
+    /**
+     * Compile {@code models} (name to DSL) with both the built-in compiler and the FGA CLI
+     * and report, per model, whether the two agree. Empty and default-valued fields are
+     * ignored, since the two serializers may differ in which of those they emit.
+     */
+    public List<String> checkConformance(Map<String, String> models) throws IOException {
+        List<String> report = new ArrayList<>();
+        for (Map.Entry<String, String> model : models.entrySet()) {
+            TransformResult cli = transformDslToJsonWithCli(model.getValue());
+            String nativeJson;
+            try {
+                nativeJson = objectMapper.writeValueAsString(compiler.compile(model.getValue()));
+            } catch (DslException e) {
+                report.add(model.getKey() + ": " + (cli.isSuccess()
+                        ? "rejected by the built-in compiler only: " + e.getMessage()
+                        : "OK (rejected by both)"));
+                continue;
             }
-        } catch (Exception e) {
-            return TransformResult.failure("Failed to transform: " + e.getMessage());
+            if (!cli.isSuccess()) {
+                report.add(model.getKey() + ": rejected by the CLI only: " + cli.getError());
+                continue;
+            }
+
+            JsonNode expected = normalize(objectMapper.readTree(cli.getJson()));
+            JsonNode actual = normalize(objectMapper.readTree(nativeJson));
+            report.add(model.getKey() + ": " + (expected.equals(actual) ? "OK"
+                    : "DIFFERENT\n  CLI:      " + expected + "\n  built-in: " + actual));
         }
+        return report;
     }
 
-    private String readProcessOutput(Process process) throws IOException {
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
-            StringBuilder sb = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                sb.append(line).append("\n");
+    /**
+     * Drop nulls, empty strings and empty containers, except the empty objects that carry
+     * meaning ({@code this}, {@code wildcard}).
+     */
+    private JsonNode normalize(JsonNode node) {
+        if (node.isObject()) {
+            ObjectNode copy = objectMapper.createObjectNode();
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = it.next();
+                JsonNode value = normalize(field.getValue());
+                boolean meaningfulEmpty = field.getKey().equals("this") || field.getKey().equals("wildcard");
+                if (meaningfulEmpty || !isEmpty(value)) copy.set(field.getKey(), value);
             }
-            return sb.toString();
+            return copy;
+        }
+        if (node.isArray()) {
+            var copy = objectMapper.createArrayNode();
+            for (JsonNode element : node) copy.add(normalize(element));
+            return copy;
         }
+        return node;
     }
 
-    private String readErrorOutput(Process process) throws IOException {
+    private static boolean isEmpty(JsonNode node) {
+        return node.isNull() || (node.isTextual() && node.asText().isEmpty()) || (node.isContainerNode() && node.isEmpty());
+    }
+
+    private String readProcessOutput(Process process) throws IOException {
         try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
             StringBuilder sb = new StringBuilder();
             String line;
             while ((line = reader.readLine()) != null) {
@@ -139,19 +486,45 @@ public class DslTransformService {
         private final boolean success;
         private final String json;
         private final String error;
+        private final List<Diagnostic> diagnostics;
+        private final boolean definitive;
+        private final boolean cached;
 
-        private TransformResult(boolean success, String json, String error) {
+        private TransformResult(boolean success, String json, String error, List<Diagnostic> diagnostics,
+                                boolean definitive, boolean cached) {
             this.success = success;
             this.json = json;
             this.error = error;
+            this.diagnostics = diagnostics;
+            this.definitive = definitive;
+            this.cached = cached;
         }
 
         public static TransformResult success(String json) {
-            return new TransformResult(true, json, null);
+            return new TransformResult(true, json, null, List.of(), true, false);
         }
 
+        /**
+         * A failure to run the check at all (timeout, I/O error); never cached.
+         */
         public static TransformResult failure(String error) {
-            return new TransformResult(false, null, error);
+            return new TransformResult(false, null, error, List.of(), false, false);
+        }
+
+        public static TransformResult failure(List<Diagnostic> diagnostics) {
+            return new TransformResult(false, null, new DslException(diagnostics).getMessage(), diagnostics,
+                    true, false);
+        }
+
+        /**
+         * The CLI ran and rejected the model.
+         */
+        public static TransformResult rejected(String error) {
+            return new TransformResult(false, null, error, List.of(), true, false);
+        }
+
+        private TransformResult asCached() {
+            return new TransformResult(success, json, error, diagnostics, definitive, true);
         }
 
         public boolean isSuccess() {
@@ -165,5 +538,23 @@ public class DslTransformService {
         public String getError() {
             return error;
         }
+
+        /**
+         * Errors with line and column; empty when the error came from the CLI.
+         */
+        public List<Diagnostic> getDiagnostics() {
+            return diagnostics;
+        }
+
+        /**
+         * True when the result depends only on the DSL text, so it may be cached.
+         */
+        public boolean isDefinitive() {
+            return definitive;
+        }
+
+        public boolean isCached() {
+            return cached;
+        }
     }
 }
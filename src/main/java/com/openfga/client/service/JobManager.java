@@ -0,0 +1,276 @@
+package com.openfga.client.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs background work as tracked jobs.
+ *
+ * Each job gets its own virtual thread, which first waits for a permit of the job's
+ * {@link Category}, so at most {@link Category#getLimit()} jobs of a kind run at once and
+ * the rest queue in submission order. Cancelling interrupts the thread: a queued job never
+ * starts, and a running job's in-flight HTTP request is aborted by {@link OpenFGAService}.
+ */
+public class JobManager {
+
+    public enum Category {
+        QUERY("Query", 4),
+        WRITE("Write", 2),
+        MODEL("Model", 2),
+        ADMIN("Admin", 4);
+
+        private final String label;
+        private final int limit;
+
+        Category(String label, int limit) {
+            this.label = label;
+            this.limit = limit;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    public enum State {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    /**
+     * The body of a job. It may report progress through the job it is given.
+     */
+    @FunctionalInterface
+    public interface Work {
+        void run(Job job) throws Exception;
+    }
+
+    private static final int MAX_FINISHED_JOBS = 200;
+
+    private final Map<Category, Semaphore> permits = new EnumMap<>(Category.class);
+    private final List<Job> jobs = new ArrayList<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final AtomicLong version = new AtomicLong();
+    private final Consumer<Job> onFinished;
+
+    /**
+     * @param onFinished called on the job's thread after it succeeds, fails or is cancelled
+     */
+    public JobManager(Consumer<Job> onFinished) {
+        for (Category category : Category.values()) {
+            permits.put(category, new Semaphore(category.getLimit(), true));
+        }
+        this.onFinished = onFinished;
+    }
+
+    public Job submit(String name, Category category, Work work) {
+        Job job = new Job(nextId.getAndIncrement(), name, category);
+        synchronized (jobs) {
+            jobs.add(job);
+        }
+        version.incrementAndGet();
+
+        job.thread = Thread.ofVirtual().name("job-" + job.id).start(() -> execute(job, work));
+        return job;
+    }
+
+    private void execute(Job job, Work work) {
+        Semaphore semaphore = permits.get(job.category);
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            finish(job, State.CANCELLED, null);
+            return;
+        }
+
+        try {
+            if (job.cancelRequested) {
+                finish(job, State.CANCELLED, null);
+                return;
+            }
+            job.startedAt = System.currentTimeMillis();
+            setState(job, State.RUNNING);
+            work.run(job);
+            finish(job, job.cancelRequested ? State.CANCELLED : State.SUCCEEDED, null);
+        } catch (Throwable e) {
+            // Errors too, so a job always reaches a final state
+            finish(job, job.cancelRequested ? State.CANCELLED : State.FAILED, e);
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    private void finish(Job job, State state, Throwable error) {
+        job.error = error;
+        job.finishedAt = System.currentTimeMillis();
+        setState(job, state);
+        trimFinished();
+        onFinished.accept(job);
+    }
+
+    private void setState(Job job, State state) {
+        job.state = state;
+        version.incrementAndGet();
+    }
+
+    private void trimFinished() {
+        synchronized (jobs) {
+            int finished = (int) jobs.stream().filter(j -> j.state.isFinished()).count();
+            for (int i = 0; i < jobs.size() && finished > MAX_FINISHED_JOBS; ) {
+                if (jobs.get(i).state.isFinished()) {
+                    jobs.remove(i);
+                    finished--;
+                } else {
+                    i++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Snapshot of queued, running and recently finished jobs, oldest first.
+     */
+    public List<Job> getJobs() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs);
+        }
+    }
+
+    /**
+     * Changes whenever a job is added, removed or changes state.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    public void clearFinished() {
+        synchronized (jobs) {
+            jobs.removeIf(job -> job.state.isFinished());
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Cancel every job that has not finished yet.
+     */
+    public void cancelAll() {
+        for (Job job : getJobs()) {
+            job.cancel();
+        }
+    }
+
+    /**
+     * One unit of background work and its progress.
+     */
+    public static class Job {
+        private final int id;
+        private final String name;
+        private final Category category;
+        private final long submittedAt = System.currentTimeMillis();
+        private final AtomicLong done = new AtomicLong();
+        private volatile long total;
+        private volatile State state = State.QUEUED;
+        private volatile long startedAt;
+        private volatile long finishedAt;
+        private volatile Throwable error;
+        private volatile boolean cancelRequested;
+        private volatile Thread thread;
+
+        private Job(int id, String name, Category category) {
+            this.id = id;
+            this.name = name;
+            this.category = category;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Category getCategory() {
+            return category;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        public boolean isCancelRequested() {
+            return cancelRequested;
+        }
+
+        /**
+         * Set the number of work units (tuples, checks, requests) this job will process.
+         */
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void addProgress(long units) {
+            done.addAndGet(units);
+        }
+
+        public void setDone(long units) {
+            done.set(units);
+        }
+
+        public long getDone() {
+            return done.get();
+        }
+
+        public long getSubmittedAt() {
+            return submittedAt;
+        }
+
+        /**
+         * Time spent running, or waiting in the queue while queued.
+         */
+        public long getElapsedMillis() {
+            long end = finishedAt > 0 ? finishedAt : System.currentTimeMillis();
+            return end - (startedAt > 0 ? startedAt : submittedAt);
+        }
+
+        /**
+         * Completed work units per second since the job started.
+         */
+        public double getThroughput() {
+            long elapsed = startedAt > 0 ? getElapsedMillis() : 0;
+            return elapsed > 0 ? done.get() * 1000.0 / elapsed : 0;
+        }
+
+        /**
+         * Stop the job: a queued job is dropped, a running one is interrupted.
+         */
+        public void cancel() {
+            if (state.isFinished()) return;
+            cancelRequested = true;
+            Thread t = thread;
+            if (t != null) t.interrupt();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.openfga.client.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Fixed-size ring of log entries that any thread can append to without locking.
+ *
+ * Each append claims a sequence number and stores the entry in slot {@code seq % capacity},
+ * overwriting the oldest entry once the ring is full. Readers keep their own cursor and
+ * {@link #drain} everything written since, so the UI and the optional spill file consume
+ * the same ring independently. A reader that falls more than {@code capacity} entries
+ * behind skips what was overwritten.
+ */
+public class LogBuffer {
+
+    public enum Level {
+        INFO, WARN, ERROR
+    }
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final long SPILL_INTERVAL_MS = 200;
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final AtomicLong nextSeq = new AtomicLong();
+
+    private volatile Thread spillThread;
+    private volatile boolean spilling;
+    private volatile Path spillFile;
+
+    /**
+     * @param capacity number of entries kept; rounded up to a power of two
+     */
+    public LogBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * Sequence number the next append will get; a new reader starts here to skip history.
+     */
+    public long getNextSeq() {
+        return nextSeq.get();
+    }
+
+    public void append(Level level, String message) {
+        long seq = nextSeq.getAndIncrement();
+        slots.set((int) (seq & mask), new Entry(seq, System.currentTimeMillis(), level, message));
+    }
+
+    /**
+     * Append with the level taken from a leading "ERROR:" or "WARNING:" marker.
+     */
+    public void append(String message) {
+        append(levelOf(message), message);
+    }
+
+    public static Level levelOf(String message) {
+        if (message.startsWith("ERROR")) return Level.ERROR;
+        if (message.startsWith("WARN")) return Level.WARN;
+        return Level.INFO;
+    }
+
+    /**
+     * Pass every entry from {@code fromSeq} on to {@code consumer} and return the cursor to
+     * continue from. Stops early at a slot whose writer has claimed it but not stored yet.
+     */
+    public long drain(long fromSeq, Consumer<Entry> consumer) {
+        long end = nextSeq.get();
+        long seq = Math.max(fromSeq, end - slots.length());
+        while (seq < end) {
+            Entry entry = slots.get((int) (seq & mask));
+            if (entry == null || entry.seq < seq) {
+                break;
+            }
+            if (entry.seq == seq) {
+                consumer.accept(entry);
+                seq++;
+            } else {
+                // Lapped while reading; jump to the oldest entry still in the ring
+                seq = Math.max(seq + 1, nextSeq.get() - slots.length());
+            }
+        }
+        return seq;
+    }
+
+    // ==================== Spill to file ====================
+
+    public boolean isSpilling() {
+        return spilling;
+    }
+
+    public Path getSpillFile() {
+        return spillFile;
+    }
+
+    /**
+     * Start copying new entries to {@code file} from a background thread. Entries already
+     * in the ring are written first.
+     */
+    public synchronized void startSpill(Path file) throws IOException {
+        stopSpill();
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        spillFile = file;
+        spilling = true;
+        spillThread = Thread.ofVirtual().name("log-spill").start(() -> spillLoop(writer));
+    }
+
+    /**
+     * Write out what is left and close the spill file.
+     */
+    public synchronized void stopSpill() {
+        Thread thread = spillThread;
+        if (thread == null) return;
+
+        spilling = false;
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        spillThread = null;
+    }
+
+    private void spillLoop(BufferedWriter writer) {
+        long cursor = Math.max(0, nextSeq.get() - slots.length());
+        try (writer) {
+            while (spilling) {
+                cursor = spillTo(writer, cursor);
+                try {
+                    Thread.sleep(SPILL_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+            spillTo(writer, cursor);
+        } catch (IOException e) {
+            spilling = false;
+            append(Level.ERROR, "ERROR: Log spill to " + spillFile + " failed: " + e.getMessage());
+        }
+    }
+
+    private long spillTo(BufferedWriter writer, long cursor) throws IOException {
+        IOException[] failure = new IOException[1];
+        long next = drain(cursor, entry -> {
+            if (failure[0] != null) return;
+            try {
+                writer.write(FILE_TIME.format(entry.getTime()) + " " + entry.level + " " + entry.message);
+                writer.newLine();
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null) throw failure[0];
+        writer.flush();
+        return next;
+    }
+
+    /**
+     * One log line.
+     */
+    public static class Entry {
+        private final long seq;
+        private final long timestamp;
+        private final Level level;
+        private final String message;
+
+        private Entry(long seq, long timestamp, Level level, String message) {
+            this.seq = seq;
+            this.timestamp = timestamp;
+            this.level = level;
+            this.message = message;
+        }
+
+        public long getSeq() {
+            return seq;
+        }
+
+        public LocalDateTime getTime() {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
+        }
+
+        public Level getLevel() {
+            return level;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
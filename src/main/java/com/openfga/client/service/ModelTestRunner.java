@@ -0,0 +1,555 @@
+package com.openfga.client.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.openfga.client.model.ConsistencyPreference;
+import com.openfga.client.model.TupleKey;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs the tests of an {@code .fga.yaml} file (the format of {@code fga model test})
+ * against a server.
+ *
+ * The model is written to a throwaway store together with the file's tuples. Tests that
+ * bring their own tuples get a store of their own, so they cannot see each other's data.
+ * Tuples are written in batches and every check, list_objects and list_users assertion
+ * runs concurrently, bounded by the parallelism given to the constructor. All stores are
+ * deleted afterwards, also when the run fails or is cancelled; stores that could not be
+ * deleted are listed in the report (or on the run's exception).
+ */
+public class ModelTestRunner {
+
+    // OpenFGA rejects write requests with more than 100 tuples by default
+    private static final int WRITE_BATCH_SIZE = 100;
+
+    private final OpenFGAService service;
+    private final DslTransformService dslService;
+    private final int parallelism;
+
+    public ModelTestRunner(OpenFGAService service, DslTransformService dslService, int parallelism) {
+        this.service = service;
+        this.dslService = dslService;
+        this.parallelism = parallelism;
+    }
+
+    // ==================== Loading ====================
+
+    /**
+     * Read a test file. {@code model_file} and {@code tuple_file(s)} are resolved relative
+     * to it; tuple files may be YAML or JSON lists.
+     */
+    public static Suite load(Path file) throws IOException {
+        ObjectMapper yaml = new ObjectMapper(new YAMLFactory());
+        JsonNode root = yaml.readTree(file.toFile());
+        Path base = file.toAbsolutePath().getParent();
+
+        String model;
+        if (root.hasNonNull("model")) {
+            model = root.get("model").asText();
+        } else if (root.hasNonNull("model_file")) {
+            model = Files.readString(base.resolve(root.get("model_file").asText()));
+        } else {
+            throw new IOException(file.getFileName() + ": needs 'model' or 'model_file'");
+        }
+
+        List<TupleKey> tuples = new ArrayList<>(tuples(root.path("tuples")));
+        List<String> tupleFiles = new ArrayList<>();
+        if (root.hasNonNull("tuple_file")) tupleFiles.add(root.get("tuple_file").asText());
+        for (JsonNode tupleFile : root.path("tuple_files")) tupleFiles.add(tupleFile.asText());
+        for (String tupleFile : tupleFiles) {
+            tuples.addAll(tuples(yaml.readTree(base.resolve(tupleFile).toFile())));
+        }
+
+        List<Test> tests = new ArrayList<>();
+        int index = 0;
+        for (JsonNode testNode : root.path("tests")) {
+            index++;
+            String name = testNode.hasNonNull("name") ? testNode.get("name").asText() : "test " + index;
+            tests.add(new Test(name, tuples(testNode.path("tuples")), assertions(file, name, testNode)));
+        }
+
+        String name = root.hasNonNull("name") ? root.get("name").asText() : file.getFileName().toString();
+        return new Suite(name, model, tuples, tests);
+    }
+
+    private static List<TupleKey> tuples(JsonNode list) {
+        List<TupleKey> tuples = new ArrayList<>();
+        for (JsonNode tuple : list) {
+            JsonNode condition = tuple.path("condition");
+            tuples.add(new TupleKey(tuple.path("user").asText(), tuple.path("relation").asText(),
+                    tuple.path("object").asText(),
+                    condition.hasNonNull("name") ? condition.get("name").asText() : null,
+                    condition.hasNonNull("context") ? condition.get("context").toString() : null));
+        }
+        return tuples;
+    }
+
+    private static List<Assertion> assertions(Path file, String testName, JsonNode test) throws IOException {
+        List<Assertion> assertions = new ArrayList<>();
+        for (JsonNode check : test.path("check")) {
+            String context = context(check);
+            for (String user : oneOrMany(check, "user", "users")) {
+                for (String object : oneOrMany(check, "object", "objects")) {
+                    check.path("assertions").properties().forEach(expected -> assertions.add(
+                            Assertion.check(user, expected.getKey(), object, context, expected.getValue().asBoolean())));
+                }
+            }
+        }
+        for (JsonNode listObjects : test.path("list_objects")) {
+            String context = context(listObjects);
+            for (String user : oneOrMany(listObjects, "user", "users")) {
+                listObjects.path("assertions").properties().forEach(expected -> assertions.add(
+                        Assertion.listObjects(user, expected.getKey(), listObjects.path("type").asText(), context,
+                                strings(expected.getValue()))));
+            }
+        }
+        for (JsonNode listUsers : test.path("list_users")) {
+            String context = context(listUsers);
+            // The List Users API takes exactly one user filter
+            if (listUsers.path("user_filter").size() > 1) {
+                throw new IOException(file.getFileName() + ": test '" + testName + "': list_users of "
+                        + listUsers.path("object").asText() + " has " + listUsers.path("user_filter").size()
+                        + " user_filter entries; only one is supported");
+            }
+            List<String> filters = new ArrayList<>();
+            for (JsonNode filter : listUsers.path("user_filter")) {
+                String relation = filter.path("relation").asText();
+                filters.add(filter.path("type").asText() + (relation.isEmpty() ? "" : "#" + relation));
+            }
+            String filter = filters.isEmpty() ? "user" : filters.get(0);
+            listUsers.path("assertions").properties().forEach(expected -> assertions.add(
+                    Assertion.listUsers(listUsers.path("object").asText(), expected.getKey(), filter, context,
+                            strings(expected.getValue().path("users")))));
+        }
+        return assertions;
+    }
+
+    private static String context(JsonNode node) {
+        return node.hasNonNull("context") ? node.get("context").toString() : null;
+    }
+
+    private static List<String> oneOrMany(JsonNode node, String single, String plural) {
+        if (node.hasNonNull(single)) return List.of(node.get(single).asText());
+        return new ArrayList<>(strings(node.path(plural)));
+    }
+
+    private static Set<String> strings(JsonNode list) {
+        Set<String> values = new TreeSet<>();
+        for (JsonNode value : list) values.add(value.asText());
+        return values;
+    }
+
+    // ==================== Running ====================
+
+    /**
+     * Run every assertion of {@code suite}. Progress is reported to {@code job} in assertions.
+     */
+    public Report run(Suite suite, JobManager.Job job) throws Exception {
+        long startTime = System.nanoTime();
+        var transform = dslService.transformDslToJson(suite.getModel());
+        if (!transform.isSuccess()) {
+            throw new IllegalArgumentException("Model does not compile: " + transform.getError());
+        }
+
+        List<Assertion> assertions = new ArrayList<>();
+        for (Test test : suite.getTests()) assertions.addAll(test.getAssertions());
+        job.setTotal(assertions.size());
+
+        List<String> stores = Collections.synchronizedList(new ArrayList<>());
+        Semaphore permits = new Semaphore(parallelism);
+        List<Result> report = new ArrayList<>();
+        double totalMillis;
+        double assertionMillis;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // One store for tests without tuples of their own, one each for the others
+            Future<Fixture> shared = executor.submit(() ->
+                    createFixture(suite.getName(), transform.getJson(), suite.getTuples(), stores, permits, executor));
+            List<Future<Fixture>> fixtures = new ArrayList<>();
+            for (Test test : suite.getTests()) {
+                if (test.getTuples().isEmpty()) {
+                    fixtures.add(shared);
+                } else {
+                    List<TupleKey> tuples = new ArrayList<>(suite.getTuples());
+                    tuples.addAll(test.getTuples());
+                    fixtures.add(executor.submit(() ->
+                            createFixture(test.getName(), transform.getJson(), tuples, stores, permits, executor)));
+                }
+            }
+
+            List<Fixture> ready = new ArrayList<>();
+            for (Future<Fixture> fixture : fixtures) {
+                ready.add(fixture.get());
+            }
+            long setupDone = System.nanoTime();
+
+            List<Future<Result>> results = new ArrayList<>();
+            for (int t = 0; t < suite.getTests().size(); t++) {
+                Test test = suite.getTests().get(t);
+                Fixture fixture = ready.get(t);
+                for (Assertion assertion : test.getAssertions()) {
+                    results.add(executor.submit(() -> {
+                        permits.acquire();
+                        try {
+                            return evaluate(test, assertion, fixture);
+                        } finally {
+                            permits.release();
+                            job.addProgress(1);
+                        }
+                    }));
+                }
+            }
+
+            for (Future<Result> result : results) {
+                report.add(result.get());
+            }
+            totalMillis = millisSince(startTime);
+            assertionMillis = millisSince(setupDone);
+        } catch (Throwable e) {
+            Throwable failure = e instanceof ExecutionException && e.getCause() instanceof Exception cause ? cause : e;
+            List<String> undeleted = deleteStores(stores);
+            if (!undeleted.isEmpty()) {
+                failure.addSuppressed(new IllegalStateException("Test stores not deleted: " + String.join("; ", undeleted)));
+            }
+            if (failure instanceof Error error) throw error;
+            throw (Exception) failure;
+        }
+        return new Report(suite.getName(), report, totalMillis, assertionMillis, deleteStores(stores));
+    }
+
+    private Fixture createFixture(String name, String modelJson, List<TupleKey> tuples, List<String> stores,
+                                  Semaphore permits, ExecutorService executor) throws Exception {
+        String storeId = service.createStore("model-test " + name).getId();
+        stores.add(storeId);
+        String modelId = service.writeAuthorizationModel(storeId, modelJson);
+
+        List<Future<?>> writes = new ArrayList<>();
+        for (int start = 0; start < tuples.size(); start += WRITE_BATCH_SIZE) {
+            List<TupleKey> batch = tuples.subList(start, Math.min(start + WRITE_BATCH_SIZE, tuples.size()));
+            writes.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    service.writeTuples(storeId, batch, modelId);
+                } finally {
+                    permits.release();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> write : writes) write.get();
+        return new Fixture(storeId, modelId);
+    }
+
+    private Result evaluate(Test test, Assertion assertion, Fixture fixture) {
+        long start = System.nanoTime();
+        try {
+            String failure = switch (assertion.getKind()) {
+                case CHECK -> {
+                    boolean allowed = service.check(fixture.storeId, assertion.user, assertion.relation,
+                            assertion.object, assertion.context, fixture.modelId, ConsistencyPreference.UNSPECIFIED);
+                    yield allowed == assertion.expectedAllowed ? null : "expected " + assertion.expectedAllowed + ", got " + allowed;
+                }
+                case LIST_OBJECTS -> compare(assertion.expected, service.listObjects(fixture.storeId, assertion.user,
+                        assertion.relation, assertion.type, assertion.context, fixture.modelId,
+                        ConsistencyPreference.UNSPECIFIED));
+                case LIST_USERS -> {
+                    String[] object = assertion.object.split(":", 2);
+                    JsonNode response = service.listUsers(fixture.storeId, assertion.relation, object[0],
+                            object.length > 1 ? object[1] : "", assertion.type, assertion.context, fixture.modelId,
+                            ConsistencyPreference.UNSPECIFIED);
+                    yield compare(assertion.expected, OpenFGAService.toUserStrings(response));
+                }
+            };
+            return new Result(test.getName(), assertion, failure == null, failure, millisSince(start));
+        } catch (Exception e) {
+            return new Result(test.getName(), assertion, false, "error: " + e.getMessage(), millisSince(start));
+        }
+    }
+
+    private static String compare(Set<String> expected, List<String> actual) {
+        Set<String> got = new TreeSet<>(actual);
+        if (got.equals(expected)) return null;
+        Set<String> missing = new TreeSet<>(expected);
+        missing.removeAll(got);
+        Set<String> extra = new TreeSet<>(got);
+        extra.removeAll(expected);
+        return (missing.isEmpty() ? "" : "missing " + missing + " ") + (extra.isEmpty() ? "" : "unexpected " + extra);
+    }
+
+    /**
+     * Delete the stores in parallel. Returns "id: reason" for each store that is left behind.
+     */
+    private List<String> deleteStores(List<String> stores) {
+        // Clean up even when cancelled; the interrupt is restored afterwards
+        boolean interrupted = Thread.interrupted();
+        List<String> undeleted = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<String> storeIds = List.copyOf(stores);
+            List<Future<?>> deletes = new ArrayList<>();
+            for (String storeId : storeIds) {
+                deletes.add(executor.submit(() -> {
+                    service.deleteStore(storeId);
+                    return null;
+                }));
+            }
+            for (int i = 0; i < deletes.size(); i++) {
+                try {
+                    deletes.get(i).get();
+                } catch (ExecutionException e) {
+                    undeleted.add(storeIds.get(i) + ": " + e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    undeleted.add(storeIds.get(i) + ": interrupted");
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        return undeleted;
+    }
+
+    private static double millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000.0;
+    }
+
+    private static class Fixture {
+        final String storeId;
+        final String modelId;
+
+        Fixture(String storeId, String modelId) {
+            this.storeId = storeId;
+            this.modelId = modelId;
+        }
+    }
+
+    // ==================== Test file model ====================
+
+    /**
+     * The contents of one {@code .fga.yaml} file.
+     */
+    public static class Suite {
+        private final String name;
+        private final String model;
+        private final List<TupleKey> tuples;
+        private final List<Test> tests;
+
+        public Suite(String name, String model, List<TupleKey> tuples, List<Test> tests) {
+            this.name = name;
+            this.model = model;
+            this.tuples = tuples;
+            this.tests = tests;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getModel() {
+            return model;
+        }
+
+        public List<TupleKey> getTuples() {
+            return tuples;
+        }
+
+        public List<Test> getTests() {
+            return tests;
+        }
+
+        public int getAssertionCount() {
+            return tests.stream().mapToInt(test -> test.getAssertions().size()).sum();
+        }
+    }
+
+    public static class Test {
+        private final String name;
+        private final List<TupleKey> tuples;
+        private final List<Assertion> assertions;
+
+        public Test(String name, List<TupleKey> tuples, List<Assertion> assertions) {
+            this.name = name;
+            this.tuples = tuples;
+            this.assertions = assertions;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Tuples added on top of the file's tuples for this test only.
+         */
+        public List<TupleKey> getTuples() {
+            return tuples;
+        }
+
+        public List<Assertion> getAssertions() {
+            return assertions;
+        }
+    }
+
+    /**
+     * One expected outcome: a check result, or the exact set of objects or users returned.
+     */
+    public static class Assertion {
+        public enum Kind { CHECK, LIST_OBJECTS, LIST_USERS }
+
+        private final Kind kind;
+        private final String user;
+        private final String relation;
+        private final String object;
+        // Object type for list_objects, user filter for list_users
+        private final String type;
+        private final String context;
+        private final boolean expectedAllowed;
+        private final Set<String> expected;
+
+        private Assertion(Kind kind, String user, String relation, String object, String type, String context,
+                          boolean expectedAllowed, Set<String> expected) {
+            this.kind = kind;
+            this.user = user;
+            this.relation = relation;
+            this.object = object;
+            this.type = type;
+            this.context = context;
+            this.expectedAllowed = expectedAllowed;
+            this.expected = expected;
+        }
+
+        static Assertion check(String user, String relation, String object, String context, boolean allowed) {
+            return new Assertion(Kind.CHECK, user, relation, object, null, context, allowed, null);
+        }
+
+        static Assertion listObjects(String user, String relation, String type, String context, Set<String> objects) {
+            return new Assertion(Kind.LIST_OBJECTS, user, relation, null, type, context, false, objects);
+        }
+
+        static Assertion listUsers(String object, String relation, String userFilter, String context, Set<String> users) {
+            return new Assertion(Kind.LIST_USERS, null, relation, object, userFilter, context, false, users);
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        @Override
+        public String toString() {
+            return switch (kind) {
+                case CHECK -> "check " + user + " " + relation + " " + object + " = " + expectedAllowed;
+                case LIST_OBJECTS -> "list_objects " + user + " " + relation + " " + type + " = " + expected;
+                case LIST_USERS -> "list_users " + object + " " + relation + " " + type + " = " + expected;
+            };
+        }
+    }
+
+    /**
+     * Outcome of one assertion.
+     */
+    public static class Result {
+        private final String test;
+        private final Assertion assertion;
+        private final boolean passed;
+        private final String message;
+        private final double latencyMillis;
+
+        Result(String test, Assertion assertion, boolean passed, String message, double latencyMillis) {
+            this.test = test;
+            this.assertion = assertion;
+            this.passed = passed;
+            this.message = message;
+            this.latencyMillis = latencyMillis;
+        }
+
+        public String getTest() {
+            return test;
+        }
+
+        public Assertion getAssertion() {
+            return assertion;
+        }
+
+        public boolean isPassed() {
+            return passed;
+        }
+
+        /**
+         * Why the assertion failed, or null if it passed.
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        public double getLatencyMillis() {
+            return latencyMillis;
+        }
+    }
+
+    /**
+     * Results of a whole suite, in file order.
+     */
+    public static class Report {
+        private final String suite;
+        private final List<Result> results;
+        private final double totalMillis;
+        private final double assertionMillis;
+        private final List<String> undeletedStores;
+
+        Report(String suite, List<Result> results, double totalMillis, double assertionMillis,
+               List<String> undeletedStores) {
+            this.suite = suite;
+            this.results = results;
+            this.totalMillis = totalMillis;
+            this.assertionMillis = assertionMillis;
+            this.undeletedStores = undeletedStores;
+        }
+
+        public String getSuite() {
+            return suite;
+        }
+
+        public List<Result> getResults() {
+            return results;
+        }
+
+        public long getPassedCount() {
+            return results.stream().filter(Result::isPassed).count();
+        }
+
+        public long getFailedCount() {
+            return results.size() - getPassedCount();
+        }
+
+        /**
+         * Wall time of the whole run, from compiling the model to the last assertion.
+         */
+        public double getTotalMillis() {
+            return totalMillis;
+        }
+
+        /**
+         * Wall time of the assertions alone, after the stores were set up.
+         */
+        public double getAssertionMillis() {
+            return assertionMillis;
+        }
+
+        /**
+         * Test stores that could not be deleted, as "id: reason"; empty if all were.
+         */
+        public List<String> getUndeletedStores() {
+            return undeletedStores;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.openfga.client.service;
+
+import com.openfga.client.dsl.Diagnostic;
+import com.openfga.client.dsl.DslCompiler;
+import com.openfga.client.dsl.DslException;
+import com.openfga.client.dsl.DslParser;
+import com.openfga.client.dsl.ModelAst;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compiles a modular model: a directory with an {@code fga.mod} manifest and the module
+ * files it lists.
+ *
+ * Module files are read and parsed in parallel on virtual threads. Each parse is kept,
+ * keyed by the file's path and the SHA-256 of its content, so after an edit only the files
+ * that changed are parsed again; the modules are then linked and checked together into one
+ * model, ready for {@link OpenFGAService#writeAuthorizationModel}.
+ */
+public class ModularModelService {
+
+    public static final String MANIFEST = "fga.mod";
+
+    private final DslCompiler compiler = new DslCompiler();
+    private final Map<Path, ParsedModule> modules = new ConcurrentHashMap<>();
+
+    /**
+     * Compile the model in {@code directory}. Problems in the manifest or the modules are
+     * returned as diagnostics; only an unreadable directory or file throws.
+     */
+    public Result compile(Path directory) throws IOException, InterruptedException {
+        Path root = directory.toAbsolutePath().normalize();
+        Manifest manifest = Manifest.read(root.resolve(MANIFEST));
+        if (!manifest.diagnostics.isEmpty()) {
+            return Result.failure(manifest.diagnostics, 0, 0);
+        }
+
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        List<Path> files = new ArrayList<>();
+        List<Integer> manifestLines = new ArrayList<>();
+        for (Manifest.Entry entry : manifest.contents) {
+            Path file = root.resolve(entry.path).normalize();
+            if (!file.startsWith(root)) {
+                diagnostics.add(new Diagnostic(MANIFEST, entry.line, 1, "'" + entry.path + "' is outside the model directory"));
+            } else if (!entry.path.endsWith(".fga")) {
+                diagnostics.add(new Diagnostic(MANIFEST, entry.line, 1, "'" + entry.path + "' is not a .fga file"));
+            } else {
+                files.add(file);
+                manifestLines.add(entry.line);
+            }
+        }
+        if (!diagnostics.isEmpty()) {
+            return Result.failure(diagnostics, 0, 0);
+        }
+
+        AtomicInteger reparsed = new AtomicInteger();
+        List<ParsedModule> parsed = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ParsedModule>> futures = new ArrayList<>();
+            for (int i = 0; i < files.size(); i++) {
+                Path file = files.get(i);
+                String name = root.relativize(file).toString().replace('\\', '/');
+                int line = manifestLines.get(i);
+                futures.add(executor.submit(() -> load(file, name, line, reparsed)));
+            }
+            try {
+                for (Future<ParsedModule> future : futures) {
+                    parsed.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                throw e;
+            } catch (ExecutionException e) {
+                executor.shutdownNow();
+                if (e.getCause() instanceof IOException io) throw io;
+                if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+                throw new IOException(e.getCause());
+            }
+        }
+        // Files dropped from the manifest no longer need their parse
+        modules.keySet().retainAll(files);
+
+        List<ModelAst> asts = new ArrayList<>();
+        for (ParsedModule module : parsed) {
+            diagnostics.addAll(module.diagnostics);
+            asts.add(module.ast);
+        }
+        if (!diagnostics.isEmpty()) {
+            return Result.failure(diagnostics, files.size(), reparsed.get());
+        }
+
+        try {
+            String json = compiler.compileModules(asts, manifest.schema).toString();
+            return Result.success(json, files.size(), reparsed.get());
+        } catch (DslException e) {
+            return Result.failure(e.getDiagnostics(), files.size(), reparsed.get());
+        }
+    }
+
+    private ParsedModule load(Path file, String name, int manifestLine, AtomicInteger reparsed) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return ParsedModule.missing(name, manifestLine);
+        }
+        byte[] content = Files.readAllBytes(file);
+        String hash = sha256(content);
+        ParsedModule previous = modules.get(file);
+        if (previous != null && previous.hash.equals(hash)) {
+            return previous;
+        }
+
+        DslParser parser = new DslParser(name);
+        ModelAst ast = parser.parse(new String(content, StandardCharsets.UTF_8));
+        List<Diagnostic> diagnostics = new ArrayList<>(parser.getDiagnostics());
+        if (diagnostics.isEmpty() && ast.getModule() == null) {
+            diagnostics.add(new Diagnostic(name, 1, 1, "module files must start with 'module <name>'"));
+        }
+        ParsedModule module = new ParsedModule(hash, ast, diagnostics);
+        modules.put(file, module);
+        reparsed.incrementAndGet();
+        return module;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class ParsedModule {
+        final String hash;
+        final ModelAst ast;
+        final List<Diagnostic> diagnostics;
+
+        ParsedModule(String hash, ModelAst ast, List<Diagnostic> diagnostics) {
+            this.hash = hash;
+            this.ast = ast;
+            this.diagnostics = diagnostics;
+        }
+
+        static ParsedModule missing(String name, int manifestLine) {
+            return new ParsedModule("", new ModelAst(),
+                    List.of(new Diagnostic(MANIFEST, manifestLine, 1, "module file '" + name + "' not found")));
+        }
+    }
+
+    /**
+     * The parts of {@code fga.mod} the compiler needs: the schema version and the module
+     * files, one {@code - path} entry per line under {@code contents:}.
+     */
+    private static class Manifest {
+        String schema;
+        final List<Entry> contents = new ArrayList<>();
+        final List<Diagnostic> diagnostics = new ArrayList<>();
+
+        static class Entry {
+            final String path;
+            final int line;
+
+            Entry(String path, int line) {
+                this.path = path;
+                this.line = line;
+            }
+        }
+
+        static Manifest read(Path file) throws IOException {
+            Manifest manifest = new Manifest();
+            if (!Files.isRegularFile(file)) {
+                manifest.diagnostics.add(new Diagnostic(MANIFEST, 1, 1, "no " + MANIFEST + " in " + file.getParent()));
+                return manifest;
+            }
+
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            boolean inContents = false;
+            for (int i = 0; i < lines.size(); i++) {
+                String line = stripComment(lines.get(i));
+                if (line.isBlank()) continue;
+                String trimmed = line.strip();
+
+                if (trimmed.startsWith("- ") || trimmed.equals("-")) {
+                    if (inContents) {
+                        String path = unquote(trimmed.substring(1).strip());
+                        if (path.isEmpty()) {
+                            manifest.diagnostics.add(new Diagnostic(MANIFEST, i + 1, 1, "empty module path"));
+                        } else {
+                            manifest.contents.add(new Entry(path, i + 1));
+                        }
+                    }
+                    continue;
+                }
+
+                int colon = trimmed.indexOf(':');
+                if (colon < 0) {
+                    manifest.diagnostics.add(new Diagnostic(MANIFEST, i + 1, 1, "expected 'key: value'"));
+                    continue;
+                }
+                String key = trimmed.substring(0, colon).strip();
+                String value = unquote(trimmed.substring(colon + 1).strip());
+                inContents = key.equals("contents");
+                if (key.equals("schema")) {
+                    manifest.schema = value;
+                }
+            }
+
+            if (manifest.schema == null) {
+                manifest.diagnostics.add(new Diagnostic(MANIFEST, 1, 1, "missing 'schema'"));
+            } else if (!DslCompiler.SCHEMA_1_2.equals(manifest.schema)) {
+                manifest.diagnostics.add(new Diagnostic(MANIFEST, 1, 1, "unsupported schema version '"
+                        + manifest.schema + "', modular models require " + DslCompiler.SCHEMA_1_2));
+            }
+            if (manifest.contents.isEmpty() && manifest.diagnostics.isEmpty()) {
+                manifest.diagnostics.add(new Diagnostic(MANIFEST, 1, 1, "'contents' lists no module files"));
+            }
+            return manifest;
+        }
+
+        private static String stripComment(String line) {
+            int hash = line.indexOf('#');
+            return hash >= 0 && (hash == 0 || Character.isWhitespace(line.charAt(hash - 1))) ? line.substring(0, hash) : line;
+        }
+
+        private static String unquote(String value) {
+            if (value.length() >= 2 && (value.startsWith("'") && value.endsWith("'")
+                    || value.startsWith("\"") && value.endsWith("\""))) {
+                return value.substring(1, value.length() - 1);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Outcome of compiling a modular model.
+     */
+    public static class Result {
+        private final String json;
+        private final List<Diagnostic> diagnostics;
+        private final int moduleCount;
+        private final int parsedCount;
+
+        private Result(String json, List<Diagnostic> diagnostics, int moduleCount, int parsedCount) {
+            this.json = json;
+            this.diagnostics = diagnostics;
+            this.moduleCount = moduleCount;
+            this.parsedCount = parsedCount;
+        }
+
+        static Result success(String json, int moduleCount, int parsedCount) {
+            return new Result(json, List.of(), moduleCount, parsedCount);
+        }
+
+        static Result failure(List<Diagnostic> diagnostics, int moduleCount, int parsedCount) {
+            return new Result(null, diagnostics, moduleCount, parsedCount);
+        }
+
+        public boolean isSuccess() {
+            return json != null;
+        }
+
+        /**
+         * The combined model JSON, or null if there were errors.
+         */
+        public String getJson() {
+            return json;
+        }
+
+        public List<Diagnostic> getDiagnostics() {
+            return diagnostics;
+        }
+
+        public int getModuleCount() {
+            return moduleCount;
+        }
+
+        /**
+         * How many module files were parsed for this result; the rest were unchanged.
+         */
+        public int getParsedCount() {
+            return parsedCount;
+        }
+    }
+}
@@ -2,40 +2,69 @@ package com.openfga.client.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.openfga.client.model.ConsistencyPreference;
 import com.openfga.client.model.StoreInfo;
+import com.openfga.client.model.TupleKey;
 
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Service for interacting with OpenFGA API.
  * Uses Java HttpClient for direct API calls.
+ *
+ * An instance is bound to one server and token for its whole lifetime and owns its own
+ * connection pool and metrics, so instances for different servers can be used concurrently.
  */
-public class OpenFGAService {
+public class OpenFGAService implements AutoCloseable {
 
-    private String apiUrl = "http://localhost:18080";
-    private String bearerToken = "";
+    private final String apiUrl;
+    private final String bearerToken;
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final ServiceMetrics metrics = new ServiceMetrics();
+    private volatile boolean closed;
 
-    public OpenFGAService() {
+    public OpenFGAService(String apiUrl, String bearerToken) {
+        this.apiUrl = apiUrl.endsWith("/") ? apiUrl.substring(0, apiUrl.length() - 1) : apiUrl;
+        this.bearerToken = bearerToken;
         this.httpClient = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofSeconds(10))
                 .build();
         this.objectMapper = new ObjectMapper();
     }
 
-    public void setApiUrl(String apiUrl) {
-        this.apiUrl = apiUrl.endsWith("/") ? apiUrl.substring(0, apiUrl.length() - 1) : apiUrl;
+    public String getApiUrl() {
+        return apiUrl;
     }
 
-    public void setBearerToken(String bearerToken) {
-        this.bearerToken = bearerToken;
+    public String getBearerToken() {
+        return bearerToken;
+    }
+
+    public ServiceMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Release the connection pool. Requests already sent run to completion; later ones fail.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        httpClient.shutdown();
     }
 
     private HttpRequest.Builder createRequestBuilder(String path) {
@@ -52,7 +81,26 @@ public class OpenFGAService {
     }
 
     private JsonNode sendRequest(HttpRequest request) throws Exception {
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (closed) {
+            throw new IllegalStateException("Connection to " + apiUrl + " was closed after its settings changed");
+        }
+        long startTime = System.nanoTime();
+        HttpResponse<String> response;
+        // Send asynchronously so an interrupt (job cancellation) can abort the exchange itself
+        // instead of leaving the request running after the caller gave up on it
+        CompletableFuture<HttpResponse<String>> future =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        try {
+            response = future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            metrics.record(System.nanoTime() - startTime, true);
+            throw e;
+        } catch (ExecutionException e) {
+            metrics.record(System.nanoTime() - startTime, true);
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+        metrics.record(System.nanoTime() - startTime, response.statusCode() >= 400);
 
         if (response.statusCode() >= 400) {
             throw new RuntimeException("HTTP " + response.statusCode() + ": " + response.body());
@@ -65,6 +113,26 @@ public class OpenFGAService {
         return objectMapper.readTree(response.body());
     }
 
+    /**
+     * Call the server's health endpoint and return the round-trip time in milliseconds.
+     */
+    public long probeHealth() throws Exception {
+        HttpRequest request = createRequestBuilder("/healthz")
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        long startTime = System.nanoTime();
+        JsonNode response = sendRequest(request);
+        long roundTrip = (System.nanoTime() - startTime) / 1_000_000;
+
+        String status = response.path("status").asText();
+        if (!status.isEmpty() && !status.equals("SERVING")) {
+            throw new RuntimeException("Server status: " + status);
+        }
+        return roundTrip;
+    }
+
     public List<StoreInfo> listStores() throws Exception {
         HttpRequest request = createRequestBuilder("/stores")
                 .GET()
@@ -118,34 +186,57 @@ public class OpenFGAService {
         return response.get("authorization_model_id").asText();
     }
 
-    public void writeTuple(String storeId, String user, String relation, String object,
-                           String conditionName, String conditionContext) throws Exception {
+    /**
+     * One page of a store's authorization models, newest first. The response's
+     * {@code continuation_token} is non-empty while older models remain.
+     */
+    public JsonNode listAuthorizationModels(String storeId, int pageSize, String continuationToken) throws Exception {
+        StringBuilder path = new StringBuilder("/stores/" + storeId + "/authorization-models?page_size=" + pageSize);
+        if (continuationToken != null && !continuationToken.isBlank()) {
+            path.append("&continuation_token=").append(URLEncoder.encode(continuationToken, StandardCharsets.UTF_8));
+        }
+        HttpRequest request = createRequestBuilder(path.toString())
+                .GET()
+                .build();
 
-        var tupleKey = objectMapper.createObjectNode()
-                .put("user", user)
-                .put("relation", relation)
-                .put("object", object);
+        return sendRequest(request);
+    }
 
-        // Add condition if provided
-        if (conditionName != null && !conditionName.isBlank()) {
-            var condition = objectMapper.createObjectNode()
-                    .put("name", conditionName);
+    /**
+     * Read a single authorization model by id.
+     */
+    public JsonNode readAuthorizationModel(String storeId, String authorizationModelId) throws Exception {
+        HttpRequest request = createRequestBuilder("/stores/" + storeId + "/authorization-models/" + authorizationModelId)
+                .GET()
+                .build();
 
-            if (conditionContext != null && !conditionContext.isBlank()) {
-                JsonNode contextNode = objectMapper.readTree(conditionContext);
-                condition.set("context", contextNode);
-            }
+        JsonNode response = sendRequest(request);
+        return response.get("authorization_model");
+    }
 
-            tupleKey.set("condition", condition);
+    public void writeTuple(String storeId, String user, String relation, String object,
+                           String conditionName, String conditionContext,
+                           String authorizationModelId) throws Exception {
+        writeTuples(storeId, List.of(new TupleKey(user, relation, object, conditionName, conditionContext)),
+                authorizationModelId);
+    }
+
+    /**
+     * Write several tuples in a single request. OpenFGA applies the batch atomically,
+     * so either every tuple is written or none is.
+     */
+    public void writeTuples(String storeId, List<TupleKey> tuples, String authorizationModelId) throws Exception {
+        var writeKeys = objectMapper.createArrayNode();
+        for (TupleKey tuple : tuples) {
+            writeKeys.add(createTupleKeyNode(tuple));
         }
 
-        var write = objectMapper.createObjectNode();
-        var writes = objectMapper.createArrayNode();
-        writes.add(tupleKey);
-        write.set("tuple_keys", writes);
+        var writes = objectMapper.createObjectNode();
+        writes.set("tuple_keys", writeKeys);
 
         var body = objectMapper.createObjectNode();
-        body.set("writes", write);
+        body.set("writes", writes);
+        putAuthorizationModelId(body, authorizationModelId);
 
         HttpRequest request = createRequestBuilder("/stores/" + storeId + "/write")
                 .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
@@ -154,19 +245,29 @@ public class OpenFGAService {
         sendRequest(request);
     }
 
-    public void deleteTuple(String storeId, String user, String relation, String object) throws Exception {
-        var tupleKey = objectMapper.createObjectNode()
-                .put("user", user)
-                .put("relation", relation)
-                .put("object", object);
+    public void deleteTuple(String storeId, String user, String relation, String object,
+                            String authorizationModelId) throws Exception {
+        deleteTuples(storeId, List.of(new TupleKey(user, relation, object)), authorizationModelId);
+    }
 
-        var deletes = objectMapper.createObjectNode();
+    /**
+     * Delete several tuples in a single request. Like writes, the batch is atomic.
+     */
+    public void deleteTuples(String storeId, List<TupleKey> tuples, String authorizationModelId) throws Exception {
         var deleteKeys = objectMapper.createArrayNode();
-        deleteKeys.add(tupleKey);
+        for (TupleKey tuple : tuples) {
+            deleteKeys.add(objectMapper.createObjectNode()
+                    .put("user", tuple.getUser())
+                    .put("relation", tuple.getRelation())
+                    .put("object", tuple.getObject()));
+        }
+
+        var deletes = objectMapper.createObjectNode();
         deletes.set("tuple_keys", deleteKeys);
 
         var body = objectMapper.createObjectNode();
         body.set("deletes", deletes);
+        putAuthorizationModelId(body, authorizationModelId);
 
         HttpRequest request = createRequestBuilder("/stores/" + storeId + "/write")
                 .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
@@ -175,8 +276,48 @@ public class OpenFGAService {
         sendRequest(request);
     }
 
+    private ObjectNode createTupleKeyNode(TupleKey tuple) throws Exception {
+        var tupleKey = objectMapper.createObjectNode()
+                .put("user", tuple.getUser())
+                .put("relation", tuple.getRelation())
+                .put("object", tuple.getObject());
+
+        // Add condition if provided
+        String conditionName = tuple.getConditionName();
+        if (conditionName != null && !conditionName.isBlank()) {
+            var condition = objectMapper.createObjectNode()
+                    .put("name", conditionName);
+
+            String conditionContext = tuple.getConditionContext();
+            if (conditionContext != null && !conditionContext.isBlank()) {
+                JsonNode contextNode = objectMapper.readTree(conditionContext);
+                condition.set("context", contextNode);
+            }
+
+            tupleKey.set("condition", condition);
+        }
+
+        return tupleKey;
+    }
+
+    /**
+     * Pin the request to a specific model so the server does not resolve the latest one per call.
+     */
+    private void putAuthorizationModelId(ObjectNode body, String authorizationModelId) {
+        if (authorizationModelId != null && !authorizationModelId.isBlank()) {
+            body.put("authorization_model_id", authorizationModelId);
+        }
+    }
+
+    private void putConsistency(ObjectNode body, ConsistencyPreference consistency) {
+        if (consistency != null && consistency != ConsistencyPreference.UNSPECIFIED) {
+            body.put("consistency", consistency.name());
+        }
+    }
+
     public boolean check(String storeId, String user, String relation, String object,
-                         String contextJson) throws Exception {
+                         String contextJson, String authorizationModelId,
+                         ConsistencyPreference consistency) throws Exception {
 
         var tupleKey = objectMapper.createObjectNode()
                 .put("user", user)
@@ -185,6 +326,8 @@ public class OpenFGAService {
 
         var body = objectMapper.createObjectNode();
         body.set("tuple_key", tupleKey);
+        putAuthorizationModelId(body, authorizationModelId);
+        putConsistency(body, consistency);
 
         // Add context if provided
         if (contextJson != null && !contextJson.isBlank()) {
@@ -200,16 +343,66 @@ public class OpenFGAService {
         return response.get("allowed").asBoolean();
     }
 
+    /**
+     * Run several checks in one request. Keys of the returned map are the indexes of the
+     * tuples in the input list; a check that failed on the server has no entry.
+     * Needs an OpenFGA server with the batch-check endpoint (v1.8+), which accepts up to 50 checks.
+     */
+    public Map<Integer, Boolean> batchCheck(String storeId, List<TupleKey> tuples, String contextJson,
+                                            String authorizationModelId,
+                                            ConsistencyPreference consistency) throws Exception {
+        JsonNode contextNode = contextJson != null && !contextJson.isBlank()
+                ? objectMapper.readTree(contextJson)
+                : null;
+
+        var checks = objectMapper.createArrayNode();
+        for (int i = 0; i < tuples.size(); i++) {
+            TupleKey tuple = tuples.get(i);
+            var item = checks.addObject();
+            item.putObject("tuple_key")
+                    .put("user", tuple.getUser())
+                    .put("relation", tuple.getRelation())
+                    .put("object", tuple.getObject());
+            item.put("correlation_id", String.valueOf(i));
+            if (contextNode != null) {
+                item.set("context", contextNode);
+            }
+        }
+
+        var body = objectMapper.createObjectNode();
+        body.set("checks", checks);
+        putAuthorizationModelId(body, authorizationModelId);
+        putConsistency(body, consistency);
+
+        HttpRequest request = createRequestBuilder("/stores/" + storeId + "/batch-check")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+
+        JsonNode response = sendRequest(request);
+        Map<Integer, Boolean> results = new HashMap<>();
+        var fields = response.path("result").fields();
+        while (fields.hasNext()) {
+            var entry = fields.next();
+            if (entry.getValue().has("allowed")) {
+                results.put(Integer.parseInt(entry.getKey()), entry.getValue().get("allowed").asBoolean());
+            }
+        }
+        return results;
+    }
+
     /**
      * List all objects of a given type that a user has a specific relation with.
      * Example: "What documents can user:alice view?"
      */
     public List<String> listObjects(String storeId, String user, String relation, String type,
-                                     String contextJson) throws Exception {
+                                     String contextJson, String authorizationModelId,
+                                     ConsistencyPreference consistency) throws Exception {
         var body = objectMapper.createObjectNode()
                 .put("user", user)
                 .put("relation", relation)
                 .put("type", type);
+        putAuthorizationModelId(body, authorizationModelId);
+        putConsistency(body, consistency);
 
         // Add context if provided (needed for conditional tuples)
         if (contextJson != null && !contextJson.isBlank()) {
@@ -237,22 +430,30 @@ public class OpenFGAService {
     /**
      * List all users that have a specific relation with an object.
      * Example: "Who can view document:readme?"
+     * The user filter is a type ("user") or a userset type ("group#member").
      */
     public JsonNode listUsers(String storeId, String relation, String objectType, String objectId,
-                              String userFilterType, String contextJson) throws Exception {
+                              String userFilterType, String contextJson,
+                              String authorizationModelId, ConsistencyPreference consistency) throws Exception {
         var objectNode = objectMapper.createObjectNode()
                 .put("type", objectType)
                 .put("id", objectId);
 
-        var userFilter = objectMapper.createObjectNode()
-                .put("type", userFilterType);
+        var userFilter = objectMapper.createObjectNode();
+        int hash = userFilterType.indexOf('#');
+        if (hash > 0) {
+            userFilter.put("type", userFilterType.substring(0, hash));
+            userFilter.put("relation", userFilterType.substring(hash + 1));
+        } else {
+            userFilter.put("type", userFilterType);
+        }
 
         var body = objectMapper.createObjectNode();
         body.set("object", objectNode);
         body.put("relation", relation);
-        body.set("user_filters", objectMapper.createArrayNode().add(
-                objectMapper.createObjectNode().set("type", userFilter.get("type"))
-        ));
+        body.set("user_filters", objectMapper.createArrayNode().add(userFilter));
+        putAuthorizationModelId(body, authorizationModelId);
+        putConsistency(body, consistency);
 
         // Add context if provided (needed for conditional tuples)
         if (contextJson != null && !contextJson.isBlank()) {
@@ -267,17 +468,40 @@ public class OpenFGAService {
         return sendRequest(request);
     }
 
+    /**
+     * Flatten a list-users response into user strings: "user:anne", "group:eng#member" or "user:*".
+     */
+    public static List<String> toUserStrings(JsonNode listUsersResponse) {
+        List<String> users = new ArrayList<>();
+        for (JsonNode user : listUsersResponse.path("users")) {
+            if (user.has("object")) {
+                JsonNode object = user.get("object");
+                users.add(object.path("type").asText() + ":" + object.path("id").asText());
+            } else if (user.has("userset")) {
+                JsonNode userset = user.get("userset");
+                users.add(userset.path("type").asText() + ":" + userset.path("id").asText()
+                        + "#" + userset.path("relation").asText());
+            } else if (user.has("wildcard")) {
+                users.add(user.get("wildcard").path("type").asText() + ":*");
+            }
+        }
+        return users;
+    }
+
     /**
      * Expand a relation to see how permissions are computed.
      * Useful for debugging authorization decisions.
      */
-    public JsonNode expand(String storeId, String relation, String object) throws Exception {
+    public JsonNode expand(String storeId, String relation, String object,
+                           String authorizationModelId, ConsistencyPreference consistency) throws Exception {
         var tupleKey = objectMapper.createObjectNode()
                 .put("relation", relation)
                 .put("object", object);
 
         var body = objectMapper.createObjectNode();
         body.set("tuple_key", tupleKey);
+        putAuthorizationModelId(body, authorizationModelId);
+        putConsistency(body, consistency);
 
         HttpRequest request = createRequestBuilder("/stores/" + storeId + "/expand")
                 .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
@@ -289,7 +513,18 @@ public class OpenFGAService {
     /**
      * Read tuples from the store. All parameters are optional filters.
      */
-    public JsonNode readTuples(String storeId, String user, String relation, String object) throws Exception {
+    public JsonNode readTuples(String storeId, String user, String relation, String object,
+                               ConsistencyPreference consistency) throws Exception {
+        return readTuples(storeId, user, relation, object, consistency, 0, null);
+    }
+
+    /**
+     * Read one page of tuples. Pass the {@code continuation_token} of the previous response
+     * to get the next page; a page size of 0 uses the server default.
+     */
+    public JsonNode readTuples(String storeId, String user, String relation, String object,
+                               ConsistencyPreference consistency, int pageSize,
+                               String continuationToken) throws Exception {
         var tupleKey = objectMapper.createObjectNode();
 
         if (user != null && !user.isBlank()) {
@@ -306,6 +541,13 @@ public class OpenFGAService {
         if (tupleKey.size() > 0) {
             body.set("tuple_key", tupleKey);
         }
+        putConsistency(body, consistency);
+        if (pageSize > 0) {
+            body.put("page_size", pageSize);
+        }
+        if (continuationToken != null && !continuationToken.isBlank()) {
+            body.put("continuation_token", continuationToken);
+        }
 
         HttpRequest request = createRequestBuilder("/stores/" + storeId + "/read")
                 .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
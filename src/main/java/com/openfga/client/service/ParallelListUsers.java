@@ -0,0 +1,195 @@
+package com.openfga.client.service;
+
+import com.openfga.client.model.ConsistencyPreference;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs one list-users call per (relation, user filter) pair concurrently, up to a fixed number
+ * in flight, and merges the results, so "who can access this object" across several user types
+ * takes one round.
+ */
+public class ParallelListUsers {
+
+    private final OpenFGAService service;
+    private final String storeId;
+    private final String authorizationModelId;
+    private final ConsistencyPreference consistency;
+    private final int maxParallel;
+
+    public ParallelListUsers(OpenFGAService service, String storeId, String authorizationModelId,
+                             ConsistencyPreference consistency, int maxParallel) {
+        this.service = service;
+        this.storeId = storeId;
+        this.authorizationModelId = authorizationModelId;
+        this.consistency = consistency;
+        this.maxParallel = maxParallel;
+    }
+
+    public Result run(String objectType, String objectId, List<String> relations, List<String> userFilters,
+                      String contextJson) throws InterruptedException {
+        return run(List.of(objectType + ":" + objectId), relations, userFilters, contextJson);
+    }
+
+    /**
+     * Same as {@link #run(String, String, List, List, String)}, fanned out over several objects
+     * ({@code type:id}) as well. Nothing is sent if any object is not in that format.
+     */
+    public Result run(List<String> objects, List<String> relations, List<String> userFilters, String contextJson)
+            throws InterruptedException {
+        List<String> invalid = invalidObjects(objects);
+        if (!invalid.isEmpty()) {
+            throw new IllegalArgumentException("Objects must be in format type:id: " + String.join(", ", invalid));
+        }
+
+        long startTime = System.currentTimeMillis();
+        List<CompletableFuture<Query>> futures = new ArrayList<>();
+        Semaphore permits = new Semaphore(maxParallel);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String object : objects) {
+                String[] parts = object.split(":", 2);
+                for (String relation : relations) {
+                    for (String filter : userFilters) {
+                        try {
+                            permits.acquire();
+                        } catch (InterruptedException e) {
+                            // Interrupted from outside: stop dispatching and abort the calls in flight
+                            executor.shutdownNow();
+                            throw e;
+                        }
+                        futures.add(CompletableFuture.supplyAsync(() -> {
+                            long queryStart = System.nanoTime();
+                            try {
+                                var response = service.listUsers(storeId, relation, parts[0], parts[1], filter,
+                                        contextJson, authorizationModelId, consistency);
+                                return new Query(object, relation, filter, OpenFGAService.toUserStrings(response),
+                                        null, (System.nanoTime() - queryStart) / 1_000_000);
+                            } catch (Exception e) {
+                                return new Query(object, relation, filter, List.of(), e.getMessage(),
+                                        (System.nanoTime() - queryStart) / 1_000_000);
+                            } finally {
+                                permits.release();
+                            }
+                        }, executor));
+                    }
+                }
+            }
+        }
+
+        List<Query> queries = futures.stream().map(CompletableFuture::join).toList();
+        return new Result(queries, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * The entries of {@code objects} that are not {@code type:id} with both parts non-empty.
+     */
+    public static List<String> invalidObjects(List<String> objects) {
+        List<String> invalid = new ArrayList<>();
+        for (String object : objects) {
+            int colon = object.indexOf(':');
+            if (colon <= 0 || colon == object.length() - 1) invalid.add(object);
+        }
+        return invalid;
+    }
+
+    /**
+     * Outcome of a single list-users call.
+     */
+    public static class Query {
+        private final String object;
+        private final String relation;
+        private final String userFilter;
+        private final List<String> users;
+        private final String error;
+        private final long durationMillis;
+
+        private Query(String object, String relation, String userFilter, List<String> users, String error,
+                      long durationMillis) {
+            this.object = object;
+            this.relation = relation;
+            this.userFilter = userFilter;
+            this.users = users;
+            this.error = error;
+            this.durationMillis = durationMillis;
+        }
+
+        public String getObject() {
+            return object;
+        }
+
+        public String getRelation() {
+            return relation;
+        }
+
+        public String getUserFilter() {
+            return userFilter;
+        }
+
+        public List<String> getUsers() {
+            return users;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+    }
+
+    /**
+     * All queries of a run, plus the merged and de-duplicated users.
+     */
+    public static class Result {
+        private final List<Query> queries;
+        private final long durationMillis;
+
+        private Result(List<Query> queries, long durationMillis) {
+            this.queries = queries;
+            this.durationMillis = durationMillis;
+        }
+
+        public List<Query> getQueries() {
+            return queries;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        /**
+         * Every distinct user, sorted, across all successful queries.
+         */
+        public Set<String> getMergedUsers() {
+            Set<String> merged = new TreeSet<>();
+            for (Query query : queries) {
+                merged.addAll(query.getUsers());
+            }
+            return merged;
+        }
+
+        /**
+         * For each distinct user, the relations through which it was found.
+         */
+        public Map<String, Set<String>> getRelationsByUser() {
+            Map<String, Set<String>> byUser = new TreeMap<>();
+            for (Query query : queries) {
+                for (String user : query.getUsers()) {
+                    byUser.computeIfAbsent(user, k -> new TreeSet<>()).add(query.getRelation());
+                }
+            }
+            return byUser;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.openfga.client.service;
+
+import com.openfga.client.model.ConsistencyPreference;
+import com.openfga.client.model.TupleKey;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A users-by-columns grid of check results, where columns are either objects (for one
+ * relation) or relations (for one object).
+ *
+ * Cells are checked in batches through the batch-check endpoint, with several batches in
+ * flight at once. Results are written straight into a shared state array, so a view can
+ * poll it and repaint only what is visible instead of receiving one event per cell.
+ * Servers without batch-check fall back to one check request per cell.
+ */
+public class PermissionMatrix {
+
+    public static final byte PENDING = 0;
+    public static final byte ALLOWED = 1;
+    public static final byte DENIED = 2;
+    public static final byte ERROR = 3;
+
+    private static final int BATCH_SIZE = 50;
+
+    private final List<String> users;
+    private final List<String> columns;
+    private final boolean columnsAreRelations;
+    private final String fixed;
+    private final byte[] states;
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    /**
+     * @param columnsAreRelations true for a users-by-relations grid of the object {@code fixed};
+     *                            false for a users-by-objects grid of the relation {@code fixed}
+     */
+    public PermissionMatrix(List<String> users, List<String> columns, boolean columnsAreRelations, String fixed) {
+        this.users = List.copyOf(users);
+        this.columns = List.copyOf(columns);
+        this.columnsAreRelations = columnsAreRelations;
+        this.fixed = fixed;
+        this.states = new byte[users.size() * columns.size()];
+    }
+
+    public List<String> getUsers() {
+        return users;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public int getCellCount() {
+        return states.length;
+    }
+
+    public int getCompletedCount() {
+        return completed.get();
+    }
+
+    public byte getState(int row, int column) {
+        return states[row * columns.size() + column];
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * Stop dispatching new batches. Batches already in flight still complete; interrupt the
+     * thread calling {@link #run} to abort them as well.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    /**
+     * Check every cell, blocking until all batches are done or the run is cancelled.
+     */
+    public void run(OpenFGAService service, String storeId, String contextJson, String authorizationModelId,
+                    ConsistencyPreference consistency, int maxParallel) throws InterruptedException {
+        Semaphore permits = new Semaphore(maxParallel);
+        AtomicBoolean batchSupported = new AtomicBoolean(true);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int start = 0; start < states.length && !cancelled.get(); start += BATCH_SIZE) {
+                int from = start;
+                int to = Math.min(start + BATCH_SIZE, states.length);
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    // Interrupted from outside: stop dispatching and abort the batches in flight
+                    cancelled.set(true);
+                    executor.shutdownNow();
+                    throw e;
+                }
+                executor.submit(() -> {
+                    try {
+                        checkCells(service, storeId, contextJson, authorizationModelId, consistency,
+                                from, to, batchSupported);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private void checkCells(OpenFGAService service, String storeId, String contextJson, String authorizationModelId,
+                            ConsistencyPreference consistency, int from, int to, AtomicBoolean batchSupported) {
+        if (cancelled.get()) return;
+
+        List<TupleKey> tuples = new ArrayList<>(to - from);
+        for (int cell = from; cell < to; cell++) {
+            tuples.add(tupleFor(cell));
+        }
+
+        if (batchSupported.get()) {
+            try {
+                Map<Integer, Boolean> results = service.batchCheck(storeId, tuples, contextJson,
+                        authorizationModelId, consistency);
+                for (int i = 0; i < tuples.size(); i++) {
+                    Boolean allowed = results.get(i);
+                    setState(from + i, allowed == null ? ERROR : allowed ? ALLOWED : DENIED);
+                }
+                return;
+            } catch (Exception e) {
+                if (!isBatchCheckUnsupported(e)) {
+                    for (int cell = from; cell < to; cell++) setState(cell, ERROR);
+                    return;
+                }
+                batchSupported.set(false);
+            }
+        }
+
+        for (int i = 0; i < tuples.size() && !cancelled.get(); i++) {
+            TupleKey tuple = tuples.get(i);
+            try {
+                boolean allowed = service.check(storeId, tuple.getUser(), tuple.getRelation(), tuple.getObject(),
+                        contextJson, authorizationModelId, consistency);
+                setState(from + i, allowed ? ALLOWED : DENIED);
+            } catch (Exception e) {
+                setState(from + i, ERROR);
+            }
+        }
+    }
+
+    private boolean isBatchCheckUnsupported(Exception e) {
+        String message = e.getMessage();
+        return message != null && (message.startsWith("HTTP 404") || message.startsWith("HTTP 501")
+                || message.startsWith("HTTP 405"));
+    }
+
+    private TupleKey tupleFor(int cell) {
+        String user = users.get(cell / columns.size());
+        String column = columns.get(cell % columns.size());
+        return columnsAreRelations
+                ? new TupleKey(user, column, fixed)
+                : new TupleKey(user, fixed, column);
+    }
+
+    private void setState(int cell, byte state) {
+        states[cell] = state;
+        completed.incrementAndGet();
+    }
+
+    /**
+     * Write the grid as CSV: a header row of columns, then one row per user.
+     */
+    public void writeCsv(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(csv(columnsAreRelations ? "user \\ relation on " + fixed : "user \\ " + fixed));
+            for (String column : columns) {
+                writer.write(',');
+                writer.write(csv(column));
+            }
+            writer.newLine();
+
+            for (int row = 0; row < users.size(); row++) {
+                writer.write(csv(users.get(row)));
+                for (int column = 0; column < columns.size(); column++) {
+                    writer.write(',');
+                    writer.write(stateLabel(getState(row, column)));
+                }
+                writer.newLine();
+            }
+        }
+    }
+
+    public static String stateLabel(byte state) {
+        return switch (state) {
+            case ALLOWED -> "allowed";
+            case DENIED -> "denied";
+            case ERROR -> "error";
+            default -> "";
+        };
+    }
+
+    private static String csv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
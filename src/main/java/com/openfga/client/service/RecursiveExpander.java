@@ -0,0 +1,220 @@
+package com.openfga.client.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.openfga.client.model.ConsistencyPreference;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Follows an Expand tree through every userset it references (computed usersets,
+ * tuple-to-userset targets and usersets granted directly, like {@code group:eng#member}).
+ *
+ * Each (object, relation) pair is expanded at most once. Sub-expands run in parallel,
+ * bounded by {@code maxParallel} in-flight requests, and stop at {@code maxDepth}.
+ * Cycles need no special handling here: a userset that is already known is never fetched
+ * again, and {@link Result} keeps expansions by key so the caller can detect cycles when
+ * walking the graph.
+ */
+public class RecursiveExpander {
+
+    private final OpenFGAService service;
+    private final String storeId;
+    private final String authorizationModelId;
+    private final ConsistencyPreference consistency;
+    private final int maxDepth;
+    private final int maxParallel;
+
+    public RecursiveExpander(OpenFGAService service, String storeId, String authorizationModelId,
+                             ConsistencyPreference consistency, int maxDepth, int maxParallel) {
+        this.service = service;
+        this.storeId = storeId;
+        this.authorizationModelId = authorizationModelId;
+        this.consistency = consistency;
+        this.maxDepth = maxDepth;
+        this.maxParallel = maxParallel;
+    }
+
+    /**
+     * Expand {@code object#relation} and everything it references, blocking until done.
+     */
+    public Result expand(String object, String relation) throws InterruptedException {
+        long startTime = System.currentTimeMillis();
+        String rootKey = object + "#" + relation;
+
+        Run run = new Run();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            run.executor = executor;
+            run.schedule(rootKey, 0);
+            try {
+                run.pending.awaitAdvanceInterruptibly(run.pending.arrive());
+            } catch (InterruptedException e) {
+                // Cancelled: abort the sub-expands still in flight
+                executor.shutdownNow();
+                throw e;
+            }
+        }
+
+        // Decided only once every task has finished: a key first reached past the depth limit may
+        // still be scheduled through a shorter path by another thread
+        Set<String> truncated = new HashSet<>(run.tooDeep);
+        truncated.removeAll(run.scheduled);
+        return new Result(rootKey, run.trees, run.errors, truncated, run.requests.get(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * State of one recursive expansion.
+     */
+    private class Run {
+        final Map<String, JsonNode> trees = new ConcurrentHashMap<>();
+        final Map<String, String> errors = new ConcurrentHashMap<>();
+        final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+        final Set<String> tooDeep = ConcurrentHashMap.newKeySet();
+        final AtomicInteger requests = new AtomicInteger();
+        final Semaphore permits = new Semaphore(maxParallel);
+        final Phaser pending = new Phaser(1);
+        ExecutorService executor;
+
+        void schedule(String key, int depth) {
+            if (depth > maxDepth) {
+                tooDeep.add(key);
+                return;
+            }
+            if (!scheduled.add(key)) return;
+
+            pending.register();
+            executor.submit(() -> {
+                try {
+                    JsonNode root = fetch(key);
+                    trees.put(key, root);
+                    for (String child : referencedUsersets(root)) {
+                        schedule(child, depth + 1);
+                    }
+                } catch (Exception e) {
+                    errors.put(key, e.getMessage() != null ? e.getMessage() : e.toString());
+                } finally {
+                    pending.arriveAndDeregister();
+                }
+            });
+        }
+
+        JsonNode fetch(String key) throws Exception {
+            permits.acquire();
+            try {
+                requests.incrementAndGet();
+                int split = key.lastIndexOf('#');
+                JsonNode response = service.expand(storeId, key.substring(split + 1), key.substring(0, split),
+                        authorizationModelId, consistency);
+                return response.path("tree").path("root");
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Usersets ({@code object#relation}) a single expand node points at.
+     */
+    public static List<String> referencedUsersets(JsonNode node) {
+        List<String> usersets = new ArrayList<>();
+        collectUsersets(node, usersets);
+        return usersets;
+    }
+
+    private static void collectUsersets(JsonNode node, List<String> out) {
+        if (node == null || node.isMissingNode()) return;
+
+        for (String operator : new String[]{"union", "intersection"}) {
+            for (JsonNode child : node.path(operator).path("nodes")) {
+                collectUsersets(child, out);
+            }
+        }
+        JsonNode difference = node.path("difference");
+        collectUsersets(difference.get("base"), out);
+        collectUsersets(difference.get("subtract"), out);
+
+        JsonNode leaf = node.path("leaf");
+        for (JsonNode user : leaf.path("users").path("users")) {
+            if (isUserset(user.asText())) out.add(user.asText());
+        }
+        String computed = leaf.path("computed").path("userset").asText();
+        if (isUserset(computed)) out.add(computed);
+        for (JsonNode target : leaf.path("tupleToUserset").path("computed")) {
+            String userset = target.path("userset").asText();
+            if (isUserset(userset)) out.add(userset);
+        }
+    }
+
+    /**
+     * True for {@code type:id#relation}; plain users and type wildcards are terminal.
+     */
+    public static boolean isUserset(String value) {
+        int hash = value.lastIndexOf('#');
+        return hash > 0 && hash < value.length() - 1 && value.indexOf(':') > 0 && !value.contains(":*");
+    }
+
+    /**
+     * Every expansion reached from the root, keyed by {@code object#relation}.
+     */
+    public static class Result {
+        private final String rootKey;
+        private final Map<String, JsonNode> trees;
+        private final Map<String, String> errors;
+        private final Set<String> truncated;
+        private final int requestCount;
+        private final long durationMillis;
+
+        private Result(String rootKey, Map<String, JsonNode> trees, Map<String, String> errors,
+                       Set<String> truncated, int requestCount, long durationMillis) {
+            this.rootKey = rootKey;
+            this.trees = Collections.unmodifiableMap(trees);
+            this.errors = Collections.unmodifiableMap(errors);
+            this.truncated = Collections.unmodifiableSet(truncated);
+            this.requestCount = requestCount;
+            this.durationMillis = durationMillis;
+        }
+
+        public String getRootKey() {
+            return rootKey;
+        }
+
+        public JsonNode getTree(String key) {
+            return trees.get(key);
+        }
+
+        public String getError(String key) {
+            return errors.get(key);
+        }
+
+        public boolean isTruncated(String key) {
+            return truncated.contains(key);
+        }
+
+        public int getExpandedCount() {
+            return trees.size();
+        }
+
+        public int getErrorCount() {
+            return errors.size();
+        }
+
+        public int getRequestCount() {
+            return requestCount;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.openfga.client.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counters for a single {@link OpenFGAService}. Safe to update from any thread.
+ */
+public class ServiceMetrics {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos, boolean error) {
+        requests.increment();
+        if (error) {
+            errors.increment();
+        }
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    public double getAverageMillis() {
+        long count = requests.sum();
+        return count == 0 ? 0 : totalNanos.sum() / (double) count / 1_000_000.0;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d req, %d err, avg %.1f ms, max %.1f ms",
+                getRequestCount(), getErrorCount(), getAverageMillis(), getMaxMillis());
+    }
+}
@@ -0,0 +1,414 @@
+package com.openfga.client.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.openfga.client.model.TupleKey;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Append-only on-disk journal for bulk tuple write/delete jobs.
+ *
+ * Each job is recorded as a header, the tuples of every batch, one acknowledgement per
+ * batch the server accepted, and a final completion marker. Records are JSON lines.
+ * Batch records are forced to disk before the first request is sent; acknowledgements
+ * are forced in groups, so a crash can lose at most a few acks and the matching batches
+ * are simply re-sent on resume.
+ */
+public class WriteJournal implements AutoCloseable {
+
+    public static final String OP_WRITE = "write";
+    public static final String OP_DELETE = "delete";
+
+    private static final String JOURNAL_FILE = "tuple-jobs.journal";
+    private static final int SYNC_GROUP_SIZE = 16;
+    private static final long SYNC_INTERVAL_MS = 200;
+
+    private final Path journalFile;
+    private final FileChannel channel;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Job> unfinishedJobs;
+
+    private int unsyncedRecords = 0;
+    private long lastSyncMillis = System.currentTimeMillis();
+
+    private WriteJournal(Path journalFile, FileChannel channel, Map<String, Job> unfinishedJobs) {
+        this.journalFile = journalFile;
+        this.channel = channel;
+        this.unfinishedJobs = unfinishedJobs;
+    }
+
+    /**
+     * Default journal location under the user's home directory.
+     */
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("user.home"), ".openfga-client", "journal");
+    }
+
+    /**
+     * Open (or create) the journal in the given directory. Existing records are replayed
+     * to find unfinished jobs, and the file is compacted so finished jobs are dropped.
+     */
+    public static WriteJournal open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path journalFile = directory.resolve(JOURNAL_FILE);
+        ObjectMapper mapper = new ObjectMapper();
+
+        Map<String, Job> jobs = Files.exists(journalFile)
+                ? replay(journalFile, mapper)
+                : new LinkedHashMap<>();
+
+        compact(journalFile, jobs, mapper);
+
+        FileChannel channel = FileChannel.open(journalFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new WriteJournal(journalFile, channel, jobs);
+    }
+
+    /**
+     * A journal that keeps jobs in memory only. Used when the journal directory cannot be opened,
+     * so bulk operations still run, just without crash recovery.
+     */
+    public static WriteJournal inMemory() {
+        return new WriteJournal(null, null, new LinkedHashMap<>());
+    }
+
+    public boolean isPersistent() {
+        return channel != null;
+    }
+
+    public Path getJournalFile() {
+        return journalFile;
+    }
+
+    /**
+     * Jobs found in the journal on open that never reached completion.
+     */
+    public synchronized List<Job> getUnfinishedJobs() {
+        return new ArrayList<>(unfinishedJobs.values());
+    }
+
+    /**
+     * Record a new job. All batches are journaled and synced before this returns,
+     * so a job is never sent to the server before it can be recovered.
+     */
+    public synchronized Job begin(String storeId, String apiUrl, String authorizationModelId, String operation,
+                                  List<TupleKey> tuples, int batchSize) throws IOException {
+        List<List<TupleKey>> batches = new ArrayList<>();
+        for (int i = 0; i < tuples.size(); i += batchSize) {
+            batches.add(List.copyOf(tuples.subList(i, Math.min(i + batchSize, tuples.size()))));
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), storeId, apiUrl, authorizationModelId,
+                operation, batches, 0, false);
+        writeJobRecords(job);
+        sync();
+        unfinishedJobs.put(job.getId(), job);
+        return job;
+    }
+
+    /**
+     * Record that the server accepted batch {@code seq} of the job.
+     */
+    public synchronized void acknowledge(Job job, int seq) throws IOException {
+        ObjectNode record = objectMapper.createObjectNode()
+                .put("t", "ack")
+                .put("job", job.getId())
+                .put("seq", seq);
+        append(record);
+        job.ackedBatches = Math.max(job.ackedBatches, seq + 1);
+        syncIfDue();
+    }
+
+    /**
+     * Mark the job finished. It will not be resumed again.
+     */
+    public synchronized void complete(Job job) throws IOException {
+        finish(job, "done");
+    }
+
+    /**
+     * Drop an unfinished job without running its remaining batches.
+     */
+    public synchronized void abandon(Job job) throws IOException {
+        finish(job, "abandoned");
+    }
+
+    private void finish(Job job, String marker) throws IOException {
+        append(objectMapper.createObjectNode()
+                .put("t", marker)
+                .put("job", job.getId()));
+        sync();
+        unfinishedJobs.remove(job.getId());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            sync();
+            channel.close();
+        }
+    }
+
+    private void writeJobRecords(Job job) throws IOException {
+        append(objectMapper.createObjectNode()
+                .put("t", "job")
+                .put("id", job.getId())
+                .put("store", job.getStoreId())
+                .put("url", job.getApiUrl())
+                .put("model", job.getAuthorizationModelId())
+                .put("op", job.getOperation())
+                .put("batches", job.getBatchCount()));
+
+        for (int seq = 0; seq < job.getBatchCount(); seq++) {
+            ObjectNode record = objectMapper.createObjectNode()
+                    .put("t", "batch")
+                    .put("job", job.getId())
+                    .put("seq", seq);
+            record.set("tuples", toJson(objectMapper, job.getBatch(seq)));
+            append(record);
+        }
+    }
+
+    private void append(ObjectNode record) throws IOException {
+        if (channel == null) {
+            return;
+        }
+        byte[] bytes = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        unsyncedRecords++;
+    }
+
+    private void syncIfDue() throws IOException {
+        if (unsyncedRecords >= SYNC_GROUP_SIZE
+                || System.currentTimeMillis() - lastSyncMillis >= SYNC_INTERVAL_MS) {
+            sync();
+        }
+    }
+
+    private void sync() throws IOException {
+        if (channel == null || unsyncedRecords == 0) {
+            return;
+        }
+        channel.force(false);
+        unsyncedRecords = 0;
+        lastSyncMillis = System.currentTimeMillis();
+    }
+
+    private static Map<String, Job> replay(Path journalFile, ObjectMapper mapper) throws IOException {
+        Map<String, Job> jobs = new LinkedHashMap<>();
+        Map<String, JsonNode> headers = new LinkedHashMap<>();
+        Map<String, Map<Integer, List<TupleKey>>> batches = new LinkedHashMap<>();
+        Map<String, Integer> acks = new LinkedHashMap<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+
+                JsonNode record;
+                try {
+                    record = mapper.readTree(line);
+                } catch (IOException e) {
+                    // Torn write from a crash; nothing after it can be trusted
+                    break;
+                }
+
+                String type = record.path("t").asText();
+                switch (type) {
+                    case "job" -> headers.put(record.path("id").asText(), record);
+                    case "batch" -> batches
+                            .computeIfAbsent(record.path("job").asText(), k -> new LinkedHashMap<>())
+                            .put(record.path("seq").asInt(), fromJson(record.path("tuples")));
+                    case "ack" -> acks.merge(record.path("job").asText(), record.path("seq").asInt() + 1, Math::max);
+                    case "done", "abandoned" -> {
+                        String id = record.path("job").asText();
+                        headers.remove(id);
+                        batches.remove(id);
+                        acks.remove(id);
+                    }
+                    default -> { }
+                }
+            }
+        }
+
+        for (Map.Entry<String, JsonNode> entry : headers.entrySet()) {
+            String id = entry.getKey();
+            JsonNode header = entry.getValue();
+            int batchCount = header.path("batches").asInt();
+            Map<Integer, List<TupleKey>> jobBatches = batches.getOrDefault(id, Collections.emptyMap());
+
+            // A job whose batch records were cut off never got its first request out
+            if (jobBatches.size() != batchCount) continue;
+
+            List<List<TupleKey>> ordered = new ArrayList<>();
+            for (int seq = 0; seq < batchCount; seq++) {
+                ordered.add(jobBatches.get(seq));
+            }
+
+            jobs.put(id, new Job(id,
+                    header.path("store").asText(),
+                    header.path("url").asText(),
+                    textOrNull(header, "model"),
+                    header.path("op").asText(),
+                    ordered,
+                    acks.getOrDefault(id, 0),
+                    true));
+        }
+
+        return jobs;
+    }
+
+    private static void compact(Path journalFile, Map<String, Job> jobs, ObjectMapper mapper) throws IOException {
+        Path tempFile = journalFile.resolveSibling(JOURNAL_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(tempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            WriteJournal writer = new WriteJournal(tempFile, out, jobs);
+            for (Job job : jobs.values()) {
+                writer.writeJobRecords(job);
+                if (job.getAckedBatches() > 0) {
+                    writer.append(mapper.createObjectNode()
+                            .put("t", "ack")
+                            .put("job", job.getId())
+                            .put("seq", job.getAckedBatches() - 1));
+                }
+            }
+            out.force(true);
+        }
+        Files.move(tempFile, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static ArrayNode toJson(ObjectMapper mapper, List<TupleKey> tuples) {
+        ArrayNode array = mapper.createArrayNode();
+        for (TupleKey tuple : tuples) {
+            ObjectNode node = array.addObject()
+                    .put("user", tuple.getUser())
+                    .put("relation", tuple.getRelation())
+                    .put("object", tuple.getObject());
+            if (tuple.getConditionName() != null && !tuple.getConditionName().isBlank()) {
+                node.put("condition", tuple.getConditionName());
+            }
+            if (tuple.getConditionContext() != null && !tuple.getConditionContext().isBlank()) {
+                node.put("context", tuple.getConditionContext());
+            }
+        }
+        return array;
+    }
+
+    private static List<TupleKey> fromJson(JsonNode array) {
+        List<TupleKey> tuples = new ArrayList<>();
+        for (JsonNode node : array) {
+            tuples.add(new TupleKey(
+                    node.path("user").asText(),
+                    node.path("relation").asText(),
+                    node.path("object").asText(),
+                    textOrNull(node, "condition"),
+                    textOrNull(node, "context")));
+        }
+        return tuples;
+    }
+
+    private static String textOrNull(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+
+    /**
+     * A bulk tuple job split into batches, with the number of leading batches already
+     * acknowledged by the server.
+     */
+    public static class Job {
+        private final String id;
+        private final String storeId;
+        private final String apiUrl;
+        private final String authorizationModelId;
+        private final String operation;
+        private final List<List<TupleKey>> batches;
+        private final boolean recovered;
+        private volatile int ackedBatches;
+
+        private Job(String id, String storeId, String apiUrl, String authorizationModelId, String operation,
+                    List<List<TupleKey>> batches, int ackedBatches, boolean recovered) {
+            this.id = id;
+            this.storeId = storeId;
+            this.apiUrl = apiUrl;
+            this.authorizationModelId = authorizationModelId;
+            this.operation = operation;
+            this.batches = batches;
+            this.ackedBatches = ackedBatches;
+            this.recovered = recovered;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getStoreId() {
+            return storeId;
+        }
+
+        public String getApiUrl() {
+            return apiUrl;
+        }
+
+        public String getAuthorizationModelId() {
+            return authorizationModelId;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public int getBatchCount() {
+            return batches.size();
+        }
+
+        public List<TupleKey> getBatch(int seq) {
+            return batches.get(seq);
+        }
+
+        public int getTupleCount() {
+            int count = 0;
+            for (List<TupleKey> batch : batches) {
+                count += batch.size();
+            }
+            return count;
+        }
+
+        public int getAckedBatches() {
+            return ackedBatches;
+        }
+
+        /**
+         * True if the job was loaded from the journal after a restart. Batches past the last
+         * synced ack may already have been applied before the crash.
+         */
+        public boolean isRecovered() {
+            return recovered;
+        }
+
+        @Override
+        public String toString() {
+            return operation + " of " + getTupleCount() + " tuple(s) on store " + storeId
+                    + " (" + ackedBatches + "/" + batches.size() + " batches done)";
+        }
+    }
+}
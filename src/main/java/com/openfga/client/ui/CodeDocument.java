@@ -0,0 +1,221 @@
+package com.openfga.client.ui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Text of a {@link CodeEditor}, stored as a list of lines.
+ *
+ * An edit only splices the lines it touches. The start offset of each line is kept in a
+ * table that an edit invalidates from its first line onwards; offsets are recomputed lazily
+ * and only as far as a query needs, so typing near the top of a large model does not walk
+ * the rest of it. The full text is built only when asked for and then kept until the next
+ * edit.
+ */
+public class CodeDocument {
+
+    /**
+     * One edit: {@code removedText} at {@code offset} was replaced by {@code insertedText}.
+     * Lines {@code startLine .. startLine + removedLines - 1} of the old text became lines
+     * {@code startLine .. startLine + insertedLines - 1} of the new one.
+     */
+    public static class Change {
+        private final int offset;
+        private final String removedText;
+        private final String insertedText;
+        private final int startLine;
+        private final int removedLines;
+        private final int insertedLines;
+
+        Change(int offset, String removedText, String insertedText, int startLine, int removedLines, int insertedLines) {
+            this.offset = offset;
+            this.removedText = removedText;
+            this.insertedText = insertedText;
+            this.startLine = startLine;
+            this.removedLines = removedLines;
+            this.insertedLines = insertedLines;
+        }
+
+        public int getOffset() {
+            return offset;
+        }
+
+        public int getRemovedLength() {
+            return removedText.length();
+        }
+
+        public String getRemovedText() {
+            return removedText;
+        }
+
+        public String getInsertedText() {
+            return insertedText;
+        }
+
+        /**
+         * First changed line, 0-based.
+         */
+        public int getStartLine() {
+            return startLine;
+        }
+
+        public int getRemovedLines() {
+            return removedLines;
+        }
+
+        public int getInsertedLines() {
+            return insertedLines;
+        }
+    }
+
+    private final List<String> lines = new ArrayList<>();
+    private final List<Consumer<Change>> listeners = new ArrayList<>();
+    private int[] lineStarts = new int[16];
+    // lineStarts[i] is up to date for every i < validStarts
+    private int validStarts = 1;
+    private int length;
+    private String text;
+    private long version;
+
+    public CodeDocument() {
+        lines.add("");
+    }
+
+    public int getLineCount() {
+        return lines.size();
+    }
+
+    public String getLine(int line) {
+        return lines.get(line);
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Incremented by every edit; lets background work tell whether its input is stale.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public String getText() {
+        if (text == null) {
+            StringBuilder out = new StringBuilder(length);
+            for (int i = 0; i < lines.size(); i++) {
+                if (i > 0) out.append('\n');
+                out.append(lines.get(i));
+            }
+            text = out.toString();
+        }
+        return text;
+    }
+
+    public String getText(int start, int end) {
+        if (text != null) return text.substring(start, end);
+        int line = lineOfOffset(start);
+        int endLine = lineOfOffset(end);
+        int column = start - lineStart(line);
+        int endColumn = end - lineStart(endLine);
+        if (line == endLine) return lines.get(line).substring(column, endColumn);
+
+        StringBuilder out = new StringBuilder(end - start);
+        out.append(lines.get(line), column, lines.get(line).length());
+        for (int i = line + 1; i < endLine; i++) {
+            out.append('\n').append(lines.get(i));
+        }
+        out.append('\n').append(lines.get(endLine), 0, endColumn);
+        return out.toString();
+    }
+
+    public void setText(String newText) {
+        replace(0, length, newText);
+    }
+
+    /**
+     * Offset of the first character of {@code line}.
+     */
+    public int lineStart(int line) {
+        ensureStarts(line);
+        return lineStarts[line];
+    }
+
+    /**
+     * The line containing {@code offset}; an offset on a line break belongs to the line it ends.
+     */
+    public int lineOfOffset(int offset) {
+        // Extend the valid prefix just past the offset, then search it
+        while (validStarts < lines.size() && lineStarts[validStarts - 1] <= offset) {
+            ensureStarts(Math.min(lines.size() - 1, validStarts * 2));
+        }
+        int index = Arrays.binarySearch(lineStarts, 0, validStarts, offset);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    public int offsetOf(int line, int column) {
+        return lineStart(line) + column;
+    }
+
+    /**
+     * Replace {@code start .. end} with {@code insert}. Carriage returns are dropped.
+     */
+    public void replace(int start, int end, String insert) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("range " + start + ".." + end + " outside 0.." + length);
+        }
+        insert = insert.replace("\r", "");
+        if (start == end && insert.isEmpty()) return;
+
+        String removed = getText(start, end);
+        int startLine = lineOfOffset(start);
+        int endLine = lineOfOffset(end);
+        String first = lines.get(startLine);
+        String last = lines.get(endLine);
+        String prefix = first.substring(0, start - lineStart(startLine));
+        String suffix = last.substring(end - lineStart(endLine));
+
+        String[] inserted = (prefix + insert + suffix).split("\n", -1);
+        int removedLines = endLine - startLine + 1;
+        // Reuse the existing slots, then add or remove only the difference
+        int common = Math.min(removedLines, inserted.length);
+        for (int i = 0; i < common; i++) {
+            lines.set(startLine + i, inserted[i]);
+        }
+        if (inserted.length > removedLines) {
+            lines.addAll(startLine + common, Arrays.asList(inserted).subList(common, inserted.length));
+        } else if (inserted.length < removedLines) {
+            lines.subList(startLine + common, endLine + 1).clear();
+        }
+
+        length += insert.length() - (end - start);
+        validStarts = Math.min(validStarts, startLine + 1);
+        if (lineStarts.length < lines.size()) {
+            lineStarts = Arrays.copyOf(lineStarts, Math.max(lines.size(), lineStarts.length * 2));
+        }
+        text = null;
+        version++;
+
+        Change change = new Change(start, removed, insert, startLine, removedLines, inserted.length);
+        for (Consumer<Change> listener : List.copyOf(listeners)) {
+            listener.accept(change);
+        }
+    }
+
+    public void addListener(Consumer<Change> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<Change> listener) {
+        listeners.remove(listener);
+    }
+
+    private void ensureStarts(int line) {
+        for (int i = validStarts; i <= line; i++) {
+            lineStarts[i] = lineStarts[i - 1] + lines.get(i - 1).length() + 1;
+        }
+        validStarts = Math.max(validStarts, line + 1);
+    }
+}
@@ -0,0 +1,1285 @@
+package com.openfga.client.ui;
+
+import com.openfga.client.dsl.Diagnostic;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.geometry.Orientation;
+import javafx.geometry.Point2D;
+import javafx.geometry.VPos;
+import javafx.scene.AccessibleAction;
+import javafx.scene.AccessibleAttribute;
+import javafx.scene.AccessibleRole;
+import javafx.scene.Cursor;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.SeparatorMenuItem;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.InputMethodEvent;
+import javafx.scene.input.InputMethodRequests;
+import javafx.scene.input.InputMethodTextRun;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.util.Duration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Plain-text code editor that draws only the lines in view.
+ *
+ * The text lives in a {@link CodeDocument}; the editor itself holds one canvas the size of
+ * its viewport and repaints the visible lines, the line-number gutter and the caret into
+ * it. Nothing is laid out per line, so a model with tens of thousands of lines costs the
+ * same to scroll and type in as a short one. Lines with diagnostics are flagged in the
+ * gutter and underlined from the reported column.
+ *
+ * The font is monospaced and tabs are converted to spaces ({@link #setTabWidth} per tab,
+ * reported through {@link #setOnTabsExpanded}), so a column is always one character wide.
+ * Text being composed by an input method is shown inline at the caret until it is
+ * committed, and the text, caret and selection are exposed to assistive technology as a
+ * text area.
+ */
+public final class CodeEditor extends Region {
+
+    private static final int MAX_UNDO = 500;
+    // Beyond this many differing lines, updateText replaces the changed range as one block
+    private static final int MAX_DIFF_EDITS = 2000;
+    private static final double GUTTER_PADDING = 8;
+    private static final double TEXT_PADDING = 4;
+
+    private static final Color BACKGROUND = Color.WHITE;
+    private static final Color GUTTER_BACKGROUND = Color.web("#f0f0f0");
+    private static final Color GUTTER_TEXT = Color.web("#888888");
+    private static final Color ERROR = Color.web("#c62828");
+    private static final Color ERROR_LINE = Color.web("#fdecea");
+    private static final Color SELECTION = Color.web("#b3d4fc");
+    private static final Color CURRENT_LINE = Color.web("#f7f9fc");
+    private static final Color TEXT = Color.web("#1a1a1a");
+
+    private final CodeDocument document = new CodeDocument();
+    private final Canvas canvas = new Canvas();
+    private final ScrollBar verticalBar = new ScrollBar();
+    private final ScrollBar horizontalBar = new ScrollBar();
+    private final Timeline caretBlink;
+    private final ContextMenu contextMenu = new ContextMenu();
+
+    private int tabWidth = 2;
+    private IntConsumer onTabsExpanded;
+    // Uncommitted input method text, shown at the caret but not yet in the document
+    private String composedText = "";
+
+    private Font font = Font.font("monospace", 13);
+    private double charWidth;
+    private double lineHeight;
+
+    // Caret and the other end of the selection, as 0-based line and column
+    private int caretLine;
+    private int caretColumn;
+    private int anchorLine;
+    private int anchorColumn;
+    // Column that up/down movement tries to keep
+    private int preferredColumn = -1;
+    private boolean caretVisible = true;
+
+    // Widest line in characters; recomputed only when the widest line may have shrunk
+    private int maxColumns;
+    private boolean maxColumnsStale;
+
+    private final Map<Integer, Diagnostic> diagnosticsByLine = new HashMap<>();
+    private LineStyler styler;
+    private boolean repaintPending;
+
+    private final Deque<Edit> undoStack = new ArrayDeque<>();
+    private final Deque<Edit> redoStack = new ArrayDeque<>();
+    private boolean recordingUndo = true;
+    // Edits made while this is set undo as one step
+    private List<Edit> undoGroup;
+    private boolean coalesceTyping;
+
+    public CodeEditor() {
+        this("");
+    }
+
+    /**
+     * An editor showing {@code text}, with nothing to undo yet.
+     */
+    public CodeEditor(String text) {
+        getStyleClass().add("code-editor");
+        setFocusTraversable(true);
+        setFont(font);
+
+        verticalBar.setOrientation(Orientation.VERTICAL);
+        verticalBar.valueProperty().addListener((obs, oldVal, newVal) -> repaint());
+        horizontalBar.valueProperty().addListener((obs, oldVal, newVal) -> repaint());
+        canvas.setManaged(false);
+        canvas.setCursor(Cursor.TEXT);
+        getChildren().addAll(canvas, verticalBar, horizontalBar);
+
+        caretBlink = new Timeline(new KeyFrame(Duration.millis(530), e -> {
+            caretVisible = !caretVisible;
+            repaint();
+        }));
+        caretBlink.setCycleCount(Timeline.INDEFINITE);
+        focusedProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal) {
+                resetCaretBlink();
+            } else {
+                caretBlink.stop();
+                // Input methods drop an unfinished composition when focus moves away
+                composedText = "";
+            }
+            repaint();
+        });
+
+        document.addListener(this::documentChanged);
+        addEventHandler(KeyEvent.KEY_PRESSED, this::keyPressed);
+        addEventHandler(KeyEvent.KEY_TYPED, this::keyTyped);
+        addEventHandler(InputMethodEvent.INPUT_METHOD_TEXT_CHANGED, this::inputMethodTextChanged);
+        setInputMethodRequests(new CaretInputMethodRequests());
+        setAccessibleRole(AccessibleRole.TEXT_AREA);
+        canvas.addEventHandler(MouseEvent.MOUSE_PRESSED, this::mousePressed);
+        canvas.addEventHandler(MouseEvent.MOUSE_DRAGGED, this::mouseDragged);
+        addEventHandler(ScrollEvent.SCROLL, e -> {
+            verticalBar.setValue(clamp(verticalBar.getValue() - e.getDeltaY(), 0, verticalBar.getMax()));
+            horizontalBar.setValue(clamp(horizontalBar.getValue() - e.getDeltaX(), 0, horizontalBar.getMax()));
+            e.consume();
+        });
+        setContextMenu();
+
+        document.setText(expandTabs(text));
+        undoStack.clear();
+    }
+
+    /**
+     * Colors for parts of lines, e.g. from a syntax highlighter. Only asked about the lines
+     * being painted, on the FX thread.
+     */
+    public interface LineStyler {
+        /**
+         * Styled ranges of {@code line} as {@code (start column, end column, style)} triples
+         * in column order, or null to paint the line as plain text.
+         */
+        int[] spans(int line);
+
+        Color color(int style);
+    }
+
+    // ==================== Public API ====================
+
+    public CodeDocument getDocument() {
+        return document;
+    }
+
+    public String getText() {
+        return document.getText();
+    }
+
+    /**
+     * Replace the whole text. The caret moves to the start and the change can be undone.
+     */
+    public void setText(String text) {
+        document.setText(expandTabs(text));
+        setCaret(0, 0, false);
+        verticalBar.setValue(0);
+        horizontalBar.setValue(0);
+    }
+
+    /**
+     * Replace {@code start .. end} with {@code text}, as one undoable edit.
+     */
+    public void replace(int start, int end, String text) {
+        document.replace(start, end, expandTabs(text));
+    }
+
+    /**
+     * Spaces inserted by the Tab key and for each tab character in set, pasted or inserted
+     * text. Text already in the editor is not changed.
+     */
+    public void setTabWidth(int tabWidth) {
+        this.tabWidth = Math.max(1, tabWidth);
+    }
+
+    public int getTabWidth() {
+        return tabWidth;
+    }
+
+    /**
+     * Called with the number of tab characters converted to spaces whenever text containing
+     * tabs enters the editor, so the conversion can be made visible to the user.
+     */
+    public void setOnTabsExpanded(IntConsumer handler) {
+        this.onTabsExpanded = handler;
+    }
+
+    public void setLineStyler(LineStyler styler) {
+        this.styler = styler;
+        repaint();
+    }
+
+    /**
+     * Schedule a repaint of the visible lines. Requests made before the next pulse are
+     * painted once.
+     */
+    public void repaint() {
+        if (repaintPending) return;
+        repaintPending = true;
+        Platform.runLater(() -> {
+            repaintPending = false;
+            redraw();
+        });
+    }
+
+    /**
+     * Change the text to {@code text} by editing only the lines that differ, as one undoable
+     * step, so the caret, scroll position and highlighting of untouched lines are kept.
+     * Lines are matched by a Myers diff of their content ignoring whitespace, so re-indented
+     * and re-spaced lines are rewritten one by one and only inserted, removed or moved lines
+     * become larger edits. Returns the number of edits.
+     */
+    public int updateText(String text) {
+        String[] target = expandTabs(text).replace("\r", "").split("\n", -1);
+        int oldCount = document.getLineCount();
+        String[] current = new String[oldCount];
+        for (int i = 0; i < oldCount; i++) current[i] = document.getLine(i);
+
+        int prefix = 0;
+        while (prefix < oldCount && prefix < target.length && current[prefix].equals(target[prefix])) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < oldCount - prefix && suffix < target.length - prefix
+                && current[oldCount - 1 - suffix].equals(target[target.length - 1 - suffix])) {
+            suffix++;
+        }
+        int oldEnd = oldCount - suffix;
+        int newEnd = target.length - suffix;
+
+        // (old start, old end, new start, new end) line ranges, top to bottom
+        List<int[]> hunks = new ArrayList<>();
+        int i = prefix;
+        int j = prefix;
+        List<int[]> matches = matchLines(current, prefix, oldEnd, target, prefix, newEnd);
+        if (matches != null) {
+            for (int[] match : matches) {
+                if (i < match[0] || j < match[1]) addHunk(hunks, i, match[0], j, match[1]);
+                if (!current[match[0]].equals(target[match[1]])) {
+                    addHunk(hunks, match[0], match[0] + 1, match[1], match[1] + 1);
+                }
+                i = match[0] + 1;
+                j = match[1] + 1;
+            }
+        }
+        if (i < oldEnd || j < newEnd) addHunk(hunks, i, oldEnd, j, newEnd);
+        if (hunks.isEmpty()) return 0;
+
+        // Bottom up, so the line numbers of the hunks above stay valid
+        undoGroup = new ArrayList<>();
+        try {
+            for (int h = hunks.size() - 1; h >= 0; h--) {
+                int[] hunk = hunks.get(h);
+                replaceLines(hunk[0], hunk[1], Arrays.asList(target).subList(hunk[2], hunk[3]));
+            }
+        } finally {
+            List<Edit> group = undoGroup;
+            undoGroup = null;
+            pushUndo(new Edit(group));
+        }
+        return hunks.size();
+    }
+
+    /**
+     * Pairs of (old line, new line) that a Myers diff of {@code a[aFrom..aTo)} and
+     * {@code b[bFrom..bTo)} keeps, comparing lines without their whitespace, in order. Null
+     * if the ranges differ in more than {@link #MAX_DIFF_EDITS} lines, where the caller
+     * replaces them as one block instead.
+     */
+    private static List<int[]> matchLines(String[] a, int aFrom, int aTo, String[] b, int bFrom, int bTo) {
+        int n = aTo - aFrom;
+        int m = bTo - bFrom;
+        // Compare small ids instead of strings in the inner loop
+        Map<String, Integer> ids = new HashMap<>();
+        int[] x0 = new int[n];
+        int[] y0 = new int[m];
+        for (int k = 0; k < n; k++) x0[k] = ids.computeIfAbsent(stripWhitespace(a[aFrom + k]), key -> ids.size());
+        for (int k = 0; k < m; k++) y0[k] = ids.computeIfAbsent(stripWhitespace(b[bFrom + k]), key -> ids.size());
+
+        int max = Math.min(n + m, MAX_DIFF_EDITS);
+        int offset = max + 1;
+        int[] v = new int[2 * max + 3];
+        // v as it was before each step d, kept for d in -d..d so the path can be traced back
+        List<int[]> trace = new ArrayList<>();
+        for (int d = 0; d <= max; d++) {
+            trace.add(Arrays.copyOfRange(v, offset - d, offset + d + 1));
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || k != d && v[offset + k - 1] < v[offset + k + 1]
+                        ? v[offset + k + 1] : v[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && x0[x] == y0[y]) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) {
+                    return traceMatches(trace, d, n, m, aFrom, bFrom);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<int[]> traceMatches(List<int[]> trace, int edits, int n, int m, int aFrom, int bFrom) {
+        List<int[]> matches = new ArrayList<>();
+        int x = n;
+        int y = m;
+        for (int d = edits; d >= 0; d--) {
+            int prevX = 0;
+            int prevY = 0;
+            if (d > 0) {
+                int[] vd = trace.get(d);
+                int k = x - y;
+                int prevK = k == -d || k != d && vd[k - 1 + d] < vd[k + 1 + d] ? k + 1 : k - 1;
+                prevX = vd[prevK + d];
+                prevY = prevX - prevK;
+            }
+            while (x > prevX && y > prevY) {
+                x--;
+                y--;
+                matches.add(new int[]{aFrom + x, bFrom + y});
+            }
+            x = prevX;
+            y = prevY;
+        }
+        Collections.reverse(matches);
+        return matches;
+    }
+
+    private static void addHunk(List<int[]> hunks, int oldStart, int oldEnd, int newStart, int newEnd) {
+        int[] last = hunks.isEmpty() ? null : hunks.get(hunks.size() - 1);
+        if (last != null && last[1] == oldStart && last[3] == newStart) {
+            last[1] = oldEnd;
+            last[3] = newEnd;
+        } else {
+            hunks.add(new int[]{oldStart, oldEnd, newStart, newEnd});
+        }
+    }
+
+    /**
+     * Replace lines {@code start .. end} (exclusive) with {@code lines}.
+     */
+    private void replaceLines(int start, int end, List<String> lines) {
+        String joined = String.join("\n", lines);
+        if (end < document.getLineCount()) {
+            document.replace(document.lineStart(start), document.lineStart(end), lines.isEmpty() ? "" : joined + "\n");
+        } else if (!lines.isEmpty()) {
+            boolean append = start == document.getLineCount();
+            int from = append ? document.getLength() : document.lineStart(start);
+            document.replace(from, document.getLength(), append ? "\n" + joined : joined);
+        } else {
+            // Removing the last lines also removes the line break before them
+            int from = start == 0 ? 0 : document.lineStart(start) - 1;
+            document.replace(from, document.getLength(), "");
+        }
+    }
+
+    private static String stripWhitespace(String line) {
+        StringBuilder stripped = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (!Character.isWhitespace(c)) stripped.append(c);
+        }
+        return stripped.toString();
+    }
+
+    public void setFont(Font font) {
+        this.font = font;
+        Text probe = new Text("M");
+        probe.setFont(font);
+        charWidth = probe.getLayoutBounds().getWidth();
+        lineHeight = Math.ceil(probe.getLayoutBounds().getHeight());
+        requestLayout();
+    }
+
+    /**
+     * Preferred height in lines of text.
+     */
+    public void setPrefRowCount(int rows) {
+        setPrefHeight(rows * lineHeight + horizontalBar.prefHeight(-1) + 2);
+    }
+
+    /**
+     * Flag the lines of these diagnostics; only the first diagnostic of each line is shown.
+     */
+    public void setDiagnostics(List<Diagnostic> diagnostics) {
+        diagnosticsByLine.clear();
+        for (Diagnostic diagnostic : diagnostics) {
+            diagnosticsByLine.putIfAbsent(diagnostic.getLine() - 1, diagnostic);
+        }
+        repaint();
+    }
+
+    /**
+     * Put the caret at a 1-based line and column, scroll it into view and focus the editor.
+     */
+    public void moveCaretTo(int line, int column) {
+        int targetLine = clamp(line - 1, 0, document.getLineCount() - 1);
+        setCaret(targetLine, clamp(column - 1, 0, document.getLine(targetLine).length()), false);
+        requestFocus();
+    }
+
+    public int getCaretOffset() {
+        return document.offsetOf(caretLine, caretColumn);
+    }
+
+    /**
+     * 0-based line of the caret.
+     */
+    public int getCaretLine() {
+        return caretLine;
+    }
+
+    /**
+     * 0-based column of the caret.
+     */
+    public int getCaretColumn() {
+        return caretColumn;
+    }
+
+    /**
+     * Screen position just below the caret, where a popup for it can be shown.
+     */
+    public Point2D getCaretScreenPosition() {
+        double x = gutterWidth() + TEXT_PADDING + caretColumn * charWidth - horizontalBar.getValue();
+        return canvas.localToScreen(x, lineY(caretLine) + lineHeight);
+    }
+
+    /**
+     * Document offset nearest to a point in the editor's coordinates.
+     */
+    public int offsetAt(double x, double y) {
+        int line = lineAt(y);
+        return document.offsetOf(line, columnAt(line, x));
+    }
+
+    /**
+     * Add entries below the editor's own in its context menu.
+     */
+    public void addContextMenuItems(MenuItem... items) {
+        contextMenu.getItems().add(new SeparatorMenuItem());
+        contextMenu.getItems().addAll(items);
+    }
+
+    public String getSelectedText() {
+        int[] range = selectionRange();
+        return document.getText(range[0], range[1]);
+    }
+
+    public void selectAll() {
+        anchorLine = 0;
+        anchorColumn = 0;
+        int last = document.getLineCount() - 1;
+        setCaret(last, document.getLine(last).length(), true);
+    }
+
+    // ==================== Layout and painting ====================
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return 400;
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return 20 * lineHeight;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double barWidth = verticalBar.prefWidth(-1);
+        double barHeight = horizontalBar.prefHeight(-1);
+        double viewportWidth = Math.max(0, getWidth() - barWidth);
+        double viewportHeight = Math.max(0, getHeight() - barHeight);
+
+        canvas.setWidth(viewportWidth);
+        canvas.setHeight(viewportHeight);
+        canvas.relocate(0, 0);
+        verticalBar.resizeRelocate(viewportWidth, 0, barWidth, viewportHeight);
+        horizontalBar.resizeRelocate(0, viewportHeight, viewportWidth, barHeight);
+
+        updateScrollBars();
+        redraw();
+    }
+
+    private void updateScrollBars() {
+        double viewportHeight = canvas.getHeight();
+        double contentHeight = document.getLineCount() * lineHeight;
+        verticalBar.setMax(Math.max(0, contentHeight - viewportHeight + lineHeight));
+        verticalBar.setVisibleAmount(viewportHeight);
+        verticalBar.setUnitIncrement(lineHeight);
+        verticalBar.setBlockIncrement(Math.max(lineHeight, viewportHeight - lineHeight));
+
+        if (maxColumnsStale) {
+            maxColumns = 0;
+            for (int i = 0; i < document.getLineCount(); i++) {
+                maxColumns = Math.max(maxColumns, document.getLine(i).length());
+            }
+            maxColumnsStale = false;
+        }
+        double textWidth = canvas.getWidth() - gutterWidth() - TEXT_PADDING;
+        horizontalBar.setMax(Math.max(0, (maxColumns + 1) * charWidth - textWidth));
+        horizontalBar.setVisibleAmount(Math.max(0, textWidth));
+        horizontalBar.setUnitIncrement(charWidth);
+        horizontalBar.setBlockIncrement(Math.max(charWidth, textWidth / 2));
+        verticalBar.setValue(clamp(verticalBar.getValue(), 0, verticalBar.getMax()));
+        horizontalBar.setValue(clamp(horizontalBar.getValue(), 0, horizontalBar.getMax()));
+    }
+
+    private double gutterWidth() {
+        int digits = Math.max(2, String.valueOf(document.getLineCount()).length());
+        // Room for the digits and a "!" marker
+        return (digits + 2) * charWidth + GUTTER_PADDING;
+    }
+
+    private void redraw() {
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        if (width <= 0 || height <= 0) return;
+
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        g.setFont(font);
+        g.setTextBaseline(VPos.TOP);
+        g.setFill(BACKGROUND);
+        g.fillRect(0, 0, width, height);
+
+        double gutter = gutterWidth();
+        double scrollX = horizontalBar.getValue();
+        double textX = gutter + TEXT_PADDING - scrollX;
+        int firstLine = firstVisibleLine();
+        int lastLine = Math.min(document.getLineCount() - 1, firstLine + (int) Math.ceil(height / lineHeight));
+        // Only the characters that fit horizontally are drawn
+        int firstColumn = (int) Math.floor(scrollX / charWidth);
+        int visibleColumns = (int) Math.ceil((width - gutter) / charWidth) + 1;
+        int[] selection = selectionRange();
+
+        for (int line = firstLine; line <= lastLine; line++) {
+            double y = lineY(line);
+            String text = document.getLine(line);
+            Diagnostic diagnostic = diagnosticsByLine.get(line);
+
+            if (diagnostic != null) {
+                g.setFill(ERROR_LINE);
+                g.fillRect(gutter, y, width - gutter, lineHeight);
+            } else if (line == caretLine && isFocused() && selection[0] == selection[1]) {
+                g.setFill(CURRENT_LINE);
+                g.fillRect(gutter, y, width - gutter, lineHeight);
+            }
+
+            paintSelection(g, line, text.length(), selection, textX, y);
+
+            int[] spans = styler != null ? styler.spans(line) : null;
+            if (line == caretLine && !composedText.isEmpty()) {
+                // Show the composition in place, underlined; highlighting resumes once it is committed
+                text = text.substring(0, caretColumn) + composedText + text.substring(caretColumn);
+                spans = null;
+                g.setStroke(TEXT);
+                g.setLineWidth(1);
+                double underlineY = y + lineHeight - 1.5;
+                g.strokeLine(textX + caretColumn * charWidth, underlineY,
+                        textX + (caretColumn + composedText.length()) * charWidth, underlineY);
+            }
+            if (firstColumn < text.length()) {
+                int endColumn = Math.min(text.length(), firstColumn + visibleColumns);
+                paintText(g, text, spans, firstColumn, endColumn, textX, y);
+            }
+
+            if (diagnostic != null) {
+                paintSquiggle(g, text, diagnostic.getColumn() - 1, textX, y + lineHeight - 2);
+            }
+        }
+
+        if (isFocused() && caretVisible && caretLine >= firstLine && caretLine <= lastLine) {
+            double x = textX + (caretColumn + composedText.length()) * charWidth;
+            if (x >= gutter) {
+                g.setFill(TEXT);
+                g.fillRect(Math.round(x), lineY(caretLine), 1.5, lineHeight);
+            }
+        }
+
+        paintGutter(g, gutter, height, firstLine, lastLine);
+    }
+
+    /**
+     * Draw columns {@code from .. to} of a line, switching color at each styled range.
+     * Ranges may be stale by an edit or two and are clipped to the text.
+     */
+    private void paintText(GraphicsContext g, String text, int[] spans, int from, int to, double textX, double y) {
+        int column = from;
+        if (spans != null) {
+            for (int i = 0; i + 2 < spans.length && column < to; i += 3) {
+                int start = Math.max(column, spans[i]);
+                int end = Math.min(to, spans[i + 1]);
+                if (end <= start) continue;
+                paintRun(g, text, column, start, TEXT, textX, y);
+                paintRun(g, text, start, end, styler.color(spans[i + 2]), textX, y);
+                column = end;
+            }
+        }
+        paintRun(g, text, column, to, TEXT, textX, y);
+    }
+
+    private void paintRun(GraphicsContext g, String text, int from, int to, Color color, double textX, double y) {
+        if (from >= to) return;
+        g.setFill(color);
+        g.fillText(text.substring(from, to), textX + from * charWidth, y);
+    }
+
+    private void paintSelection(GraphicsContext g, int line, int lineLength, int[] selection, double textX, double y) {
+        if (selection[0] == selection[1]) return;
+        int lineStart = document.lineStart(line);
+        // The line break counts as one column, so selected empty lines stay visible
+        int from = Math.max(selection[0], lineStart) - lineStart;
+        int to = Math.min(selection[1], lineStart + lineLength + 1) - lineStart;
+        if (from >= to) return;
+        g.setFill(SELECTION);
+        g.fillRect(textX + from * charWidth, y, (to - from) * charWidth, lineHeight);
+    }
+
+    private void paintSquiggle(GraphicsContext g, String text, int column, double textX, double y) {
+        int start = clamp(column, 0, text.length());
+        int end = start;
+        while (end < text.length() && !Character.isWhitespace(text.charAt(end))) end++;
+        if (end == start) end = start + 1;
+
+        g.setStroke(ERROR);
+        g.setLineWidth(1);
+        double x = textX + start * charWidth;
+        double endX = textX + end * charWidth;
+        g.beginPath();
+        g.moveTo(x, y);
+        for (boolean up = true; x < endX; up = !up) {
+            x = Math.min(endX, x + 2);
+            g.lineTo(x, up ? y - 2 : y);
+        }
+        g.stroke();
+    }
+
+    private void paintGutter(GraphicsContext g, double gutter, double height, int firstLine, int lastLine) {
+        g.setFill(GUTTER_BACKGROUND);
+        g.fillRect(0, 0, gutter, height);
+        for (int line = firstLine; line <= lastLine; line++) {
+            double y = lineY(line);
+            String number = String.valueOf(line + 1);
+            boolean error = diagnosticsByLine.containsKey(line);
+            g.setFill(error ? ERROR : GUTTER_TEXT);
+            g.fillText(number, gutter - GUTTER_PADDING / 2 - number.length() * charWidth, y);
+            if (error) g.fillText("!", GUTTER_PADDING / 2, y);
+        }
+    }
+
+    private int firstVisibleLine() {
+        return clamp((int) Math.floor(verticalBar.getValue() / lineHeight), 0, document.getLineCount() - 1);
+    }
+
+    private double lineY(int line) {
+        return line * lineHeight - verticalBar.getValue();
+    }
+
+    // ==================== Editing ====================
+
+    private void documentChanged(CodeDocument.Change change) {
+        // The widest line can only have shrunk if one of the replaced lines was it
+        int span = change.getInsertedLines() - 1;
+        int widest = 0;
+        for (int i = 0; i < change.getInsertedLines(); i++) {
+            int length = document.getLine(change.getStartLine() + i).length();
+            span += length;
+            widest = Math.max(widest, length);
+        }
+        int oldLength = span - change.getInsertedText().length() + change.getRemovedLength();
+        if (change.getRemovedLines() > 1 || change.getRemovedLength() > 0 && oldLength >= maxColumns) {
+            maxColumnsStale = true;
+        }
+        maxColumns = Math.max(maxColumns, widest);
+        if (!diagnosticsByLine.isEmpty()) {
+            shiftDiagnostics(change);
+        }
+        if (recordingUndo) {
+            recordUndo(change);
+        }
+        // Keep the caret inside the text after edits made through the document
+        caretLine = Math.min(caretLine, document.getLineCount() - 1);
+        caretColumn = Math.min(caretColumn, document.getLine(caretLine).length());
+        anchorLine = Math.min(anchorLine, document.getLineCount() - 1);
+        anchorColumn = Math.min(anchorColumn, document.getLine(anchorLine).length());
+        updateScrollBars();
+        repaint();
+        notifyAccessibleAttributeChanged(AccessibleAttribute.TEXT);
+    }
+
+    /**
+     * Move diagnostics below an edit along with their lines until the next validation
+     * replaces them; diagnostics on the edited lines themselves are kept in place.
+     */
+    private void shiftDiagnostics(CodeDocument.Change change) {
+        int delta = change.getInsertedLines() - change.getRemovedLines();
+        if (delta == 0) return;
+        int lastChanged = change.getStartLine() + change.getRemovedLines() - 1;
+        Map<Integer, Diagnostic> shifted = new HashMap<>();
+        diagnosticsByLine.forEach((line, diagnostic) -> {
+            if (line <= lastChanged) shifted.putIfAbsent(Math.min(line, change.getStartLine() + change.getInsertedLines() - 1), diagnostic);
+            else shifted.put(line + delta, diagnostic);
+        });
+        diagnosticsByLine.clear();
+        diagnosticsByLine.putAll(shifted);
+    }
+
+    private void insert(String text) {
+        int[] range = selectionRange();
+        String expanded = expandTabs(text);
+        document.replace(range[0], range[1], expanded);
+        moveCaretToOffset(range[0] + expanded.length(), false);
+    }
+
+    private void deleteBackward() {
+        int[] range = selectionRange();
+        if (range[0] == range[1]) {
+            if (range[0] == 0) return;
+            String line = document.getLine(caretLine);
+            // Backspace in leading whitespace removes one indent step
+            boolean inIndent = caretColumn > 0 && line.substring(0, caretColumn).isBlank();
+            int width = inIndent && caretColumn % tabWidth == 0 ? tabWidth : 1;
+            range[0] = range[1] - width;
+        }
+        document.replace(range[0], range[1], "");
+        moveCaretToOffset(range[0], false);
+    }
+
+    private void deleteForward() {
+        int[] range = selectionRange();
+        if (range[0] == range[1]) {
+            if (range[1] == document.getLength()) return;
+            range[1]++;
+        }
+        document.replace(range[0], range[1], "");
+        moveCaretToOffset(range[0], false);
+    }
+
+    private void newLine() {
+        String line = document.getLine(caretLine);
+        int indent = 0;
+        while (indent < line.length() && line.charAt(indent) == ' ') indent++;
+        // Keep the current indentation, and indent once more after an opening brace
+        String extra = line.substring(0, Math.min(caretColumn, line.length())).stripTrailing().endsWith("{") ? " ".repeat(tabWidth) : "";
+        coalesceTyping = false;
+        insert("\n" + " ".repeat(Math.min(indent, caretColumn)) + extra);
+    }
+
+    private void copy() {
+        String selected = getSelectedText();
+        if (selected.isEmpty()) return;
+        ClipboardContent content = new ClipboardContent();
+        content.putString(selected);
+        Clipboard.getSystemClipboard().setContent(content);
+    }
+
+    private void cut() {
+        copy();
+        if (!getSelectedText().isEmpty()) {
+            coalesceTyping = false;
+            insert("");
+        }
+    }
+
+    private void paste() {
+        String text = Clipboard.getSystemClipboard().getString();
+        if (text != null) {
+            coalesceTyping = false;
+            insert(text);
+            coalesceTyping = false;
+        }
+    }
+
+    private String expandTabs(String text) {
+        if (text.indexOf('\t') < 0) return text;
+        int tabs = (int) text.chars().filter(c -> c == '\t').count();
+        if (onTabsExpanded != null) onTabsExpanded.accept(tabs);
+        return text.replace("\t", " ".repeat(tabWidth));
+    }
+
+    // ==================== Undo ====================
+
+    /**
+     * An edit as the removed and inserted text at an offset, or a group of edits that undo
+     * together.
+     */
+    private static class Edit {
+        final int offset;
+        String removed;
+        String inserted;
+        final List<Edit> parts;
+
+        Edit(int offset, String removed, String inserted) {
+            this.offset = offset;
+            this.removed = removed;
+            this.inserted = inserted;
+            this.parts = null;
+        }
+
+        Edit(List<Edit> parts) {
+            this.offset = parts.isEmpty() ? 0 : parts.get(parts.size() - 1).offset;
+            this.removed = "";
+            this.inserted = "";
+            this.parts = parts;
+        }
+    }
+
+    private void recordUndo(CodeDocument.Change change) {
+        redoStack.clear();
+        Edit edit = new Edit(change.getOffset(), change.getRemovedText(), change.getInsertedText());
+        if (undoGroup != null) {
+            undoGroup.add(edit);
+            return;
+        }
+        Edit last = undoStack.peek();
+        // Consecutive typed characters undo as one word
+        if (coalesceTyping && last != null && last.parts == null && change.getRemovedLength() == 0
+                && last.removed.isEmpty() && last.offset + last.inserted.length() == change.getOffset()
+                && !change.getInsertedText().isBlank()) {
+            last.inserted += change.getInsertedText();
+            return;
+        }
+        pushUndo(edit);
+    }
+
+    private void pushUndo(Edit edit) {
+        undoStack.push(edit);
+        if (undoStack.size() > MAX_UNDO) undoStack.removeLast();
+    }
+
+    private void undo() {
+        Edit edit = undoStack.poll();
+        if (edit == null) return;
+        revert(edit);
+        redoStack.push(edit);
+        moveCaretToOffset(Math.min(document.getLength(), edit.offset + edit.removed.length()), false);
+    }
+
+    private void redo() {
+        Edit edit = redoStack.poll();
+        if (edit == null) return;
+        reapply(edit);
+        undoStack.push(edit);
+        moveCaretToOffset(Math.min(document.getLength(), edit.offset + edit.inserted.length()), false);
+    }
+
+    private void revert(Edit edit) {
+        if (edit.parts != null) {
+            for (int i = edit.parts.size() - 1; i >= 0; i--) revert(edit.parts.get(i));
+            return;
+        }
+        applyWithoutRecording(edit.offset, edit.offset + edit.inserted.length(), edit.removed);
+    }
+
+    private void reapply(Edit edit) {
+        if (edit.parts != null) {
+            for (Edit part : edit.parts) reapply(part);
+            return;
+        }
+        applyWithoutRecording(edit.offset, edit.offset + edit.removed.length(), edit.inserted);
+    }
+
+    private void applyWithoutRecording(int start, int end, String text) {
+        recordingUndo = false;
+        try {
+            document.replace(start, end, text);
+        } finally {
+            recordingUndo = true;
+        }
+        coalesceTyping = false;
+    }
+
+    // ==================== Caret and selection ====================
+
+    /**
+     * Selection as sorted document offsets; equal when nothing is selected.
+     */
+    private int[] selectionRange() {
+        int caret = document.offsetOf(caretLine, caretColumn);
+        int anchor = document.offsetOf(anchorLine, anchorColumn);
+        return new int[]{Math.min(caret, anchor), Math.max(caret, anchor)};
+    }
+
+    private void moveCaretToOffset(int offset, boolean extendSelection) {
+        int line = document.lineOfOffset(offset);
+        setCaret(line, offset - document.lineStart(line), extendSelection);
+    }
+
+    private void setCaret(int line, int column, boolean extendSelection) {
+        caretLine = line;
+        caretColumn = column;
+        if (!extendSelection) {
+            anchorLine = line;
+            anchorColumn = column;
+        }
+        preferredColumn = -1;
+        scrollToCaret();
+        resetCaretBlink();
+        repaint();
+        notifyAccessibleAttributeChanged(AccessibleAttribute.CARET_OFFSET);
+        notifyAccessibleAttributeChanged(AccessibleAttribute.SELECTION_START);
+        notifyAccessibleAttributeChanged(AccessibleAttribute.SELECTION_END);
+    }
+
+    private void scrollToCaret() {
+        double y = caretLine * lineHeight;
+        double viewportHeight = canvas.getHeight();
+        if (y < verticalBar.getValue()) {
+            verticalBar.setValue(y);
+        } else if (viewportHeight > 0 && y + lineHeight > verticalBar.getValue() + viewportHeight) {
+            verticalBar.setValue(Math.min(verticalBar.getMax(), y + lineHeight - viewportHeight));
+        }
+
+        double x = caretColumn * charWidth;
+        double textWidth = canvas.getWidth() - gutterWidth() - TEXT_PADDING;
+        if (x < horizontalBar.getValue()) {
+            horizontalBar.setValue(Math.max(0, x - 4 * charWidth));
+        } else if (textWidth > 0 && x + charWidth > horizontalBar.getValue() + textWidth) {
+            horizontalBar.setValue(x + charWidth - textWidth);
+        }
+    }
+
+    private void resetCaretBlink() {
+        caretVisible = true;
+        if (isFocused()) caretBlink.playFromStart();
+    }
+
+    private void moveVertically(int lines, boolean extendSelection) {
+        int column = preferredColumn >= 0 ? preferredColumn : caretColumn;
+        int line = clamp(caretLine + lines, 0, document.getLineCount() - 1);
+        setCaret(line, Math.min(column, document.getLine(line).length()), extendSelection);
+        preferredColumn = column;
+    }
+
+    private void moveHorizontally(int delta, boolean byWord, boolean extendSelection) {
+        int[] range = selectionRange();
+        if (!extendSelection && range[0] != range[1]) {
+            // Collapse the selection to the side being moved towards
+            moveCaretToOffset(delta < 0 ? range[0] : range[1], false);
+            return;
+        }
+        int offset = document.offsetOf(caretLine, caretColumn);
+        int target = byWord ? wordBoundary(delta) : offset + delta;
+        moveCaretToOffset(clamp(target, 0, document.getLength()), extendSelection);
+    }
+
+    /**
+     * Offset of the next word start or end from the caret, crossing at most one line break.
+     */
+    private int wordBoundary(int direction) {
+        String text = document.getLine(caretLine);
+        int i = caretColumn;
+        if (direction < 0) {
+            if (i == 0) return document.offsetOf(caretLine, 0) - 1;
+            while (i > 0 && !isWordChar(text.charAt(i - 1))) i--;
+            while (i > 0 && isWordChar(text.charAt(i - 1))) i--;
+        } else {
+            if (i == text.length()) return document.offsetOf(caretLine, i) + 1;
+            while (i < text.length() && !isWordChar(text.charAt(i))) i++;
+            while (i < text.length() && isWordChar(text.charAt(i))) i++;
+        }
+        return document.offsetOf(caretLine, i);
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-';
+    }
+
+    private void selectWordAt(int line, int column) {
+        String text = document.getLine(line);
+        int start = Math.min(column, text.length());
+        int end = start;
+        while (start > 0 && isWordChar(text.charAt(start - 1))) start--;
+        while (end < text.length() && isWordChar(text.charAt(end))) end++;
+        anchorLine = line;
+        anchorColumn = start;
+        setCaret(line, end, true);
+    }
+
+    // ==================== Input ====================
+
+    private void keyPressed(KeyEvent e) {
+        boolean shift = e.isShiftDown();
+        boolean shortcut = e.isShortcutDown();
+        KeyCode code = e.getCode();
+        boolean handled = true;
+
+        if (shortcut && code == KeyCode.A) {
+            selectAll();
+        } else if (shortcut && code == KeyCode.C) {
+            copy();
+        } else if (shortcut && code == KeyCode.X) {
+            cut();
+        } else if (shortcut && code == KeyCode.V) {
+            paste();
+        } else if (shortcut && code == KeyCode.Z) {
+            if (shift) redo();
+            else undo();
+        } else if (shortcut && code == KeyCode.Y) {
+            redo();
+        } else if (shortcut && code == KeyCode.HOME) {
+            setCaret(0, 0, shift);
+        } else if (shortcut && code == KeyCode.END) {
+            int last = document.getLineCount() - 1;
+            setCaret(last, document.getLine(last).length(), shift);
+        } else {
+            switch (code) {
+                case LEFT -> moveHorizontally(-1, shortcut || e.isAltDown(), shift);
+                case RIGHT -> moveHorizontally(1, shortcut || e.isAltDown(), shift);
+                case UP -> moveVertically(-1, shift);
+                case DOWN -> moveVertically(1, shift);
+                case PAGE_UP -> moveVertically(-visibleLineCount(), shift);
+                case PAGE_DOWN -> moveVertically(visibleLineCount(), shift);
+                case HOME -> {
+                    // Toggle between the first non-blank character and the line start
+                    String line = document.getLine(caretLine);
+                    int indent = line.length() - line.stripLeading().length();
+                    setCaret(caretLine, caretColumn == indent ? 0 : indent, shift);
+                }
+                case END -> setCaret(caretLine, document.getLine(caretLine).length(), shift);
+                case BACK_SPACE -> deleteBackward();
+                case DELETE -> deleteForward();
+                case ENTER -> newLine();
+                case TAB -> {
+                    if (shift || e.isControlDown()) {
+                        handled = false;
+                    } else {
+                        coalesceTyping = false;
+                        insert(" ".repeat(tabWidth));
+                    }
+                }
+                default -> handled = false;
+            }
+        }
+        if (handled) {
+            coalesceTyping = false;
+            e.consume();
+        }
+    }
+
+    private void keyTyped(KeyEvent e) {
+        String character = e.getCharacter();
+        // AltGr arrives as Ctrl+Alt on Windows and still types a character
+        if (character.isEmpty() || e.isControlDown() && !e.isAltDown() || e.isMetaDown()) return;
+        char c = character.charAt(0);
+        if (c < 0x20 || c == 0x7f) return;
+
+        int[] range = selectionRange();
+        if (range[0] != range[1]) coalesceTyping = false;
+        insert(character);
+        coalesceTyping = true;
+        e.consume();
+    }
+
+    /**
+     * Input method composition (IME, dead keys): committed text is inserted like typing,
+     * composed text is only shown at the caret until the input method commits or drops it.
+     */
+    private void inputMethodTextChanged(InputMethodEvent e) {
+        if (!e.getCommitted().isEmpty()) {
+            composedText = "";
+            insert(e.getCommitted());
+            coalesceTyping = true;
+        }
+        StringBuilder composed = new StringBuilder();
+        for (InputMethodTextRun run : e.getComposed()) {
+            composed.append(run.getText());
+        }
+        composedText = composed.toString();
+        repaint();
+        e.consume();
+    }
+
+    /**
+     * Lets input methods place their candidate window just below the composition.
+     */
+    private class CaretInputMethodRequests implements InputMethodRequests {
+        @Override
+        public Point2D getTextLocation(int offset) {
+            double x = gutterWidth() + TEXT_PADDING + (caretColumn + offset) * charWidth - horizontalBar.getValue();
+            Point2D location = canvas.localToScreen(x, lineY(caretLine) + lineHeight);
+            return location != null ? location : new Point2D(0, 0);
+        }
+
+        @Override
+        public int getLocationOffset(int x, int y) {
+            Point2D local = canvas.screenToLocal(x, y);
+            if (local == null) return 0;
+            int column = (int) Math.round((local.getX() - gutterWidth() - TEXT_PADDING + horizontalBar.getValue()) / charWidth);
+            return clamp(column - caretColumn, 0, composedText.length());
+        }
+
+        @Override
+        public void cancelLatestCommittedText() {
+            // Committed text is already an ordinary, undoable edit
+        }
+
+        @Override
+        public String getSelectedText() {
+            return CodeEditor.this.getSelectedText();
+        }
+    }
+
+    // ==================== Accessibility ====================
+
+    @Override
+    public Object queryAccessibleAttribute(AccessibleAttribute attribute, Object... parameters) {
+        return switch (attribute) {
+            case TEXT -> document.getText();
+            case EDITABLE -> true;
+            case FONT -> font;
+            case CARET_OFFSET -> getCaretOffset();
+            case SELECTION_START -> selectionRange()[0];
+            case SELECTION_END -> selectionRange()[1];
+            case LINE_FOR_OFFSET -> document.lineOfOffset(clamp((Integer) parameters[0], 0, document.getLength()));
+            case LINE_START -> document.lineStart(clamp((Integer) parameters[0], 0, document.getLineCount() - 1));
+            case LINE_END -> {
+                int line = clamp((Integer) parameters[0], 0, document.getLineCount() - 1);
+                yield document.lineStart(line) + document.getLine(line).length();
+            }
+            case BOUNDS_FOR_RANGE -> boundsForRange((Integer) parameters[0], (Integer) parameters[1]);
+            case OFFSET_AT_POINT -> {
+                Point2D local = canvas.screenToLocal((Point2D) parameters[0]);
+                yield local != null ? offsetAt(local.getX(), local.getY()) : 0;
+            }
+            default -> super.queryAccessibleAttribute(attribute, parameters);
+        };
+    }
+
+    @Override
+    public void executeAccessibleAction(AccessibleAction action, Object... parameters) {
+        if (action == AccessibleAction.SET_TEXT_SELECTION) {
+            int anchor = clamp((Integer) parameters[0], 0, document.getLength());
+            int caret = clamp((Integer) parameters[1], 0, document.getLength());
+            anchorLine = document.lineOfOffset(anchor);
+            anchorColumn = anchor - document.lineStart(anchorLine);
+            moveCaretToOffset(caret, true);
+        } else {
+            super.executeAccessibleAction(action, parameters);
+        }
+    }
+
+    /**
+     * Screen bounds of a text range, one box per line it covers.
+     */
+    private Bounds[] boundsForRange(int start, int end) {
+        int from = clamp(start, 0, document.getLength());
+        int to = clamp(end, from, document.getLength());
+        int firstLine = document.lineOfOffset(from);
+        int lastLine = document.lineOfOffset(to);
+        Bounds[] bounds = new Bounds[lastLine - firstLine + 1];
+        double textX = gutterWidth() + TEXT_PADDING - horizontalBar.getValue();
+        for (int line = firstLine; line <= lastLine; line++) {
+            int lineStart = document.lineStart(line);
+            int startColumn = line == firstLine ? from - lineStart : 0;
+            int endColumn = line == lastLine ? to - lineStart : document.getLine(line).length();
+            Bounds local = new BoundingBox(textX + startColumn * charWidth, lineY(line),
+                    Math.max(1, (endColumn - startColumn) * charWidth), lineHeight);
+            Bounds screen = canvas.localToScreen(local);
+            bounds[line - firstLine] = screen != null ? screen : local;
+        }
+        return bounds;
+    }
+
+    private void mousePressed(MouseEvent e) {
+        requestFocus();
+        if (e.getButton() == MouseButton.SECONDARY) {
+            // Without a selection, a right click moves the caret so menu actions apply there
+            int[] range = selectionRange();
+            if (range[0] == range[1]) {
+                int line = lineAt(e.getY());
+                setCaret(line, columnAt(line, e.getX()), false);
+            }
+            return;
+        }
+        if (e.getButton() != MouseButton.PRIMARY) return;
+        coalesceTyping = false;
+        int line = lineAt(e.getY());
+        int column = columnAt(line, e.getX());
+        if (e.getClickCount() == 2) {
+            selectWordAt(line, column);
+        } else if (e.getClickCount() >= 3) {
+            anchorLine = line;
+            anchorColumn = 0;
+            setCaret(line, document.getLine(line).length(), true);
+        } else {
+            setCaret(line, column, e.isShiftDown());
+        }
+        e.consume();
+    }
+
+    private void mouseDragged(MouseEvent e) {
+        if (!e.isPrimaryButtonDown()) return;
+        int line = lineAt(e.getY());
+        setCaret(line, columnAt(line, e.getX()), true);
+        e.consume();
+    }
+
+    private int lineAt(double y) {
+        return clamp((int) Math.floor((y + verticalBar.getValue()) / lineHeight), 0, document.getLineCount() - 1);
+    }
+
+    private int columnAt(int line, double x) {
+        double textX = x - gutterWidth() - TEXT_PADDING + horizontalBar.getValue();
+        return clamp((int) Math.round(textX / charWidth), 0, document.getLine(line).length());
+    }
+
+    private int visibleLineCount() {
+        return Math.max(1, (int) (canvas.getHeight() / lineHeight) - 1);
+    }
+
+    private void setContextMenu() {
+        MenuItem undoItem = new MenuItem("Undo");
+        undoItem.setOnAction(e -> undo());
+        MenuItem redoItem = new MenuItem("Redo");
+        redoItem.setOnAction(e -> redo());
+        MenuItem cutItem = new MenuItem("Cut");
+        cutItem.setOnAction(e -> cut());
+        MenuItem copyItem = new MenuItem("Copy");
+        copyItem.setOnAction(e -> copy());
+        MenuItem pasteItem = new MenuItem("Paste");
+        pasteItem.setOnAction(e -> paste());
+        MenuItem selectAllItem = new MenuItem("Select All");
+        selectAllItem.setOnAction(e -> selectAll());
+        contextMenu.getItems().addAll(undoItem, redoItem, new SeparatorMenuItem(),
+                cutItem, copyItem, pasteItem, new SeparatorMenuItem(), selectAllItem);
+        setOnContextMenuRequested(e -> contextMenu.show(this, e.getScreenX(), e.getScreenY()));
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
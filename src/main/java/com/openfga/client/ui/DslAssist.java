@@ -0,0 +1,267 @@
+package com.openfga.client.ui;
+
+import com.openfga.client.dsl.SymbolIndex;
+import com.openfga.client.dsl.SymbolIndexer;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.geometry.Point2D;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuItem;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.util.Duration;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Completion and navigation for a {@link CodeEditor} holding DSL.
+ *
+ * A {@link SymbolIndex} is rebuilt on a background thread shortly after each edit; the
+ * {@link SymbolIndexer} re-parses only the declarations that changed. The actions read the
+ * index on the FX thread:
+ * <ul>
+ *   <li>Ctrl+Space completes type, relation and condition names and operators</li>
+ *   <li>F12 or Ctrl+click jumps to the definition of the name under the caret</li>
+ *   <li>Shift+F12 lists the usages of that name</li>
+ * </ul>
+ * If the text changed since the last index was built, an action first waits for a fresh
+ * one, so positions never come from an older version of the text.
+ */
+public class DslAssist {
+
+    private static final Duration INDEX_DELAY = Duration.millis(150);
+    private static final int MAX_ITEMS = 50;
+
+    private static final KeyCombination COMPLETE = new KeyCodeCombination(KeyCode.SPACE, KeyCombination.SHORTCUT_DOWN);
+    private static final KeyCombination DEFINITION = new KeyCodeCombination(KeyCode.F12);
+    private static final KeyCombination USAGES = new KeyCodeCombination(KeyCode.F12, KeyCombination.SHIFT_DOWN);
+
+    private final CodeEditor editor;
+    private final Consumer<String> messages;
+    private final ExecutorService worker =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("dsl-symbol-index").factory());
+    private final PauseTransition debounce = new PauseTransition(INDEX_DELAY);
+    private final ContextMenu popup = new ContextMenu();
+    private final Consumer<CodeDocument.Change> listener = change -> debounce.playFromStart();
+
+    // Owned by the worker thread
+    private final SymbolIndexer indexer = new SymbolIndexer();
+
+    // FX thread
+    private SymbolIndex index = SymbolIndex.empty();
+    private long indexedVersion = -1;
+
+    /**
+     * @param messages receives short notes, such as a name that is not defined
+     */
+    public DslAssist(CodeEditor editor, Consumer<String> messages) {
+        this.editor = editor;
+        this.messages = messages;
+
+        debounce.setOnFinished(e -> reindex(null));
+        editor.getDocument().addListener(listener);
+        reindex(null);
+
+        editor.addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+            if (COMPLETE.match(e)) {
+                withIndex(this::complete);
+            } else if (USAGES.match(e)) {
+                withIndex(this::findUsages);
+            } else if (DEFINITION.match(e)) {
+                withIndex(this::goToDefinition);
+            } else {
+                return;
+            }
+            e.consume();
+        });
+        editor.addEventFilter(MouseEvent.MOUSE_PRESSED, e -> {
+            if (e.getButton() != MouseButton.PRIMARY || !e.isShortcutDown()) return;
+            int offset = editor.offsetAt(e.getX(), e.getY());
+            CodeDocument document = editor.getDocument();
+            int line = document.lineOfOffset(offset);
+            editor.moveCaretTo(line + 1, offset - document.lineStart(line) + 1);
+            withIndex(this::goToDefinition);
+            e.consume();
+        });
+
+        // The shortcuts are handled above, so they are only named here, not installed as accelerators
+        MenuItem definitionItem = new MenuItem("Go to Definition (" + DEFINITION.getDisplayText() + ")");
+        definitionItem.setOnAction(e -> withIndex(this::goToDefinition));
+        MenuItem usagesItem = new MenuItem("Find Usages (" + USAGES.getDisplayText() + ")");
+        usagesItem.setOnAction(e -> withIndex(this::findUsages));
+        MenuItem completeItem = new MenuItem("Complete (" + COMPLETE.getDisplayText() + ")");
+        completeItem.setOnAction(e -> withIndex(this::complete));
+        editor.addContextMenuItems(definitionItem, usagesItem, completeItem);
+    }
+
+    /**
+     * Stop the background thread.
+     */
+    public void dispose() {
+        editor.getDocument().removeListener(listener);
+        debounce.stop();
+        worker.shutdownNow();
+    }
+
+    // ==================== Indexing ====================
+
+    /**
+     * Index the current text in the background, then run {@code then} on the FX thread if
+     * the text has not changed in the meantime.
+     */
+    private void reindex(Consumer<SymbolIndex> then) {
+        debounce.stop();
+        String text = editor.getText();
+        long version = editor.getDocument().getVersion();
+        worker.execute(() -> {
+            SymbolIndex built = indexer.update(text);
+            Platform.runLater(() -> {
+                if (version < indexedVersion) return;
+                index = built;
+                indexedVersion = version;
+                if (then != null && version == editor.getDocument().getVersion()) then.accept(built);
+            });
+        });
+    }
+
+    private void withIndex(Consumer<SymbolIndex> action) {
+        if (indexedVersion == editor.getDocument().getVersion()) {
+            action.accept(index);
+        } else {
+            reindex(action);
+        }
+    }
+
+    // ==================== Actions ====================
+
+    private void complete(SymbolIndex index) {
+        int line = editor.getCaretLine();
+        String text = editor.getDocument().getLine(line);
+        SymbolIndex.Completion completion = index.complete(text, editor.getCaretColumn(), enclosingType(line));
+        if (completion == null || completion.getCandidates().isEmpty()) return;
+
+        int start = editor.getDocument().offsetOf(line, completion.getStart());
+        int end = editor.getCaretOffset();
+        List<String> candidates = completion.getCandidates();
+        if (candidates.size() == 1) {
+            accept(start, end, candidates.get(0));
+            return;
+        }
+        popup.getItems().clear();
+        for (String candidate : candidates.subList(0, Math.min(MAX_ITEMS, candidates.size()))) {
+            MenuItem item = new MenuItem(candidate);
+            item.setMnemonicParsing(false);
+            item.setOnAction(e -> {
+                // Only insert if nothing was typed while the popup was open
+                if (editor.getCaretOffset() == end) accept(start, end, candidate);
+            });
+            popup.getItems().add(item);
+        }
+        showPopup();
+    }
+
+    private void accept(int start, int end, String candidate) {
+        editor.replace(start, end, candidate);
+        CodeDocument document = editor.getDocument();
+        int caret = start + candidate.length();
+        int line = document.lineOfOffset(caret);
+        editor.moveCaretTo(line + 1, caret - document.lineStart(line) + 1);
+    }
+
+    private void goToDefinition(SymbolIndex index) {
+        SymbolIndex.Occurrence occurrence = occurrenceAtCaret(index);
+        if (occurrence == null) return;
+        SymbolIndex.Symbol symbol = occurrence.getSymbol();
+        List<SymbolIndex.Occurrence> definitions = symbol.getDefinitions();
+        if (definitions.isEmpty()) {
+            messages.accept("'" + symbol + "' is not defined");
+            return;
+        }
+        // On a definition already, cycle to the next one (e.g. an 'extend type')
+        int next = (definitions.indexOf(occurrence) + 1) % definitions.size();
+        SymbolIndex.Occurrence target = definitions.get(next);
+        editor.moveCaretTo(target.getLine(), target.getColumn());
+    }
+
+    private void findUsages(SymbolIndex index) {
+        SymbolIndex.Occurrence occurrence = occurrenceAtCaret(index);
+        if (occurrence == null) return;
+        SymbolIndex.Symbol symbol = occurrence.getSymbol();
+        List<SymbolIndex.Occurrence> usages = symbol.getUsages();
+        if (usages.isEmpty()) {
+            messages.accept("'" + symbol + "' is not used");
+            return;
+        }
+
+        popup.getItems().clear();
+        MenuItem header = new MenuItem(usages.size() + " usage(s) of " + symbol);
+        header.setMnemonicParsing(false);
+        header.setDisable(true);
+        popup.getItems().add(header);
+        CodeDocument document = editor.getDocument();
+        for (SymbolIndex.Occurrence usage : usages.subList(0, Math.min(MAX_ITEMS, usages.size()))) {
+            String text = usage.getLine() <= document.getLineCount() ? document.getLine(usage.getLine() - 1).strip() : "";
+            MenuItem item = new MenuItem(usage.getLine() + ": " + text);
+            item.setMnemonicParsing(false);
+            item.setOnAction(e -> editor.moveCaretTo(usage.getLine(), usage.getColumn()));
+            popup.getItems().add(item);
+        }
+        if (usages.size() > MAX_ITEMS) {
+            MenuItem more = new MenuItem("... " + (usages.size() - MAX_ITEMS) + " more");
+            more.setDisable(true);
+            popup.getItems().add(more);
+        }
+        showPopup();
+    }
+
+    // ==================== Helpers ====================
+
+    private SymbolIndex.Occurrence occurrenceAtCaret(SymbolIndex index) {
+        List<SymbolIndex.Occurrence> occurrences =
+                index.occurrencesAt(editor.getCaretLine() + 1, editor.getCaretColumn() + 1);
+        if (occurrences.isEmpty()) {
+            messages.accept("No type, relation or condition at the caret");
+            return null;
+        }
+        return occurrences.get(0);
+    }
+
+    /**
+     * The type whose relations {@code line} is among: the nearest {@code type} or
+     * {@code extend type} above it, or null if a condition or the header comes first.
+     */
+    private String enclosingType(int line) {
+        CodeDocument document = editor.getDocument();
+        for (int i = line; i >= 0; i--) {
+            String[] words = document.getLine(i).strip().split("\\s+");
+            switch (words[0]) {
+                case "type" -> {
+                    return words.length > 1 ? words[1] : null;
+                }
+                case "extend" -> {
+                    return words.length > 2 ? words[2] : null;
+                }
+                case "condition", "model", "module" -> {
+                    return null;
+                }
+                default -> {
+                    // Keep looking upwards
+                }
+            }
+        }
+        return null;
+    }
+
+    private void showPopup() {
+        Point2D position = editor.getCaretScreenPosition();
+        if (position == null) return;
+        popup.show(editor, position.getX(), position.getY());
+    }
+}
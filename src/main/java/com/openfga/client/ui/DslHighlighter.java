@@ -0,0 +1,182 @@
+package com.openfga.client.ui;
+
+import com.openfga.client.dsl.DslLexer;
+import javafx.application.Platform;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Syntax highlighting for a {@link CodeEditor} holding DSL.
+ *
+ * Edits are handed to a background thread, which keeps its own copy of the lines and the
+ * {@link DslLexer} state at the end of each line. It re-lexes from the first edited line
+ * and stops at the first line after the edit whose end state did not change, so typing
+ * re-lexes one line and only opening or closing a condition body reaches further. The FX
+ * thread only records the edit and, when painting, reads the styles of the visible lines.
+ *
+ * Until the background thread has caught up, lines are mapped back through the edits it
+ * has not seen yet, so text below an edit keeps its colors instead of flickering.
+ */
+public final class DslHighlighter implements CodeEditor.LineStyler {
+
+    private static final Map<DslLexer.Style, Color> COLORS = new EnumMap<>(Map.of(
+            DslLexer.Style.KEYWORD, Color.web("#7b1fa2"),
+            DslLexer.Style.TYPE, Color.web("#1565c0"),
+            DslLexer.Style.RELATION, Color.web("#00695c"),
+            DslLexer.Style.CONDITION, Color.web("#ad1457"),
+            DslLexer.Style.COMMENT, Color.web("#8a8a8a"),
+            DslLexer.Style.STRING, Color.web("#2e7d32"),
+            DslLexer.Style.NUMBER, Color.web("#e65100"),
+            DslLexer.Style.EXPRESSION, Color.web("#37474f")));
+
+    private final CodeEditor editor;
+    private final Consumer<CodeDocument.Change> listener = this::changed;
+    private final ExecutorService worker =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("dsl-highlighter").factory());
+
+    // Owned by the worker thread
+    private final DslLexer lexer = new DslLexer();
+    private final List<String> lines = new ArrayList<>();
+    private int[] endStates = new int[16];
+
+    // Written by the worker, read when painting; guarded by this
+    private final List<int[]> styles = new ArrayList<>();
+    private long styledVersion;
+
+    // FX thread: edits the worker has not finished yet, oldest first
+    private final Deque<Pending> pending = new ArrayDeque<>();
+
+    private static class Pending {
+        final long version;
+        final int startLine;
+        final int removedLines;
+        final int insertedLines;
+
+        Pending(long version, int startLine, int removedLines, int insertedLines) {
+            this.version = version;
+            this.startLine = startLine;
+            this.removedLines = removedLines;
+            this.insertedLines = insertedLines;
+        }
+    }
+
+    public DslHighlighter(CodeEditor editor) {
+        this.editor = editor;
+        CodeDocument document = editor.getDocument();
+
+        // Start from the current text as if it had just been inserted
+        List<String> initial = new ArrayList<>(document.getLineCount());
+        for (int i = 0; i < document.getLineCount(); i++) initial.add(document.getLine(i));
+        long version = document.getVersion();
+        pending.add(new Pending(version, 0, 0, initial.size()));
+        worker.execute(() -> update(version, 0, 0, initial));
+
+        document.addListener(listener);
+        editor.setLineStyler(this);
+    }
+
+    /**
+     * Stop the background thread; the editor keeps the last styles it was given.
+     */
+    public void dispose() {
+        editor.getDocument().removeListener(listener);
+        worker.shutdownNow();
+    }
+
+    private void changed(CodeDocument.Change change) {
+        CodeDocument document = editor.getDocument();
+        // Only the replaced lines are copied; the strings themselves are shared
+        List<String> inserted = new ArrayList<>(change.getInsertedLines());
+        for (int i = 0; i < change.getInsertedLines(); i++) {
+            inserted.add(document.getLine(change.getStartLine() + i));
+        }
+        long version = document.getVersion();
+        pending.add(new Pending(version, change.getStartLine(), change.getRemovedLines(), change.getInsertedLines()));
+        worker.execute(() -> update(version, change.getStartLine(), change.getRemovedLines(), inserted));
+    }
+
+    // ==================== Worker ====================
+
+    private void update(long version, int startLine, int removedLines, List<String> inserted) {
+        // Splice the lines and end states the same way the document was edited
+        int oldCount = lines.size();
+        int delta = inserted.size() - removedLines;
+        int[] states = endStates;
+        if (oldCount + delta > states.length) {
+            states = Arrays.copyOf(states, Math.max(oldCount + delta, states.length * 2));
+        }
+        System.arraycopy(endStates, startLine + removedLines, states, startLine + inserted.size(),
+                oldCount - startLine - removedLines);
+        endStates = states;
+        lines.subList(startLine, startLine + removedLines).clear();
+        lines.addAll(startLine, inserted);
+
+        // Re-lex the edited lines, then onward until a line ends in its old state
+        List<int[]> spans = new ArrayList<>();
+        int line = startLine;
+        while (line < lines.size()) {
+            int before = line == 0 ? DslLexer.NORMAL : endStates[line - 1];
+            spans.add(lexer.lex(lines.get(line), before));
+            boolean edited = line < startLine + inserted.size();
+            boolean unchanged = !edited && endStates[line] == lexer.getState();
+            endStates[line] = lexer.getState();
+            line++;
+            if (unchanged) break;
+        }
+
+        synchronized (this) {
+            styles.subList(startLine, startLine + removedLines).clear();
+            styles.addAll(startLine, Collections.nCopies(inserted.size(), (int[]) null));
+            for (int i = 0; i < spans.size(); i++) {
+                styles.set(startLine + i, spans.get(i));
+            }
+            styledVersion = version;
+        }
+        Platform.runLater(editor::repaint);
+    }
+
+    // ==================== Painting ====================
+
+    @Override
+    public int[] spans(int line) {
+        long styled;
+        synchronized (this) {
+            styled = styledVersion;
+        }
+        while (!pending.isEmpty() && pending.peekFirst().version <= styled) {
+            pending.removeFirst();
+        }
+
+        // Map the line back through the edits the worker has not applied yet
+        int mapped = line;
+        for (var it = pending.descendingIterator(); it.hasNext(); ) {
+            Pending edit = it.next();
+            if (mapped >= edit.startLine + edit.insertedLines) {
+                mapped -= edit.insertedLines - edit.removedLines;
+            } else if (mapped >= edit.startLine + edit.removedLines) {
+                // A new line the worker has not lexed yet
+                return null;
+            }
+            // Otherwise an edited line keeps the styles of the line it replaced, clipped when painted
+        }
+        synchronized (this) {
+            return mapped < styles.size() ? styles.get(mapped) : null;
+        }
+    }
+
+    @Override
+    public Color color(int style) {
+        return COLORS.get(DslLexer.style(style));
+    }
+}
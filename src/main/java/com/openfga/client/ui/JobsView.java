@@ -0,0 +1,121 @@
+package com.openfga.client.ui;
+
+import com.openfga.client.service.JobManager;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.util.function.Function;
+
+/**
+ * Table of the jobs known to a {@link JobManager}.
+ *
+ * A timer polls the manager a few times per second: the row list is rebuilt only when jobs
+ * were added or changed state, otherwise the visible rows are just repainted to advance
+ * elapsed time, progress and throughput.
+ */
+public final class JobsView extends VBox {
+
+    private final JobManager jobManager;
+    private final ObservableList<JobManager.Job> rows = FXCollections.observableArrayList();
+    private final TableView<JobManager.Job> table = new TableView<>(rows);
+    private final Label summaryLabel = new Label();
+    private long shownVersion = -1;
+
+    public JobsView(JobManager jobManager) {
+        super(10);
+        this.jobManager = jobManager;
+        setPadding(new Insets(15));
+
+        table.getColumns().add(column("#", 50, job -> String.valueOf(job.getId())));
+        table.getColumns().add(column("Job", 320, JobManager.Job::getName));
+        table.getColumns().add(column("Category", 80, job -> job.getCategory().toString()));
+        table.getColumns().add(column("State", 90, job -> job.getState().toString()));
+        table.getColumns().add(column("Progress", 120, JobsView::formatProgress));
+        table.getColumns().add(column("Elapsed", 80, job -> formatMillis(job.getElapsedMillis())));
+        table.getColumns().add(column("Throughput", 100, job ->
+                job.getDone() > 0 ? String.format("%.1f/s", job.getThroughput()) : ""));
+        table.getColumns().add(column("Error", 300, job ->
+                job.getError() != null ? String.valueOf(job.getError().getMessage()) : ""));
+        table.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        table.setPlaceholder(new Label("No jobs yet"));
+        VBox.setVgrow(table, Priority.ALWAYS);
+
+        Button cancelBtn = new Button("Cancel Selected");
+        cancelBtn.setOnAction(e -> table.getSelectionModel().getSelectedItems().forEach(JobManager.Job::cancel));
+
+        Button cancelAllBtn = new Button("Cancel All");
+        cancelAllBtn.setOnAction(e -> jobManager.cancelAll());
+
+        Button clearBtn = new Button("Clear Finished");
+        clearBtn.setOnAction(e -> jobManager.clearFinished());
+
+        HBox buttons = new HBox(10, cancelBtn, cancelAllBtn, clearBtn, summaryLabel);
+        buttons.setAlignment(Pos.CENTER_LEFT);
+
+        Label limitsLabel = new Label(limitsText());
+        limitsLabel.setStyle("-fx-text-fill: #666;");
+
+        getChildren().addAll(buttons, limitsLabel, table);
+
+        Timeline refresh = new Timeline(new KeyFrame(Duration.millis(250), e -> refresh()));
+        refresh.setCycleCount(Animation.INDEFINITE);
+        refresh.play();
+    }
+
+    private void refresh() {
+        long version = jobManager.getVersion();
+        if (version != shownVersion) {
+            shownVersion = version;
+            rows.setAll(jobManager.getJobs());
+
+            long queued = rows.stream().filter(j -> j.getState() == JobManager.State.QUEUED).count();
+            long running = rows.stream().filter(j -> j.getState() == JobManager.State.RUNNING).count();
+            summaryLabel.setText(running + " running, " + queued + " queued");
+        } else if (rows.stream().anyMatch(j -> !j.getState().isFinished())) {
+            table.refresh();
+        }
+    }
+
+    private static TableColumn<JobManager.Job, String> column(String title, double width,
+                                                              Function<JobManager.Job, String> value) {
+        TableColumn<JobManager.Job, String> column = new TableColumn<>(title);
+        column.setPrefWidth(width);
+        column.setCellValueFactory(cell -> new ReadOnlyStringWrapper(value.apply(cell.getValue())));
+        return column;
+    }
+
+    private static String formatProgress(JobManager.Job job) {
+        if (job.getTotal() > 0) {
+            return job.getDone() + " / " + job.getTotal()
+                    + String.format(" (%d%%)", job.getDone() * 100 / job.getTotal());
+        }
+        return job.getDone() > 0 ? String.valueOf(job.getDone()) : "";
+    }
+
+    private static String formatMillis(long millis) {
+        return millis < 10_000 ? millis + " ms" : String.format("%.1f s", millis / 1000.0);
+    }
+
+    private static String limitsText() {
+        StringBuilder sb = new StringBuilder("Concurrent jobs per category:");
+        for (JobManager.Category category : JobManager.Category.values()) {
+            sb.append("  ").append(category).append(" ").append(category.getLimit());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,166 @@
+package com.openfga.client.ui;
+
+import com.openfga.client.service.LogBuffer;
+import javafx.animation.AnimationTimer;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Output panel showing a {@link LogBuffer} in a virtualized list.
+ *
+ * Writers never touch the FX thread: an {@link AnimationTimer} drains whatever arrived since
+ * the previous frame and adds it as one batch. The list keeps at most as many lines as the
+ * buffer holds, dropping the oldest first.
+ */
+public final class LogView extends VBox {
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final LogBuffer buffer;
+    private final Path spillFile;
+    private final ObservableList<LogBuffer.Entry> lines = FXCollections.observableArrayList();
+    private final FilteredList<LogBuffer.Entry> visibleLines = new FilteredList<>(lines);
+    private final ListView<LogBuffer.Entry> listView = new ListView<>(visibleLines);
+    private final ComboBox<String> levelBox = new ComboBox<>();
+    private final CheckBox spillBox = new CheckBox("Spill to file");
+    private final List<LogBuffer.Entry> batch = new ArrayList<>();
+    private long cursor;
+
+    private final AnimationTimer flushTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flush();
+        }
+    };
+
+    public LogView(LogBuffer buffer, Path spillFile) {
+        super(5);
+        this.buffer = buffer;
+        this.spillFile = spillFile;
+
+        Label outputLabel = new Label("Output / Logs:");
+        outputLabel.setStyle("-fx-font-weight: bold;");
+
+        levelBox.getItems().addAll("All", "Warnings and errors", "Errors only");
+        levelBox.setValue("All");
+        levelBox.setOnAction(e -> applyLevelFilter());
+
+        spillBox.setOnAction(e -> toggleSpill());
+
+        Button clearBtn = new Button("Clear");
+        clearBtn.setOnAction(e -> lines.clear());
+
+        HBox header = new HBox(10, outputLabel, new Label("Level:"), levelBox, spillBox, clearBtn);
+        header.setAlignment(Pos.CENTER_LEFT);
+
+        listView.setStyle("-fx-font-family: monospace; -fx-font-size: 12px;");
+        listView.setPrefHeight(150);
+        listView.setCellFactory(list -> new LogCell());
+        VBox.setVgrow(listView, Priority.ALWAYS);
+
+        getChildren().addAll(header, listView);
+        flushTimer.start();
+    }
+
+    /**
+     * Add everything appended since the last frame in one list change.
+     */
+    private void flush() {
+        batch.clear();
+        cursor = buffer.drain(cursor, batch::add);
+        if (batch.isEmpty()) return;
+
+        // Only follow the tail when the last line was already in view
+        boolean atBottom = isShowingLastLine();
+
+        int overflow = lines.size() + batch.size() - buffer.getCapacity();
+        if (overflow >= lines.size()) {
+            lines.setAll(batch.subList(Math.max(0, batch.size() - buffer.getCapacity()), batch.size()));
+        } else {
+            if (overflow > 0) lines.remove(0, overflow);
+            lines.addAll(batch);
+        }
+
+        if (atBottom && !visibleLines.isEmpty()) {
+            listView.scrollTo(visibleLines.size() - 1);
+        }
+    }
+
+    private boolean isShowingLastLine() {
+        if (visibleLines.isEmpty()) return true;
+        var skin = listView.lookup(".virtual-flow");
+        if (skin instanceof javafx.scene.control.skin.VirtualFlow<?> flow) {
+            var last = flow.getLastVisibleCell();
+            return last == null || last.getIndex() >= visibleLines.size() - 1;
+        }
+        return true;
+    }
+
+    private void applyLevelFilter() {
+        String value = levelBox.getValue();
+        if ("Errors only".equals(value)) {
+            visibleLines.setPredicate(entry -> entry.getLevel() == LogBuffer.Level.ERROR);
+        } else if ("Warnings and errors".equals(value)) {
+            visibleLines.setPredicate(entry -> entry.getLevel() != LogBuffer.Level.INFO);
+        } else {
+            visibleLines.setPredicate(null);
+        }
+    }
+
+    private void toggleSpill() {
+        if (!spillBox.isSelected()) {
+            buffer.stopSpill();
+            buffer.append("Stopped spilling log to " + spillFile);
+            return;
+        }
+        try {
+            buffer.startSpill(spillFile);
+            buffer.append("Spilling log to " + spillFile);
+        } catch (Exception e) {
+            spillBox.setSelected(false);
+            buffer.append("ERROR: Cannot open log file " + spillFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stop the frame timer and close the spill file.
+     */
+    public void dispose() {
+        flushTimer.stop();
+        buffer.stopSpill();
+    }
+
+    private static class LogCell extends ListCell<LogBuffer.Entry> {
+        @Override
+        protected void updateItem(LogBuffer.Entry entry, boolean empty) {
+            super.updateItem(entry, empty);
+            if (empty || entry == null) {
+                setText(null);
+                setStyle("");
+                return;
+            }
+            setText("[" + TIME.format(entry.getTime()) + "] " + entry.getMessage());
+            setStyle(switch (entry.getLevel()) {
+                case ERROR -> "-fx-text-fill: #c62828;";
+                case WARN -> "-fx-text-fill: #e65100;";
+                default -> "";
+            });
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.openfga.client.ui;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Query result panel backed by a virtualized {@link ListView}: only visible rows are laid out,
+ * so the UI cost does not grow with the result size.
+ *
+ * Rows can be filtered as you type. When the new filter extends the previous one, only the
+ * current matches are re-scanned. Results can be appended page by page through the
+ * "Load More" button, and the filtered rows can be copied as JSON.
+ */
+public final class ResultListView extends VBox {
+
+    private final Label summaryLabel = new Label();
+    private final Label countLabel = new Label();
+    private final TextField filterField = new TextField();
+    private final Button loadMoreButton = new Button("Load More");
+    private final ListView<Row> listView = new ListView<>();
+    private final ObservableList<Row> visibleRows = FXCollections.observableArrayList();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<Row> allRows = new ArrayList<>();
+    private List<Row> matchingRows = allRows;
+    private String lastFilter = "";
+    private JsonNode rawJson;
+    private Runnable loadMoreAction;
+    // Bumped whenever the results are replaced, so pages requested for older results can be dropped
+    private long generation;
+
+    public ResultListView() {
+        super(5);
+
+        summaryLabel.setStyle("-fx-font-family: monospace; -fx-font-size: 11px;");
+        summaryLabel.setWrapText(true);
+
+        filterField.setPromptText("Filter results...");
+        HBox.setHgrow(filterField, Priority.ALWAYS);
+        filterField.textProperty().addListener((obs, oldVal, newVal) -> applyFilter(newVal));
+
+        Button copyButton = new Button("Copy as JSON");
+        copyButton.setOnAction(e -> copyAsJson());
+
+        loadMoreButton.setVisible(false);
+        loadMoreButton.setManaged(false);
+        loadMoreButton.setOnAction(e -> {
+            loadMoreButton.setDisable(true);
+            if (loadMoreAction != null) loadMoreAction.run();
+        });
+
+        HBox toolbar = new HBox(10, filterField, countLabel, loadMoreButton, copyButton);
+        toolbar.setAlignment(Pos.CENTER_LEFT);
+
+        listView.setItems(visibleRows);
+        listView.setStyle("-fx-font-family: monospace; -fx-font-size: 11px;");
+        listView.setPlaceholder(new Label("Query results will appear here..."));
+        listView.setPrefHeight(300);
+        VBox.setVgrow(listView, Priority.ALWAYS);
+
+        getChildren().addAll(summaryLabel, toolbar, listView);
+    }
+
+    /**
+     * Replace the current results. {@code raw} is the full response, used for Copy as JSON
+     * when no filter is active.
+     */
+    public void setResults(String summary, List<Row> rows, JsonNode raw) {
+        generation++;
+        summaryLabel.setText(summary);
+        allRows = new ArrayList<>(rows);
+        rawJson = raw;
+        setLoadMore(null);
+        lastFilter = "";
+        matchingRows = allRows;
+        applyFilter(filterField.getText());
+    }
+
+    /**
+     * Identifies the current results; changes each time {@link #setResults} replaces them. A page
+     * requested through "Load More" should only be appended if this has not changed since.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Append another page of rows, keeping the current filter.
+     */
+    public void appendResults(String summary, List<Row> rows) {
+        summaryLabel.setText(summary);
+        allRows.addAll(rows);
+        rawJson = null;
+
+        String filter = normalize(filterField.getText());
+        List<Row> newMatches = filter.isEmpty() ? rows : filterRows(rows, filter);
+        if (matchingRows != allRows) {
+            matchingRows.addAll(newMatches);
+        }
+        visibleRows.addAll(newMatches);
+        updateCount();
+    }
+
+    /**
+     * Show a "Load More" button running {@code action}, or hide it when {@code action} is null.
+     */
+    public void setLoadMore(Runnable action) {
+        loadMoreAction = action;
+        loadMoreButton.setDisable(false);
+        loadMoreButton.setVisible(action != null);
+        loadMoreButton.setManaged(action != null);
+    }
+
+    private void applyFilter(String text) {
+        String filter = normalize(text);
+
+        // Narrowing the filter can only drop rows, so scan the current matches instead of everything
+        List<Row> source = !lastFilter.isEmpty() && filter.startsWith(lastFilter) ? matchingRows : allRows;
+        matchingRows = filter.isEmpty() ? allRows : filterRows(source, filter);
+        lastFilter = filter;
+
+        visibleRows.setAll(matchingRows);
+        updateCount();
+    }
+
+    private List<Row> filterRows(List<Row> rows, String filter) {
+        List<Row> matches = new ArrayList<>();
+        for (Row row : rows) {
+            if (row.searchText.contains(filter)) matches.add(row);
+        }
+        return matches;
+    }
+
+    private void updateCount() {
+        countLabel.setText(visibleRows.size() == allRows.size()
+                ? allRows.size() + " row(s)"
+                : visibleRows.size() + " of " + allRows.size() + " row(s)");
+    }
+
+    private void copyAsJson() {
+        String json;
+        try {
+            if (lastFilter.isEmpty() && rawJson != null) {
+                json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(rawJson);
+            } else {
+                ArrayNode array = objectMapper.createArrayNode();
+                for (Row row : matchingRows) {
+                    if (row.json != null) array.add(row.json);
+                    else array.add(row.text);
+                }
+                json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(array);
+            }
+        } catch (Exception e) {
+            json = "";
+        }
+
+        ClipboardContent content = new ClipboardContent();
+        content.putString(json);
+        Clipboard.getSystemClipboard().setContent(content);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One result row: display text plus the JSON it came from (may be null).
+     */
+    public static class Row {
+        private final String text;
+        private final JsonNode json;
+        private final String searchText;
+
+        public Row(String text, JsonNode json) {
+            this.text = text;
+            this.json = json;
+            this.searchText = text.toLowerCase(Locale.ROOT);
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public JsonNode getJson() {
+            return json;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
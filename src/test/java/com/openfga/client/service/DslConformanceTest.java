@@ -0,0 +1,96 @@
+package com.openfga.client.service;
+
+import com.openfga.client.dsl.DslCompiler;
+import com.openfga.client.dsl.DslException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks the built-in DSL compiler against the models in {@code dsl-conformance}, and against
+ * the fga CLI when it is installed. Models named {@code invalid-*} must be rejected.
+ */
+class DslConformanceTest {
+
+    private static final List<String> CORPUS = List.of(
+            "basic.fga", "usersets-and-wildcards.fga", "tuple-to-userset.fga",
+            "intersection-and-exclusion.fga", "conditions.fga",
+            "invalid-relation-cycle.fga", "invalid-no-entrypoint.fga");
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    void builtInCompilerAcceptsValidModels() throws IOException {
+        DslCompiler compiler = new DslCompiler();
+        for (Map.Entry<String, String> model : corpus().entrySet()) {
+            if (model.getKey().startsWith("invalid-")) continue;
+            try {
+                compiler.compile(model.getValue());
+            } catch (DslException e) {
+                throw new AssertionError(model.getKey() + " was rejected: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    @Test
+    void builtInCompilerRejectsInvalidModels() throws IOException {
+        DslCompiler compiler = new DslCompiler();
+        for (Map.Entry<String, String> model : corpus().entrySet()) {
+            if (!model.getKey().startsWith("invalid-")) continue;
+            assertThrows(DslException.class, () -> compiler.compile(model.getValue()), model.getKey());
+        }
+    }
+
+    @Test
+    void relationCycleHasNoEntrypoint() {
+        String dsl = "model\n  schema 1.1\n\ntype user\n\ntype document\n  relations\n"
+                + "    define a: b\n    define b: a\n";
+        DslException e = assertThrows(DslException.class, () -> new DslCompiler().compile(dsl));
+        assertEquals(2, e.getDiagnostics().size(), e.getMessage());
+    }
+
+    @Test
+    void cycleWithAnEntrypointIsAllowed() throws DslException {
+        String dsl = "model\n  schema 1.1\n\ntype user\n\ntype folder\n  relations\n"
+                + "    define parent: [folder]\n    define viewer: [user] or editor or viewer from parent\n"
+                + "    define editor: viewer\n";
+        new DslCompiler().compile(dsl);
+    }
+
+    @Test
+    void matchesCli() throws IOException {
+        DslTransformService service = new DslTransformService(new DslResultCache(cacheDir, 8), null);
+        assumeTrue(service.isCliAvailable(), "fga CLI is not installed");
+
+        List<String> report = service.checkConformance(corpus());
+        assertEquals(CORPUS.size(), report.size());
+        for (String line : report) {
+            assertTrue(line.contains(": OK"), line);
+        }
+    }
+
+    private static Map<String, String> corpus() throws IOException {
+        Map<String, String> models = new LinkedHashMap<>();
+        for (String name : CORPUS) {
+            try (InputStream in = DslConformanceTest.class.getResourceAsStream("/dsl-conformance/" + name)) {
+                assertNotNull(in, "missing conformance model " + name);
+                models.put(name, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return models;
+    }
+}